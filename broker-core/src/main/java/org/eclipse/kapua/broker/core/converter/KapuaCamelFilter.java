@@ -12,12 +12,16 @@
 package org.eclipse.kapua.broker.core.converter;
 
 import org.apache.camel.Exchange;
-import org.apache.commons.lang.SerializationException;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.shiro.util.ThreadContext;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.core.listener.AbstractListener;
+import org.eclipse.kapua.broker.core.message.KapuaHeaderCodec;
+import org.eclipse.kapua.broker.core.message.KapuaHeaderCodec.SessionHeader;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
+import org.eclipse.kapua.broker.core.setting.BrokerSetting;
+import org.eclipse.kapua.broker.core.setting.BrokerSettingKey;
+import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.slf4j.Logger;
@@ -32,6 +36,14 @@ public class KapuaCamelFilter extends AbstractListener {
 
     private static final Logger logger = LoggerFactory.getLogger(KapuaCamelFilter.class);
 
+    /**
+     * Sessions already restored, keyed by the session header value (the header is computed once per connection so it can be used as connection session token)
+     */
+    private static final LocalCache<String, KapuaSession> SESSION_CACHE = new LocalCache<>(
+            BrokerSetting.getInstance().getInt(BrokerSettingKey.SESSION_HEADER_CACHE_SIZE_MAX),
+            BrokerSetting.getInstance().getInt(BrokerSettingKey.SESSION_HEADER_CACHE_EXPIRE_AFTER),
+            null);
+
     public KapuaCamelFilter() {
         super("filter");
     }
@@ -48,9 +60,22 @@ public class KapuaCamelFilter extends AbstractListener {
         if (!exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, boolean.class)) {
             try {
                 // FIX #164
-                KapuaSecurityUtils
-                        .setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class))));
-            } catch (IllegalArgumentException | SerializationException e) {
+                String sessionHeaderValue = exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class);
+                KapuaSession kapuaSession = sessionHeaderValue != null ? SESSION_CACHE.get(sessionHeaderValue) : null;
+                if (kapuaSession != null) {
+                    KapuaSecurityUtils.setSession(kapuaSession);
+                } else {
+                    SessionHeader sessionHeader = KapuaHeaderCodec.decodeSession(sessionHeaderValue);
+                    if (sessionHeader.isTrustedMode()) {
+                        // binds the trusted session to the current thread
+                        kapuaSession = KapuaSession.createFrom(sessionHeader.getScopeId(), sessionHeader.getUserId());
+                    } else {
+                        kapuaSession = new KapuaSession(null, sessionHeader.getScopeId(), sessionHeader.getUserId());
+                        KapuaSecurityUtils.setSession(kapuaSession);
+                    }
+                    SESSION_CACHE.put(sessionHeaderValue, kapuaSession);
+                }
+            } catch (IllegalArgumentException e) {
                 // continue without session
                 logger.debug("Cannot restore Kapua session: {}", e.getMessage(), e);
             }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.message;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Compact codec for the Kapua headers attached by the broker to each published message.<br>
+ * Replaces the Java serialization (+ Base64) of the connection id, the connector descriptor and the {@link KapuaSession}:
+ * <ul>
+ * <li>the connection id is encoded as its compact id ({@link KapuaId#toCompactId()})</li>
+ * <li>the connector descriptor is referenced by its connector name (resolved again through the connector descriptor providers)</li>
+ * <li>the session is encoded with a fixed binary layout: version, flags, scope id and user id</li>
+ * </ul>
+ * All the values are meant to be computed once per connection and decoded without any {@link java.io.ObjectInputStream}.
+ *
+ * @since 1.1.0
+ */
+public final class KapuaHeaderCodec {
+
+    private static final byte SESSION_LAYOUT_VERSION = 1;
+
+    private static final byte FLAG_TRUSTED = 0x01;
+    private static final byte FLAG_SCOPE_ID = 0x02;
+    private static final byte FLAG_USER_ID = 0x04;
+
+    private static final String EMPTY = "";
+
+    private KapuaHeaderCodec() {
+    }
+
+    /**
+     * Encode the {@link KapuaId} as header value
+     *
+     * @param kapuaId
+     * @return the encoded value (empty string if the id is null)
+     */
+    public static String encodeKapuaId(KapuaId kapuaId) {
+        return kapuaId != null ? kapuaId.toCompactId() : EMPTY;
+    }
+
+    /**
+     * Decode the {@link KapuaId} from the header value
+     *
+     * @param header
+     * @return the decoded id (null if the header is null or empty)
+     * @throws IllegalArgumentException if the header is not a valid encoded id
+     */
+    public static KapuaId decodeKapuaId(String header) {
+        return header != null && !header.isEmpty() ? KapuaEid.parseCompactId(header) : null;
+    }
+
+    /**
+     * Encode the {@link KapuaSession} as header value
+     *
+     * @param kapuaSession
+     * @return the encoded session
+     */
+    public static String encodeSession(KapuaSession kapuaSession) {
+        byte[] scopeId = toBytes(kapuaSession.getScopeId());
+        byte[] userId = toBytes(kapuaSession.getUserId());
+        byte flags = 0;
+        if (kapuaSession.isTrustedMode()) {
+            flags |= FLAG_TRUSTED;
+        }
+        if (scopeId != null) {
+            flags |= FLAG_SCOPE_ID;
+        }
+        if (userId != null) {
+            flags |= FLAG_USER_ID;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + length(scopeId) + length(userId));
+        buffer.put(SESSION_LAYOUT_VERSION);
+        buffer.put(flags);
+        put(buffer, scopeId);
+        put(buffer, userId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode the session header value
+     *
+     * @param header
+     * @return the decoded session information
+     * @throws IllegalArgumentException if the header is null or not a valid encoded session
+     */
+    public static SessionHeader decodeSession(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Session header cannot be null!");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(header));
+        try {
+            byte version = buffer.get();
+            if (version != SESSION_LAYOUT_VERSION) {
+                throw new IllegalArgumentException(String.format("Unsupported session header version '%d'", version));
+            }
+            byte flags = buffer.get();
+            KapuaId scopeId = (flags & FLAG_SCOPE_ID) != 0 ? get(buffer) : null;
+            KapuaId userId = (flags & FLAG_USER_ID) != 0 ? get(buffer) : null;
+            return new SessionHeader(scopeId, userId, (flags & FLAG_TRUSTED) != 0);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed session header", e);
+        }
+    }
+
+    private static byte[] toBytes(KapuaId kapuaId) {
+        return kapuaId != null ? kapuaId.getId().toByteArray() : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? 1 + value.length : 0;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value != null) {
+            buffer.put((byte) value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static KapuaId get(ByteBuffer buffer) {
+        byte[] value = new byte[buffer.get() & 0xFF];
+        buffer.get(value);
+        return new KapuaEid(new BigInteger(value));
+    }
+
+    /**
+     * Session information carried by the session header
+     *
+     * @since 1.1.0
+     */
+    public static final class SessionHeader {
+
+        private final KapuaId scopeId;
+        private final KapuaId userId;
+        private final boolean trustedMode;
+
+        private SessionHeader(KapuaId scopeId, KapuaId userId, boolean trustedMode) {
+            this.scopeId = scopeId;
+            this.userId = userId;
+            this.trustedMode = trustedMode;
+        }
+
+        public KapuaId getScopeId() {
+            return scopeId;
+        }
+
+        public KapuaId getUserId() {
+            return userId;
+        }
+
+        public boolean isTrustedMode() {
+            return trustedMode;
+        }
+    }
+
+}
@@ -45,6 +45,7 @@ public class KapuaConnectionContext {
     private String connectionId;
     private String oldConnectionId;
     private KapuaId kapuaConnectionId;
+    private String connectorName;
     private ConnectorDescriptor connectorDescriptor;
     private boolean[] hasPermissions;
     private String brokerIpOrHostName;
@@ -89,6 +90,7 @@ public class KapuaConnectionContext {
         this.scopeId = scopeId;
         this.userId = userId;
         this.brokerIpOrHostName = brokerIpOrHostName;
+        this.connectorName = connectorName;
         connectorDescriptor = ConnectorDescriptorProviders.getDescriptor(connectorName);
         if (connectorDescriptor == null) {
             throw new IllegalStateException(String.format("Unable to find connector descriptor for connector '%s'", connectorName));
@@ -168,6 +170,10 @@ public class KapuaConnectionContext {
         return oldConnectionId;
     }
 
+    public String getConnectorName() {
+        return connectorName;
+    }
+
     public ConnectorDescriptor getConnectorDescriptor() {
         return connectorDescriptor;
     }
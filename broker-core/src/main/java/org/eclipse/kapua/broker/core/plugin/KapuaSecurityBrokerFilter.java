@@ -31,7 +31,6 @@ import org.apache.activemq.filter.DestinationMapEntry;
 import org.apache.activemq.security.AuthorizationEntry;
 import org.apache.activemq.security.DefaultAuthorizationMap;
 import org.apache.activemq.security.SecurityContext;
-import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shiro.ShiroException;
 import org.apache.shiro.authc.AuthenticationException;
@@ -43,17 +42,21 @@ import org.eclipse.kapua.KapuaRuntimeException;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
 import org.eclipse.kapua.broker.core.plugin.authentication.Authenticator;
 import org.eclipse.kapua.broker.core.plugin.authentication.DefaultAuthenticator;
+import org.eclipse.kapua.broker.core.plugin.authentication.DeviceConnectionStatusWriter;
 import org.eclipse.kapua.broker.core.plugin.metric.LoginMetric;
 import org.eclipse.kapua.broker.core.plugin.metric.PublishMetric;
 import org.eclipse.kapua.broker.core.plugin.metric.SubscribeMetric;
 import org.eclipse.kapua.broker.core.pool.JmsConsumerWrapper;
 import org.eclipse.kapua.broker.core.setting.BrokerSetting;
 import org.eclipse.kapua.broker.core.setting.BrokerSettingKey;
+import org.eclipse.kapua.commons.jpa.EntityCache;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
 import org.eclipse.kapua.commons.util.ClassUtil;
+import org.eclipse.kapua.event.ServiceEventBusException;
 import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
 import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authentication.AuthenticationService;
@@ -72,7 +75,6 @@ import javax.security.auth.login.CredentialException;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -139,6 +141,7 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
     private Map<String, Object> options;
 
     private LoginMetric loginMetric = LoginMetric.getInstance();
+    private LoginCache loginCache = LoginCache.getInstance();
     private PublishMetric publishMetric = PublishMetric.getInstance();
     private SubscribeMetric subscribeMetric = SubscribeMetric.getInstance();
 
@@ -169,6 +172,18 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
             registerStealingLinkManager();
         }
         super.start();
+        // the event bus is started by the application filter, started by super.start()
+        if (EntityCache.getInstance().isPublishing()) {
+            logger.info(">>> Security broker filter: calling start... Subscribe the login cache invalidation events");
+            try {
+                // fails without a node name, since the brokers would share the events
+                loginCache.subscribe();
+            } catch (ServiceEventBusException e) {
+                logger.warn(">>> Security broker filter: cannot subscribe the login cache invalidation events, the entries will be refreshed when expired: {}", e.getMessage());
+            }
+        } else {
+            logger.info(">>> Security broker filter: calling start... No entity change event published, the login cache entries will be refreshed when expired");
+        }
         logger.info(">>> Security broker filter: calling start... DONE");
     }
 
@@ -181,6 +196,8 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
             logger.info(">>> Security broker filter: calling stop... Unregister stealing link manager");
             unregisterStealingLinkManager();
         }
+        // write the device connection status updates still queued
+        DeviceConnectionStatusWriter.getInstance().stop();
         super.stop();
         logger.info(">>> Security broker filter: calling stop... DONE");
     }
@@ -406,19 +423,9 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
             LoginCredentials credentials = credentialsFactory.newUsernamePasswordCredentials(kcc.getUserName(), info.getPassword());
             AccessToken accessToken = authenticationService.login(credentials);
 
-            final Account account;
-            try {
-                account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(accessToken.getScopeId()));
-            } catch (Exception e) {
-                // to preserve the original exception message (if possible)
-                if (e instanceof AuthenticationException) {
-                    throw (AuthenticationException) e;
-                } else {
-                    throw new ShiroException("Error while find account!", e);
-                }
-            }
+            String accountName = findAccountName(accessToken.getScopeId());
 
-            kcc.update(accessToken, account.getName(), accessToken.getScopeId(), accessToken.getUserId(), (((TransportConnector) context.getConnector()).getName()),
+            kcc.update(accessToken, accountName, accessToken.getScopeId(), accessToken.getUserId(), (((TransportConnector) context.getConnector()).getName()),
                     brokerIpResolver.getBrokerIpOrHostName(), MULTI_ACCOUNT_CLIENT_ID);
             kcc.updateOldConnectionId(CONNECTION_MAP.get(kcc.getFullClientId()));
             loginShiroLoginTimeContext.stop();
@@ -474,6 +481,32 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
         }
     }
 
+    /**
+     * Find the account name (looking into the login cache first)
+     *
+     * @param scopeId
+     * @return
+     */
+    private String findAccountName(KapuaId scopeId) {
+        String accountName = loginCache.getAccountName(scopeId);
+        if (accountName == null) {
+            final Account account;
+            try {
+                account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(scopeId));
+            } catch (Exception e) {
+                // to preserve the original exception message (if possible)
+                if (e instanceof AuthenticationException) {
+                    throw (AuthenticationException) e;
+                } else {
+                    throw new ShiroException("Error while find account!", e);
+                }
+            }
+            accountName = account.getName();
+            loginCache.putAccountName(scopeId, accountName);
+        }
+        return accountName;
+    }
+
     @Override
     public void removeConnection(ConnectionContext context, ConnectionInfo info, Throwable error)
             throws Exception {
@@ -484,18 +517,8 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
                 KapuaSecurityContext kapuaSecurityContext = getKapuaSecurityContext(context);
                 KapuaPrincipal kapuaPrincipal = ((KapuaPrincipal) kapuaSecurityContext.getMainPrincipal());
                 //get account name
-                final Account account;
-                try {
-                    account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(kapuaPrincipal.getAccountId()));
-                } catch (Exception e) {
-                    // to preserve the original exception message (if possible)
-                    if (e instanceof AuthenticationException) {
-                        throw (AuthenticationException) e;
-                    } else {
-                        throw new ShiroException("Error while find account!", e);
-                    }
-                }
-                kcc = new KapuaConnectionContext(brokerIdResolver.getBrokerId(this), brokerIpResolver.getBrokerIpOrHostName(), kapuaPrincipal, account.getName(), info, MULTI_ACCOUNT_CLIENT_ID);
+                String accountName = findAccountName(kapuaPrincipal.getAccountId());
+                kcc = new KapuaConnectionContext(brokerIdResolver.getBrokerId(this), brokerIpResolver.getBrokerIpOrHostName(), kapuaPrincipal, accountName, info, MULTI_ACCOUNT_CLIENT_ID);
                 kcc.updateOldConnectionId(CONNECTION_MAP.get(kcc.getFullClientId()));
                 // TODO fix the kapua session when run as feature will be implemented
                 KapuaSecurityUtils.setSession(new KapuaSession(kapuaPrincipal));
@@ -571,11 +594,10 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
                 }
             }
             // FIX #164
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getConnectionId())));
+            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, kapuaSecurityContext.getConnectionIdHeader());
             messageSend.setProperty(MessageConstants.HEADER_KAPUA_CLIENT_ID, ((KapuaPrincipal) kapuaSecurityContext.getMainPrincipal()).getClientId());
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTOR_DEVICE_PROTOCOL,
-                    Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getConnectorDescriptor())));
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_SESSION, Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getKapuaSession())));
+            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTOR_DEVICE_PROTOCOL, kapuaSecurityContext.getConnectorNameHeader());
+            messageSend.setProperty(MessageConstants.HEADER_KAPUA_SESSION, kapuaSecurityContext.getKapuaSessionHeader());
             messageSend.setProperty(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, false);
         } else {
             messageSend.setProperty(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, true);
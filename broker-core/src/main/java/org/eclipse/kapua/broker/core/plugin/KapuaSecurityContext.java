@@ -17,6 +17,7 @@ import java.util.Set;
 
 import org.apache.activemq.security.AuthorizationMap;
 import org.apache.activemq.security.SecurityContext;
+import org.eclipse.kapua.broker.core.message.KapuaHeaderCodec;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.authentication.KapuaPrincipal;
@@ -35,6 +36,11 @@ public class KapuaSecurityContext extends SecurityContext {
     private ConnectorDescriptor connectorDescriptor;
     private String brokerConnectionId;
 
+    // message headers computed once per connection
+    private String connectionIdHeader;
+    private String connectorNameHeader;
+    private String kapuaSessionHeader;
+
     private AuthorizationMap authMap;
     private boolean hasDataView;
     private boolean hasDataManage;
@@ -54,6 +60,10 @@ public class KapuaSecurityContext extends SecurityContext {
         this.connectionId = kcc.getKapuaConnectionId();
         this.connectorDescriptor = kcc.getConnectorDescriptor();
         this.brokerConnectionId = kcc.getConnectionId();
+
+        connectionIdHeader = KapuaHeaderCodec.encodeKapuaId(connectionId);
+        connectorNameHeader = kcc.getConnectorName();
+        kapuaSessionHeader = KapuaHeaderCodec.encodeSession(kapuaSession);
     }
 
     public Principal getMainPrincipal() {
@@ -99,4 +109,31 @@ public class KapuaSecurityContext extends SecurityContext {
     public KapuaSession getKapuaSession() {
         return kapuaSession;
     }
+
+    /**
+     * Get the connection id header value (see {@link KapuaHeaderCodec#encodeKapuaId(KapuaId)})
+     *
+     * @return
+     */
+    public String getConnectionIdHeader() {
+        return connectionIdHeader;
+    }
+
+    /**
+     * Get the connector name header value used to resolve the {@link ConnectorDescriptor} on the consumer side
+     *
+     * @return
+     */
+    public String getConnectorNameHeader() {
+        return connectorNameHeader;
+    }
+
+    /**
+     * Get the Kapua session header value (see {@link KapuaHeaderCodec#encodeSession(KapuaSession)})
+     *
+     * @return
+     */
+    public String getKapuaSessionHeader() {
+        return kapuaSessionHeader;
+    }
 }
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin;
+
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.broker.core.plugin.metric.LoginMetric;
+import org.eclipse.kapua.broker.core.setting.BrokerSetting;
+import org.eclipse.kapua.broker.core.setting.BrokerSettingKey;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBusException;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection time lookups cache.<br>
+ * Keeps, for a limited time, the values looked up for each device connection that are shared by many connections:
+ * <ul>
+ * <li>the account name (by scope id)</li>
+ * <li>the broker permissions (by scope id and user id)</li>
+ * <li>the device connection service configuration values (by scope id)</li>
+ * </ul>
+ * so a reconnection storm (i.e. after a broker restart) doesn't hit the database with the same queries for each device.<br>
+ * The entries expire after the configured time and are invalidated when the entities they are looked up from change (see {@link #subscribe()}).
+ * Only the granted permissions are kept, so a denied user is checked again on the next connection.
+ *
+ * @since 1.1.0
+ */
+public class LoginCache {
+
+    private static final LoginCache INSTANCE = new LoginCache();
+
+    // keyed by the id value, since the KapuaId implementations don't share equals and hashCode
+    private final LocalCache<BigInteger, String> accountNames;
+    private final LocalCache<String, boolean[]> permissions;
+    private final LocalCache<BigInteger, Map<String, Object>> configValues;
+
+    private final LoginMetric loginMetric = LoginMetric.getInstance();
+
+    private LoginCache() {
+        this(BrokerSetting.getInstance().getInt(BrokerSettingKey.LOGIN_CACHE_SIZE_MAX, 10000),
+                BrokerSetting.getInstance().getInt(BrokerSettingKey.LOGIN_CACHE_EXPIRE_AFTER, 60));
+    }
+
+    LoginCache(int sizeMax, int expireAfter) {
+        accountNames = new LocalCache<>(sizeMax, expireAfter, null);
+        permissions = new LocalCache<>(sizeMax, expireAfter, null);
+        configValues = new LocalCache<>(sizeMax, expireAfter, null);
+    }
+
+    /**
+     * Get the cache instance
+     *
+     * @return
+     */
+    public static LoginCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the cached account name
+     *
+     * @param scopeId
+     * @return the account name or null if not cached
+     */
+    public String getAccountName(KapuaId scopeId) {
+        String accountName = accountNames.get(scopeId.getId());
+        if (accountName != null) {
+            loginMetric.getAccountCacheHit().inc();
+        } else {
+            loginMetric.getAccountCacheMiss().inc();
+        }
+        return accountName;
+    }
+
+    /**
+     * Cache the account name
+     *
+     * @param scopeId
+     * @param accountName
+     */
+    public void putAccountName(KapuaId scopeId, String accountName) {
+        accountNames.put(scopeId.getId(), accountName);
+    }
+
+    /**
+     * Get the cached permissions of the user
+     *
+     * @param scopeId
+     * @param userId
+     * @return a copy of the permissions or null if not cached
+     */
+    public boolean[] getPermissions(KapuaId scopeId, KapuaId userId) {
+        boolean[] hasPermissions = permissions.get(permissionsKey(scopeId, userId));
+        if (hasPermissions != null) {
+            loginMetric.getPermissionCacheHit().inc();
+        } else {
+            loginMetric.getPermissionCacheMiss().inc();
+        }
+        return hasPermissions != null ? hasPermissions.clone() : null;
+    }
+
+    /**
+     * Cache the permissions of the user
+     *
+     * @param scopeId
+     * @param userId
+     * @param hasPermissions
+     */
+    public void putPermissions(KapuaId scopeId, KapuaId userId, boolean[] hasPermissions) {
+        permissions.put(permissionsKey(scopeId, userId), hasPermissions.clone());
+    }
+
+    /**
+     * Get the cached device connection service configuration values
+     *
+     * @param scopeId
+     * @return the (read only) configuration values or null if not cached
+     */
+    public Map<String, Object> getConfigValues(KapuaId scopeId) {
+        Map<String, Object> values = configValues.get(scopeId.getId());
+        if (values != null) {
+            loginMetric.getConfigCacheHit().inc();
+        } else {
+            loginMetric.getConfigCacheMiss().inc();
+        }
+        return values;
+    }
+
+    /**
+     * Cache the device connection service configuration values
+     *
+     * @param scopeId
+     * @param values
+     * @return the (read only) cached configuration values
+     */
+    public Map<String, Object> putConfigValues(KapuaId scopeId, Map<String, Object> values) {
+        Map<String, Object> cachedValues = Collections.unmodifiableMap(values != null ? new HashMap<>(values) : new HashMap<>());
+        configValues.put(scopeId.getId(), cachedValues);
+        return cachedValues;
+    }
+
+    /**
+     * Invalidate the entries of the scope
+     *
+     * @param scopeId
+     */
+    public void invalidate(KapuaId scopeId) {
+        accountNames.remove(scopeId.getId());
+        configValues.remove(scopeId.getId());
+        invalidatePermissions(scopeId);
+    }
+
+    /**
+     * Invalidate the permissions of all the users of the scope
+     *
+     * @param scopeId
+     */
+    public void invalidatePermissions(KapuaId scopeId) {
+        String keyPrefix = scopeId.toCompactId() + "/";
+        for (String key : permissions.getAllKeys()) {
+            if (key.startsWith(keyPrefix)) {
+                permissions.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the permissions of the user
+     *
+     * @param scopeId
+     * @param userId
+     */
+    public void invalidatePermissions(KapuaId scopeId, KapuaId userId) {
+        permissions.remove(permissionsKey(scopeId, userId));
+    }
+
+    /**
+     * Invalidate all the entries
+     */
+    public void invalidateAll() {
+        accountNames.invalidateAll();
+        permissions.invalidateAll();
+        configValues.invalidateAll();
+    }
+
+    /**
+     * Subscribe the changes of the entities the cached values are looked up from, published on the event bus by all the processes (see {@link EntityCache}).<br>
+     * The entities must be listed in the {@link SystemSettingKey#ENTITY_CACHE_EVENT_NAMES} setting of the processes changing them.<br>
+     * The subscription is shared by the subscribers with the same name, so each broker subscribes with its own node name (see {@link EntityCache#getNodeName()})
+     * to receive all the events.
+     *
+     * @throws KapuaIllegalNullArgumentException
+     *             if the node name is not configured
+     * @throws ServiceEventBusException
+     *             if the event bus is not started
+     */
+    public void subscribe() throws KapuaIllegalNullArgumentException, ServiceEventBusException {
+        EntityCache entityCache = EntityCache.getInstance();
+        String address = entityCache.getEventAddress();
+        String subscriptionName = subscriptionName(address, entityCache.getNodeName());
+        ServiceEventBusManager.getInstance().subscribe(address, subscriptionName, this::received);
+    }
+
+    static String subscriptionName(String address, String nodeName) throws KapuaIllegalNullArgumentException {
+        if (nodeName == null) {
+            throw new KapuaIllegalNullArgumentException(SystemSettingKey.ENTITY_CACHE_NODE_NAME.key());
+        }
+        return String.format("%s-%s-login", address, nodeName);
+    }
+
+    /**
+     * Invalidate the entries looked up from the changed entity
+     *
+     * @param serviceEvent
+     *            the entity change event
+     */
+    void received(ServiceEvent serviceEvent) {
+        if (!EntityCache.INVALIDATE_OPERATION.equals(serviceEvent.getOperation()) || serviceEvent.getEntityType() == null) {
+            return;
+        }
+
+        KapuaId scopeId = serviceEvent.getScopeId();
+        KapuaId entityId = serviceEvent.getEntityId();
+        switch (serviceEvent.getEntityType()) {
+        case "Account":
+            // the account id is the scope id of its users and devices
+            if (entityId != null) {
+                invalidate(entityId);
+            } else {
+                invalidateAll();
+            }
+            break;
+        case "ServiceConfig":
+            if (scopeId != null) {
+                configValues.remove(scopeId.getId());
+            } else {
+                configValues.invalidateAll();
+            }
+            break;
+        case "User":
+            if (scopeId != null && entityId != null) {
+                invalidatePermissions(scopeId, entityId);
+            } else {
+                permissions.invalidateAll();
+            }
+            break;
+        case "AccessInfo":
+        case "AccessPermission":
+        case "AccessRole":
+        case "Role":
+        case "RolePermission":
+            // the access entities don't carry the user id, so all the permissions of the scope are looked up again
+            if (scopeId != null) {
+                invalidatePermissions(scopeId);
+            } else {
+                permissions.invalidateAll();
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private static String permissionsKey(KapuaId scopeId, KapuaId userId) {
+        return scopeId.toCompactId() + "/" + userId.toCompactId();
+    }
+
+}
@@ -15,6 +15,7 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.BrokerDomains;
 import org.eclipse.kapua.broker.core.plugin.Acl;
 import org.eclipse.kapua.broker.core.plugin.KapuaConnectionContext;
+import org.eclipse.kapua.broker.core.plugin.LoginCache;
 import org.eclipse.kapua.broker.core.plugin.metric.ClientMetric;
 import org.eclipse.kapua.broker.core.plugin.metric.LoginMetric;
 import org.eclipse.kapua.broker.core.plugin.metric.PublishMetric;
@@ -61,6 +62,8 @@ public abstract class AuthenticationLogic {
     protected PublishMetric publishMetric = PublishMetric.getInstance();
     protected SubscribeMetric subscribeMetric = SubscribeMetric.getInstance();
 
+    protected LoginCache loginCache = LoginCache.getInstance();
+
     protected static final Domain BROKER_DOMAIN = BrokerDomains.BROKER_DOMAIN;
     protected static final Domain DATASTORE_DOMAIN = new DatastoreDomain();
     protected static final Domain DEVICE_MANAGEMENT_DOMAIN = new DeviceManagementDomain();
@@ -150,6 +153,22 @@ public abstract class AuthenticationLogic {
         return entry;
     }
 
+    /**
+     * Get the device connection service configuration values (looking into the login cache first)<br>
+     * <b>Utility method used by the connection logic</b>
+     *
+     * @param scopeId
+     * @return the (read only) configuration values
+     * @throws KapuaException
+     */
+    protected Map<String, Object> getDeviceConnectionConfigValues(KapuaId scopeId) throws KapuaException {
+        Map<String, Object> options = loginCache.getConfigValues(scopeId);
+        if (options == null) {
+            options = loginCache.putConfigValues(scopeId, KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.getConfigValues(scopeId)));
+        }
+        return options;
+    }
+
     /**
      * Enforce the device connection/user bound (if enabled)<br>
      * <b>Utility method used by the connection logic</b>
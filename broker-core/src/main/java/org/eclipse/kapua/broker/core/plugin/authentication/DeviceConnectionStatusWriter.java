@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin.authentication;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaOptimisticLockingException;
+import org.eclipse.kapua.broker.core.setting.BrokerSetting;
+import org.eclipse.kapua.broker.core.setting.BrokerSettingKey;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write behind {@link DeviceConnection} status writer.<br>
+ * The device connection updates performed by the connect/disconnect callbacks are queued (keyed by the full client id, the same key used by the stealing link connection map) and written by
+ * a background thread, so the broker transport thread doesn't wait for the database transaction.<br>
+ * Only the changes are queued, never the device connection instance: the writer thread applies them to a device connection freshly read from the database, so the queued updates don't share
+ * any state with the callers.<br>
+ * The updates queued for the same client id before being written are coalesced, so a connect/disconnect flap produces a single write of the latest status.<br>
+ * Each batch of updates is written in a single transaction, loading its device connections with a single query. If the batch fails (i.e. a device connection updated in the meantime by another node) the updates are written one by one, reloading the
+ * device connection and applying the queued changes again on optimistic locking failure.
+ *
+ * @since 1.1.0
+ */
+public class DeviceConnectionStatusWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceConnectionStatusWriter.class);
+
+    private static final DeviceConnectionStatusWriter INSTANCE = new DeviceConnectionStatusWriter();
+
+    private final DeviceConnectionService deviceConnectionService;
+
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Map<String, StatusUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService writerExecutor;
+
+    private final Counter metricQueued;
+    private final Counter metricCoalesced;
+    private final Counter metricWritten;
+    private final Counter metricError;
+    private final Histogram metricLag;
+    private final Timer metricBatchTime;
+
+    private DeviceConnectionStatusWriter() {
+        this(KapuaLocator.getInstance().getService(DeviceConnectionService.class),
+                BrokerSetting.getInstance().getBoolean(BrokerSettingKey.DEVICE_CONNECTION_STATUS_WRITER_ENABLED, false),
+                BrokerSetting.getInstance().getInt(BrokerSettingKey.DEVICE_CONNECTION_STATUS_WRITER_BATCH_SIZE, 100),
+                BrokerSetting.getInstance().getLong(BrokerSettingKey.DEVICE_CONNECTION_STATUS_WRITER_DELAY, 100));
+    }
+
+    /**
+     * Constructs the writer
+     *
+     * @param deviceConnectionService
+     * @param enabled
+     *            true to start the writer thread
+     * @param batchSize
+     *            maximum number of updates written in a single transaction
+     * @param delay
+     *            delay (in milliseconds) between the writes of the queued updates
+     */
+    DeviceConnectionStatusWriter(DeviceConnectionService deviceConnectionService, boolean enabled, int batchSize, long delay) {
+        this.deviceConnectionService = deviceConnectionService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        metricQueued = metricsService.getCounter("security", "device_connection", "status_writer", "queued", "count");
+        metricCoalesced = metricsService.getCounter("security", "device_connection", "status_writer", "coalesced", "count");
+        metricWritten = metricsService.getCounter("security", "device_connection", "status_writer", "written", "count");
+        metricError = metricsService.getCounter("security", "device_connection", "status_writer", "error", "count");
+        metricLag = metricsService.getHistogram("security", "device_connection", "status_writer", "lag", "ms");
+        metricBatchTime = metricsService.getTimer("security", "device_connection", "status_writer", "batch", "time", "s");
+        try {
+            metricsService.registerGauge((Gauge<Integer>) pendingUpdates::size, "security", "device_connection", "status_writer", "queue", "size");
+        } catch (KapuaException e) {
+            logger.warn("Cannot register the device connection status writer queue size gauge: {}", e.getMessage());
+        }
+
+        if (enabled) {
+            writerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "device-connection-status-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writerExecutor.scheduleWithFixedDelay(this::flush, delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Get the writer instance
+     *
+     * @return
+     */
+    public static DeviceConnectionStatusWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Return true if the write behind is enabled (otherwise the device connection should be updated synchronously)
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue the device connection update.<br>
+     * The changes are applied by the writer thread to a freshly read device connection, so they must capture only immutable values.
+     *
+     * @param fullClientId
+     *            the full client id (coalescing key)
+     * @param scopeId
+     *            the scope id of the device connection to update
+     * @param deviceConnectionId
+     *            the id of the device connection to update
+     * @param changes
+     *            the changes to apply to the device connection
+     * @param full
+     *            true if the changes override all the changes eventually already queued for the same client id (i.e. a connection), false if the changes should be applied after them
+     *            (i.e. a status change)
+     */
+    public void update(String fullClientId, KapuaId scopeId, KapuaId deviceConnectionId, Consumer<DeviceConnection> changes, boolean full) {
+        StatusUpdate statusUpdate = new StatusUpdate(scopeId, deviceConnectionId, changes, full, System.currentTimeMillis());
+        metricQueued.inc();
+        pendingUpdates.merge(fullClientId, statusUpdate, (queued, latest) -> {
+            metricCoalesced.inc();
+            return queued.coalesce(latest);
+        });
+    }
+
+    /**
+     * Apply the changes queued (and not yet written) for the client id to the device connection, so it reflects the most recent status
+     *
+     * @param fullClientId
+     * @param deviceConnection
+     *            the device connection owned by the caller (i.e. freshly read from the database)
+     * @return true if some changes were queued for the client id
+     */
+    public boolean applyPending(String fullClientId, DeviceConnection deviceConnection) {
+        StatusUpdate statusUpdate = pendingUpdates.get(fullClientId);
+        if (statusUpdate == null) {
+            return false;
+        }
+        statusUpdate.changes.accept(deviceConnection);
+        return true;
+    }
+
+    /**
+     * Write all the queued updates
+     */
+    public void flush() {
+        while (!pendingUpdates.isEmpty()) {
+            List<StatusUpdate> batch = new ArrayList<>(batchSize);
+            Iterator<String> iterator = pendingUpdates.keySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                StatusUpdate statusUpdate = pendingUpdates.remove(iterator.next());
+                if (statusUpdate != null) {
+                    batch.add(statusUpdate);
+                }
+            }
+            write(batch);
+        }
+    }
+
+    /**
+     * Stop the writer writing the updates still queued
+     */
+    public void stop() {
+        if (writerExecutor != null) {
+            writerExecutor.shutdown();
+            try {
+                writerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void write(List<StatusUpdate> batch) {
+        Context batchTimeContext = metricBatchTime.time();
+        long now = System.currentTimeMillis();
+        for (StatusUpdate statusUpdate : batch) {
+            metricLag.update(now - statusUpdate.queuedOn);
+        }
+        try {
+            KapuaSecurityUtils.doPrivileged(() -> writeAll(batch));
+            metricWritten.inc(batch.size());
+        } catch (Exception e) {
+            logger.info("Cannot update the device connection status of {} clients in a single transaction, updating them one by one: {}", batch.size(), e.getMessage());
+            for (StatusUpdate statusUpdate : batch) {
+                try {
+                    KapuaSecurityUtils.doPrivileged(() -> write(statusUpdate));
+                    metricWritten.inc();
+                } catch (Exception e1) {
+                    metricError.inc();
+                    logger.warn("Cannot update the device connection status for device connection id {}: {}", statusUpdate.deviceConnectionId, e1.getMessage(), e1);
+                }
+            }
+        } finally {
+            batchTimeContext.stop();
+        }
+    }
+
+    private void writeAll(List<StatusUpdate> batch) throws KapuaException {
+        Map<KapuaId, Consumer<DeviceConnection>> deviceConnectionChanges = new HashMap<>();
+        for (StatusUpdate statusUpdate : batch) {
+            deviceConnectionChanges.put(statusUpdate.deviceConnectionId, statusUpdate.changes);
+        }
+        deviceConnectionService.updateAll(deviceConnectionChanges);
+    }
+
+    private void write(StatusUpdate statusUpdate) throws KapuaException {
+        DeviceConnection deviceConnection = deviceConnectionService.find(statusUpdate.scopeId, statusUpdate.deviceConnectionId);
+        if (deviceConnection == null) {
+            return;
+        }
+        statusUpdate.changes.accept(deviceConnection);
+        try {
+            deviceConnectionService.update(deviceConnection);
+        } catch (KapuaOptimisticLockingException e) {
+            // the device connection was updated in the meantime, so reload it and apply the changes again
+            deviceConnection = deviceConnectionService.find(statusUpdate.scopeId, statusUpdate.deviceConnectionId);
+            if (deviceConnection != null) {
+                statusUpdate.changes.accept(deviceConnection);
+                deviceConnectionService.update(deviceConnection);
+            }
+        }
+    }
+
+    /**
+     * Immutable queued update
+     */
+    private static class StatusUpdate {
+
+        private final KapuaId scopeId;
+        private final KapuaId deviceConnectionId;
+        private final Consumer<DeviceConnection> changes;
+        private final boolean full;
+        private final long queuedOn;
+
+        private StatusUpdate(KapuaId scopeId, KapuaId deviceConnectionId, Consumer<DeviceConnection> changes, boolean full, long queuedOn) {
+            this.scopeId = scopeId;
+            this.deviceConnectionId = deviceConnectionId;
+            this.changes = changes;
+            this.full = full;
+            this.queuedOn = queuedOn;
+        }
+
+        private StatusUpdate coalesce(StatusUpdate latest) {
+            if (latest.full || !full) {
+                // the latest changes override the queued ones
+                return new StatusUpdate(latest.scopeId, latest.deviceConnectionId, latest.changes, latest.full, queuedOn);
+            }
+            // apply the latest changes on top of the queued full changes
+            return new StatusUpdate(scopeId, deviceConnectionId, changes.andThen(latest.changes), true, queuedOn);
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import org.eclipse.kapua.broker.core.plugin.KapuaConnectionContext;
 import org.eclipse.kapua.broker.core.plugin.KapuaDuplicateClientIdException;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.registry.ConnectionUserCouplingMode;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionCreator;
@@ -28,6 +29,7 @@ import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStat
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * User profile authentication logic implementation
@@ -44,6 +46,8 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
     protected String aclDataAccCli;
     protected String aclCtrlAccNotify;
 
+    protected DeviceConnectionStatusWriter statusWriter = DeviceConnectionStatusWriter.getInstance();
+
     protected static final int BROKER_CONNECT_IDX = 0;
     protected static final int DEVICE_MANAGE_IDX = 1;
     protected static final int DATA_VIEW_IDX = 2;
@@ -83,7 +87,7 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
         loginFindClientIdTimeContext.stop();
 
         // enforce the user-device bound
-        enforceDeviceConnectionUserBound(KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.getConfigValues(kcc.getScopeId())), deviceConnection, kcc.getScopeId(), kcc.getUserId());
+        enforceDeviceConnectionUserBound(getDeviceConnectionConfigValues(kcc.getScopeId()), deviceConnection, kcc.getScopeId(), kcc.getUserId());
 
         Context loginFindDevTimeContext = loginMetric.getFindDevTime().time();
         {
@@ -135,6 +139,10 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
             } catch (Exception e) {
                 throw new ShiroException("Error while looking for device connection on updating the device status!", e);
             }
+            if (deviceConnection != null && statusWriter.isEnabled()) {
+                // the device connection updates still queued (if any) are the most recent ones
+                statusWriter.applyPending(kcc.getFullClientId(), deviceConnection);
+            }
             // the device connection must be not null
             if (deviceConnection != null) {
                 if (kcc.getBrokerIpOrHostName() == null) {
@@ -151,11 +159,17 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
                             kcc.getClientIp());
                 }
                 if(deviceOwnedByTheCurrentNode) {
-                    deviceConnection.setStatus(error == null ? DeviceConnectionStatus.DISCONNECTED : DeviceConnectionStatus.MISSING);
-                    try {
-                        KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnection));
-                    } catch (Exception e) {
-                        throw new ShiroException("Error while updating the device connection status!", e);
+                    DeviceConnectionStatus status = error == null ? DeviceConnectionStatus.DISCONNECTED : DeviceConnectionStatus.MISSING;
+                    deviceConnection.setStatus(status);
+                    if (statusWriter.isEnabled()) {
+                        statusWriter.update(kcc.getFullClientId(), deviceConnection.getScopeId(), deviceConnection.getId(), deviceConnectionToUpdate -> deviceConnectionToUpdate.setStatus(status), false);
+                    } else {
+                        DeviceConnection deviceConnectionToUpdate = deviceConnection;
+                        try {
+                            KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnectionToUpdate));
+                        } catch (Exception e) {
+                            throw new ShiroException("Error while updating the device connection status!", e);
+                        }
                     }
                 }
             }
@@ -195,7 +209,11 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
     }
 
     protected boolean[] checkPermissions(KapuaConnectionContext kcc) throws KapuaException {
-        boolean[] hasPermissions = new boolean[] {
+        boolean[] hasPermissions = loginCache.getPermissions(kcc.getScopeId(), kcc.getUserId());
+        if (hasPermissions != null) {
+            return hasPermissions;
+        }
+        hasPermissions = new boolean[] {
                 authorizationService.isPermitted(permissionFactory.newPermission(BROKER_DOMAIN, Actions.connect, kcc.getScopeId())),
                 authorizationService.isPermitted(permissionFactory.newPermission(DEVICE_MANAGEMENT_DOMAIN, Actions.write, kcc.getScopeId())),
                 authorizationService.isPermitted(permissionFactory.newPermission(DATASTORE_DOMAIN, Actions.read, kcc.getScopeId())),
@@ -206,6 +224,8 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
             throw new KapuaIllegalAccessException(permissionFactory.newPermission(BROKER_DOMAIN, Actions.connect, kcc.getScopeId()).toString());
         }
 
+        // only the granted permissions are cached
+        loginCache.putPermissions(kcc.getScopeId(), kcc.getUserId(), hasPermissions);
         return hasPermissions;
     }
 
@@ -231,14 +251,27 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
             deviceConnectionCreator.setAllowUserChange(false);
             deviceConnection = KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.create(deviceConnectionCreator));
         } else {
-            deviceConnection.setStatus(DeviceConnectionStatus.CONNECTED);
-            deviceConnection.setClientIp(kcc.getClientIp());
-            deviceConnection.setProtocol(kcc.getConnectorDescriptor().getTransportProtocol());
-            deviceConnection.setServerIp(kcc.getBrokerIpOrHostName());
-            deviceConnection.setUserId(kcc.getUserId());
-            deviceConnection.setAllowUserChange(false);
-            DeviceConnection deviceConnectionToUpdate = deviceConnection;
-            KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnectionToUpdate));
+            // the changes may be applied later by the status writer thread, so they capture the connection values
+            String clientIp = kcc.getClientIp();
+            String protocol = kcc.getConnectorDescriptor().getTransportProtocol();
+            String serverIp = kcc.getBrokerIpOrHostName();
+            KapuaId userId = kcc.getUserId();
+            Consumer<DeviceConnection> changes = deviceConnectionToUpdate -> {
+                deviceConnectionToUpdate.setStatus(DeviceConnectionStatus.CONNECTED);
+                deviceConnectionToUpdate.setClientIp(clientIp);
+                deviceConnectionToUpdate.setProtocol(protocol);
+                deviceConnectionToUpdate.setServerIp(serverIp);
+                deviceConnectionToUpdate.setUserId(userId);
+                deviceConnectionToUpdate.setAllowUserChange(false);
+            };
+            changes.accept(deviceConnection);
+            if (statusWriter.isEnabled()) {
+                // the connection id is already known, so the update can be written behind
+                statusWriter.update(kcc.getFullClientId(), deviceConnection.getScopeId(), deviceConnection.getId(), changes, true);
+            } else {
+                DeviceConnection deviceConnectionToUpdate = deviceConnection;
+                KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnectionToUpdate));
+            }
             // TODO implement the banned status
             // if (DeviceStatus.DISABLED.equals(device.getStatus())) {
             // throw new KapuaIllegalAccessException("clientId - This client ID is disabled and cannot connect");
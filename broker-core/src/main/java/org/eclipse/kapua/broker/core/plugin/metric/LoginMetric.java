@@ -30,6 +30,12 @@ public class LoginMetric {
     private Counter stealingLinkDisconnect;
     private Counter adminStealingLinkDisconnect;
     protected Counter remoteStealingLinkDisconnect;
+    private Counter accountCacheHit;
+    private Counter accountCacheMiss;
+    private Counter permissionCacheHit;
+    private Counter permissionCacheMiss;
+    private Counter configCacheHit;
+    private Counter configCacheMiss;
     private Timer addConnectionTime;
     private Timer normalUserTime;
     private Timer shiroLoginTime;
@@ -57,6 +63,13 @@ public class LoginMetric {
         stealingLinkDisconnect = metricsService.getCounter("security", "login", "stealing_link", "disconnect", "count");
         adminStealingLinkDisconnect = metricsService.getCounter("security", "login", "admin_stealing_link", "disconnect", "count");
         remoteStealingLinkDisconnect = metricsService.getCounter("security", "login", "remote_stealing_link", "disconnect", "count");
+        // login cache
+        accountCacheHit = metricsService.getCounter("security", "login", "cache", "account", "hit", "count");
+        accountCacheMiss = metricsService.getCounter("security", "login", "cache", "account", "miss", "count");
+        permissionCacheHit = metricsService.getCounter("security", "login", "cache", "permission", "hit", "count");
+        permissionCacheMiss = metricsService.getCounter("security", "login", "cache", "permission", "miss", "count");
+        configCacheHit = metricsService.getCounter("security", "login", "cache", "config", "hit", "count");
+        configCacheMiss = metricsService.getCounter("security", "login", "cache", "config", "miss", "count");
         // login time
         addConnectionTime = metricsService.getTimer("security", "login", "add_connection", "time", "s");
         normalUserTime = metricsService.getTimer("security", "login", "user", "time", "s");
@@ -113,6 +126,30 @@ public class LoginMetric {
         this.adminStealingLinkDisconnect = adminStealingLinkDisconnect;
     }
 
+    public Counter getAccountCacheHit() {
+        return accountCacheHit;
+    }
+
+    public Counter getAccountCacheMiss() {
+        return accountCacheMiss;
+    }
+
+    public Counter getPermissionCacheHit() {
+        return permissionCacheHit;
+    }
+
+    public Counter getPermissionCacheMiss() {
+        return permissionCacheMiss;
+    }
+
+    public Counter getConfigCacheHit() {
+        return configCacheHit;
+    }
+
+    public Counter getConfigCacheMiss() {
+        return configCacheMiss;
+    }
+
     public Timer getAddConnectionTime() {
         return addConnectionTime;
     }
@@ -75,6 +75,34 @@ public enum BrokerSettingKey implements SettingKey {
      * Broker name (used also for the vm connector name)
      */
     BROKER_NAME("broker.name"),
+    /**
+     * Restored Kapua sessions cache (keyed by session message header) - maximum size
+     */
+    SESSION_HEADER_CACHE_SIZE_MAX("broker.session_header_cache.size_max"),
+    /**
+     * Restored Kapua sessions cache (keyed by session message header) - expire time (in seconds)
+     */
+    SESSION_HEADER_CACHE_EXPIRE_AFTER("broker.session_header_cache.expire_after"),
+    /**
+     * Connection time lookups (account names, permissions and device connection configuration) cache - maximum size
+     */
+    LOGIN_CACHE_SIZE_MAX("broker.login_cache.size_max"),
+    /**
+     * Connection time lookups (account names, permissions and device connection configuration) cache - expire time (in seconds)
+     */
+    LOGIN_CACHE_EXPIRE_AFTER("broker.login_cache.expire_after"),
+    /**
+     * Enable/disable the write behind of the device connection status updates
+     */
+    DEVICE_CONNECTION_STATUS_WRITER_ENABLED("broker.device_connection.status_writer.enabled"),
+    /**
+     * Maximum number of device connection status updates written per batch
+     */
+    DEVICE_CONNECTION_STATUS_WRITER_BATCH_SIZE("broker.device_connection.status_writer.batch_size"),
+    /**
+     * Delay (in milliseconds) between two device connection status writes
+     */
+    DEVICE_CONNECTION_STATUS_WRITER_DELAY("broker.device_connection.status_writer.delay"),
     /**
      * Camel default route configuration file name. (please specify just the name. The file path will be discovered by the class loader)
      * Used by the {@link CamelKapuaDefaultRouter} to load the routing configuration.
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.message;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptor;
+import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptor.MessageType;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.call.message.DeviceMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per message cost of the Java serialization based Kapua headers with the {@link KapuaHeaderCodec} ones.<br>
+ * Each benchmark does what the broker does for each published message: the send side encoding plus the consumer side decoding.<br>
+ * Run it through the {@link #main(String[])} method (it's not executed by the unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KapuaHeaderCodecBenchmark {
+
+    private KapuaId connectionId;
+    private ConnectorDescriptor connectorDescriptor;
+    private KapuaSession kapuaSession;
+
+    // computed once per connection by the KapuaSecurityContext
+    private String connectionIdHeader;
+    private String connectorNameHeader;
+    private String kapuaSessionHeader;
+
+    @Setup
+    public void setup() {
+        connectionId = new KapuaEid(BigInteger.valueOf(8273645182736451L));
+        connectorDescriptor = new ConnectorDescriptor("MQTT",
+                new HashMap<MessageType, Class<? extends DeviceMessage<?, ?>>>(),
+                new HashMap<MessageType, Class<? extends KapuaMessage<?, ?>>>());
+        kapuaSession = new KapuaSession(null, new KapuaEid(BigInteger.valueOf(42L)), new KapuaEid(BigInteger.valueOf(1234567890123L)));
+
+        connectionIdHeader = KapuaHeaderCodec.encodeKapuaId(connectionId);
+        connectorNameHeader = "mqtt";
+        kapuaSessionHeader = KapuaHeaderCodec.encodeSession(kapuaSession);
+    }
+
+    @Benchmark
+    public void javaSerialization(Blackhole blackhole) {
+        String connectionIdValue = Base64.getEncoder().encodeToString(SerializationUtils.serialize(connectionId));
+        String connectorDescriptorValue = Base64.getEncoder().encodeToString(SerializationUtils.serialize(connectorDescriptor));
+        String kapuaSessionValue = Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSession));
+
+        blackhole.consume(SerializationUtils.deserialize(Base64.getDecoder().decode(connectionIdValue)));
+        blackhole.consume(SerializationUtils.deserialize(Base64.getDecoder().decode(connectorDescriptorValue)));
+        blackhole.consume(SerializationUtils.deserialize(Base64.getDecoder().decode(kapuaSessionValue)));
+    }
+
+    @Benchmark
+    public void headerCodec(Blackhole blackhole) {
+        blackhole.consume(KapuaHeaderCodec.decodeKapuaId(connectionIdHeader));
+        blackhole.consume(connectorNameHeader);
+        blackhole.consume(KapuaHeaderCodec.decodeSession(kapuaSessionHeader));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KapuaHeaderCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
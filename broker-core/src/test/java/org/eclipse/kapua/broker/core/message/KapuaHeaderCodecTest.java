@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.message;
+
+import org.eclipse.kapua.broker.core.message.KapuaHeaderCodec.SessionHeader;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+
+@Category(JUnitTests.class)
+public class KapuaHeaderCodecTest {
+
+    @Test
+    public void testKapuaId() {
+        KapuaId kapuaId = new KapuaEid(BigInteger.valueOf(Long.MAX_VALUE));
+        Assert.assertEquals(kapuaId, KapuaHeaderCodec.decodeKapuaId(KapuaHeaderCodec.encodeKapuaId(kapuaId)));
+    }
+
+    @Test
+    public void testNullKapuaId() {
+        Assert.assertNull(KapuaHeaderCodec.decodeKapuaId(KapuaHeaderCodec.encodeKapuaId(null)));
+        Assert.assertNull(KapuaHeaderCodec.decodeKapuaId(null));
+    }
+
+    @Test
+    public void testSession() {
+        KapuaSession kapuaSession = new KapuaSession(null, new KapuaEid(BigInteger.ONE), new KapuaEid(BigInteger.valueOf(1234567890123L)));
+        SessionHeader sessionHeader = KapuaHeaderCodec.decodeSession(KapuaHeaderCodec.encodeSession(kapuaSession));
+        Assert.assertEquals(kapuaSession.getScopeId(), sessionHeader.getScopeId());
+        Assert.assertEquals(kapuaSession.getUserId(), sessionHeader.getUserId());
+        Assert.assertFalse(sessionHeader.isTrustedMode());
+    }
+
+    @Test
+    public void testSessionWithoutIds() {
+        SessionHeader sessionHeader = KapuaHeaderCodec.decodeSession(KapuaHeaderCodec.encodeSession(new KapuaSession()));
+        Assert.assertNull(sessionHeader.getScopeId());
+        Assert.assertNull(sessionHeader.getUserId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedSession() {
+        KapuaHeaderCodec.decodeSession("AQY");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullSession() {
+        KapuaHeaderCodec.decodeSession(null);
+    }
+
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.eclipse.kapua.event.ServiceEventBusException;
+import org.eclipse.kapua.event.ServiceEventBusListener;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class LoginCacheTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(11));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(20));
+
+    private final LoginCache loginCache = LoginCache.getInstance();
+
+    @After
+    public void tearDown() {
+        loginCache.invalidateAll();
+    }
+
+    @Test
+    public void testAccountName() {
+        Assert.assertNull(loginCache.getAccountName(SCOPE_ID));
+        loginCache.putAccountName(SCOPE_ID, "account");
+        Assert.assertEquals("account", loginCache.getAccountName(SCOPE_ID));
+        Assert.assertNull(loginCache.getAccountName(OTHER_SCOPE_ID));
+    }
+
+    @Test
+    public void testPermissionsAreCopied() {
+        boolean[] hasPermissions = new boolean[] { true, false, true, false };
+        loginCache.putPermissions(SCOPE_ID, USER_ID, hasPermissions);
+        hasPermissions[1] = true;
+
+        boolean[] cachedPermissions = loginCache.getPermissions(SCOPE_ID, USER_ID);
+        Assert.assertTrue(Arrays.equals(new boolean[] { true, false, true, false }, cachedPermissions));
+        cachedPermissions[3] = true;
+        Assert.assertTrue(Arrays.equals(new boolean[] { true, false, true, false }, loginCache.getPermissions(SCOPE_ID, USER_ID)));
+    }
+
+    @Test
+    public void testInvalidateScope() {
+        loginCache.putAccountName(SCOPE_ID, "account");
+        loginCache.putPermissions(SCOPE_ID, USER_ID, new boolean[] { true });
+        loginCache.putConfigValues(SCOPE_ID, Collections.singletonMap("key", "value"));
+        loginCache.putPermissions(OTHER_SCOPE_ID, USER_ID, new boolean[] { true });
+
+        loginCache.invalidate(SCOPE_ID);
+
+        Assert.assertNull(loginCache.getAccountName(SCOPE_ID));
+        Assert.assertNull(loginCache.getPermissions(SCOPE_ID, USER_ID));
+        Assert.assertNull(loginCache.getConfigValues(SCOPE_ID));
+        Assert.assertNotNull(loginCache.getPermissions(OTHER_SCOPE_ID, USER_ID));
+    }
+
+    @Test
+    public void testOtherKapuaIdImplementation() {
+        loginCache.putAccountName(SCOPE_ID, "account");
+        loginCache.putConfigValues(SCOPE_ID, Collections.singletonMap("key", "value"));
+
+        KapuaId sameScopeId = () -> BigInteger.valueOf(10);
+        Assert.assertEquals("account", loginCache.getAccountName(sameScopeId));
+        Assert.assertEquals("value", loginCache.getConfigValues(sameScopeId).get("key"));
+    }
+
+    @Test
+    public void testAccountChanged() {
+        loginCache.putAccountName(SCOPE_ID, "account");
+        loginCache.putPermissions(SCOPE_ID, USER_ID, new boolean[] { true });
+        loginCache.putAccountName(OTHER_SCOPE_ID, "other");
+
+        loginCache.received(changeEvent("Account", null, SCOPE_ID));
+
+        Assert.assertNull(loginCache.getAccountName(SCOPE_ID));
+        Assert.assertNull(loginCache.getPermissions(SCOPE_ID, USER_ID));
+        Assert.assertEquals("other", loginCache.getAccountName(OTHER_SCOPE_ID));
+    }
+
+    @Test
+    public void testServiceConfigChanged() {
+        loginCache.putAccountName(SCOPE_ID, "account");
+        loginCache.putConfigValues(SCOPE_ID, Collections.singletonMap("key", "value"));
+        loginCache.putConfigValues(OTHER_SCOPE_ID, Collections.singletonMap("key", "value"));
+
+        loginCache.received(changeEvent("ServiceConfig", SCOPE_ID, new KapuaEid(BigInteger.valueOf(30))));
+
+        Assert.assertNull(loginCache.getConfigValues(SCOPE_ID));
+        Assert.assertEquals("account", loginCache.getAccountName(SCOPE_ID));
+        Assert.assertNotNull(loginCache.getConfigValues(OTHER_SCOPE_ID));
+    }
+
+    @Test
+    public void testUserChanged() {
+        KapuaId otherUserId = new KapuaEid(BigInteger.valueOf(21));
+        loginCache.putPermissions(SCOPE_ID, USER_ID, new boolean[] { true });
+        loginCache.putPermissions(SCOPE_ID, otherUserId, new boolean[] { true });
+
+        loginCache.received(changeEvent("User", SCOPE_ID, USER_ID));
+
+        Assert.assertNull(loginCache.getPermissions(SCOPE_ID, USER_ID));
+        Assert.assertNotNull(loginCache.getPermissions(SCOPE_ID, otherUserId));
+    }
+
+    @Test
+    public void testAccessChanged() {
+        for (String entityType : Arrays.asList("AccessInfo", "AccessPermission", "AccessRole", "Role", "RolePermission")) {
+            loginCache.putAccountName(SCOPE_ID, "account");
+            loginCache.putPermissions(SCOPE_ID, USER_ID, new boolean[] { true });
+            loginCache.putPermissions(OTHER_SCOPE_ID, USER_ID, new boolean[] { true });
+
+            loginCache.received(changeEvent(entityType, SCOPE_ID, new KapuaEid(BigInteger.valueOf(40))));
+
+            Assert.assertNull(entityType, loginCache.getPermissions(SCOPE_ID, USER_ID));
+            Assert.assertNotNull(entityType, loginCache.getPermissions(OTHER_SCOPE_ID, USER_ID));
+            Assert.assertEquals(entityType, "account", loginCache.getAccountName(SCOPE_ID));
+        }
+    }
+
+    @Test
+    public void testOtherEventsIgnored() {
+        loginCache.putAccountName(SCOPE_ID, "account");
+
+        ServiceEvent otherOperation = changeEvent("Account", null, SCOPE_ID);
+        otherOperation.setOperation("create");
+        loginCache.received(otherOperation);
+        loginCache.received(changeEvent("Device", SCOPE_ID, SCOPE_ID));
+
+        Assert.assertEquals("account", loginCache.getAccountName(SCOPE_ID));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testConfigValuesAreReadOnly() {
+        Map<String, Object> configValues = loginCache.putConfigValues(SCOPE_ID, Collections.singletonMap("key", "value"));
+        Assert.assertEquals("value", loginCache.getConfigValues(SCOPE_ID).get("key"));
+        configValues.put("key", "other");
+    }
+
+    @Test
+    public void testSubscriptionRequiresTheNodeName() throws Exception {
+        Assert.assertEquals("entity_cache-broker1-login", LoginCache.subscriptionName("entity_cache", "broker1"));
+        try {
+            LoginCache.subscriptionName("entity_cache", null);
+            Assert.fail("The subscription should require the node name");
+        } catch (KapuaIllegalNullArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("commons.cache.entity.node_name"));
+        }
+    }
+
+    @Test
+    public void testEachBrokerReceivesAllTheEvents() throws Exception {
+        SharedSubscriptionEventBus eventBus = new SharedSubscriptionEventBus();
+        LoginCache firstBrokerCache = new LoginCache(100, 60);
+        LoginCache secondBrokerCache = new LoginCache(100, 60);
+        eventBus.subscribe("entity_cache", LoginCache.subscriptionName("entity_cache", "broker1"), firstBrokerCache::received);
+        eventBus.subscribe("entity_cache", LoginCache.subscriptionName("entity_cache", "broker2"), secondBrokerCache::received);
+        for (LoginCache brokerCache : Arrays.asList(firstBrokerCache, secondBrokerCache)) {
+            brokerCache.putAccountName(SCOPE_ID, "account");
+            brokerCache.putAccountName(OTHER_SCOPE_ID, "other");
+        }
+
+        eventBus.publish("entity_cache", changeEvent("Account", null, SCOPE_ID));
+        eventBus.publish("entity_cache", changeEvent("Account", null, OTHER_SCOPE_ID));
+
+        for (LoginCache brokerCache : Arrays.asList(firstBrokerCache, secondBrokerCache)) {
+            Assert.assertNull(brokerCache.getAccountName(SCOPE_ID));
+            Assert.assertNull(brokerCache.getAccountName(OTHER_SCOPE_ID));
+        }
+    }
+
+    private static ServiceEvent changeEvent(String entityType, KapuaId scopeId, KapuaId entityId) {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setOperation(EntityCache.INVALIDATE_OPERATION);
+        serviceEvent.setEntityType(entityType);
+        serviceEvent.setScopeId(scopeId);
+        serviceEvent.setEntityId(entityId);
+        return serviceEvent;
+    }
+
+    /**
+     * Delivers each event once for each subscription name, to one of its subscribers in turn, as the shared durable subscriptions of the JMS event bus
+     */
+    private static class SharedSubscriptionEventBus implements ServiceEventBus {
+
+        private final Map<String, List<ServiceEventBusListener>> subscriptions = new LinkedHashMap<>();
+        private int delivered;
+
+        @Override
+        public void publish(String address, ServiceEvent event) throws ServiceEventBusException {
+            for (List<ServiceEventBusListener> listeners : subscriptions.values()) {
+                try {
+                    listeners.get(delivered++ % listeners.size()).onKapuaEvent(event);
+                } catch (KapuaException e) {
+                    throw new ServiceEventBusException(e);
+                }
+            }
+        }
+
+        @Override
+        public void subscribe(String address, String name, ServiceEventBusListener eventListener) {
+            subscriptions.computeIfAbsent(name, subscriptionName -> new ArrayList<>()).add(eventListener);
+        }
+    }
+
+}
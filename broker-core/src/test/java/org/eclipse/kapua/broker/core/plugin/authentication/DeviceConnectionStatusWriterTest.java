@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin.authentication;
+
+import org.eclipse.kapua.KapuaOptimisticLockingException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Category(JUnitTests.class)
+public class DeviceConnectionStatusWriterTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId CONNECTION_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId OTHER_CONNECTION_ID = new KapuaEid(BigInteger.valueOf(21));
+    private static final String FULL_CLIENT_ID = "10:client";
+    private static final String OTHER_FULL_CLIENT_ID = "10:other-client";
+
+    private DeviceConnectionService deviceConnectionService;
+    private DeviceConnectionStatusWriter statusWriter;
+    private Map<KapuaId, DeviceConnection> storedDeviceConnections;
+
+    @Before
+    public void setUp() throws Exception {
+        deviceConnectionService = Mockito.mock(DeviceConnectionService.class);
+        statusWriter = new DeviceConnectionStatusWriter(deviceConnectionService, false, 100, 100);
+        storedDeviceConnections = new HashMap<>();
+
+        // apply the changes to the stored device connections, as the service does with the device connections it loads
+        Mockito.doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Map<KapuaId, Consumer<DeviceConnection>> deviceConnectionChanges = (Map<KapuaId, Consumer<DeviceConnection>>) invocation.getArguments()[0];
+            List<DeviceConnection> updatedDeviceConnections = new ArrayList<>();
+            for (Map.Entry<KapuaId, Consumer<DeviceConnection>> deviceConnectionChange : deviceConnectionChanges.entrySet()) {
+                DeviceConnection storedDeviceConnection = storedDeviceConnections.get(deviceConnectionChange.getKey());
+                if (storedDeviceConnection != null) {
+                    deviceConnectionChange.getValue().accept(storedDeviceConnection);
+                    updatedDeviceConnections.add(storedDeviceConnection);
+                }
+            }
+            return updatedDeviceConnections;
+        }).when(deviceConnectionService).updateAll(anyChanges());
+    }
+
+    @Test
+    public void testConnectDisconnectFlapIsCoalesced() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        givenStoredDeviceConnection(CONNECTION_ID, deviceConnection);
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> {
+            dc.setStatus(DeviceConnectionStatus.CONNECTED);
+            dc.setClientIp("10.0.0.1");
+        }, true);
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.CONNECTED), true);
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        Mockito.verifyZeroInteractions(deviceConnection);
+
+        statusWriter.flush();
+
+        // the latest full changes followed by the partial ones, written once
+        InOrder inOrder = Mockito.inOrder(deviceConnection);
+        inOrder.verify(deviceConnection).setStatus(DeviceConnectionStatus.CONNECTED);
+        inOrder.verify(deviceConnection).setStatus(DeviceConnectionStatus.DISCONNECTED);
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).updateAll(anyChanges());
+        Mockito.verify(deviceConnection, Mockito.never()).setClientIp(Matchers.anyString());
+        Mockito.verify(deviceConnectionService, Mockito.never()).find(SCOPE_ID, CONNECTION_ID);
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Matchers.any(DeviceConnection.class));
+    }
+
+    @Test
+    public void testFullUpdateOverridesQueuedChanges() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        givenStoredDeviceConnection(CONNECTION_ID, deviceConnection);
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.CONNECTED), true);
+        statusWriter.flush();
+
+        Mockito.verify(deviceConnection).setStatus(DeviceConnectionStatus.CONNECTED);
+        Mockito.verify(deviceConnection, Mockito.never()).setStatus(DeviceConnectionStatus.DISCONNECTED);
+    }
+
+    @Test
+    public void testPartialUpdateOverridesQueuedPartialChanges() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        givenStoredDeviceConnection(CONNECTION_ID, deviceConnection);
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.MISSING), false);
+        statusWriter.flush();
+
+        Mockito.verify(deviceConnection).setStatus(DeviceConnectionStatus.MISSING);
+        Mockito.verify(deviceConnection, Mockito.never()).setStatus(DeviceConnectionStatus.DISCONNECTED);
+    }
+
+    @Test
+    public void testBatchWrittenInSingleTransaction() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        DeviceConnection otherDeviceConnection = Mockito.mock(DeviceConnection.class);
+        givenStoredDeviceConnection(CONNECTION_ID, deviceConnection);
+        givenStoredDeviceConnection(OTHER_CONNECTION_ID, otherDeviceConnection);
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.CONNECTED), true);
+        statusWriter.update(OTHER_FULL_CLIENT_ID, SCOPE_ID, OTHER_CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        statusWriter.flush();
+
+        // the device connections are loaded by the service in the update transaction, not one by one
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<KapuaId, Consumer<DeviceConnection>>> captor = ArgumentCaptor.forClass((Class) Map.class);
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).updateAll(captor.capture());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(CONNECTION_ID, OTHER_CONNECTION_ID)), captor.getValue().keySet());
+        Mockito.verify(deviceConnection).setStatus(DeviceConnectionStatus.CONNECTED);
+        Mockito.verify(otherDeviceConnection).setStatus(DeviceConnectionStatus.DISCONNECTED);
+        Mockito.verify(deviceConnectionService, Mockito.never()).find(Matchers.any(KapuaId.class), Matchers.any(KapuaId.class));
+    }
+
+    @Test
+    public void testOptimisticLockingRetry() throws Exception {
+        DeviceConnection staleDeviceConnection = Mockito.mock(DeviceConnection.class);
+        DeviceConnection freshDeviceConnection = Mockito.mock(DeviceConnection.class);
+        Mockito.when(deviceConnectionService.find(SCOPE_ID, CONNECTION_ID)).thenReturn(staleDeviceConnection, freshDeviceConnection);
+        Mockito.doThrow(new KapuaOptimisticLockingException(null)).when(deviceConnectionService).updateAll(anyChanges());
+        Mockito.when(deviceConnectionService.update(staleDeviceConnection)).thenThrow(new KapuaOptimisticLockingException(null));
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.DISCONNECTED), false);
+        statusWriter.flush();
+
+        // the batch fails, then the single update fails, then the reloaded device connection is written
+        Mockito.verify(deviceConnectionService, Mockito.times(2)).find(SCOPE_ID, CONNECTION_ID);
+        Mockito.verify(freshDeviceConnection).setStatus(DeviceConnectionStatus.DISCONNECTED);
+        Mockito.verify(deviceConnectionService).update(freshDeviceConnection);
+    }
+
+    @Test
+    public void testApplyPending() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        Assert.assertFalse(statusWriter.applyPending(FULL_CLIENT_ID, deviceConnection));
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setServerIp("broker-1"), true);
+        Assert.assertTrue(statusWriter.applyPending(FULL_CLIENT_ID, deviceConnection));
+        Mockito.verify(deviceConnection).setServerIp("broker-1");
+
+        givenStoredDeviceConnection(CONNECTION_ID, Mockito.mock(DeviceConnection.class));
+        statusWriter.flush();
+        Assert.assertFalse(statusWriter.applyPending(FULL_CLIENT_ID, deviceConnection));
+    }
+
+    @Test
+    public void testMissingDeviceConnectionSkipped() throws Exception {
+        DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
+        givenStoredDeviceConnection(CONNECTION_ID, deviceConnection);
+
+        statusWriter.update(FULL_CLIENT_ID, SCOPE_ID, CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.CONNECTED), true);
+        statusWriter.update(OTHER_FULL_CLIENT_ID, SCOPE_ID, OTHER_CONNECTION_ID, dc -> dc.setStatus(DeviceConnectionStatus.CONNECTED), true);
+        statusWriter.flush();
+
+        // the batch doesn't fail, so it isn't written again one by one
+        Mockito.verify(deviceConnection).setStatus(DeviceConnectionStatus.CONNECTED);
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Matchers.any(DeviceConnection.class));
+    }
+
+    private void givenStoredDeviceConnection(KapuaId deviceConnectionId, DeviceConnection deviceConnection) {
+        storedDeviceConnections.put(deviceConnectionId, deviceConnection);
+    }
+
+    private static Map<KapuaId, Consumer<DeviceConnection>> anyChanges() {
+        return Matchers.any();
+    }
+}
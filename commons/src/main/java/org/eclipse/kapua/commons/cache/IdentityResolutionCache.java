@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.cache;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import com.codahale.metrics.Counter;
+
+/**
+ * Identity resolution cache.<br>
+ * Keeps, for a limited time, the identities resolved for each inbound device message:
+ * <ul>
+ * <li>the scope id (by account name)</li>
+ * <li>the device id (by scope id and client id)</li>
+ * </ul>
+ * so the translation of the device messages doesn't query the account and the device registry for each message.<br>
+ * The not existing identities are kept too (for a shorter time), so the messages of a not registered device don't query the device registry each time.<br>
+ * The entries are invalidated by the account and device registry services of the same process, the entries changed by other processes expire after the configured time.
+ *
+ * @since 1.1.0
+ */
+public class IdentityResolutionCache {
+
+    /**
+     * Identity loader
+     */
+    @FunctionalInterface
+    public interface IdentityLoader {
+
+        /**
+         * Load the identity
+         *
+         * @return the identity or null if it doesn't exist
+         * @throws KapuaException
+         */
+        KapuaId load() throws KapuaException;
+    }
+
+    private static final IdentityResolutionCache INSTANCE = new IdentityResolutionCache();
+
+    private final LocalCache<String, KapuaId> scopeIds;
+    private final LocalCache<String, Boolean> missingScopeIds;
+    private final LocalCache<String, KapuaId> deviceIds;
+    private final LocalCache<String, Boolean> missingDeviceIds;
+
+    private final Counter scopeIdHit;
+    private final Counter scopeIdMiss;
+    private final Counter deviceIdHit;
+    private final Counter deviceIdMiss;
+
+    private IdentityResolutionCache() {
+        SystemSetting setting = SystemSetting.getInstance();
+        int sizeMax = setting.getInt(SystemSettingKey.IDENTITY_CACHE_SIZE_MAX, 100000);
+        int expireAfter = setting.getInt(SystemSettingKey.IDENTITY_CACHE_EXPIRE_AFTER, 60);
+        int missingExpireAfter = setting.getInt(SystemSettingKey.IDENTITY_CACHE_MISSING_EXPIRE_AFTER, 10);
+        scopeIds = new LocalCache<>(sizeMax, expireAfter, null);
+        missingScopeIds = new LocalCache<>(sizeMax, missingExpireAfter, null);
+        deviceIds = new LocalCache<>(sizeMax, expireAfter, null);
+        missingDeviceIds = new LocalCache<>(sizeMax, missingExpireAfter, null);
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        scopeIdHit = metricsService.getCounter("commons", "identity_cache", "scope_id", "hit", "count");
+        scopeIdMiss = metricsService.getCounter("commons", "identity_cache", "scope_id", "miss", "count");
+        deviceIdHit = metricsService.getCounter("commons", "identity_cache", "device_id", "hit", "count");
+        deviceIdMiss = metricsService.getCounter("commons", "identity_cache", "device_id", "miss", "count");
+    }
+
+    /**
+     * Get the cache instance
+     *
+     * @return
+     */
+    public static IdentityResolutionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the scope id of the account, loading it if not cached
+     *
+     * @param accountName
+     * @param loader
+     *            the scope id loader (called if the scope id is not cached)
+     * @return the scope id or null if the account doesn't exist
+     * @throws KapuaException
+     *             if the loader fails
+     */
+    public KapuaId getScopeId(String accountName, IdentityLoader loader) throws KapuaException {
+        KapuaId scopeId = scopeIds.get(accountName);
+        if (scopeId != null || missingScopeIds.get(accountName) != null) {
+            scopeIdHit.inc();
+            return scopeId;
+        }
+        scopeIdMiss.inc();
+        scopeId = loader.load();
+        if (scopeId != null) {
+            scopeIds.put(accountName, scopeId);
+        } else {
+            missingScopeIds.put(accountName, Boolean.TRUE);
+        }
+        return scopeId;
+    }
+
+    /**
+     * Get the device id of the client, loading it if not cached
+     *
+     * @param scopeId
+     * @param clientId
+     * @param loader
+     *            the device id loader (called if the device id is not cached)
+     * @return the device id or null if the device doesn't exist
+     * @throws KapuaException
+     *             if the loader fails
+     */
+    public KapuaId getDeviceId(KapuaId scopeId, String clientId, IdentityLoader loader) throws KapuaException {
+        String key = deviceKey(scopeId, clientId);
+        KapuaId deviceId = deviceIds.get(key);
+        if (deviceId != null || missingDeviceIds.get(key) != null) {
+            deviceIdHit.inc();
+            return deviceId;
+        }
+        deviceIdMiss.inc();
+        deviceId = loader.load();
+        if (deviceId != null) {
+            deviceIds.put(key, deviceId);
+        } else {
+            missingDeviceIds.put(key, Boolean.TRUE);
+        }
+        return deviceId;
+    }
+
+    /**
+     * Invalidate the account entries (to be called when the account is created or deleted)
+     *
+     * @param accountName
+     */
+    public void invalidateAccount(String accountName) {
+        scopeIds.remove(accountName);
+        missingScopeIds.remove(accountName);
+    }
+
+    /**
+     * Invalidate the entries of the scope, the account entry and the device entries (to be called when the account is deleted)
+     *
+     * @param scopeId
+     */
+    public void invalidateScope(KapuaId scopeId) {
+        for (String accountName : scopeIds.getAllKeys()) {
+            KapuaId cachedScopeId = scopeIds.get(accountName);
+            if (cachedScopeId != null && cachedScopeId.getId().equals(scopeId.getId())) {
+                scopeIds.remove(accountName);
+            }
+        }
+        String keyPrefix = scopeId.toCompactId() + "/";
+        for (String key : deviceIds.getAllKeys()) {
+            if (key.startsWith(keyPrefix)) {
+                deviceIds.remove(key);
+            }
+        }
+        for (String key : missingDeviceIds.getAllKeys()) {
+            if (key.startsWith(keyPrefix)) {
+                missingDeviceIds.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the device entry (to be called when the device is created)
+     *
+     * @param scopeId
+     * @param clientId
+     */
+    public void invalidateDevice(KapuaId scopeId, String clientId) {
+        String key = deviceKey(scopeId, clientId);
+        deviceIds.remove(key);
+        missingDeviceIds.remove(key);
+    }
+
+    /**
+     * Invalidate the device entry (to be called when the device is deleted)
+     *
+     * @param scopeId
+     * @param deviceId
+     */
+    public void invalidateDevice(KapuaId scopeId, KapuaId deviceId) {
+        String keyPrefix = scopeId.toCompactId() + "/";
+        for (String key : deviceIds.getAllKeys()) {
+            if (key.startsWith(keyPrefix)) {
+                KapuaId cachedDeviceId = deviceIds.get(key);
+                if (cachedDeviceId != null && cachedDeviceId.getId().equals(deviceId.getId())) {
+                    deviceIds.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate all the entries
+     */
+    public void invalidateAll() {
+        scopeIds.invalidateAll();
+        missingScopeIds.invalidateAll();
+        deviceIds.invalidateAll();
+        missingDeviceIds.invalidateAll();
+    }
+
+    private static String deviceKey(KapuaId scopeId, String clientId) {
+        // the compact id is used since the KapuaId implementations don't share the same hash code
+        return scopeId.toCompactId() + "/" + clientId;
+    }
+
+}
@@ -17,12 +17,9 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.jpa.EntityManagerFactory;
 import org.eclipse.kapua.commons.service.internal.AbstractKapuaService;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
-import org.eclipse.kapua.commons.util.ResourceUtils;
-import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.KapuaEntityAttributes;
 import org.eclipse.kapua.model.config.metatype.KapuaTad;
-import org.eclipse.kapua.model.config.metatype.KapuaTmetadata;
 import org.eclipse.kapua.model.config.metatype.KapuaTocd;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.domain.Domain;
@@ -33,8 +30,6 @@ import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -63,23 +58,6 @@ public abstract class AbstractKapuaConfigurableService extends AbstractKapuaServ
         this.domain = domain;
     }
 
-    /**
-     * Reads metadata for the service pid
-     *
-     * @param pid the persistent ID of the service
-     * @return the metadata
-     * @throws Exception In case of an error
-     */
-    private static KapuaTmetadata readMetadata(String pid) throws Exception {
-        URL url = ResourceUtils.getResource(String.format("META-INF/metatypes/%s.xml", pid));
-
-        if (url == null) {
-            return null;
-        }
-
-        return XmlUtil.unmarshal(ResourceUtils.openAsReader(url, StandardCharsets.UTF_8), KapuaTmetadata.class);
-    }
-
     /**
      * Validate configuration
      *
@@ -236,19 +214,7 @@ public abstract class AbstractKapuaConfigurableService extends AbstractKapuaServ
 
         authorizationService.checkPermission(permissionFactory.newPermission(domain, Actions.read, scopeId));
 
-        try {
-            KapuaTmetadata metadata = readMetadata(pid);
-            if (metadata != null && metadata.getOCD() != null && !metadata.getOCD().isEmpty()) {
-                for (KapuaTocd ocd : metadata.getOCD()) {
-                    if (ocd.getId() != null && ocd.getId().equals(pid)) {
-                        return ocd;
-                    }
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            throw KapuaException.internalError(e);
-        }
+        return ConfigMetadataCache.getInstance().get(pid).getOcd();
     }
 
     @Override
@@ -275,8 +241,8 @@ public abstract class AbstractKapuaConfigurableService extends AbstractKapuaServ
             properties = result.getFirstItem().getConfigurations();
         }
 
-        KapuaTocd ocd = getConfigMetadata(scopeId);
-        return toValues(ocd, properties);
+        // same permission checked by getConfigMetadata, so the cached metadata is used directly
+        return ConfigMetadataCache.getInstance().get(pid).toValues(properties);
     }
 
     @Override
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.configuration;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.configuration.metatype.TscalarImpl;
+import org.eclipse.kapua.commons.util.ResourceUtils;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.model.config.metatype.KapuaTad;
+import org.eclipse.kapua.model.config.metatype.KapuaTmetadata;
+import org.eclipse.kapua.model.config.metatype.KapuaTocd;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service configuration metadata cache.<br>
+ * The metadata of a service is a classpath resource, so it's read and unmarshalled once per pid and then shared by all the configurable services of the process.<br>
+ * The cached {@link KapuaTocd} is shared, so it must be treated as read only.
+ *
+ * @since 1.1.0
+ */
+public class ConfigMetadataCache {
+
+    private static final ConfigMetadataCache INSTANCE = new ConfigMetadataCache();
+
+    private final Map<String, ConfigMetadata> metadataByPid = new ConcurrentHashMap<>();
+
+    private ConfigMetadataCache() {
+    }
+
+    /**
+     * Get the cache instance
+     *
+     * @return
+     */
+    public static ConfigMetadataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the metadata for the service pid, reading it on the first request
+     *
+     * @param pid the persistent ID of the service
+     * @return the metadata (never null, the {@link ConfigMetadata#getOcd()} is null if the service has no metadata)
+     * @throws KapuaException In case of an error reading the metadata
+     */
+    public ConfigMetadata get(String pid) throws KapuaException {
+        ConfigMetadata configMetadata = metadataByPid.get(pid);
+        if (configMetadata == null) {
+            try {
+                configMetadata = new ConfigMetadata(findOcd(readMetadata(pid), pid));
+            } catch (Exception e) {
+                throw KapuaException.internalError(e);
+            }
+            // concurrent readers may have read the same metadata, keep the first one
+            ConfigMetadata previous = metadataByPid.putIfAbsent(pid, configMetadata);
+            if (previous != null) {
+                configMetadata = previous;
+            }
+        }
+        return configMetadata;
+    }
+
+    /**
+     * Invalidate all the cached metadata
+     */
+    public void invalidateAll() {
+        metadataByPid.clear();
+    }
+
+    /**
+     * Reads metadata for the service pid
+     *
+     * @param pid the persistent ID of the service
+     * @return the metadata
+     * @throws Exception In case of an error
+     */
+    static KapuaTmetadata readMetadata(String pid) throws Exception {
+        URL url = ResourceUtils.getResource(String.format("META-INF/metatypes/%s.xml", pid));
+
+        if (url == null) {
+            return null;
+        }
+
+        return XmlUtil.unmarshal(ResourceUtils.openAsReader(url, StandardCharsets.UTF_8), KapuaTmetadata.class);
+    }
+
+    private static KapuaTocd findOcd(KapuaTmetadata metadata, String pid) {
+        if (metadata != null && metadata.getOCD() != null && !metadata.getOCD().isEmpty()) {
+            for (KapuaTocd ocd : metadata.getOCD()) {
+                if (ocd.getId() != null && ocd.getId().equals(pid)) {
+                    return ocd;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parsed metadata of a service.<br>
+     * Besides the {@link KapuaTocd} it keeps the attribute types already resolved and the (immutable) default values already converted, so the conversion of the stored
+     * configuration to values doesn't go through the metadata again.
+     */
+    public static class ConfigMetadata {
+
+        private final KapuaTocd ocd;
+        private final List<AttributeConverter> converters;
+
+        ConfigMetadata(KapuaTocd ocd) {
+            this.ocd = ocd;
+            if (ocd == null) {
+                converters = Collections.emptyList();
+            } else {
+                List<AttributeConverter> attributeConverters = new ArrayList<>(ocd.getAD().size());
+                for (KapuaTad ad : ocd.getAD()) {
+                    attributeConverters.add(new AttributeConverter(ad));
+                }
+                converters = Collections.unmodifiableList(attributeConverters);
+            }
+        }
+
+        /**
+         * Get the (shared and read only) metadata
+         *
+         * @return the metadata or null if the service has no metadata
+         */
+        public KapuaTocd getOcd() {
+            return ocd;
+        }
+
+        /**
+         * Convert the {@link Properties} to a properties map.<br>
+         * Same as {@link AbstractKapuaConfigurableService#toValues(KapuaTocd, Properties)} for the cached metadata.
+         *
+         * @param props
+         * @return
+         * @throws KapuaException
+         */
+        public Map<String, Object> toValues(Properties props) throws KapuaException {
+            Map<String, Object> values = new HashMap<>();
+            for (AttributeConverter converter : converters) {
+                values.put(converter.id, converter.toValue(props));
+            }
+            return values;
+        }
+    }
+
+    private static class AttributeConverter {
+
+        private final String id;
+        private final String type;
+        private final String defaultString;
+        private final boolean defaultConverted;
+        private final Object defaultValue;
+
+        private AttributeConverter(KapuaTad ad) {
+            id = ad.getId();
+            type = ad.getType().value();
+            defaultString = ad.getDefault();
+
+            // the password values are mutable so they can't be shared
+            Object value = null;
+            boolean converted = false;
+            if (!TscalarImpl.PASSWORD.value().equals(type)) {
+                try {
+                    value = StringUtil.stringToValue(type, defaultString);
+                    converted = true;
+                } catch (Exception e) {
+                    // converted on each request, so the error is reported as it was before the caching
+                }
+            }
+            defaultValue = value;
+            defaultConverted = converted;
+        }
+
+        private Object toValue(Properties props) throws KapuaException {
+            String valueStr = props == null ? null : props.getProperty(id);
+            if (valueStr == null) {
+                return defaultConverted ? defaultValue : StringUtil.stringToValue(type, defaultString);
+            }
+            return StringUtil.stringToValue(type, valueStr);
+        }
+    }
+
+}
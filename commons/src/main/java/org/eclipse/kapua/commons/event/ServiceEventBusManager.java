@@ -78,6 +78,15 @@ public class ServiceEventBusManager {
         return serviceEventBusDrivers.get(JMS_20_EVENT_BUS).getEventBus();
     }
 
+    /**
+     * Check if the event bus is started
+     *
+     * @return
+     */
+    public static boolean isStarted() {
+        return started;
+    }
+
     /**
      * Start the event bus
      *
@@ -39,7 +39,7 @@ public abstract class AbstractEntityManagerFactory implements org.eclipse.kapua.
      * Protected constructor
      *
      * @param persistenceUnitName
-     * @param datasourceName
+     * @param datasourceName      Not used anymore, the connections are taken from the shared {@link KapuaDataSource}
      * @param uniqueConstraints
      */
     protected AbstractEntityManagerFactory(String persistenceUnitName, String datasourceName, Map<String, String> uniqueConstraints) {
@@ -54,15 +54,22 @@ public abstract class AbstractEntityManagerFactory implements org.eclipse.kapua.
 
             configOverrides.put("eclipselink.cache.shared.default", "false"); // This has to be set to false in order to disable the local object cache of EclipseLink.
 
-            configOverrides.put("eclipselink.connection-pool.default.url", JdbcConnectionUrlResolvers.resolveJdbcUrl());
-            configOverrides.put("eclipselink.connection-pool.default.user", config.getString(SystemSettingKey.DB_USERNAME));
-            configOverrides.put("eclipselink.connection-pool.default.password", config.getString(SystemSettingKey.DB_PASSWORD));
-
-            configOverrides.put("eclipselink.connection-pool.default.dataSourceName", datasourceName);
-            configOverrides.put("eclipselink.connection-pool.default.initial", config.getString(SystemSettingKey.DB_POOL_SIZE_INITIAL));
-            configOverrides.put("eclipselink.connection-pool.default.min", config.getString(SystemSettingKey.DB_POOL_SIZE_MIN));
-            configOverrides.put("eclipselink.connection-pool.default.max", config.getString(SystemSettingKey.DB_POOL_SIZE_MAX));
-            configOverrides.put("eclipselink.connection-pool.default.wait", config.getString(SystemSettingKey.DB_POOL_BORROW_TIMEOUT));
+            // Only the entities listed in the settings are kept in the shared cache (see EntityCache)
+            EntityCache entityCache = EntityCache.getInstance();
+            for (String entityName : entityCache.getEntityNames()) {
+                configOverrides.put("eclipselink.cache.shared." + entityName, "true");
+                configOverrides.put("eclipselink.cache.size." + entityName, Integer.toString(entityCache.getSizeMax()));
+            }
+            if (entityCache.isPublishing()) {
+                configOverrides.put("eclipselink.session.customizer", EntityCacheSessionCustomizer.class.getName());
+            }
+
+            // All the persistence units share the same connection pool, sized for all of them (see KapuaDataSource)
+            configOverrides.put("javax.persistence.nonJtaDataSource", KapuaDataSource.getInstance());
+
+            // Statements written in the same flush are sent to the database in JDBC batches (see ServiceDAO#createAll and ServiceDAO#updateAll)
+            configOverrides.put("eclipselink.jdbc.batch-writing", "JDBC");
+            configOverrides.put("eclipselink.jdbc.batch-writing.size", Integer.toString(config.getInt(SystemSettingKey.DB_JDBC_BATCH_WRITING_SIZE, 100)));
 
             configOverrides.put("eclipselink.logging.level", "FINE");
             configOverrides.put("eclipselink.logging.parameters", "true");
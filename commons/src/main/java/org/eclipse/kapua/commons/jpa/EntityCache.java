@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBusException;
+import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.changesets.ObjectChangeSet;
+import org.eclipse.persistence.sessions.changesets.UnitOfWorkChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared (second level) entity cache.<br>
+ * The entities listed in {@link SystemSettingKey#ENTITY_CACHE_NAMES} (by entity name, i.e. {@code Account}, {@code User}, {@code Role}, {@code Domain},
+ * {@code Group}, {@code ServiceConfig}) are kept in the EclipseLink shared cache of each persistence unit, the other entities are always read from the database.<br>
+ * The entities changed or deleted by a transaction are invalidated:
+ * <ul>
+ * <li>in the shared cache of the other persistence units of the same process (the committing one is updated by EclipseLink)</li>
+ * <li>in the shared cache of the other processes (broker, REST API, console), through an event published on the {@link org.eclipse.kapua.event.ServiceEventBus}
+ * (see {@link EntityCacheServiceModule})</li>
+ * </ul>
+ * The changes of the entities listed in {@link SystemSettingKey#ENTITY_CACHE_EVENT_NAMES} are published too, even if not cached, so the other processes
+ * can invalidate the values they look up from them (i.e. the broker login cache).<br>
+ * The events published while the event bus is not started are lost, and the changes made without the services (i.e. by SQL scripts) are not detected,
+ * so in these cases the changes are seen only when the entities are evicted.
+ *
+ * @since 1.1.0
+ */
+public class EntityCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCache.class);
+
+    /**
+     * Operation of the events published for the changed or deleted entities
+     */
+    public static final String INVALIDATE_OPERATION = "invalidate";
+
+    private static final EntityCache INSTANCE = new EntityCache();
+
+    private final Set<String> entityNames;
+    private final Set<String> eventEntityNames;
+    private final int sizeMax;
+    private final String eventAddress;
+    private final String nodeName;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Counter> hits = new HashMap<>();
+    private final Map<String, Counter> misses = new HashMap<>();
+    private final Map<String, Counter> invalidations = new HashMap<>();
+
+    private EntityCache() {
+        this(names(SystemSetting.getInstance(), SystemSettingKey.ENTITY_CACHE_NAMES),
+                names(SystemSetting.getInstance(), SystemSettingKey.ENTITY_CACHE_EVENT_NAMES),
+                SystemSetting.getInstance().getInt(SystemSettingKey.ENTITY_CACHE_SIZE_MAX, 1000),
+                SystemSetting.getInstance().getString(SystemSettingKey.ENTITY_CACHE_EVENT_ADDRESS, "entity_cache"),
+                SystemSetting.getInstance().getString(SystemSettingKey.ENTITY_CACHE_NODE_NAME, null));
+    }
+
+    EntityCache(Set<String> entityNames, Set<String> eventEntityNames, int sizeMax, String eventAddress, String nodeName) {
+        this.entityNames = Collections.unmodifiableSet(new LinkedHashSet<>(entityNames));
+        Set<String> eventNames = new LinkedHashSet<>(eventEntityNames);
+        eventNames.addAll(entityNames);
+        this.eventEntityNames = Collections.unmodifiableSet(eventNames);
+        this.sizeMax = sizeMax;
+        this.eventAddress = eventAddress;
+        this.nodeName = nodeName != null && !nodeName.trim().isEmpty() ? nodeName.trim() : null;
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        for (String name : entityNames) {
+            hits.put(name, metricsService.getCounter("commons", "entity_cache", name, "hit", "count"));
+            misses.put(name, metricsService.getCounter("commons", "entity_cache", name, "miss", "count"));
+            invalidations.put(name, metricsService.getCounter("commons", "entity_cache", name, "invalidation", "count"));
+        }
+    }
+
+    /**
+     * Get the cache instance
+     *
+     * @return
+     */
+    public static EntityCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the names of the cached entities
+     *
+     * @return the entity names, empty if the cache is disabled
+     */
+    public Set<String> getEntityNames() {
+        return entityNames;
+    }
+
+    /**
+     * Get the names of the entities whose changes are published on the event bus (the cached ones and the ones listed in {@link SystemSettingKey#ENTITY_CACHE_EVENT_NAMES})
+     *
+     * @return the entity names, empty if no change is published
+     */
+    public Set<String> getEventEntityNames() {
+        return eventEntityNames;
+    }
+
+    /**
+     * Get the max number of entities of each type kept in the cache of each persistence unit
+     *
+     * @return
+     */
+    public int getSizeMax() {
+        return sizeMax;
+    }
+
+    /**
+     * Get the event bus address of the invalidation events
+     *
+     * @return
+     */
+    public String getEventAddress() {
+        return eventAddress;
+    }
+
+    /**
+     * Get the name of this process on the event bus.<br>
+     * Each process subscribes the invalidation events with its own durable subscription, so each process must be configured with its own name,
+     * kept across the restarts (see {@link EntityCacheServiceModule}).
+     *
+     * @return the configured name, {@code null} if not configured
+     */
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * Check if the cache is enabled (at least one entity is cached)
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return !entityNames.isEmpty();
+    }
+
+    /**
+     * Check if the changes of some entities are published on the event bus
+     *
+     * @return
+     */
+    public boolean isPublishing() {
+        return !eventEntityNames.isEmpty();
+    }
+
+    /**
+     * Register the session of a persistence unit (see {@link EntityCacheSessionCustomizer})
+     *
+     * @param session
+     */
+    void register(Session session) {
+        sessions.add(session);
+    }
+
+    /**
+     * Count a cache hit of the entity
+     *
+     * @param entityName
+     */
+    void hit(String entityName) {
+        Counter counter = hits.get(entityName);
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
+    /**
+     * Count a cache miss of the entity
+     *
+     * @param entityName
+     */
+    void miss(String entityName) {
+        Counter counter = misses.get(entityName);
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
+    /**
+     * Invalidate the cached entities changed or deleted by the committed unit of work, in the other persistence units and in the other processes,
+     * and publish the changes of the other entities of {@link #getEventEntityNames()}
+     *
+     * @param unitOfWork
+     */
+    void committed(UnitOfWork unitOfWork) {
+        UnitOfWorkChangeSet unitOfWorkChangeSet = unitOfWork.getUnitOfWorkChangeSet();
+        if (unitOfWorkChangeSet == null || !unitOfWorkChangeSet.hasChanges()) {
+            return;
+        }
+
+        Set<ObjectChangeSet> objectChangeSets = new HashSet<>();
+        objectChangeSets.addAll(unitOfWorkChangeSet.getAllChangeSets().keySet());
+        objectChangeSets.addAll(unitOfWorkChangeSet.getDeletedObjects().keySet());
+
+        Session rootSession = ((org.eclipse.persistence.internal.sessions.AbstractSession) unitOfWork).getRootSession(null);
+        for (ObjectChangeSet objectChangeSet : objectChangeSets) {
+            // new entities are not cached by the other persistence units and processes yet
+            if (objectChangeSet.isNew()) {
+                continue;
+            }
+
+            ClassDescriptor descriptor = unitOfWork.getDescriptor(objectChangeSet.getClassType(unitOfWork));
+            String entityName = descriptor != null ? descriptor.getAlias() : null;
+            if (entityName == null || !eventEntityNames.contains(entityName)) {
+                continue;
+            }
+
+            Object primaryKey = objectChangeSet.getId();
+            if (entityNames.contains(entityName)) {
+                invalidate(entityName, primaryKey, rootSession);
+            }
+            Object entity = ((org.eclipse.persistence.internal.sessions.ObjectChangeSet) objectChangeSet).getUnitOfWorkClone();
+            publish(entityName,
+                    primaryKey instanceof BigInteger ? new KapuaEid((BigInteger) primaryKey) : null,
+                    entity instanceof KapuaEntity ? ((KapuaEntity) entity).getScopeId() : null);
+        }
+    }
+
+    /**
+     * Invalidate the cached entity changed or deleted by another process
+     *
+     * @param serviceEvent the invalidation event
+     */
+    void received(ServiceEvent serviceEvent) {
+        // the events published by this process have already been applied
+        if (!INVALIDATE_OPERATION.equals(serviceEvent.getOperation()) || instanceId.equals(serviceEvent.getNote())) {
+            return;
+        }
+
+        KapuaId entityId = serviceEvent.getEntityId();
+        invalidate(serviceEvent.getEntityType(), entityId != null ? entityId.getId() : null, null);
+    }
+
+    /**
+     * Invalidate the entity in the shared cache of the registered sessions
+     *
+     * @param entityName
+     * @param primaryKey      the primary key of the entity, all the entities of the type are invalidated if {@code null}
+     * @param excludedSession the session not to invalidate
+     */
+    private void invalidate(String entityName, Object primaryKey, Session excludedSession) {
+        Counter counter = invalidations.get(entityName);
+        if (counter == null) {
+            return;
+        }
+        counter.inc();
+
+        for (Session session : sessions) {
+            if (session == excludedSession) {
+                continue;
+            }
+
+            ClassDescriptor descriptor = session.getDescriptorForAlias(entityName);
+            if (descriptor == null) {
+                continue;
+            }
+
+            if (primaryKey != null) {
+                session.getIdentityMapAccessor().invalidateObject(primaryKey, descriptor.getJavaClass());
+            } else {
+                session.getIdentityMapAccessor().invalidateClass(descriptor.getJavaClass());
+            }
+        }
+    }
+
+    private void publish(String entityName, KapuaId entityId, KapuaId scopeId) {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setId(UUID.randomUUID().toString());
+        serviceEvent.setContextId(serviceEvent.getId());
+        serviceEvent.setTimestamp(new Date());
+        serviceEvent.setService(eventAddress);
+        serviceEvent.setEntityType(entityName);
+        serviceEvent.setEntityId(entityId);
+        serviceEvent.setScopeId(scopeId);
+        serviceEvent.setOperation(INVALIDATE_OPERATION);
+        serviceEvent.setNote(instanceId);
+
+        try {
+            publish(serviceEvent);
+        } catch (ServiceEventBusException | RuntimeException | LinkageError e) {
+            // the transaction is already committed, the other nodes will see the change when the entity is evicted
+            LOG.warn("Cannot publish the invalidation of the cached entity {} {} to the other nodes: {}", entityName, entityId, e.getMessage());
+        }
+    }
+
+    /**
+     * Publish the event on the event bus
+     *
+     * @param serviceEvent
+     * @throws ServiceEventBusException
+     */
+    void publish(ServiceEvent serviceEvent) throws ServiceEventBusException {
+        // i.e. the tools and the tests working on the database without the other processes
+        if (!ServiceEventBusManager.isStarted()) {
+            LOG.debug("Event bus not started, the change of the entity {} {} is not published", serviceEvent.getEntityType(), serviceEvent.getEntityId());
+            return;
+        }
+        ServiceEventBusManager.getInstance().publish(eventAddress, serviceEvent);
+    }
+
+    private static Set<String> names(SystemSetting setting, SystemSettingKey key) {
+        Set<String> names = new LinkedHashSet<>();
+        List<String> configuredNames = setting.getList(String.class, key);
+        if (configuredNames != null) {
+            for (String name : configuredNames) {
+                if (name != null && !name.trim().isEmpty()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.locator.KapuaProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ServiceModule} which subscribes the invalidation events of the {@link EntityCache} published by the other processes.<br>
+ * Each process subscribes with its own name (see {@link EntityCache#getNodeName()}), so each event is received by all the processes.<br>
+ * The subscription is durable, so the name is not generated: a name generated at each start would leave a subscription on the broker at each restart,
+ * and the host name is shared by the processes running on the same host. The module fails to start if the cache is enabled without a name.
+ *
+ * @since 1.1.0
+ */
+@KapuaProvider
+public class EntityCacheServiceModule implements ServiceModule {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityCacheServiceModule.class);
+
+    @Override
+    public void start() throws KapuaException {
+        start(EntityCache.getInstance());
+    }
+
+    void start(EntityCache entityCache) throws KapuaException {
+        if (!entityCache.isEnabled()) {
+            LOGGER.info("Starting entity cache module... no cached entities. SKIPPED");
+            return;
+        }
+
+        if (entityCache.getNodeName() == null) {
+            throw new KapuaIllegalNullArgumentException(SystemSettingKey.ENTITY_CACHE_NODE_NAME.key());
+        }
+
+        String address = entityCache.getEventAddress();
+        String subscriptionName = String.format("%s-%s", address, entityCache.getNodeName());
+        LOGGER.info("Starting entity cache module... subscribing to address {} - name {} for the entities {}", address, subscriptionName, entityCache.getEntityNames());
+        ServiceEventBusManager.getInstance().subscribe(address, subscriptionName, entityCache::received);
+        LOGGER.info("Starting entity cache module... DONE");
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        // The subscription is closed with the event bus
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.eclipse.persistence.sessions.UnitOfWork;
+
+/**
+ * EclipseLink session customizer of the persistence units with a shared {@link EntityCache} or publishing the entity changes.<br>
+ * It registers the session into the {@link EntityCache}, invalidates the cached entities (and publishes the changes) of each committed unit of work
+ * and counts the cache hits and misses of the cached entities.
+ *
+ * @since 1.1.0
+ */
+public class EntityCacheSessionCustomizer implements SessionCustomizer {
+
+    @Override
+    public void customize(Session session) {
+        EntityCache entityCache = EntityCache.getInstance();
+
+        entityCache.register(session);
+
+        session.getEventManager().addListener(new SessionEventAdapter() {
+
+            @Override
+            public void postCommitUnitOfWork(SessionEvent event) {
+                entityCache.committed((UnitOfWork) event.getSession());
+            }
+        });
+
+        // the cache hits and misses are counted only if some entity is cached
+        if (!entityCache.isEnabled()) {
+            return;
+        }
+
+        session.setProfiler(new SessionProfilerAdapter() {
+
+            @Override
+            public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+                if (query == null || query.getDescriptor() == null) {
+                    return;
+                }
+
+                if (SessionProfiler.CacheHits.equals(operationName)) {
+                    entityCache.hit(query.getDescriptor().getAlias());
+                } else if (SessionProfiler.CacheMisses.equals(operationName)) {
+                    entityCache.miss(query.getDescriptor().getAlias());
+                }
+            }
+        });
+    }
+}
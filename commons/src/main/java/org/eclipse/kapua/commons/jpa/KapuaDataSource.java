@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared JDBC {@link DataSource} of all the persistence units (see {@link AbstractEntityManagerFactory}).<br>
+ * The connections are kept in a single pool, sized by the {@link SystemSettingKey#DB_POOL_SIZE_MIN} and {@link SystemSettingKey#DB_POOL_SIZE_MAX} settings,
+ * so the process holds at most {@link SystemSettingKey#DB_POOL_SIZE_MAX} connections whatever the number of persistence units.<br>
+ * A thread borrows a connection for each persistence unit it is working with at the same time (i.e. a service calling another service in its transaction),
+ * so the max size must cover the concurrent operations times the connections each of them holds at once: below that the threads wait for each other
+ * until the borrow timeout.<br>
+ * The connections are validated when borrowed only if they have been idle for a while, and the idle connections are validated periodically.<br>
+ * The pool metrics are exposed through the {@link MetricsService}:
+ * <ul>
+ * <li>the active, idle and max connections and the saturation (active / max)</li>
+ * <li>the time waited to borrow a connection</li>
+ * <li>the number of borrow timeouts</li>
+ * </ul>
+ *
+ * @since 1.1.0
+ */
+public class KapuaDataSource implements DataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KapuaDataSource.class);
+
+    /**
+     * The connections returned to the pool more recently are not validated when borrowed
+     */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long IDLE_CHECK_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Default max size: the units used to have a pool of 30 connections each, and a broker or REST API process works with several units at once
+     */
+    private static final int SIZE_MAX_DEFAULT = 100;
+
+    private static final KapuaDataSource INSTANCE = new KapuaDataSource();
+
+    private final GenericObjectPool<Connection> pool;
+
+    private final Timer waitTime;
+    private final Counter timeouts;
+
+    private KapuaDataSource() {
+        this(SystemSetting.getInstance());
+    }
+
+    private KapuaDataSource(SystemSetting config) {
+        this(openConnection(config.getString(SystemSettingKey.DB_JDBC_DRIVER),
+                JdbcConnectionUrlResolvers.resolveJdbcUrl(),
+                config.getString(SystemSettingKey.DB_USERNAME),
+                config.getString(SystemSettingKey.DB_PASSWORD)),
+                config.getInt(SystemSettingKey.DB_POOL_SIZE_INITIAL, 5),
+                config.getInt(SystemSettingKey.DB_POOL_SIZE_MIN, 2),
+                config.getInt(SystemSettingKey.DB_POOL_SIZE_MAX, SIZE_MAX_DEFAULT),
+                config.getLong(SystemSettingKey.DB_POOL_BORROW_TIMEOUT, 15000L),
+                config.getLong(SystemSettingKey.DB_POOL_IDLE_TIMEOUT, 600000L));
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        try {
+            metricsService.registerGauge((Gauge<Integer>) pool::getNumActive, "commons", "db_pool", "connections", "active");
+            metricsService.registerGauge((Gauge<Integer>) pool::getNumIdle, "commons", "db_pool", "connections", "idle");
+            metricsService.registerGauge((Gauge<Integer>) pool::getMaxTotal, "commons", "db_pool", "connections", "max");
+            metricsService.registerGauge((Gauge<Double>) () -> (double) pool.getNumActive() / pool.getMaxTotal(), "commons", "db_pool", "saturation");
+            metricsService.registerGauge((Gauge<Integer>) pool::getNumWaiters, "commons", "db_pool", "waiters");
+        } catch (KapuaException e) {
+            LOG.warn("Cannot register the database connection pool metrics", e);
+        }
+    }
+
+    KapuaDataSource(Callable<Connection> connectionOpener, int sizeInitial, int sizeMin, int sizeMax, long borrowTimeout, long idleTimeout) {
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMinIdle(sizeMin);
+        poolConfig.setMaxIdle(sizeMax);
+        poolConfig.setMaxTotal(sizeMax);
+        poolConfig.setMaxWaitMillis(borrowTimeout);
+        poolConfig.setBlockWhenExhausted(true);
+        poolConfig.setLifo(true);
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestOnReturn(false);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setTimeBetweenEvictionRunsMillis(IDLE_CHECK_INTERVAL_MILLIS);
+        // idle connections are closed only above the min idle size
+        poolConfig.setMinEvictableIdleTimeMillis(-1);
+        poolConfig.setSoftMinEvictableIdleTimeMillis(idleTimeout);
+        poolConfig.setJmxEnabled(false);
+
+        pool = new GenericObjectPool<>(new PooledConnectionFactory(connectionOpener), poolConfig);
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        waitTime = metricsService.getTimer("commons", "db_pool", "wait", "time", "s");
+        timeouts = metricsService.getCounter("commons", "db_pool", "timeout", "count");
+
+        // Open the initial connections
+        int initialSize = Math.min(sizeInitial, pool.getMaxTotal());
+        try {
+            for (int i = 0; i < initialSize; i++) {
+                pool.addObject();
+            }
+        } catch (Exception e) {
+            LOG.warn("Cannot open the initial database connections: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the shared data source instance
+     *
+     * @return
+     */
+    public static KapuaDataSource getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting at most {@link SystemSettingKey#DB_POOL_BORROW_TIMEOUT} milliseconds if all the connections are in use.<br>
+     * The connection is returned to the pool when closed.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        Timer.Context waitTimeContext = waitTime.time();
+        try {
+            connection = pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            timeouts.inc();
+            throw new SQLException(String.format("Timeout waiting for a database connection (active: %d, max: %d)", pool.getNumActive(), pool.getMaxTotal()), e);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("Cannot get a database connection", e);
+        } finally {
+            waitTimeContext.stop();
+        }
+
+        return pooledConnection(connection);
+    }
+
+    /**
+     * Not supported, all the pooled connections are opened with the configured user
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The connections are opened with the configured user");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // The log is written with slf4j
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // The connections are borrowed with the pool borrow timeout
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException(String.format("%s is not a wrapper for %s", getClass().getName(), iface.getName()));
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Get the number of connections borrowed and not returned yet
+     *
+     * @return
+     */
+    int getActiveCount() {
+        return pool.getNumActive();
+    }
+
+    /**
+     * Get the number of connections kept in the pool
+     *
+     * @return
+     */
+    int getIdleCount() {
+        return pool.getNumIdle();
+    }
+
+    /**
+     * Wrap the pooled connection, so closing it returns it to the pool.<br>
+     * The connection cannot be used anymore once closed.
+     *
+     * @param connection
+     * @return
+     */
+    private Connection pooledConnection(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(KapuaDataSource.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "close":
+                if (closed.compareAndSet(false, true)) {
+                    pool.returnObject(connection);
+                }
+                return null;
+            case "isClosed":
+                return closed.get() || connection.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled " + connection;
+            default:
+                if (closed.get()) {
+                    throw new SQLException("The connection is closed");
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    private static Callable<Connection> openConnection(String driver, String url, String username, String password) {
+        return () -> {
+            if (driver != null) {
+                Class.forName(driver);
+            }
+            return DriverManager.getConnection(url, username, password);
+        };
+    }
+
+    private static class PooledConnectionFactory extends BasePooledObjectFactory<Connection> {
+
+        private final Callable<Connection> connectionOpener;
+
+        PooledConnectionFactory(Callable<Connection> connectionOpener) {
+            this.connectionOpener = connectionOpener;
+        }
+
+        @Override
+        public Connection create() throws Exception {
+            return connectionOpener.call();
+        }
+
+        @Override
+        public PooledObject<Connection> wrap(Connection connection) {
+            return new DefaultPooledObject<>(connection);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<Connection> pooledConnection) {
+            Connection connection = pooledConnection.getObject();
+            try {
+                if (System.currentTimeMillis() - pooledConnection.getLastReturnTime() < VALIDATION_BYPASS_MILLIS) {
+                    return !connection.isClosed();
+                }
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                LOG.debug("Invalid database connection: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void passivateObject(PooledObject<Connection> pooledConnection) throws Exception {
+            // Leave the connection as a new one, i.e. without pending transaction
+            Connection connection = pooledConnection.getObject();
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Connection> pooledConnection) throws Exception {
+            pooledConnection.getObject().close();
+        }
+    }
+}
@@ -74,13 +74,15 @@ import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
+import java.math.BigInteger;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * {@link ServiceDAO} utility methods.
@@ -111,6 +113,13 @@ public class ServiceDAO {
     private static final String ATTRIBUTE_SEPARATOR = ".";
     private static final String ATTRIBUTE_SEPARATOR_ESCAPED = "\\.";
 
+    private static final String KAPUA_EID_VALUE = "eid";
+    private static final Set<AttributePredicate.Operator> COMPARISON_OPERATORS = EnumSet.of(
+            AttributePredicate.Operator.GREATER_THAN,
+            AttributePredicate.Operator.GREATER_THAN_OR_EQUAL,
+            AttributePredicate.Operator.LESS_THAN,
+            AttributePredicate.Operator.LESS_THAN_OR_EQUAL);
+
     static {
         KapuaLocator locator = null;
         try {
@@ -174,6 +183,40 @@ public class ServiceDAO {
         return entity;
     }
 
+    /**
+     * Create many {@link KapuaEntity}s utility method.<br>
+     * The {@link KapuaEntity}s are inserted with a single flush, so the inserts are sent to the database in JDBC batches
+     * of {@link SystemSettingKey#DB_JDBC_BATCH_WRITING_SIZE} statements.<br>
+     * This method checks for the constraint violation and, in this case, it throws a specific exception ({@link KapuaEntityExistsException}).
+     *
+     * @param em       The {@link EntityManager} that holds the transaction.
+     * @param clazz    The {@link KapuaEntity} class. This must be the implementing {@code class}.
+     * @param entities The {@link KapuaEntity}s to be created.
+     * @return The persisted {@link KapuaEntity}s, in the same order.
+     * @since 1.1.0
+     */
+    public static <E extends KapuaEntity> List<E> createAll(EntityManager em, Class<E> clazz, List<E> entities) {
+        try {
+            for (E entity : entities) {
+                em.persist(entity);
+            }
+            em.flush();
+        } catch (EntityExistsException e) {
+            throw new KapuaEntityExistsException(e, null);
+        } catch (PersistenceException e) {
+            if (isInsertConstraintViolation(e)) {
+                for (E entity : entities) {
+                    if (em.find(clazz, entity.getId()) != null) {
+                        throw new KapuaEntityExistsException(e, entity.getId());
+                    }
+                }
+            }
+            throw e;
+        }
+
+        return entities;
+    }
+
     private static boolean isInsertConstraintViolation(PersistenceException e) {
         Throwable cause = e.getCause();
         while (cause != null && !(cause instanceof SQLException)) {
@@ -251,6 +294,63 @@ public class ServiceDAO {
         return entityToUpdate;
     }
 
+    /**
+     * Update many {@link KapuaUpdatableEntity}s utility method.<br>
+     * The {@link KapuaUpdatableEntity}s to update are loaded with a single query and the updates are sent to the database with a single flush,
+     * in JDBC batches of {@link SystemSettingKey#DB_JDBC_BATCH_WRITING_SIZE} statements.
+     *
+     * @param em       The {@link EntityManager} that holds the transaction.
+     * @param clazz    The {@link KapuaUpdatableEntity} class. This must be the implementing {@code class}.
+     * @param entities The {@link KapuaUpdatableEntity}s to be updated.
+     * @return The updated {@link KapuaUpdatableEntity}s, in the same order.
+     * @throws KapuaEntityNotFoundException If one of the {@link KapuaEntity}s does not exists in its scope.
+     * @since 1.1.0
+     */
+    public static <E extends KapuaUpdatableEntity> List<E> updateAll(EntityManager em, Class<E> clazz, List<E> entities) throws KapuaEntityNotFoundException {
+        //
+        // Checking existence
+        Map<BigInteger, E> entitiesToUpdate = new HashMap<>();
+        if (!entities.isEmpty()) {
+            List<BigInteger> entityIds = new ArrayList<>(entities.size());
+            for (E entity : entities) {
+                entityIds.add(entity.getId().getId());
+            }
+
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<E> criteriaSelectQuery = cb.createQuery(clazz);
+            Root<E> entityRoot = criteriaSelectQuery.from(clazz);
+            criteriaSelectQuery.select(entityRoot).where(entityRoot.get(KapuaEntityAttributes.ENTITY_ID).get(KAPUA_EID_VALUE).in(entityIds));
+
+            for (E entityToUpdate : em.createQuery(criteriaSelectQuery).getResultList()) {
+                entitiesToUpdate.put(entityToUpdate.getId().getId(), entityToUpdate);
+            }
+        }
+
+        //
+        // Updating if all found
+        List<E> updatedEntities = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            E entityToUpdate = entitiesToUpdate.get(entity.getId().getId());
+            if (entityToUpdate == null || !isSameScope(entity.getScopeId(), entityToUpdate.getScopeId())) {
+                throw new KapuaEntityNotFoundException(clazz.getSimpleName(), entity.getId());
+            }
+
+            AbstractKapuaUpdatableEntity updatableEntity = (AbstractKapuaUpdatableEntity) entity;
+            updatableEntity.setCreatedOn(entityToUpdate.getCreatedOn());
+            updatableEntity.setCreatedBy(entityToUpdate.getCreatedBy());
+
+            em.merge(entity);
+            updatedEntities.add(entityToUpdate);
+        }
+        em.flush();
+
+        return updatedEntities;
+    }
+
+    private static boolean isSameScope(KapuaId scopeId, KapuaId entityScopeId) {
+        return scopeId == null || entityScopeId == null || entityScopeId.equals(scopeId);
+    }
+
     /**
      * Delete {@link KapuaEntity} utility method
      *
@@ -391,13 +491,13 @@ public class ServiceDAO {
             FieldSortCriteria sortCriteria = (FieldSortCriteria) kapuaQuery.getSortCriteria();
 
             if (SortOrder.ASCENDING.equals(sortCriteria.getSortOrder())) {
-                order = cb.asc(extractAttribute(entityRoot, sortCriteria.getAttributeName()));
+                order = cb.asc(extractSortAttribute(entityRoot, sortCriteria.getAttributeName()));
             } else {
-                order = cb.desc(extractAttribute(entityRoot, sortCriteria.getAttributeName()));
+                order = cb.desc(extractSortAttribute(entityRoot, sortCriteria.getAttributeName()));
             }
 
         } else {
-            order = cb.asc(entityRoot.get(entityType.getSingularAttribute(KapuaEntityAttributes.ENTITY_ID)));
+            order = cb.asc(extractSortAttribute(entityRoot, KapuaEntityAttributes.ENTITY_ID));
         }
         criteriaSelectQuery.orderBy(order);
 
@@ -600,12 +700,18 @@ public class ServiceDAO {
             attrValue = KapuaEid.parseKapuaId((KapuaId) attrValue);
         }
 
+        // KapuaIds are compared by their numeric value
+        if (attrValue instanceof KapuaEid && COMPARISON_OPERATORS.contains(attrPred.getOperator()) && !attrName.contains(ATTRIBUTE_SEPARATOR)) {
+            attrName = attrName + ATTRIBUTE_SEPARATOR + KAPUA_EID_VALUE;
+            attrValue = ((KapuaEid) attrValue).getId();
+        }
+
         // Fields to query properties of sub attributes of the root entity
-        Attribute attribute;
+        Class<?> attributeJavaType;
         if (attrName.contains(ATTRIBUTE_SEPARATOR)) {
-            attribute = entityType.getAttribute(attrName.split(ATTRIBUTE_SEPARATOR_ESCAPED)[0]);
+            attributeJavaType = extractAttribute(entityRoot, attrName).getJavaType();
         } else {
-            attribute = entityType.getAttribute(attrName);
+            attributeJavaType = entityType.getAttribute(attrName).getJavaType();
         }
 
         if (attrValue instanceof Object[]) {
@@ -654,7 +760,7 @@ public class ServiceDAO {
                     break;
 
                 case GREATER_THAN:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Comparable comparableAttrValue = (Comparable) attrValue;
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         expr = cb.greaterThan(comparableExpression, comparableAttrValue);
@@ -664,7 +770,7 @@ public class ServiceDAO {
                     break;
 
                 case GREATER_THAN_OR_EQUAL:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable) attrValue;
                         expr = cb.greaterThanOrEqualTo(comparableExpression, comparableAttrValue);
@@ -674,7 +780,7 @@ public class ServiceDAO {
                     break;
 
                 case LESS_THAN:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable) attrValue;
                         expr = cb.lessThan(comparableExpression, comparableAttrValue);
@@ -683,7 +789,7 @@ public class ServiceDAO {
                     }
                     break;
                 case LESS_THAN_OR_EQUAL:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable) attrValue;
                         expr = cb.lessThanOrEqualTo(comparableExpression, comparableAttrValue);
@@ -722,6 +828,23 @@ public class ServiceDAO {
         return expressionPath;
     }
 
+    /**
+     * Utility method that selects the {@link Root} attribute to sort by.<br>
+     * The {@link KapuaEid} attributes are sorted by their numeric value.
+     *
+     * @param entityRoot    The {@link Root} entity from which extract the attribute.
+     * @param attributeName The full attribute name. It can contain at maximum one '.' separator.
+     * @return The {@link Path} expression to sort by.
+     * @since 1.1.0
+     */
+    private static <E> Path<?> extractSortAttribute(Root<E> entityRoot, String attributeName) {
+        Path<?> sortAttribute = extractAttribute(entityRoot, attributeName);
+        if (KapuaEid.class.equals(sortAttribute.getJavaType())) {
+            sortAttribute = sortAttribute.get(KAPUA_EID_VALUE);
+        }
+        return sortAttribute;
+    }
+
     /**
      * Handles the {@link Groupable} property of the {@link KapuaEntity}.
      *
@@ -136,21 +136,30 @@ public enum SystemSettingKey implements SettingKey {
     DB_CHAR_ENCODING("commons.db.characterEncoding"),
 
     /**
-     * Database pool initial pool size
+     * Database connection pool (shared by all the persistence units) initial pool size
      */
     DB_POOL_SIZE_INITIAL("commons.db.pool.size.initial"),
     /**
-     * Database pool minimum pool size
+     * Database connection pool (shared by all the persistence units) minimum pool size
      */
     DB_POOL_SIZE_MIN("commons.db.pool.size.min"),
     /**
-     * Database pool maximum pool size
+     * Database connection pool (shared by all the persistence units) maximum pool size. It must cover the concurrent operations times the connections
+     * each of them holds at once (one for each persistence unit used at the same time)
      */
     DB_POOL_SIZE_MAX("commons.db.pool.size.max"),
     /**
      * Database pool connection borrow timeout
      */
     DB_POOL_BORROW_TIMEOUT("commons.db.pool.borrow.timeout"),
+    /**
+     * Database pool idle connection timeout. The idle connections above the minimum pool size are closed after this time (in milliseconds)
+     */
+    DB_POOL_IDLE_TIMEOUT("commons.db.pool.idle.timeout"),
+    /**
+     * Maximum number of statements sent to the database in a single JDBC batch
+     */
+    DB_JDBC_BATCH_WRITING_SIZE("commons.db.jdbc.batchWriting.size"),
     /**
      * Character used in DB query to escape other special characters
      */
@@ -254,6 +263,41 @@ public enum SystemSettingKey implements SettingKey {
      * Time window to consider FIRED messages as "old" messages so ready to be processed by the housekeeper (in milliseconds)
      */
     HOUSEKEEPER_OLD_MESSAGES_TIME_WINDOW("commons.eventbus.houskeeper.oldMessagesTimeWindow"),
+
+    /**
+     * Identity resolution cache (account name to scope id, scope id and client id to device id) max size
+     */
+    IDENTITY_CACHE_SIZE_MAX("commons.cache.identity.size_max"),
+    /**
+     * Identity resolution cache expiration time of the resolved identities (in seconds)
+     */
+    IDENTITY_CACHE_EXPIRE_AFTER("commons.cache.identity.expire_after"),
+    /**
+     * Identity resolution cache expiration time of the not existing identities (in seconds)
+     */
+    IDENTITY_CACHE_MISSING_EXPIRE_AFTER("commons.cache.identity.missing.expire_after"),
+    /**
+     * Names of the entities kept in the shared entity cache (comma separated, i.e. Account,User,Role,Domain,Group,ServiceConfig). Empty to disable the cache
+     */
+    ENTITY_CACHE_NAMES("commons.cache.entity.names"),
+    /**
+     * Shared entity cache max size (for each entity of each persistence unit)
+     */
+    ENTITY_CACHE_SIZE_MAX("commons.cache.entity.size_max"),
+    /**
+     * Names of the entities whose changes are published on the event bus even if not cached (comma separated), so the other processes can invalidate the values looked up from them.
+     * Empty by default
+     */
+    ENTITY_CACHE_EVENT_NAMES("commons.cache.entity.event_names"),
+    /**
+     * Event bus address of the shared entity cache invalidation events
+     */
+    ENTITY_CACHE_EVENT_ADDRESS("commons.cache.entity.event_address"),
+    /**
+     * Name of the process subscribing the shared entity cache invalidation events. Required when the cache is enabled, it must be unique across the processes and kept across the restarts
+     */
+    ENTITY_CACHE_NODE_NAME("commons.cache.entity.node_name"),
+
     /**
      * Allow System Settings to be updatable at runtime via System.setProperty()
      */
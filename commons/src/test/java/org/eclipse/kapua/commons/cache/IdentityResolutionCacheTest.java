@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.cache;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class IdentityResolutionCacheTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+    private static final KapuaId DEVICE_ID = new KapuaEid(BigInteger.valueOf(7));
+
+    private IdentityResolutionCache cache = IdentityResolutionCache.getInstance();
+    private AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void shouldLoadTheScopeIdOnce() throws Exception {
+        assertEquals(SCOPE_ID, cache.getScopeId("account", () -> load(SCOPE_ID)));
+        assertEquals(SCOPE_ID, cache.getScopeId("account", () -> load(SCOPE_ID)));
+        assertEquals(1, loads.get());
+
+        cache.invalidateScope(SCOPE_ID);
+        assertEquals(SCOPE_ID, cache.getScopeId("account", () -> load(SCOPE_ID)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldCacheTheMissingAccount() throws Exception {
+        assertNull(cache.getScopeId("missing", () -> load(null)));
+        assertNull(cache.getScopeId("missing", () -> load(SCOPE_ID)));
+        assertEquals(1, loads.get());
+
+        cache.invalidateAccount("missing");
+        assertEquals(SCOPE_ID, cache.getScopeId("missing", () -> load(SCOPE_ID)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldLoadTheDeviceIdOnce() throws Exception {
+        assertEquals(DEVICE_ID, cache.getDeviceId(SCOPE_ID, "client", () -> load(DEVICE_ID)));
+        assertEquals(DEVICE_ID, cache.getDeviceId(new KapuaEid(SCOPE_ID), "client", () -> load(DEVICE_ID)));
+        assertEquals(1, loads.get());
+
+        cache.invalidateDevice(SCOPE_ID, DEVICE_ID);
+        assertEquals(DEVICE_ID, cache.getDeviceId(SCOPE_ID, "client", () -> load(DEVICE_ID)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldCacheTheMissingDevice() throws Exception {
+        assertNull(cache.getDeviceId(SCOPE_ID, "client", () -> load(null)));
+        assertNull(cache.getDeviceId(SCOPE_ID, "client", () -> load(DEVICE_ID)));
+        assertEquals(1, loads.get());
+
+        cache.invalidateDevice(SCOPE_ID, "client");
+        assertEquals(DEVICE_ID, cache.getDeviceId(SCOPE_ID, "client", () -> load(DEVICE_ID)));
+        assertEquals(2, loads.get());
+
+        cache.invalidateScope(SCOPE_ID);
+        assertEquals(DEVICE_ID, cache.getDeviceId(SCOPE_ID, "client", () -> load(DEVICE_ID)));
+        assertEquals(3, loads.get());
+    }
+
+    private KapuaId load(KapuaId id) {
+        loads.incrementAndGet();
+        return id;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.configuration;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.kapua.commons.configuration.ConfigMetadataCache.ConfigMetadata;
+import org.eclipse.kapua.commons.configuration.metatype.TadImpl;
+import org.eclipse.kapua.commons.configuration.metatype.TocdImpl;
+import org.eclipse.kapua.commons.configuration.metatype.TscalarImpl;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class ConfigMetadataCacheTest {
+
+    @Test
+    public void shouldCacheMissingMetadata() throws Exception {
+        String pid = "org.eclipse.kapua.commons.configuration.MissingService";
+        ConfigMetadata configMetadata = ConfigMetadataCache.getInstance().get(pid);
+
+        Assert.assertNull(configMetadata.getOcd());
+        Assert.assertTrue(configMetadata.toValues(null).isEmpty());
+        Assert.assertSame(configMetadata, ConfigMetadataCache.getInstance().get(pid));
+    }
+
+    @Test
+    public void shouldConvertLikeTheMetadata() throws Exception {
+        TocdImpl ocd = new TocdImpl();
+        ocd.setAD(Arrays.asList(
+                newAd("enabled", TscalarImpl.BOOLEAN, "true"),
+                newAd("maxNumberOfEntities", TscalarImpl.INTEGER, "10"),
+                newAd("description", TscalarImpl.STRING, null),
+                newAd("password", TscalarImpl.PASSWORD, "secret")));
+        ConfigMetadata configMetadata = new ConfigMetadata(ocd);
+
+        Properties properties = new Properties();
+        properties.setProperty("maxNumberOfEntities", "42");
+        properties.setProperty("description", "a description");
+
+        Assert.assertEquals(AbstractKapuaConfigurableService.toValues(ocd, null).keySet(), configMetadata.toValues(null).keySet());
+        Assert.assertEquals(AbstractKapuaConfigurableService.toValues(ocd, properties).keySet(), configMetadata.toValues(properties).keySet());
+
+        Map<String, Object> values = configMetadata.toValues(properties);
+        Assert.assertEquals(Boolean.TRUE, values.get("enabled"));
+        Assert.assertEquals(42, values.get("maxNumberOfEntities"));
+        Assert.assertEquals("a description", values.get("description"));
+        Assert.assertEquals("secret", values.get("password").toString());
+
+        Map<String, Object> defaultValues = configMetadata.toValues(null);
+        Assert.assertEquals(10, defaultValues.get("maxNumberOfEntities"));
+        Assert.assertTrue(defaultValues.containsKey("description"));
+        Assert.assertNull(defaultValues.get("description"));
+        // the password values are mutable, so each conversion gets its own instance
+        Assert.assertNotSame(defaultValues.get("password"), configMetadata.toValues(null).get("password"));
+    }
+
+    private static TadImpl newAd(String id, TscalarImpl type, String defaultValue) {
+        TadImpl ad = new TadImpl();
+        ad.setId(id);
+        ad.setType(type);
+        ad.setDefault(defaultValue);
+        return ad;
+    }
+
+}
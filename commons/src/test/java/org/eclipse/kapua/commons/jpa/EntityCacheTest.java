@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.IdentityMapAccessor;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.changesets.UnitOfWorkChangeSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class EntityCacheTest extends Assert {
+
+    private static final String EVENT_ADDRESS = "entity_cache";
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.ONE);
+    private static final BigInteger ACCOUNT_ID = BigInteger.valueOf(10);
+
+    private final List<ServiceEvent> publishedEvents = new ArrayList<>();
+
+    private TestEntityCache entityCache;
+
+    // the persistence unit committing the changes and another one mapping the same entities
+    private AbstractSession committingSession;
+    private AbstractSession otherSession;
+
+    @Before
+    public void setUp() {
+        entityCache = new TestEntityCache("node1");
+
+        committingSession = newSession();
+        otherSession = newSession();
+        entityCache.register(committingSession);
+        entityCache.register(otherSession);
+    }
+
+    @Test
+    public void shouldInvalidateTheOtherSessionsAndPublish() {
+        entityCache.committed(newUnitOfWork(newChangeSet("Account", ACCOUNT_ID, false)));
+
+        // the committing session is updated by EclipseLink
+        Mockito.verifyZeroInteractions(committingSession.getIdentityMapAccessor());
+        Mockito.verify(otherSession.getIdentityMapAccessor()).invalidateObject(ACCOUNT_ID, AccountEntity.class);
+
+        assertEquals(1, publishedEvents.size());
+        ServiceEvent serviceEvent = publishedEvents.get(0);
+        assertEquals(EntityCache.INVALIDATE_OPERATION, serviceEvent.getOperation());
+        assertEquals(EVENT_ADDRESS, serviceEvent.getService());
+        assertEquals("Account", serviceEvent.getEntityType());
+        assertEquals(new KapuaEid(ACCOUNT_ID), serviceEvent.getEntityId());
+        assertEquals(SCOPE_ID, serviceEvent.getScopeId());
+        assertNotNull(serviceEvent.getNote());
+    }
+
+    @Test
+    public void shouldPublishTheChangesOfTheEventEntities() {
+        entityCache.committed(newUnitOfWork(newChangeSet("Credential", BigInteger.valueOf(20), false)));
+
+        // published but not cached
+        Mockito.verifyZeroInteractions(otherSession.getIdentityMapAccessor());
+        assertEquals(1, publishedEvents.size());
+        assertEquals("Credential", publishedEvents.get(0).getEntityType());
+        assertEquals(SCOPE_ID, publishedEvents.get(0).getScopeId());
+    }
+
+    @Test
+    public void shouldIgnoreTheNewAndTheOtherEntities() {
+        entityCache.committed(newUnitOfWork(
+                newChangeSet("Account", ACCOUNT_ID, true),
+                newChangeSet("Device", BigInteger.valueOf(30), false)));
+
+        Mockito.verifyZeroInteractions(committingSession.getIdentityMapAccessor(), otherSession.getIdentityMapAccessor());
+        assertTrue(publishedEvents.isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreTheEventsOfThisProcess() {
+        entityCache.committed(newUnitOfWork(newChangeSet("Account", ACCOUNT_ID, false)));
+        Mockito.reset(otherSession.getIdentityMapAccessor());
+
+        entityCache.received(publishedEvents.get(0));
+
+        Mockito.verifyZeroInteractions(committingSession.getIdentityMapAccessor(), otherSession.getIdentityMapAccessor());
+    }
+
+    @Test
+    public void shouldInvalidateTheEntitiesOfTheOtherProcesses() {
+        TestEntityCache otherProcessEntityCache = new TestEntityCache("node2");
+        AbstractSession otherProcessSession = newSession();
+        otherProcessEntityCache.register(otherProcessSession);
+        otherProcessEntityCache.committed(newUnitOfWork(newChangeSet("Account", ACCOUNT_ID, false)));
+
+        entityCache.received(otherProcessEntityCache.publishedEvents.get(0));
+
+        Mockito.verify(committingSession.getIdentityMapAccessor()).invalidateObject(ACCOUNT_ID, AccountEntity.class);
+        Mockito.verify(otherSession.getIdentityMapAccessor()).invalidateObject(ACCOUNT_ID, AccountEntity.class);
+    }
+
+    @Test
+    public void shouldInvalidateAllTheEntitiesWithoutId() {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setOperation(EntityCache.INVALIDATE_OPERATION);
+        serviceEvent.setEntityType("Account");
+        serviceEvent.setNote("another process");
+
+        entityCache.received(serviceEvent);
+
+        Mockito.verify(committingSession.getIdentityMapAccessor()).invalidateClass(AccountEntity.class);
+        Mockito.verify(otherSession.getIdentityMapAccessor()).invalidateClass(AccountEntity.class);
+    }
+
+    @Test
+    public void shouldBeDisabledByDefault() {
+        EntityCache defaultEntityCache = EntityCache.getInstance();
+
+        assertFalse(defaultEntityCache.isEnabled());
+        assertFalse(defaultEntityCache.isPublishing());
+    }
+
+    @Test
+    public void shouldRequireTheNodeName() throws Exception {
+        assertNull(new TestEntityCache(" ").getNodeName());
+
+        try {
+            new EntityCacheServiceModule().start(new TestEntityCache(null));
+            fail("The module should not start without node name");
+        } catch (KapuaIllegalNullArgumentException e) {
+            assertTrue(e.getMessage().contains("commons.cache.entity.node_name"));
+        }
+    }
+
+    private UnitOfWorkImpl newUnitOfWork(ObjectChangeSet... objectChangeSets) {
+        Map<ObjectChangeSet, ObjectChangeSet> changeSets = new HashMap<>();
+        for (ObjectChangeSet objectChangeSet : objectChangeSets) {
+            changeSets.put(objectChangeSet, objectChangeSet);
+        }
+
+        UnitOfWorkChangeSet unitOfWorkChangeSet = Mockito.mock(UnitOfWorkChangeSet.class);
+        Mockito.when(unitOfWorkChangeSet.hasChanges()).thenReturn(true);
+        Mockito.when(unitOfWorkChangeSet.getAllChangeSets()).thenReturn(changeSets);
+        Mockito.when(unitOfWorkChangeSet.getDeletedObjects()).thenReturn(Collections.emptyMap());
+
+        UnitOfWorkImpl unitOfWork = Mockito.mock(UnitOfWorkImpl.class);
+        Mockito.when(unitOfWork.getUnitOfWorkChangeSet()).thenReturn(unitOfWorkChangeSet);
+        Mockito.when(unitOfWork.getRootSession(Matchers.any(DatabaseQuery.class))).thenReturn(committingSession);
+        Mockito.when(unitOfWork.getDescriptor(AccountEntity.class)).thenReturn(newDescriptor("Account", AccountEntity.class));
+        Mockito.when(unitOfWork.getDescriptor(CredentialEntity.class)).thenReturn(newDescriptor("Credential", CredentialEntity.class));
+        Mockito.when(unitOfWork.getDescriptor(DeviceEntity.class)).thenReturn(newDescriptor("Device", DeviceEntity.class));
+        return unitOfWork;
+    }
+
+    private static ObjectChangeSet newChangeSet(String entityName, BigInteger id, boolean isNew) {
+        KapuaEntity entity = Mockito.mock(KapuaEntity.class);
+        Mockito.when(entity.getScopeId()).thenReturn(SCOPE_ID);
+
+        ObjectChangeSet objectChangeSet = Mockito.mock(ObjectChangeSet.class);
+        Mockito.when(objectChangeSet.isNew()).thenReturn(isNew);
+        Mockito.when(objectChangeSet.getId()).thenReturn(id);
+        Mockito.when(objectChangeSet.getUnitOfWorkClone()).thenReturn(entity);
+        Mockito.when(objectChangeSet.getClassType(Matchers.any(Session.class))).thenReturn(entityClass(entityName));
+        return objectChangeSet;
+    }
+
+    private static AbstractSession newSession() {
+        IdentityMapAccessor identityMapAccessor = Mockito.mock(IdentityMapAccessor.class);
+
+        AbstractSession session = Mockito.mock(AbstractSession.class);
+        Mockito.when(session.getIdentityMapAccessor()).thenReturn(identityMapAccessor);
+        Mockito.when(session.getDescriptorForAlias("Account")).thenReturn(newDescriptor("Account", AccountEntity.class));
+        return session;
+    }
+
+    private static ClassDescriptor newDescriptor(String entityName, Class<?> entityClass) {
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setAlias(entityName);
+        descriptor.setJavaClass(entityClass);
+        return descriptor;
+    }
+
+    private static Class<?> entityClass(String entityName) {
+        switch (entityName) {
+        case "Account":
+            return AccountEntity.class;
+        case "Credential":
+            return CredentialEntity.class;
+        default:
+            return DeviceEntity.class;
+        }
+    }
+
+    /**
+     * Caches the accounts and publishes the changes of the credentials, recording the published events instead of sending them on the event bus
+     */
+    private class TestEntityCache extends EntityCache {
+
+        private final List<ServiceEvent> publishedEvents;
+
+        private TestEntityCache(String nodeName) {
+            super(new HashSet<>(Arrays.asList("Account")), new HashSet<>(Arrays.asList("Credential")), 100, EVENT_ADDRESS, nodeName);
+            publishedEvents = "node1".equals(nodeName) ? EntityCacheTest.this.publishedEvents : new ArrayList<>();
+        }
+
+        @Override
+        void publish(ServiceEvent serviceEvent) {
+            publishedEvents.add(serviceEvent);
+        }
+    }
+
+    private static class AccountEntity {
+    }
+
+    private static class CredentialEntity {
+    }
+
+    private static class DeviceEntity {
+    }
+}
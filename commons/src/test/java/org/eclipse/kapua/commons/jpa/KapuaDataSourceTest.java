@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.codahale.metrics.Counter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class KapuaDataSourceTest extends Assert {
+
+    private static final long BORROW_TIMEOUT = 100;
+
+    private final List<Connection> openedConnections = new ArrayList<>();
+
+    @Test
+    public void shouldReuseTheReturnedConnection() throws Exception {
+        KapuaDataSource dataSource = newDataSource(2);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getActiveCount());
+        assertEquals(0, dataSource.getIdleCount());
+
+        // the calls are forwarded to the pooled connection
+        connection.createStatement();
+        Mockito.verify(openedConnections.get(0)).createStatement();
+
+        connection.close();
+        assertEquals(0, dataSource.getActiveCount());
+        assertEquals(1, dataSource.getIdleCount());
+
+        Connection reusedConnection = dataSource.getConnection();
+        assertNotSame(connection, reusedConnection);
+        reusedConnection.createStatement();
+        Mockito.verify(openedConnections.get(0), Mockito.times(2)).createStatement();
+        assertEquals(1, openedConnections.size());
+    }
+
+    @Test
+    public void shouldReturnTheConnectionOnce() throws Exception {
+        KapuaDataSource dataSource = newDataSource(2);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertEquals(1, dataSource.getIdleCount());
+
+        // the closed connection cannot be used anymore
+        try {
+            connection.createStatement();
+            fail("The closed connection should not be usable");
+        } catch (SQLException e) {
+            // expected
+        }
+        Mockito.verify(openedConnections.get(0), Mockito.never()).createStatement();
+
+        Connection firstConnection = dataSource.getConnection();
+        Connection secondConnection = dataSource.getConnection();
+        assertEquals(2, dataSource.getActiveCount());
+        assertEquals(2, openedConnections.size());
+
+        firstConnection.close();
+        secondConnection.close();
+        assertEquals(2, dataSource.getIdleCount());
+    }
+
+    @Test
+    public void shouldCountTheBorrowTimeouts() throws Exception {
+        KapuaDataSource dataSource = newDataSource(1);
+        Counter timeouts = MetricServiceFactory.getInstance().getCounter("commons", "db_pool", "timeout", "count");
+        long initialTimeouts = timeouts.getCount();
+
+        Connection connection = dataSource.getConnection();
+        try {
+            dataSource.getConnection();
+            fail("No connection should be available");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage().startsWith("Timeout waiting for a database connection"));
+        }
+        assertEquals(initialTimeouts + 1, timeouts.getCount());
+
+        // available again once returned
+        connection.close();
+        dataSource.getConnection().close();
+        assertEquals(initialTimeouts + 1, timeouts.getCount());
+    }
+
+    @Test
+    public void shouldRollbackThePendingTransactionOnReturn() throws Exception {
+        KapuaDataSource dataSource = newDataSource(1);
+
+        Connection connection = dataSource.getConnection();
+        Connection pooledConnection = openedConnections.get(0);
+        Mockito.when(pooledConnection.getAutoCommit()).thenReturn(false);
+
+        connection.close();
+
+        Mockito.verify(pooledConnection).rollback();
+        Mockito.verify(pooledConnection).setAutoCommit(true);
+        Mockito.verify(pooledConnection).clearWarnings();
+    }
+
+    @Test
+    public void shouldValidateTheConnectionsIdleForAWhile() throws Exception {
+        KapuaDataSource dataSource = newDataSource(1);
+
+        // a connection just returned is not validated
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+        Connection pooledConnection = openedConnections.get(0);
+        Mockito.verify(pooledConnection, Mockito.never()).isValid(Matchers.anyInt());
+        assertEquals(1, openedConnections.size());
+
+        // an invalid connection is replaced
+        Mockito.when(pooledConnection.isValid(Matchers.anyInt())).thenReturn(false);
+        Thread.sleep(600);
+        dataSource.getConnection().createStatement();
+
+        Mockito.verify(pooledConnection).isValid(Matchers.anyInt());
+        Mockito.verify(pooledConnection).close();
+        assertEquals(2, openedConnections.size());
+        Mockito.verify(openedConnections.get(1)).createStatement();
+    }
+
+    private KapuaDataSource newDataSource(int sizeMax) {
+        return new KapuaDataSource(this::openConnection, 0, 0, sizeMax, BORROW_TIMEOUT, 600000L);
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getAutoCommit()).thenReturn(true);
+        Mockito.when(connection.isValid(Matchers.anyInt())).thenReturn(true);
+        openedConnections.add(connection);
+        return connection;
+    }
+}
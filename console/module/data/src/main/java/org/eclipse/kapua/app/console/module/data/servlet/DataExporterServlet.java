@@ -21,7 +21,6 @@ import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.service.datastore.DatastoreObjectFactory;
 import org.eclipse.kapua.service.datastore.MessageStoreService;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageField;
-import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.AndPredicate;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
@@ -129,31 +128,19 @@ public class DataExporterServlet extends HttpServlet {
             }
 
             query.setPredicate(predicate);
-            MessageListResult result;
-
-            long totalCount = MESSAGE_STORE_SERVICE.count(query);
-            long totalOffset = 0;
-            query.setLimit(250);
+            // the pages are fetched by the search after key, so there is no need to slice the time range to keep the offset low
+            query.setLimit(QUERY_PAGE);
+            query.setKeyPaging(true);
             int maxRows = MAX_PAGE_SIZE * MAX_PAGES;
-
+            long exported = 0;
+            MessageListResult result;
             do {
-                int internalOffset = 0;
-                do {
-                    query.setOffset(internalOffset);
-                    result = MESSAGE_STORE_SERVICE.query(query);
-                    dataExporter.append(result.getItems());
-                    internalOffset += result.getSize();
-                } while (internalOffset < MAX_PAGE_SIZE && !result.isEmpty());
-                totalOffset += internalOffset;
-                if (!result.isEmpty()) {
-                    DatastoreMessage lastMessage = result.getItems().get(result.getSize() - 1);
-                    Date lastMessageDate = lastMessage.getTimestamp();
-                    predicate.getPredicates().remove(datePredicate);
-                    datePredicate = STORABLE_PREDICATE_FACTORY.newRangePredicate(MessageField.TIMESTAMP.field(), lastMessageDate, end);
-                    predicate.getPredicates().add(datePredicate);
-                }
-            } while (totalOffset < Long.min(totalCount, maxRows));
-            if (totalOffset >= maxRows) {
+                result = MESSAGE_STORE_SERVICE.query(query);
+                dataExporter.append(result.getItems());
+                exported += result.getSize();
+                query.setSearchAfter((String) result.getNextKey());
+            } while (query.getSearchAfter() != null && exported < maxRows);
+            if (query.getSearchAfter() != null) {
                 dataExporter.append(MessageFormat.format("Warning! The query returned more than {0} results. Please refine the time range.", maxRows));
             }
             dataExporter.close();
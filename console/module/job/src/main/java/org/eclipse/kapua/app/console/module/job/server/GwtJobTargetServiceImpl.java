@@ -134,6 +134,7 @@ public class GwtJobTargetServiceImpl extends KapuaRemoteServiceServlet implement
         List<GwtJobTarget> existingTargets = findByJobId(scopeId, jobId, false);
         List<GwtJobTarget> gwtJobTargetList = new ArrayList<GwtJobTarget>();
         List<Device> devices = new ArrayList<Device>();
+        List<JobTargetCreator> jobTargetCreators = new ArrayList<JobTargetCreator>();
         try {
             for (GwtJobTargetCreator gwtJobTargetCreator : gwtJobTargetCreatorList) {
                 if (findExtistingTarget(gwtJobTargetCreator.getJobTargetId(), existingTargets)) {
@@ -147,9 +148,11 @@ public class GwtJobTargetServiceImpl extends KapuaRemoteServiceServlet implement
                 JobTargetCreator jobTargetCreator = JOB_TARGET_FACTORY.newCreator(creatorScopeId);
                 jobTargetCreator.setJobId(GwtKapuaCommonsModelConverter.convertKapuaId(gwtJobTargetCreator.getJobId()));
                 jobTargetCreator.setJobTargetId(GwtKapuaCommonsModelConverter.convertKapuaId(gwtJobTargetCreator.getJobTargetId()));
+                jobTargetCreators.add(jobTargetCreator);
+            }
 
-                // Create the Job Target
-                JobTarget jobTarget = JOB_TARGET_SERVICE.create(jobTargetCreator);
+            // Create the Job Targets
+            for (JobTarget jobTarget : JOB_TARGET_SERVICE.createAll(jobTargetCreators)) {
 
                 // convert to GwtJobTarget and return
                 gwtJobTargetList.add(KapuaGwtJobModelConverter.convertJobTarget(jobTarget));
@@ -13,8 +13,11 @@ package org.eclipse.kapua.job.engine.commons.logger;
 
 import com.google.common.base.Strings;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.job.execution.JobExecution;
+import org.eclipse.kapua.service.job.execution.JobExecutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
@@ -25,13 +28,19 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Logger for {@link org.eclipse.kapua.service.job.Job} processing.
  * <p>
  * This {@link JobLogger} logs to the standard {@link Logger} of the current Java class (after setting it using {@link #setClassLog(Logger)})
- * and keeps a copy of the log inside. Then, by invoking {@link #flush()} method it is possible to retrieve the copy of the log and store it
- * into the {@link org.eclipse.kapua.service.job.execution.JobExecution#setLog(String)}.
+ * and appends a copy of the log to the {@link JobExecution} log (see {@link JobExecutionService#appendLog(KapuaId, KapuaId, String)}).
+ * <p>
+ * The {@link JobExecution} log lines are buffered and appended in chunks, when the buffer reaches the flush size or when the flush interval has elapsed since the last append,
+ * and when {@link #flush()} is invoked.
+ * Only the lines of the enabled {@link Level}s are formatted and stored, up to the max size of the {@link JobExecution} log. When the max size is reached, the following lines are only
+ * logged to the standard {@link Logger}.
  *
  * @since 1.1.0
  */
@@ -51,6 +60,31 @@ public class JobLogger {
     private static final String PRE_EXEC_LOG_FORMAT_LEVEL_ERROR = "[ERROR] ";
     private static final String PRE_EXEC_LOG_FORMAT_DATE = "{} - ";
     private static final String POST_EXEC_LOG_FORMAT_ERROR = " {}";
+    private static final String EXEC_LOG_SIZE_MAX_REACHED = "Log size max of {} characters reached! The following lines are not stored.";
+
+    /**
+     * @since 1.1.0
+     */
+    public static final Level EXEC_LOG_LEVEL_DEFAULT = Level.INFO;
+
+    /**
+     * @since 1.1.0
+     */
+    public static final int EXEC_LOG_FLUSH_SIZE_DEFAULT = 16384;
+
+    /**
+     * @since 1.1.0
+     */
+    public static final long EXEC_LOG_FLUSH_INTERVAL_DEFAULT = 10000L;
+
+    /**
+     * @since 1.1.0
+     */
+    public static final long EXEC_LOG_SIZE_MAX_DEFAULT = 4194304L;
+
+    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
+
+    private static final JobExecutionService JOB_EXECUTION_SERVICE = LOCATOR.getService(JobExecutionService.class);
 
     private Logger containerClassLog;
 
@@ -58,9 +92,21 @@ public class JobLogger {
 
     private KapuaId scopeId;
     private KapuaId jobId;
-    private KapuaId jobExecutionId;
+    private volatile KapuaId jobExecutionId;
     private String jobName;
 
+    private final Level execLogLevel;
+    private final int execLogFlushSize;
+    private final long execLogFlushInterval;
+    private final long execLogSizeMax;
+
+    private long execLogSize;
+    private volatile boolean execLogSizeMaxReached;
+    private long lastFlushOn = System.currentTimeMillis();
+
+    // Serializes the appends to the JobExecution log, which are performed outside the lock of the buffer
+    private final Lock appendLock = new ReentrantLock();
+
     /**
      * Initialize the mandatory info of the {@link JobExecution} to use when logging.
      *
@@ -70,13 +116,35 @@ public class JobLogger {
      * @since 1.1.0
      */
     public JobLogger(KapuaId scopeId, KapuaId jobId, String jobName) {
+        this(scopeId, jobId, jobName, EXEC_LOG_LEVEL_DEFAULT, EXEC_LOG_FLUSH_SIZE_DEFAULT, EXEC_LOG_FLUSH_INTERVAL_DEFAULT, EXEC_LOG_SIZE_MAX_DEFAULT);
+    }
+
+    /**
+     * Initialize the mandatory info of the {@link JobExecution} to use when logging and the options of the {@link JobExecution} log.
+     *
+     * @param scopeId              The current {@link JobExecution#getScopeId()}
+     * @param jobId                The current {@link JobExecution#getJobId()}
+     * @param jobName              The current jBatch Job Name.
+     * @param execLogLevel         The min {@link Level} of the lines stored into the {@link JobExecution} log.
+     * @param execLogFlushSize     The number of buffered characters which triggers the append to the {@link JobExecution} log.
+     * @param execLogFlushInterval The milliseconds after which the buffered lines are appended to the {@link JobExecution} log.
+     * @param execLogSizeMax       The max number of characters stored into the {@link JobExecution} log by this {@link JobLogger}.
+     * @since 1.1.0
+     */
+    public JobLogger(KapuaId scopeId, KapuaId jobId, String jobName, Level execLogLevel, int execLogFlushSize, long execLogFlushInterval, long execLogSizeMax) {
         this.scopeId = scopeId;
         this.jobId = jobId;
         this.jobName = jobName;
+        this.execLogLevel = execLogLevel;
+        this.execLogFlushSize = execLogFlushSize;
+        this.execLogFlushInterval = execLogFlushInterval;
+        this.execLogSizeMax = execLogSizeMax;
     }
 
     /**
      * Sets the {@link JobExecution#getId()} into the {@link JobLogger} to be printed into the {@link Logger}.
+     * <p>
+     * The {@link JobExecution} log lines are appended to the {@link JobExecution} log from when the {@link JobExecution#getId()} is set.
      *
      * @param jobExecutionId The current {@link JobExecution#getId()}
      * @since 1.1.0
@@ -132,18 +200,7 @@ public class JobLogger {
 
             //
             // Job Execution Logging
-            StringBuilder formatSb = new StringBuilder();
-            formatSb.append(PRE_EXEC_LOG_FORMAT_LEVEL_INFO);
-            formatSb.append(PRE_EXEC_LOG_FORMAT_DATE);
-            formatSb.append(format);
-
-            List<Object> finalArguments = new ArrayList<>();
-            finalArguments.add(new Date());
-            finalArguments.addAll(Arrays.asList(arguments));
-
-            tokenizeFormat(formatSb);
-
-            logSb.append(MessageFormat.format(formatSb.toString(), finalArguments.toArray())).append(LF);
+            appendExecLog(Level.INFO, PRE_EXEC_LOG_FORMAT_LEVEL_INFO, null, format, arguments);
         } catch (Exception e) {
             LOG.error("Cannot log this line: " + format, e);
         }
@@ -199,36 +256,21 @@ public class JobLogger {
         try {
             //
             // Standard Logging
-            if (containerClassLog.isErrorEnabled()) {
+            if (containerClassLog.isWarnEnabled()) {
                 StringBuilder formatSb = new StringBuilder();
                 List<Object> finalArguments = new ArrayList<>();
 
                 buildStdLogFormatArguments(format, arguments, formatSb, finalArguments);
 
-                tokenizeFormat(formatSb);
+                // The exception as last argument is logged with its stack trace
+                finalArguments.add(exception);
 
-                containerClassLog.warn(MessageFormat.format(formatSb.toString(), finalArguments.toArray()), exception);
+                containerClassLog.warn(formatSb.toString(), finalArguments.toArray());
             }
 
             //
             // Job Execution Logging
-            StringBuilder formatSb = new StringBuilder();
-            formatSb.append(PRE_EXEC_LOG_FORMAT_LEVEL_WARN);
-            formatSb.append(PRE_EXEC_LOG_FORMAT_DATE);
-            formatSb.append(format);
-
-            List<Object> finalArguments = new ArrayList<>();
-            finalArguments.add(new Date());
-            finalArguments.addAll(Arrays.asList(arguments));
-
-            if (exception != null) {
-                formatSb.append(POST_EXEC_LOG_FORMAT_ERROR);
-                finalArguments.add(exception.getMessage());
-            }
-
-            tokenizeFormat(formatSb);
-
-            logSb.append(MessageFormat.format(formatSb.toString(), finalArguments.toArray())).append(LF);
+            appendExecLog(Level.WARN, PRE_EXEC_LOG_FORMAT_LEVEL_WARN, exception, format, arguments);
         } catch (Exception e) {
             LOG.error("Cannot log this line: " + format, e);
         }
@@ -290,54 +332,152 @@ public class JobLogger {
 
                 buildStdLogFormatArguments(format, arguments, formatSb, finalArguments);
 
-                tokenizeFormat(formatSb);
+                // The exception as last argument is logged with its stack trace
+                finalArguments.add(exception);
 
-                containerClassLog.error(MessageFormat.format(formatSb.toString(), finalArguments.toArray()), exception);
+                containerClassLog.error(formatSb.toString(), finalArguments.toArray());
             }
 
             //
             // Job Execution Logging
-            StringBuilder formatSb = new StringBuilder();
-            formatSb.append(PRE_EXEC_LOG_FORMAT_LEVEL_ERROR);
-            formatSb.append(PRE_EXEC_LOG_FORMAT_DATE);
-            formatSb.append(format);
-
-            List<Object> finalArguments = new ArrayList<>();
-            finalArguments.add(new Date());
-            finalArguments.addAll(Arrays.asList(arguments));
-
-            if (exception != null) {
-                formatSb.append(POST_EXEC_LOG_FORMAT_ERROR);
-                finalArguments.add(exception.getMessage());
-            }
-
-            tokenizeFormat(formatSb);
-
-            logSb.append(MessageFormat.format(formatSb.toString(), finalArguments.toArray())).append(LF);
+            appendExecLog(Level.ERROR, PRE_EXEC_LOG_FORMAT_LEVEL_ERROR, exception, format, arguments);
         } catch (Exception e) {
             LOG.error("Cannot log this line: " + format, e);
         }
     }
 
     /**
-     * Returns all the log stored into {@code this} JobLogger and clears the current content.
+     * Appends the buffered lines to the {@link JobExecution} log and clears the buffer.
+     * <p>
+     * If the {@link JobExecution#getId()} has not been set, the buffered lines are discarded.
+     * They have been already logged to the standard {@link Logger}.
+     * <p>
+     * The buffer is swapped under the lock of this {@link JobLogger}, while the lines are appended to the {@link JobExecution} log outside of it,
+     * so the threads logging in the meantime are not blocked by the append. The appends are performed one at a time, in the order of their buffers.
      *
-     * @return The current stored log.
      * @since 1.1.0
      */
-    public synchronized String flush() {
-        String log = logSb.toString();
-
-        logSb = new StringBuilder();
-
-        return log;
+    public void flush() {
+        appendLock.lock();
+        try {
+            append();
+        } finally {
+            appendLock.unlock();
+        }
     }
 
 
+
     //
     // Private methods
     //
 
+    /**
+     * Buffers the log line for the {@link JobExecution} log, formatting it only if the given {@link Level} is enabled and the max size of the log has not been reached.
+     * <p>
+     * When the buffered lines reach the flush size, or the flush interval has elapsed since the last append, they are appended to the {@link JobExecution} log.
+     *
+     * @param level       The {@link Level} of the log line.
+     * @param levelPrefix The prefix of the {@link Level} of the log line.
+     * @param exception   The optional {@link Exception} to log.
+     * @param format      The user-provided {@link String} format to log.
+     * @param arguments   The user-provided arguments to log.
+     * @since 1.1.0
+     */
+    private void appendExecLog(Level level, String levelPrefix, Exception exception, String format, Object[] arguments) {
+        if (level.toInt() < execLogLevel.toInt() || execLogSizeMaxReached) {
+            return;
+        }
+
+        StringBuilder formatSb = new StringBuilder();
+        formatSb.append(levelPrefix);
+        formatSb.append(PRE_EXEC_LOG_FORMAT_DATE);
+        formatSb.append(format);
+
+        List<Object> finalArguments = new ArrayList<>();
+        finalArguments.add(new Date());
+        finalArguments.addAll(Arrays.asList(arguments));
+
+        if (exception != null) {
+            formatSb.append(POST_EXEC_LOG_FORMAT_ERROR);
+            finalArguments.add(exception.getMessage());
+        }
+
+        tokenizeFormat(formatSb);
+
+        String logLine = MessageFormat.format(formatSb.toString(), finalArguments.toArray()) + LF;
+
+        boolean flushRequired;
+        synchronized (this) {
+            if (execLogSizeMaxReached) {
+                return;
+            }
+
+            if (execLogSize + logLine.length() > execLogSizeMax) {
+                StringBuilder sizeMaxFormatSb = new StringBuilder()
+                        .append(PRE_EXEC_LOG_FORMAT_LEVEL_WARN)
+                        .append(PRE_EXEC_LOG_FORMAT_DATE)
+                        .append(EXEC_LOG_SIZE_MAX_REACHED);
+
+                tokenizeFormat(sizeMaxFormatSb);
+
+                // Always stored, so the log tells that it has been truncated
+                logLine = MessageFormat.format(sizeMaxFormatSb.toString(), new Date(), String.valueOf(execLogSizeMax)) + LF;
+                execLogSize = execLogSizeMax;
+                execLogSizeMaxReached = true;
+            } else {
+                execLogSize += logLine.length();
+            }
+
+            logSb.append(logLine);
+
+            // The lines logged before knowing the JobExecution are kept until it is known
+            flushRequired = jobExecutionId != null && (logSb.length() >= execLogFlushSize || System.currentTimeMillis() - lastFlushOn >= execLogFlushInterval);
+        }
+
+        // If another thread is appending, the lines are appended by the next flush
+        if (flushRequired && appendLock.tryLock()) {
+            try {
+                append();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Swaps the buffer under the lock of this {@link JobLogger} and appends the buffered lines to the {@link JobExecution} log.
+     * <p>
+     * It must be invoked holding the {@link #appendLock}.
+     *
+     * @since 1.1.0
+     */
+    private void append() {
+        String log;
+        KapuaId logJobExecutionId;
+        synchronized (this) {
+            if (logSb.length() == 0) {
+                return;
+            }
+
+            log = logSb.toString();
+            logSb = new StringBuilder();
+            lastFlushOn = System.currentTimeMillis();
+            logJobExecutionId = jobExecutionId;
+        }
+
+        if (logJobExecutionId == null) {
+            LOG.warn("Cannot append {} characters to the job execution log. Job execution id not available for job {}", log.length(), jobId);
+            return;
+        }
+
+        try {
+            KapuaSecurityUtils.doPrivileged(() -> JOB_EXECUTION_SERVICE.appendLog(scopeId, logJobExecutionId, log));
+        } catch (Exception e) {
+            LOG.error("Cannot append {} characters to the log of the job execution {}", log.length(), logJobExecutionId, e);
+        }
+    }
+
     /**
      * Checks that the number of placeholders in the given format matches the number of arguments given.
      * If they do not match, a {@link Logger#warn(String)} is printed in the {@link JobLogger#LOG}.
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Default {@link PartitionMapper} implementation for the partitioned target steps.
+ * <p>
+ * It selects the {@link JobTarget}s to process in the step, with the same filters and paging of the {@link DefaultTargetReader}, and splits them in {@link StepContextPropertyNames#STEP_PARTITION_COUNT}
+ * ranges of consecutive {@link JobTarget#getId()}s with about the same number of {@link JobTarget}s.
+ * Each range is assigned to a partition (see {@link StepContextWrapper#getPartitionFirstTargetId()} and {@link StepContextWrapper#getPartitionEndTargetId()}) which reads, processes and writes
+ * its {@link JobTarget}s on its own thread.
+ * <p>
+ * The partitions are mapped again on restart, so a resumed {@link org.eclipse.kapua.service.job.execution.JobExecution} splits only the {@link JobTarget}s left to process.
+ *
+ * @since 1.1.0
+ */
+public class DefaultTargetPartitionMapper implements PartitionMapper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultTargetPartitionMapper.class);
+
+    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
+
+    private final JobTargetFactory jobTargetFactory = LOCATOR.getFactory(JobTargetFactory.class);
+
+    // Applies the same filters of the reader
+    private final DefaultTargetReader targetReader = new DefaultTargetReader();
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private StepContext stepContext;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext);
+        StepContextWrapper stepContextWrapper = new StepContextWrapper(stepContext);
+
+        JobLogger jobLogger = jobContextWrapper.getJobLogger();
+        jobLogger.setClassLog(LOG);
+
+        jobLogger.info("Mapping partitions...");
+
+        //
+        // Select the targets of the step
+        JobTargetQuery query = jobTargetFactory.newQuery(jobContextWrapper.getScopeId());
+
+        AndPredicate andPredicate = query.andPredicate(
+                query.attributePredicate(JobTargetAttributes.JOB_ID, jobContextWrapper.getJobId())
+        );
+
+        targetReader.stepIndexFiltering(jobContextWrapper, stepContextWrapper, query, andPredicate);
+
+        List<KapuaId> jobTargetIds = new ArrayList<>();
+        targetReader.openCursor(jobContextWrapper.getScopeId(), andPredicate, targetReader.getTargetIds(jobContextWrapper, stepContextWrapper), targetReader.getPageSize(stepContextWrapper));
+        while (targetReader.hasNextPage()) {
+            for (JobTarget jobTarget : targetReader.readNextPage()) {
+                jobTargetIds.add(jobTarget.getId());
+            }
+        }
+
+        //
+        // Split the targets
+        int partitionCount = getStepProperty(stepContextWrapper, StepContextPropertyNames.STEP_PARTITION_COUNT, 1);
+        int partitionThreads = getStepProperty(stepContextWrapper, StepContextPropertyNames.STEP_PARTITION_THREADS, partitionCount);
+
+        PartitionPlan partitionPlan = buildPartitionPlan(jobTargetIds, partitionCount, partitionThreads, jobContextWrapper.getKapuaExecutionId());
+
+        jobLogger.info("Mapping partitions... {} targets in {} partitions on {} threads. Done!", jobTargetIds.size(), partitionPlan.getPartitions(), partitionPlan.getThreads());
+        return partitionPlan;
+    }
+
+    /**
+     * Builds the {@link PartitionPlan} which splits the given {@link JobTarget#getId()}s in ranges of consecutive {@link JobTarget#getId()}s.
+     *
+     * @param jobTargetIds     The {@link JobTarget#getId()}s to process in the step, sorted.
+     * @param partitionCount   The number of partitions of the step.
+     * @param partitionThreads The max number of partitions of the step running at the same time.
+     * @param jobExecutionId   The {@link org.eclipse.kapua.service.job.execution.JobExecution#getId()} of the step, if available.
+     * @return The {@link PartitionPlan}.
+     */
+    static PartitionPlan buildPartitionPlan(List<KapuaId> jobTargetIds, int partitionCount, int partitionThreads, KapuaId jobExecutionId) {
+        // No empty partitions, but at least one partition to complete the step
+        int partitions = Math.max(1, Math.min(partitionCount, jobTargetIds.size()));
+
+        Properties[] partitionProperties = new Properties[partitions];
+        for (int i = 0; i < partitions; i++) {
+            partitionProperties[i] = new Properties();
+            partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, String.valueOf(i));
+
+            // Each partition starts at its first target and ends at the first target of the next one, so the ranges cover the whole id space without overlapping
+            if (i > 0) {
+                partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID, jobTargetIds.get(i * jobTargetIds.size() / partitions).toCompactId());
+            }
+            if (i < partitions - 1) {
+                partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID, jobTargetIds.get((i + 1) * jobTargetIds.size() / partitions).toCompactId());
+            }
+
+            if (jobExecutionId != null) {
+                partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID, jobExecutionId.toCompactId());
+            }
+        }
+
+        PartitionPlanImpl partitionPlan = new PartitionPlanImpl();
+        partitionPlan.setPartitions(partitions);
+        partitionPlan.setThreads(Math.max(1, Math.min(partitionThreads, partitions)));
+        partitionPlan.setPartitionProperties(partitionProperties);
+        partitionPlan.setPartitionsOverride(true);
+        return partitionPlan;
+    }
+
+    private static int getStepProperty(StepContextWrapper stepContextWrapper, String stepPropertyName, int defaultValue) throws KapuaIllegalArgumentException {
+        Integer stepProperty = stepContextWrapper.getStepProperty(stepPropertyName, Integer.class);
+        return stepProperty != null ? stepProperty : defaultValue;
+    }
+
+}
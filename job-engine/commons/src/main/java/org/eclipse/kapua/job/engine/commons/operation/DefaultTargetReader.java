@@ -11,12 +11,15 @@
  *******************************************************************************/
 package org.eclipse.kapua.job.engine.commons.operation;
 
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.query.FieldSortCriteria;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobTargetWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
 import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.model.query.predicate.AndPredicate;
 import org.eclipse.kapua.model.query.predicate.AttributePredicate;
@@ -38,6 +41,7 @@ import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -53,6 +57,13 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
 
     private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
 
+    /**
+     * The default number of {@link JobTarget}s read with each query.
+     *
+     * @since 1.1.0
+     */
+    protected static final int PAGE_SIZE_DEFAULT = 500;
+
     private final JobTargetFactory jobTargetFactory = LOCATOR.getFactory(JobTargetFactory.class);
     private final JobTargetService jobTargetService = LOCATOR.getService(JobTargetService.class);
 
@@ -62,9 +73,20 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
     @Inject
     private StepContext stepContext;
 
+    /**
+     * The current page of {@link JobTarget}s.
+     */
     protected List<JobTargetWrapper> wrappedJobTargets = new ArrayList<>();
     protected int jobTargetIndex;
 
+    private KapuaId scopeId;
+    private AndPredicate targetPredicate;
+    private List<KapuaId> targetIds;
+    private int targetIdsIndex;
+    private int pageSize;
+    private KapuaId lastJobTargetId;
+    private boolean lastPage;
+
     @Override
     public void open(Serializable arg0) throws Exception {
         JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext);
@@ -88,18 +110,12 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         stepIndexFiltering(jobContextWrapper, stepContextWrapper, query, andPredicate);
 
         //
-        // Filter selected target
-        targetSublistFiltering(jobContextWrapper, query, andPredicate);
-
-        //
-        // Query the targets
-        query.setPredicate(andPredicate);
-
-        JobTargetListResult jobTargets = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(query));
+        // Partition filtering
+        partitionFiltering(stepContextWrapper, query, andPredicate);
 
         //
-        // Wrap the JobTargets in a wrapper object to store additional informations
-        jobTargets.getItems().forEach(jt -> wrappedJobTargets.add(new JobTargetWrapper(jt)));
+        // The targets are read in pages, see readNextPage()
+        openCursor(jobContextWrapper.getScopeId(), andPredicate, getTargetIds(jobContextWrapper, stepContextWrapper), getPageSize(stepContextWrapper));
 
         jobLogger.info("Opening cursor... Done!");
     }
@@ -113,6 +129,17 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
 
         jobLogger.info("Reading item...");
 
+        // A page of the target sublist may have no targets left to process
+        while (jobTargetIndex >= wrappedJobTargets.size() && hasNextPage()) {
+            List<JobTarget> jobTargets = readNextPage();
+
+            //
+            // Wrap the JobTargets in a wrapper object to store additional informations
+            wrappedJobTargets = new ArrayList<>(jobTargets.size());
+            jobTargets.forEach(jt -> wrappedJobTargets.add(new JobTargetWrapper(jt)));
+            jobTargetIndex = 0;
+        }
+
         JobTargetWrapper currentWrappedJobTarget = null;
         if (jobTargetIndex < wrappedJobTargets.size()) {
             currentWrappedJobTarget = wrappedJobTargets.get(jobTargetIndex++);
@@ -122,6 +149,128 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         return currentWrappedJobTarget;
     }
 
+    /**
+     * Opens the cursor over the {@link JobTarget}s to read.
+     *
+     * @param scopeId         The scope {@link KapuaId} of the {@link JobTarget}s.
+     * @param targetPredicate The {@link AndPredicate} which selects the {@link JobTarget}s.
+     * @param targetIds       The {@link JobTarget#getId()}s to read, sorted, or {@code null} to read all the {@link JobTarget}s matching the {@link AndPredicate} (see {@link #getTargetIds(JobContextWrapper, StepContextWrapper)}).
+     * @param pageSize        The max number of {@link JobTarget}s read with each query.
+     * @since 1.1.0
+     */
+    protected void openCursor(KapuaId scopeId, AndPredicate targetPredicate, List<KapuaId> targetIds, int pageSize) {
+        this.scopeId = scopeId;
+        this.targetPredicate = targetPredicate;
+        this.targetIds = targetIds;
+        this.pageSize = pageSize;
+
+        targetIdsIndex = 0;
+        lastJobTargetId = null;
+        lastPage = targetIds != null && targetIds.isEmpty();
+    }
+
+    /**
+     * Checks whether the cursor has other pages to read.
+     *
+     * @return {@code true} if {@link #readNextPage()} can read other {@link JobTarget}s.
+     * @since 1.1.0
+     */
+    protected boolean hasNextPage() {
+        return !lastPage;
+    }
+
+    /**
+     * Reads the next page of the cursor.
+     * <p>
+     * When the {@link JobTarget#getId()}s to read are given, each page selects the next {@link #getPageSize(StepContextWrapper)} of them, so the query never carries the whole target sublist.
+     * The page may be empty even if {@link #hasNextPage()} is still {@code true}, when none of the {@link JobTarget}s of the page matches the {@link AndPredicate}.
+     *
+     * @return The {@link JobTarget}s of the page.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    protected List<JobTarget> readNextPage() throws KapuaException {
+        JobTargetListResult jobTargets;
+        if (targetIds != null) {
+            List<KapuaId> pageTargetIds = targetIds.subList(targetIdsIndex, Math.min(targetIdsIndex + pageSize, targetIds.size()));
+            targetIdsIndex += pageTargetIds.size();
+            lastPage = targetIdsIndex >= targetIds.size();
+
+            jobTargets = readPage(scopeId, targetPredicate, pageTargetIds);
+        } else {
+            jobTargets = readPage(scopeId, targetPredicate, lastJobTargetId, pageSize);
+            lastPage = !jobTargets.isLimitExceeded();
+            if (!jobTargets.isEmpty()) {
+                lastJobTargetId = jobTargets.getItem(jobTargets.getSize() - 1).getId();
+            }
+        }
+        return jobTargets.getItems();
+    }
+
+    /**
+     * Reads a page of the {@link JobTarget}s matching the given {@link AndPredicate}.
+     * <p>
+     * The {@link JobTarget}s are read in the order of their {@link JobTarget#getId()}, starting after the last {@link JobTarget} of the previous page.
+     * The {@link JobTarget}s written while the step is running may no longer match the {@link AndPredicate}, so paging by offset would skip some of them,
+     * while paging by {@link JobTarget#getId()} reads each of them once.
+     *
+     * @param scopeId         The scope {@link KapuaId} of the {@link JobTarget}s.
+     * @param targetPredicate The {@link AndPredicate} which selects the {@link JobTarget}s.
+     * @param lastJobTargetId The {@link JobTarget#getId()} of the last {@link JobTarget} of the previous page, or {@code null} to read the first page.
+     * @param pageSize        The max number of {@link JobTarget}s of the page.
+     * @return The page of {@link JobTarget}s. {@link JobTargetListResult#isLimitExceeded()} is {@code true} if there are other pages to read.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    protected JobTargetListResult readPage(KapuaId scopeId, AndPredicate targetPredicate, KapuaId lastJobTargetId, int pageSize) throws KapuaException {
+        JobTargetQuery query = jobTargetFactory.newQuery(scopeId);
+
+        AndPredicate pagePredicate = query.andPredicate(targetPredicate);
+        if (lastJobTargetId != null) {
+            pagePredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, lastJobTargetId, AttributePredicate.Operator.GREATER_THAN));
+        }
+
+        query.setPredicate(pagePredicate);
+        query.setSortCriteria(new FieldSortCriteria(JobTargetAttributes.ENTITY_ID, FieldSortCriteria.SortOrder.ASCENDING));
+        query.setLimit(pageSize);
+
+        return KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(query));
+    }
+
+    /**
+     * Reads the {@link JobTarget}s matching the given {@link AndPredicate} among the given {@link JobTarget#getId()}s.
+     *
+     * @param scopeId         The scope {@link KapuaId} of the {@link JobTarget}s.
+     * @param targetPredicate The {@link AndPredicate} which selects the {@link JobTarget}s.
+     * @param pageTargetIds   The {@link JobTarget#getId()}s of the page.
+     * @return The {@link JobTarget}s of the page, in the order of their {@link JobTarget#getId()}.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    protected JobTargetListResult readPage(KapuaId scopeId, AndPredicate targetPredicate, List<KapuaId> pageTargetIds) throws KapuaException {
+        JobTargetQuery query = jobTargetFactory.newQuery(scopeId);
+
+        query.setPredicate(query.andPredicate(
+                targetPredicate,
+                query.attributePredicate(JobTargetAttributes.ENTITY_ID, pageTargetIds.toArray(new KapuaId[pageTargetIds.size()]))
+        ));
+        query.setSortCriteria(new FieldSortCriteria(JobTargetAttributes.ENTITY_ID, FieldSortCriteria.SortOrder.ASCENDING));
+
+        return KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(query));
+    }
+
+    /**
+     * Gets the number of {@link JobTarget}s read with each query, from the {@link StepContextWrapper#getReaderPageSize()}.
+     *
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @return The page size, or {@link #PAGE_SIZE_DEFAULT} if not set.
+     * @since 1.1.0
+     */
+    protected int getPageSize(StepContextWrapper stepContextWrapper) {
+        Integer readerPageSize = stepContextWrapper.getReaderPageSize();
+        return readerPageSize != null && readerPageSize > 0 ? readerPageSize : PAGE_SIZE_DEFAULT;
+    }
+
     /**
      * This method apply {@link AttributePredicate}s according to the parameters contained into the {@link JobContextWrapper} and {@link StepContextWrapper}.
      * <p>
@@ -163,11 +312,64 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
      * @param query             The {@link KapuaQuery} to perform
      * @param andPredicate      The {@link org.eclipse.kapua.model.query.predicate.AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
      * @since 1.0.0
+     * @deprecated Since 1.1.0 the {@link JobContextWrapper#getTargetSublist()} is read one page at a time, see {@link #getTargetIds(JobContextWrapper, StepContextWrapper)}.
      */
+    @Deprecated
     protected void targetSublistFiltering(JobContextWrapper jobContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
         if (!jobContextWrapper.getTargetSublist().isEmpty()) {
             andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, jobContextWrapper.getTargetSublist().toArray()));
         }
     }
 
+    /**
+     * This method apply {@link AttributePredicate}s according to the {@link JobTarget#getId()} range assigned to the partition by the {@link DefaultTargetPartitionMapper}
+     * (see {@link StepContextWrapper#getPartitionFirstTargetId()} and {@link StepContextWrapper#getPartitionEndTargetId()}).
+     * <p>
+     * When the step is not partitioned no {@link AttributePredicate} is applied.
+     *
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @param query              The {@link KapuaQuery} to perform
+     * @param andPredicate       The {@link org.eclipse.kapua.model.query.predicate.AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
+     * @since 1.1.0
+     */
+    protected void partitionFiltering(StepContextWrapper stepContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+        KapuaId firstTargetId = stepContextWrapper.getPartitionFirstTargetId();
+        if (firstTargetId != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, firstTargetId, AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
+        }
+
+        KapuaId endTargetId = stepContextWrapper.getPartitionEndTargetId();
+        if (endTargetId != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, endTargetId, AttributePredicate.Operator.LESS_THAN));
+        }
+    }
+
+    /**
+     * Gets the {@link JobTarget#getId()}s of the {@link JobContextWrapper#getTargetSublist()} to read, sorted and restricted to the range of the partition (if any).
+     *
+     * @param jobContextWrapper  The {@link JobContextWrapper} from which extract data
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @return The sorted {@link JobTarget#getId()}s, or {@code null} if the {@link JobContextWrapper#getTargetSublist()} is empty and all the {@link JobTarget}s of the
+     * {@link org.eclipse.kapua.service.job.Job} are read.
+     * @since 1.1.0
+     */
+    protected List<KapuaId> getTargetIds(JobContextWrapper jobContextWrapper, StepContextWrapper stepContextWrapper) {
+        if (jobContextWrapper.getTargetSublist().isEmpty()) {
+            return null;
+        }
+
+        KapuaId firstTargetId = stepContextWrapper.getPartitionFirstTargetId();
+        KapuaId endTargetId = stepContextWrapper.getPartitionEndTargetId();
+
+        List<KapuaId> targetIds = new ArrayList<>();
+        for (KapuaId targetId : jobContextWrapper.getTargetSublist()) {
+            if ((firstTargetId == null || targetId.getId().compareTo(firstTargetId.getId()) >= 0) &&
+                    (endTargetId == null || targetId.getId().compareTo(endTargetId.getId()) < 0)) {
+                targetIds.add(targetId);
+            }
+        }
+        targetIds.sort(Comparator.comparing(KapuaId::getId));
+        return targetIds;
+    }
+
 }
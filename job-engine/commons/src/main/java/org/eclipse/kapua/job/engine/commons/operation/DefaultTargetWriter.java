@@ -28,6 +28,7 @@ import javax.batch.api.chunk.AbstractItemWriter;
 import javax.batch.runtime.context.JobContext;
 import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -61,14 +62,14 @@ public class DefaultTargetWriter extends AbstractItemWriter implements TargetWri
 
         jobLogger.info("Writing items...");
 
+        //
+        // The outcome of the whole chunk is written with a single update
+        List<JobTarget> jobTargets = new ArrayList<>(items.size());
         for (Object item : items) {
             JobTargetWrapper processedWrappedJobTarget = (JobTargetWrapper) item;
-            JobTarget processedJobTarget = processedWrappedJobTarget.getJobTarget();
-
-            JobTarget jobTarget = KapuaSecurityUtils.doPrivileged(() -> JOB_TARGET_SERVICE.find(processedJobTarget.getScopeId(), processedJobTarget.getId()));
+            JobTarget jobTarget = processedWrappedJobTarget.getJobTarget();
 
             jobTarget.setStepIndex(stepContextWrapper.getStepIndex());
-            jobTarget.setStatus(processedJobTarget.getStatus());
             jobTarget.setStatusMessage(processedWrappedJobTarget.getProcessingException() != null ? processedWrappedJobTarget.getProcessingException().getMessage() : null);
 
             if (JobTargetStatus.PROCESS_OK.equals(jobTarget.getStatus())) {
@@ -81,9 +82,11 @@ public class DefaultTargetWriter extends AbstractItemWriter implements TargetWri
                 }
             }
 
-            KapuaSecurityUtils.doPrivileged(() -> JOB_TARGET_SERVICE.update(jobTarget));
+            jobTargets.add(jobTarget);
         }
 
+        KapuaSecurityUtils.doPrivileged(() -> JOB_TARGET_SERVICE.updateStatus(jobContextWrapper.getScopeId(), jobTargets));
+
         jobLogger.info("Writing items... Done!");
     }
 }
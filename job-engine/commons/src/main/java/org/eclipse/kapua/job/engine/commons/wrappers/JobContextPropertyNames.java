@@ -52,4 +52,24 @@ public interface JobContextPropertyNames {
      * @since 1.1.0
      */
     String KAPUA_EXECUTION_ID = "job.execution.id";
+
+    /**
+     * @since 1.1.0
+     */
+    String JOB_LOG_LEVEL = "job.log.level";
+
+    /**
+     * @since 1.1.0
+     */
+    String JOB_LOG_FLUSH_SIZE = "job.log.flushSize";
+
+    /**
+     * @since 1.1.0
+     */
+    String JOB_LOG_FLUSH_INTERVAL = "job.log.flushInterval";
+
+    /**
+     * @since 1.1.0
+     */
+    String JOB_LOG_SIZE_MAX = "job.log.sizeMax";
 }
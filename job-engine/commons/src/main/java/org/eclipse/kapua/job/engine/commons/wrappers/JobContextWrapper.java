@@ -20,6 +20,7 @@ import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
 import org.eclipse.kapua.job.engine.commons.model.JobTransientUserData;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.job.execution.JobExecution;
+import org.slf4j.event.Level;
 import org.xml.sax.SAXException;
 
 import javax.batch.runtime.BatchStatus;
@@ -149,13 +150,64 @@ public class JobContextWrapper {
         JobLogger jobLogger = getJobTransientUserData().getJobLogger();
 
         if (jobLogger == null) {
-            jobLogger = new JobLogger(getScopeId(), getJobId(), getJobName());
+            jobLogger = new JobLogger(
+                    getScopeId(),
+                    getJobId(),
+                    getJobName(),
+                    getLogLevel(),
+                    getLogFlushSize(),
+                    getLogFlushInterval(),
+                    getLogSizeMax());
             getJobTransientUserData().setJobLogger(jobLogger);
         }
 
         return jobLogger;
     }
 
+    /**
+     * Gets the min {@link Level} of the lines stored into the {@link JobExecution} log.
+     *
+     * @return The min {@link Level} of the {@link JobExecution} log.
+     * @since 1.1.0
+     */
+    public Level getLogLevel() {
+        String logLevelString = getProperties().getProperty(JobContextPropertyNames.JOB_LOG_LEVEL);
+        return Strings.isNullOrEmpty(logLevelString) ? JobLogger.EXEC_LOG_LEVEL_DEFAULT : Level.valueOf(logLevelString);
+    }
+
+    /**
+     * Gets the number of buffered characters which triggers the append to the {@link JobExecution} log.
+     *
+     * @return The flush size of the {@link JobExecution} log.
+     * @since 1.1.0
+     */
+    public int getLogFlushSize() {
+        String logFlushSizeString = getProperties().getProperty(JobContextPropertyNames.JOB_LOG_FLUSH_SIZE);
+        return Strings.isNullOrEmpty(logFlushSizeString) ? JobLogger.EXEC_LOG_FLUSH_SIZE_DEFAULT : Integer.parseInt(logFlushSizeString);
+    }
+
+    /**
+     * Gets the milliseconds after which the buffered lines are appended to the {@link JobExecution} log.
+     *
+     * @return The flush interval of the {@link JobExecution} log.
+     * @since 1.1.0
+     */
+    public long getLogFlushInterval() {
+        String logFlushIntervalString = getProperties().getProperty(JobContextPropertyNames.JOB_LOG_FLUSH_INTERVAL);
+        return Strings.isNullOrEmpty(logFlushIntervalString) ? JobLogger.EXEC_LOG_FLUSH_INTERVAL_DEFAULT : Long.parseLong(logFlushIntervalString);
+    }
+
+    /**
+     * Gets the max number of characters stored into the {@link JobExecution} log by each {@link JobLogger}.
+     *
+     * @return The max size of the {@link JobExecution} log.
+     * @since 1.1.0
+     */
+    public long getLogSizeMax() {
+        String logSizeMaxString = getProperties().getProperty(JobContextPropertyNames.JOB_LOG_SIZE_MAX);
+        return Strings.isNullOrEmpty(logSizeMaxString) ? JobLogger.EXEC_LOG_SIZE_MAX_DEFAULT : Long.parseLong(logSizeMaxString);
+    }
+
     /**
      * @return {@link JobContext#getJobName()}.
      * @see JobContext#getJobName
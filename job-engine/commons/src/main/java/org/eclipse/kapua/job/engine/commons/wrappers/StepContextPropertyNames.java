@@ -27,4 +27,39 @@ public interface StepContextPropertyNames {
      * @since 1.0.0
      */
     String STEP_NEXT_INDEX = "step.nextStepIndex";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_COUNT = "step.partitionCount";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_THREADS = "step.partitionThreads";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_INDEX = "step.partitionIndex";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_FIRST_TARGET_ID = "step.partitionFirstTargetId";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_END_TARGET_ID = "step.partitionEndTargetId";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_PARTITION_EXECUTION_ID = "step.partitionExecutionId";
+
+    /**
+     * @since 1.1.0
+     */
+    String STEP_READER_PAGE_SIZE = "step.readerPageSize";
 }
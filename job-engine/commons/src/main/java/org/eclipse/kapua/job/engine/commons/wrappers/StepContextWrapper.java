@@ -59,6 +59,66 @@ public class StepContextWrapper {
         return stepNextIndexString != null ? Integer.parseInt(stepNextIndexString) : null;
     }
 
+    /**
+     * Gets the number of {@link org.eclipse.kapua.service.job.targets.JobTarget}s read with each query by the reader of the step.
+     *
+     * @return The page size of the reader or {@code null} if not set.
+     * @since 1.1.0
+     */
+    public Integer getReaderPageSize() {
+        String readerPageSizeString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_READER_PAGE_SIZE);
+        return !Strings.isNullOrEmpty(readerPageSizeString) ? Integer.parseInt(readerPageSizeString) : null;
+    }
+
+    /**
+     * Gets the index of the partition of the step.
+     *
+     * @return The index of the partition or {@code null} if the step is not partitioned (or this is not a partition of the step).
+     * @since 1.1.0
+     */
+    public Integer getPartitionIndex() {
+        String partitionIndexString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITION_INDEX);
+        return !Strings.isNullOrEmpty(partitionIndexString) ? Integer.parseInt(partitionIndexString) : null;
+    }
+
+    /**
+     * Gets the first {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the range assigned to the partition of the step.
+     *
+     * @return The first {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the partition or {@code null} if the range has no start, the step is not partitioned (or this is not a
+     * partition of the step).
+     * @since 1.1.0
+     */
+    public KapuaId getPartitionFirstTargetId() {
+        String firstTargetIdString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID);
+        return !Strings.isNullOrEmpty(firstTargetIdString) ? KapuaEid.parseCompactId(firstTargetIdString) : null;
+    }
+
+    /**
+     * Gets the {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} which ends (exclusive) the range assigned to the partition of the step.
+     *
+     * @return The end {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the partition or {@code null} if the range has no end, the step is not partitioned (or this is not a
+     * partition of the step).
+     * @since 1.1.0
+     */
+    public KapuaId getPartitionEndTargetId() {
+        String endTargetIdString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID);
+        return !Strings.isNullOrEmpty(endTargetIdString) ? KapuaEid.parseCompactId(endTargetIdString) : null;
+    }
+
+    /**
+     * Gets the {@link org.eclipse.kapua.service.job.execution.JobExecution#getId()} of the partitioned step.
+     * <p>
+     * The partitions run with their own {@link javax.batch.runtime.context.JobContext}, so they get the {@link org.eclipse.kapua.service.job.execution.JobExecution#getId()} from the
+     * partition plan to append to its log.
+     *
+     * @return The {@link org.eclipse.kapua.service.job.execution.JobExecution#getId()} or {@code null} if the step is not partitioned (or this is not a partition of the step).
+     * @since 1.1.0
+     */
+    public KapuaId getPartitionExecutionId() {
+        String partitionExecutionIdString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID);
+        return !Strings.isNullOrEmpty(partitionExecutionIdString) ? KapuaEid.parseCompactId(partitionExecutionIdString) : null;
+    }
+
     public <T> T getStepProperty(String stepPropertyName, Class<T> type) throws KapuaIllegalArgumentException {
         Properties jobContextProperties = stepContext.getProperties();
         String stepPropertyString = jobContextProperties.getProperty(stepPropertyName);
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.logger;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.job.execution.JobExecutionService;
+import org.eclipse.kapua.test.MockedLocator;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class JobLoggerTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.ONE);
+    private static final KapuaId JOB_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId JOB_EXECUTION_ID = new KapuaEid(BigInteger.valueOf(100));
+
+    // The JobLogger gets the service once, when loaded
+    private static final JobExecutionService JOB_EXECUTION_SERVICE = Mockito.mock(JobExecutionService.class);
+
+    @BeforeClass
+    public static void setUpClass() {
+        ((MockedLocator) KapuaLocator.getInstance()).setMockedService(JobExecutionService.class, JOB_EXECUTION_SERVICE);
+    }
+
+    @Before
+    public void setUp() {
+        Mockito.reset(JOB_EXECUTION_SERVICE);
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.INFO, 16384, 60000, 4096);
+
+        jobLogger.info("First line");
+        jobLogger.warn(new Exception("Failure"), "Second line {}", 2);
+        jobLogger.error("Third line");
+        Mockito.verifyZeroInteractions(JOB_EXECUTION_SERVICE);
+
+        jobLogger.flush();
+
+        String log = getAppendedLog();
+        String[] lines = log.split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(lines[0].startsWith("[INFO] ") && lines[0].endsWith("First line"));
+        Assert.assertTrue(lines[1].startsWith("[WARN] ") && lines[1].endsWith("Second line 2 Failure"));
+        Assert.assertTrue(lines[2].startsWith("[ERROR] ") && lines[2].endsWith("Third line"));
+
+        // nothing left to append
+        jobLogger.flush();
+        Mockito.verify(JOB_EXECUTION_SERVICE, Mockito.times(1)).appendLog(Matchers.any(KapuaId.class), Matchers.any(KapuaId.class), Matchers.anyString());
+    }
+
+    @Test
+    public void testLevelFiltering() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.WARN, 16384, 60000, 4096);
+
+        jobLogger.info("Not stored");
+        jobLogger.warn("Stored");
+        jobLogger.flush();
+
+        String log = getAppendedLog();
+        Assert.assertFalse(log.contains("Not stored"));
+        Assert.assertTrue(log.contains("Stored"));
+    }
+
+    @Test
+    public void testSizeMax() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.INFO, 16384, 60000, 200);
+
+        for (int i = 0; i < 20; i++) {
+            jobLogger.info("Line number {}", i);
+        }
+        jobLogger.flush();
+
+        String log = getAppendedLog();
+        String[] lines = log.split("\n");
+
+        // the stored lines fit the max size, then the truncation warning is the last line
+        String lastLine = lines[lines.length - 1];
+        Assert.assertTrue(lastLine.startsWith("[WARN] "));
+        Assert.assertTrue(lastLine.endsWith("Log size max of 200 characters reached! The following lines are not stored."));
+        Assert.assertTrue(log.length() - lastLine.length() - 1 <= 200);
+        Assert.assertTrue(lines.length > 1 && lines.length < 20);
+        for (int i = 0; i < lines.length - 1; i++) {
+            Assert.assertTrue(lines[i].endsWith("Line number " + i));
+        }
+
+        // the following lines are not stored anymore
+        jobLogger.error("Not stored");
+        jobLogger.flush();
+        Mockito.verify(JOB_EXECUTION_SERVICE, Mockito.times(1)).appendLog(Matchers.any(KapuaId.class), Matchers.any(KapuaId.class), Matchers.anyString());
+    }
+
+    @Test
+    public void testFlushSizeTrigger() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.INFO, 100, 60000, 4096);
+
+        jobLogger.info("Short line");
+        Mockito.verifyZeroInteractions(JOB_EXECUTION_SERVICE);
+
+        jobLogger.info("A line long enough to reach the flush size of the buffered job execution log lines");
+
+        String log = getAppendedLog();
+        Assert.assertTrue(log.contains("Short line"));
+        Assert.assertTrue(log.contains("A line long enough"));
+    }
+
+    @Test
+    public void testFlushIntervalTrigger() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.INFO, 16384, 500, 4096);
+
+        jobLogger.info("First line");
+        Mockito.verifyZeroInteractions(JOB_EXECUTION_SERVICE);
+
+        Thread.sleep(700);
+        jobLogger.info("Second line");
+
+        String log = getAppendedLog();
+        Assert.assertTrue(log.contains("First line"));
+        Assert.assertTrue(log.contains("Second line"));
+    }
+
+    @Test
+    public void testLinesKeptUntilJobExecutionIsKnown() throws Exception {
+        JobLogger jobLogger = new JobLogger(SCOPE_ID, JOB_ID, "job", Level.INFO, 10, 60000, 4096);
+        jobLogger.setClassLog(LoggerFactory.getLogger(JobLoggerTest.class));
+
+        jobLogger.info("Logged before the job execution is known");
+        Mockito.verifyZeroInteractions(JOB_EXECUTION_SERVICE);
+
+        jobLogger.setJobExecutionId(JOB_EXECUTION_ID);
+        jobLogger.info("Logged after the job execution is known");
+
+        String log = getAppendedLog();
+        Assert.assertTrue(log.contains("Logged before the job execution is known"));
+        Assert.assertTrue(log.contains("Logged after the job execution is known"));
+    }
+
+    @Test
+    public void testLoggingNotBlockedByAppend() throws Exception {
+        JobLogger jobLogger = newJobLogger(Level.INFO, 16384, 60000, 4096);
+
+        CountDownLatch appendStarted = new CountDownLatch(1);
+        CountDownLatch appendReleased = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            appendStarted.countDown();
+            Assert.assertTrue(appendReleased.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            return null;
+        }).when(JOB_EXECUTION_SERVICE).appendLog(Matchers.any(KapuaId.class), Matchers.any(KapuaId.class), Matchers.anyString());
+
+        jobLogger.info("First line");
+        CompletableFuture<Void> flushed = CompletableFuture.runAsync(jobLogger::flush);
+        Assert.assertTrue(appendStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        // logging while the append is running
+        CompletableFuture.runAsync(() -> jobLogger.info("Second line")).get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        appendReleased.countDown();
+        flushed.get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        jobLogger.flush();
+
+        ArgumentCaptor<String> logCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(JOB_EXECUTION_SERVICE, Mockito.times(2)).appendLog(Matchers.eq(SCOPE_ID), Matchers.eq(JOB_EXECUTION_ID), logCaptor.capture());
+        Assert.assertTrue(logCaptor.getAllValues().get(0).contains("First line"));
+        Assert.assertTrue(logCaptor.getAllValues().get(1).contains("Second line"));
+    }
+
+    private static JobLogger newJobLogger(Level level, int flushSize, long flushInterval, long sizeMax) {
+        JobLogger jobLogger = new JobLogger(SCOPE_ID, JOB_ID, "job", level, flushSize, flushInterval, sizeMax);
+        jobLogger.setClassLog(LoggerFactory.getLogger(JobLoggerTest.class));
+        jobLogger.setJobExecutionId(JOB_EXECUTION_ID);
+        return jobLogger;
+    }
+
+    private static String getAppendedLog() throws Exception {
+        ArgumentCaptor<String> logCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(JOB_EXECUTION_SERVICE).appendLog(Matchers.eq(SCOPE_ID), Matchers.eq(JOB_EXECUTION_ID), logCaptor.capture());
+        return logCaptor.getValue();
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.batch.api.partition.PartitionPlan;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+@Category(JUnitTests.class)
+public class DefaultTargetPartitionMapperTest {
+
+    private static final KapuaId JOB_EXECUTION_ID = new KapuaEid(BigInteger.valueOf(100));
+
+    @Test
+    public void testTargetsSplitInRanges() {
+        List<KapuaId> jobTargetIds = newIds(10);
+
+        PartitionPlan partitionPlan = DefaultTargetPartitionMapper.buildPartitionPlan(jobTargetIds, 3, 3, null);
+
+        Assert.assertEquals(3, partitionPlan.getPartitions());
+        Assert.assertTrue(partitionPlan.getPartitionsOverride());
+
+        Properties[] partitionProperties = partitionPlan.getPartitionProperties();
+        Assert.assertNull(partitionProperties[0].getProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID));
+        Assert.assertNull(partitionProperties[2].getProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID));
+
+        // each target is in exactly one range and the ranges have about the same number of targets
+        int[] partitionSizes = new int[3];
+        for (KapuaId jobTargetId : jobTargetIds) {
+            int partition = -1;
+            for (int i = 0; i < partitionProperties.length; i++) {
+                if (isInRange(jobTargetId, partitionProperties[i])) {
+                    Assert.assertEquals("Target " + jobTargetId + " is in more than one partition", -1, partition);
+                    partition = i;
+                }
+            }
+            Assert.assertNotEquals("Target " + jobTargetId + " is in no partition", -1, partition);
+            partitionSizes[partition]++;
+        }
+        Assert.assertArrayEquals(new int[] { 3, 3, 4 }, partitionSizes);
+
+        for (int i = 0; i < partitionProperties.length; i++) {
+            Assert.assertEquals(String.valueOf(i), partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_INDEX));
+            Assert.assertNull(partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID));
+        }
+    }
+
+    @Test
+    public void testRangesAreContiguous() {
+        PartitionPlan partitionPlan = DefaultTargetPartitionMapper.buildPartitionPlan(newIds(7), 4, 4, null);
+
+        // the targets created between two targets of the plan still belong to a partition
+        Properties[] partitionProperties = partitionPlan.getPartitionProperties();
+        for (int i = 1; i < partitionProperties.length; i++) {
+            Assert.assertEquals(
+                    partitionProperties[i - 1].getProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID),
+                    partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID));
+        }
+    }
+
+    @Test
+    public void testFewerTargetsThanPartitions() {
+        PartitionPlan partitionPlan = DefaultTargetPartitionMapper.buildPartitionPlan(newIds(2), 5, 5, null);
+
+        Assert.assertEquals(2, partitionPlan.getPartitions());
+        Assert.assertEquals(2, partitionPlan.getThreads());
+    }
+
+    @Test
+    public void testNoTargets() {
+        PartitionPlan partitionPlan = DefaultTargetPartitionMapper.buildPartitionPlan(Collections.emptyList(), 4, 4, null);
+
+        // a single partition with no range completes the step
+        Assert.assertEquals(1, partitionPlan.getPartitions());
+        Assert.assertEquals(1, partitionPlan.getThreads());
+
+        Properties partitionProperties = partitionPlan.getPartitionProperties()[0];
+        Assert.assertEquals("0", partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_INDEX));
+        Assert.assertNull(partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID));
+        Assert.assertNull(partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID));
+    }
+
+    @Test
+    public void testThreadsCapped() {
+        Assert.assertEquals(2, DefaultTargetPartitionMapper.buildPartitionPlan(newIds(10), 4, 2, null).getThreads());
+        Assert.assertEquals(4, DefaultTargetPartitionMapper.buildPartitionPlan(newIds(10), 4, 8, null).getThreads());
+        Assert.assertEquals(1, DefaultTargetPartitionMapper.buildPartitionPlan(newIds(10), 4, 0, null).getThreads());
+    }
+
+    @Test
+    public void testJobExecutionIdPropagated() {
+        PartitionPlan partitionPlan = DefaultTargetPartitionMapper.buildPartitionPlan(newIds(4), 2, 2, JOB_EXECUTION_ID);
+
+        for (Properties partitionProperties : partitionPlan.getPartitionProperties()) {
+            Assert.assertEquals(JOB_EXECUTION_ID.toCompactId(), partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID));
+        }
+    }
+
+    private static List<KapuaId> newIds(int count) {
+        List<KapuaId> ids = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ids.add(new KapuaEid(BigInteger.valueOf(i * 10)));
+        }
+        return ids;
+    }
+
+    private static boolean isInRange(KapuaId jobTargetId, Properties partitionProperties) {
+        String firstTargetId = partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID);
+        String endTargetId = partitionProperties.getProperty(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID);
+        return (firstTargetId == null || jobTargetId.getId().compareTo(KapuaEid.parseCompactId(firstTargetId).getId()) >= 0) &&
+                (endTargetId == null || jobTargetId.getId().compareTo(KapuaEid.parseCompactId(endTargetId).getId()) < 0);
+    }
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.commons.model.query.KapuaListResultImpl;
+import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.model.query.predicate.QueryPredicate;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetListResult;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.eclipse.kapua.test.MockedLocator;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Category(JUnitTests.class)
+public class DefaultTargetReaderTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.ONE);
+
+    private final List<KapuaQuery<JobTarget>> queries = new ArrayList<>();
+    private final Set<KapuaId> storedTargetIds = new HashSet<>();
+
+    private DefaultTargetReader targetReader;
+    private AndPredicate targetPredicate;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        JobTargetFactory jobTargetFactory = Mockito.mock(JobTargetFactory.class);
+        Mockito.when(jobTargetFactory.newQuery(Matchers.any(KapuaId.class))).thenAnswer(invocation -> new TestJobTargetQuery((KapuaId) invocation.getArguments()[0]));
+
+        JobTargetService jobTargetService = Mockito.mock(JobTargetService.class);
+        Mockito.when(jobTargetService.query(Matchers.any(KapuaQuery.class))).thenAnswer(invocation -> query((KapuaQuery<JobTarget>) invocation.getArguments()[0]));
+
+        MockedLocator locator = (MockedLocator) KapuaLocator.getInstance();
+        locator.setMockedFactory(JobTargetFactory.class, jobTargetFactory);
+        locator.setMockedService(JobTargetService.class, jobTargetService);
+
+        targetReader = new DefaultTargetReader();
+        targetPredicate = new TestJobTargetQuery(SCOPE_ID).andPredicate();
+    }
+
+    @Test
+    public void testTargetSublistReadInPages() throws Exception {
+        // target 30 no longer matches the step filters
+        storedTargetIds.addAll(newIds(10, 20, 40, 50));
+
+        targetReader.openCursor(SCOPE_ID, targetPredicate, newIds(10, 20, 30, 40, 50), 2);
+
+        // each query carries only the ids of its page
+        Assert.assertEquals(newIds(10, 20, 40, 50), readAll());
+        Assert.assertEquals(3, queries.size());
+        Assert.assertEquals(newIds(10, 20), getEntityIdIn(queries.get(0)));
+        Assert.assertEquals(newIds(30, 40), getEntityIdIn(queries.get(1)));
+        Assert.assertEquals(newIds(50), getEntityIdIn(queries.get(2)));
+    }
+
+    @Test
+    public void testEmptyPageOfTargetSublistDoesNotEndCursor() throws Exception {
+        storedTargetIds.addAll(newIds(50));
+
+        targetReader.openCursor(SCOPE_ID, targetPredicate, newIds(10, 20, 30, 40, 50), 2);
+
+        Assert.assertEquals(newIds(50), readAll());
+        Assert.assertEquals(3, queries.size());
+    }
+
+    @Test
+    public void testEmptyTargetSublistReadsNothing() throws Exception {
+        targetReader.openCursor(SCOPE_ID, targetPredicate, new ArrayList<>(), 2);
+
+        Assert.assertFalse(targetReader.hasNextPage());
+        Assert.assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    public void testAllTargetsReadInPagesById() throws Exception {
+        storedTargetIds.addAll(newIds(10, 20, 30, 40, 50));
+
+        targetReader.openCursor(SCOPE_ID, targetPredicate, null, 2);
+
+        Assert.assertEquals(newIds(10, 20, 30, 40, 50), readAll());
+        Assert.assertEquals(3, queries.size());
+        Assert.assertNull(getEntityIdGreaterThan(queries.get(0)));
+        Assert.assertEquals(new KapuaEid(BigInteger.valueOf(20)), getEntityIdGreaterThan(queries.get(1)));
+        Assert.assertEquals(new KapuaEid(BigInteger.valueOf(40)), getEntityIdGreaterThan(queries.get(2)));
+        for (KapuaQuery<JobTarget> query : queries) {
+            Assert.assertNull(getEntityIdIn(query));
+            Assert.assertEquals(Integer.valueOf(2), query.getLimit());
+        }
+    }
+
+    @Test
+    public void testTargetIdsRestrictedToPartition() {
+        JobContextWrapper jobContextWrapper = Mockito.mock(JobContextWrapper.class);
+        Mockito.when(jobContextWrapper.getTargetSublist()).thenAnswer(invocation -> new JobTargetSublist(new HashSet<>(newIds(50, 10, 40, 20, 30))));
+
+        StepContextWrapper stepContextWrapper = Mockito.mock(StepContextWrapper.class);
+        Assert.assertEquals(newIds(10, 20, 30, 40, 50), targetReader.getTargetIds(jobContextWrapper, stepContextWrapper));
+
+        Mockito.when(stepContextWrapper.getPartitionFirstTargetId()).thenReturn(new KapuaEid(BigInteger.valueOf(20)));
+        Mockito.when(stepContextWrapper.getPartitionEndTargetId()).thenReturn(new KapuaEid(BigInteger.valueOf(40)));
+        Assert.assertEquals(newIds(20, 30), targetReader.getTargetIds(jobContextWrapper, stepContextWrapper));
+    }
+
+    @Test
+    public void testNoTargetSublist() {
+        JobContextWrapper jobContextWrapper = Mockito.mock(JobContextWrapper.class);
+        Mockito.when(jobContextWrapper.getTargetSublist()).thenReturn(new JobTargetSublist());
+
+        Assert.assertNull(targetReader.getTargetIds(jobContextWrapper, Mockito.mock(StepContextWrapper.class)));
+    }
+
+    private List<KapuaId> readAll() throws Exception {
+        List<KapuaId> readTargetIds = new ArrayList<>();
+        while (targetReader.hasNextPage()) {
+            for (JobTarget jobTarget : targetReader.readNextPage()) {
+                readTargetIds.add(jobTarget.getId());
+            }
+        }
+        return readTargetIds;
+    }
+
+    /**
+     * Selects the stored targets matching the id predicates of the query, in the order of their id
+     */
+    private JobTargetListResult query(KapuaQuery<JobTarget> query) {
+        queries.add(query);
+
+        List<KapuaId> entityIdIn = getEntityIdIn(query);
+        KapuaId entityIdGreaterThan = getEntityIdGreaterThan(query);
+
+        List<JobTarget> jobTargets = new ArrayList<>();
+        storedTargetIds.stream()
+                .filter(id -> entityIdIn == null || entityIdIn.contains(id))
+                .filter(id -> entityIdGreaterThan == null || id.getId().compareTo(entityIdGreaterThan.getId()) > 0)
+                .sorted((id1, id2) -> id1.getId().compareTo(id2.getId()))
+                .forEach(id -> {
+                    JobTarget jobTarget = Mockito.mock(JobTarget.class);
+                    Mockito.when(jobTarget.getId()).thenReturn(id);
+                    jobTargets.add(jobTarget);
+                });
+
+        TestJobTargetListResult result = new TestJobTargetListResult();
+        if (query.getLimit() != null && jobTargets.size() > query.getLimit()) {
+            result.addItems(jobTargets.subList(0, query.getLimit()));
+            result.setLimitExceeded(true);
+        } else {
+            result.addItems(jobTargets);
+        }
+        return result;
+    }
+
+    private static List<KapuaId> getEntityIdIn(KapuaQuery<JobTarget> query) {
+        AttributePredicate<?> predicate = findEntityIdPredicate(query.getPredicate(), AttributePredicate.Operator.EQUAL);
+        return predicate != null ? Arrays.asList((KapuaId[]) predicate.getAttributeValue()) : null;
+    }
+
+    private static KapuaId getEntityIdGreaterThan(KapuaQuery<JobTarget> query) {
+        AttributePredicate<?> predicate = findEntityIdPredicate(query.getPredicate(), AttributePredicate.Operator.GREATER_THAN);
+        return predicate != null ? (KapuaId) predicate.getAttributeValue() : null;
+    }
+
+    private static AttributePredicate<?> findEntityIdPredicate(QueryPredicate queryPredicate, AttributePredicate.Operator operator) {
+        if (queryPredicate instanceof AndPredicate) {
+            for (QueryPredicate childPredicate : ((AndPredicate) queryPredicate).getPredicates()) {
+                AttributePredicate<?> predicate = findEntityIdPredicate(childPredicate, operator);
+                if (predicate != null) {
+                    return predicate;
+                }
+            }
+        } else if (queryPredicate instanceof AttributePredicate) {
+            AttributePredicate<?> predicate = (AttributePredicate<?>) queryPredicate;
+            if (JobTargetAttributes.ENTITY_ID.equals(predicate.getAttributeName()) && predicate.getOperator() == operator) {
+                return predicate;
+            }
+        }
+        return null;
+    }
+
+    private static List<KapuaId> newIds(long... ids) {
+        List<KapuaId> kapuaIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            kapuaIds.add(new KapuaEid(BigInteger.valueOf(id)));
+        }
+        return kapuaIds;
+    }
+
+    private static class TestJobTargetQuery extends AbstractKapuaQuery<JobTarget> implements JobTargetQuery {
+
+        private TestJobTargetQuery(KapuaId scopeId) {
+            super(scopeId);
+        }
+    }
+
+    private static class TestJobTargetListResult extends KapuaListResultImpl<JobTarget> implements JobTargetListResult {
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.commons.lang3.SystemUtils;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.job.engine.JobStartOptions;
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
 import org.eclipse.kapua.job.engine.jbatch.driver.exception.CannotBuildJobDefDriverException;
 import org.eclipse.kapua.job.engine.jbatch.driver.exception.CannotCleanJobDefFileDriverException;
@@ -35,6 +36,7 @@ import org.eclipse.kapua.job.engine.jbatch.driver.exception.JobExecutionIsRunnin
 import org.eclipse.kapua.job.engine.jbatch.driver.exception.JobStartingDriverException;
 import org.eclipse.kapua.job.engine.jbatch.driver.utils.JobDefinitionBuildUtils;
 import org.eclipse.kapua.job.engine.jbatch.persistence.KapuaJDBCPersistenceManagerImpl;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
 import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -85,6 +87,8 @@ public class JbatchDriver {
 
     private static final JobOperator JOB_OPERATOR = BatchRuntime.getJobOperator();
 
+    private static final JobEngineSetting JOB_ENGINE_SETTING = JobEngineSetting.getInstance();
+
     private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
 
     private static final JobExecutionService JOB_EXECUTION_SERVICE = LOCATOR.getService(JobExecutionService.class);
@@ -140,6 +144,15 @@ public class JbatchDriver {
             JobStepListResult jobSteps = JOB_STEP_SERVICE.query(query);
             jobSteps.sort(Comparator.comparing(JobStep::getStepIndex));
 
+            int partitionCount = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_COUNT, 1);
+            int partitionThreads = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_THREADS_MAX, partitionCount);
+            int chunkItemCount = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_CHUNK_ITEM_COUNT, 10);
+            int readerPageSize = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_READER_PAGE_SIZE, 500);
+            String logLevel = JOB_ENGINE_SETTING.getString(JobEngineSettingKeys.JOB_ENGINE_LOG_LEVEL, JobLogger.EXEC_LOG_LEVEL_DEFAULT.name());
+            int logFlushSize = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_LOG_FLUSH_SIZE, JobLogger.EXEC_LOG_FLUSH_SIZE_DEFAULT);
+            long logFlushInterval = JOB_ENGINE_SETTING.getLong(JobEngineSettingKeys.JOB_ENGINE_LOG_FLUSH_INTERVAL, JobLogger.EXEC_LOG_FLUSH_INTERVAL_DEFAULT);
+            long logSizeMax = JOB_ENGINE_SETTING.getLong(JobEngineSettingKeys.JOB_ENGINE_LOG_SIZE_MAX, JobLogger.EXEC_LOG_SIZE_MAX_DEFAULT);
+
             List<ExecutionElement> jslExecutionElements = new ArrayList<>();
             Iterator<JobStep> jobStepIterator = jobSteps.getItems().iterator();
             while (jobStepIterator.hasNext()) {
@@ -152,7 +165,12 @@ public class JbatchDriver {
                         jslStep.setBatchlet(JobDefinitionBuildUtils.buildGenericStep(jobStepDefinition));
                         break;
                     case TARGET:
-                        jslStep.setChunk(JobDefinitionBuildUtils.buildChunkStep(jobStepDefinition));
+                        jslStep.setChunk(JobDefinitionBuildUtils.buildChunkStep(jobStepDefinition, chunkItemCount));
+
+                        if (partitionCount > 1) {
+                            jslStep.setPartition(JobDefinitionBuildUtils.buildPartition());
+                            jslStep.setListeners(JobDefinitionBuildUtils.buildPartitionListener());
+                        }
                         break;
                     default:
                         throw new KapuaIllegalArgumentException(jobStepDefinition.getStepType().name(), "jobStepDefinition.stepType");
@@ -166,6 +184,14 @@ public class JbatchDriver {
 
                 jslStep.setProperties(JobDefinitionBuildUtils.buildStepProperties(jobStepDefinition, jobStep, jobStepIterator.hasNext()));
 
+                if (jslStep.getChunk() != null) {
+                    jslStep.getProperties().getPropertyList().addAll(JobDefinitionBuildUtils.buildChunkStepProperties(readerPageSize));
+                }
+
+                if (jslStep.getPartition() != null) {
+                    jslStep.getProperties().getPropertyList().addAll(JobDefinitionBuildUtils.buildPartitionStepProperties(partitionCount, partitionThreads));
+                }
+
                 jslExecutionElements.add(jslStep);
             }
 
@@ -174,6 +200,7 @@ public class JbatchDriver {
             jslJob.setId(jobName);
             jslJob.setVersion("1.0");
             jslJob.setProperties(JobDefinitionBuildUtils.buildJobProperties(scopeId, jobId, jobStartOptions));
+            jslJob.getProperties().getPropertyList().addAll(JobDefinitionBuildUtils.buildJobLogProperties(logLevel, logFlushSize, logFlushInterval, logSizeMax));
             jslJob.setListeners(JobDefinitionBuildUtils.buildListener());
             jslJob.getExecutionElements().addAll(jslExecutionElements);
 
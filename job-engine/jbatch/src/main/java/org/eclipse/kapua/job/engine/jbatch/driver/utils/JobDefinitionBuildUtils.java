@@ -19,15 +19,19 @@ import com.ibm.jbatch.jsl.model.ItemWriter;
 import com.ibm.jbatch.jsl.model.JSLProperties;
 import com.ibm.jbatch.jsl.model.Listener;
 import com.ibm.jbatch.jsl.model.Listeners;
+import com.ibm.jbatch.jsl.model.Partition;
+import com.ibm.jbatch.jsl.model.PartitionMapper;
 import com.ibm.jbatch.jsl.model.Property;
 import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.job.engine.JobStartOptions;
 import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
+import org.eclipse.kapua.job.engine.commons.operation.DefaultTargetPartitionMapper;
 import org.eclipse.kapua.job.engine.commons.operation.DefaultTargetReader;
 import org.eclipse.kapua.job.engine.commons.operation.DefaultTargetWriter;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
 import org.eclipse.kapua.job.engine.jbatch.listener.KapuaJobListener;
+import org.eclipse.kapua.job.engine.jbatch.listener.KapuaPartitionListener;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.job.step.JobStep;
 import org.eclipse.kapua.service.job.step.definition.JobStepDefinition;
@@ -112,6 +116,32 @@ public class JobDefinitionBuildUtils {
         return jslProperties;
     }
 
+    public static Collection<Property> buildJobLogProperties(@NotNull String logLevel, int logFlushSize, long logFlushInterval, long logSizeMax) {
+        List<Property> jslPropertyList = new ArrayList<>();
+
+        Property jslLogLevelProperty = new Property();
+        jslLogLevelProperty.setName(JobContextPropertyNames.JOB_LOG_LEVEL);
+        jslLogLevelProperty.setValue(logLevel);
+        jslPropertyList.add(jslLogLevelProperty);
+
+        Property jslLogFlushSizeProperty = new Property();
+        jslLogFlushSizeProperty.setName(JobContextPropertyNames.JOB_LOG_FLUSH_SIZE);
+        jslLogFlushSizeProperty.setValue(String.valueOf(logFlushSize));
+        jslPropertyList.add(jslLogFlushSizeProperty);
+
+        Property jslLogFlushIntervalProperty = new Property();
+        jslLogFlushIntervalProperty.setName(JobContextPropertyNames.JOB_LOG_FLUSH_INTERVAL);
+        jslLogFlushIntervalProperty.setValue(String.valueOf(logFlushInterval));
+        jslPropertyList.add(jslLogFlushIntervalProperty);
+
+        Property jslLogSizeMaxProperty = new Property();
+        jslLogSizeMaxProperty.setName(JobContextPropertyNames.JOB_LOG_SIZE_MAX);
+        jslLogSizeMaxProperty.setValue(String.valueOf(logSizeMax));
+        jslPropertyList.add(jslLogSizeMaxProperty);
+
+        return jslPropertyList;
+    }
+
     public static JSLProperties buildStepProperties(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep, boolean hasNext) {
         JSLProperties jslProperties = new JSLProperties();
         List<Property> jslPropertyList = jslProperties.getPropertyList();
@@ -133,6 +163,53 @@ public class JobDefinitionBuildUtils {
         return jslProperties;
     }
 
+    /**
+     * Builds the {@link Property}s of a partitioned step.
+     * <p>
+     * The {@link StepContextPropertyNames#STEP_PARTITION_INDEX} and the {@link org.eclipse.kapua.service.job.targets.JobTarget} range ({@link StepContextPropertyNames#STEP_PARTITION_FIRST_TARGET_ID} and
+     * {@link StepContextPropertyNames#STEP_PARTITION_END_TARGET_ID}) are set on each partition by the {@link DefaultTargetPartitionMapper}.
+     *
+     * @param partitionCount   The number of partitions of the step.
+     * @param partitionThreads The max number of partitions of the step running at the same time.
+     * @return The {@link Property}s of the partitioned step.
+     * @since 1.1.0
+     */
+    public static Collection<Property> buildPartitionStepProperties(int partitionCount, int partitionThreads) {
+        List<Property> jslPropertyList = new ArrayList<>();
+
+        Property jslPartitionCountProperty = new Property();
+        jslPartitionCountProperty.setName(StepContextPropertyNames.STEP_PARTITION_COUNT);
+        jslPartitionCountProperty.setValue(String.valueOf(partitionCount));
+        jslPropertyList.add(jslPartitionCountProperty);
+
+        Property jslPartitionThreadsProperty = new Property();
+        jslPartitionThreadsProperty.setName(StepContextPropertyNames.STEP_PARTITION_THREADS);
+        jslPartitionThreadsProperty.setValue(String.valueOf(partitionThreads));
+        jslPropertyList.add(jslPartitionThreadsProperty);
+
+        Property jslPartitionIndexProperty = new Property();
+        jslPartitionIndexProperty.setName(StepContextPropertyNames.STEP_PARTITION_INDEX);
+        jslPartitionIndexProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_INDEX + "']}");
+        jslPropertyList.add(jslPartitionIndexProperty);
+
+        Property jslPartitionFirstTargetIdProperty = new Property();
+        jslPartitionFirstTargetIdProperty.setName(StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID);
+        jslPartitionFirstTargetIdProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_FIRST_TARGET_ID + "']}");
+        jslPropertyList.add(jslPartitionFirstTargetIdProperty);
+
+        Property jslPartitionEndTargetIdProperty = new Property();
+        jslPartitionEndTargetIdProperty.setName(StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID);
+        jslPartitionEndTargetIdProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_END_TARGET_ID + "']}");
+        jslPropertyList.add(jslPartitionEndTargetIdProperty);
+
+        Property jslPartitionExecutionIdProperty = new Property();
+        jslPartitionExecutionIdProperty.setName(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID);
+        jslPartitionExecutionIdProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID + "']}");
+        jslPropertyList.add(jslPartitionExecutionIdProperty);
+
+        return jslPropertyList;
+    }
+
     public static Collection<Property> buildCustomStepProperties(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep) {
 
         Map<String, Property> customStepProperties = new HashMap<>();
@@ -167,8 +244,27 @@ public class JobDefinitionBuildUtils {
         return batchlet;
     }
 
-    public static Chunk buildChunkStep(@NotNull JobStepDefinition jobStepDefinition) {
+    /**
+     * Builds the {@link Property}s of a chunk step.
+     *
+     * @param readerPageSize The number of {@link org.eclipse.kapua.service.job.targets.JobTarget}s read with each query by the reader of the step.
+     * @return The {@link Property}s of the chunk step.
+     * @since 1.1.0
+     */
+    public static Collection<Property> buildChunkStepProperties(int readerPageSize) {
+        List<Property> jslPropertyList = new ArrayList<>();
+
+        Property jslReaderPageSizeProperty = new Property();
+        jslReaderPageSizeProperty.setName(StepContextPropertyNames.STEP_READER_PAGE_SIZE);
+        jslReaderPageSizeProperty.setValue(String.valueOf(readerPageSize));
+        jslPropertyList.add(jslReaderPageSizeProperty);
+
+        return jslPropertyList;
+    }
+
+    public static Chunk buildChunkStep(@NotNull JobStepDefinition jobStepDefinition, int itemCount) {
         Chunk chunk = new Chunk();
+        chunk.setItemCount(String.valueOf(itemCount));
 
         ItemReader itemReader = new ItemReader();
         itemReader.setRef(jobStepDefinition.getReaderName() != null ? jobStepDefinition.getReaderName() : DefaultTargetReader.class.getName());
@@ -184,4 +280,24 @@ public class JobDefinitionBuildUtils {
 
         return chunk;
     }
+
+    public static Partition buildPartition() {
+        PartitionMapper partitionMapper = new PartitionMapper();
+        partitionMapper.setRef(DefaultTargetPartitionMapper.class.getName());
+
+        Partition partition = new Partition();
+        partition.setMapper(partitionMapper);
+
+        return partition;
+    }
+
+    public static Listeners buildPartitionListener() {
+        Listener jslListener = new Listener();
+        jslListener.setRef(KapuaPartitionListener.class.getName());
+
+        Listeners listeners = new Listeners();
+        listeners.getListenerList().add(jslListener);
+
+        return listeners;
+    }
 }
@@ -172,6 +172,8 @@ public class KapuaJobListener extends AbstractJobListener implements JobListener
 
     /**
      * Close the {@link JobExecution} setting the {@link JobExecution#getEndedOn()}.
+     * <p>
+     * The {@link JobLogger} is flushed, appending the remaining lines to the {@link JobExecution} log.
      */
     @Override
     public void afterJob() throws Exception {
@@ -188,7 +190,6 @@ public class KapuaJobListener extends AbstractJobListener implements JobListener
         } else {
             JobExecution jobExecution = KapuaSecurityUtils.doPrivileged(() -> JOB_EXECUTION_SERVICE.find(jobContextWrapper.getScopeId(), kapuaExecutionId));
 
-            jobExecution.setLog(jobLogger.flush());
             jobExecution.setEndedOn(new Date());
 
             KapuaSecurityUtils.doPrivileged(() -> JOB_EXECUTION_SERVICE.update(jobExecution));
@@ -199,6 +200,9 @@ public class KapuaJobListener extends AbstractJobListener implements JobListener
                     jobContextWrapper.getKapuaExecutionId());
         }
         jobLogger.info("Running after job... DONE!");
+
+        // Append the last log lines to the JobExecution log
+        jobLogger.flush();
     }
 
     /**
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.listener;
+
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
+
+import javax.batch.api.listener.AbstractStepListener;
+import javax.batch.api.listener.StepListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link StepListener} implementation for the partitioned steps.
+ * <p>
+ * It limits the number of partitions running at the same time on this node, across all the running {@link org.eclipse.kapua.service.job.Job}s, to
+ * {@link JobEngineSettingKeys#JOB_ENGINE_NODE_PARTITION_THREADS_MAX}.
+ * A partition waits for a free slot before starting to process its {@link org.eclipse.kapua.service.job.targets.JobTarget}s and releases it when completed.
+ * <p>
+ * It also sets the {@link org.eclipse.kapua.service.job.execution.JobExecution} of the {@link JobLogger} of the partition, so the partition log is appended to the
+ * {@link org.eclipse.kapua.service.job.execution.JobExecution} log, and flushes it when the partition is completed.
+ *
+ * @since 1.1.0
+ */
+public class KapuaPartitionListener extends AbstractStepListener implements StepListener {
+
+    private static final JobEngineSetting JOB_ENGINE_SETTING = JobEngineSetting.getInstance();
+
+    private static final Semaphore NODE_PARTITION_THREADS = new Semaphore(Math.max(1, JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_NODE_PARTITION_THREADS_MAX, 32)), true);
+
+    // The partition steps are executed on a single thread, from the beforeStep to the afterStep
+    private static final ThreadLocal<Boolean> SLOT_ACQUIRED = new ThreadLocal<>();
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private StepContext stepContext;
+
+    /**
+     * Waits for a free partition slot on this node.
+     * <p>
+     * This listener is also invoked on the step which maps the partitions, which doesn't take any slot.
+     */
+    @Override
+    public void beforeStep() throws Exception {
+        StepContextWrapper stepContextWrapper = new StepContextWrapper(stepContext);
+        if (stepContextWrapper.getPartitionIndex() != null) {
+            NODE_PARTITION_THREADS.acquire();
+            SLOT_ACQUIRED.set(Boolean.TRUE);
+
+            if (stepContextWrapper.getPartitionExecutionId() != null) {
+                new JobContextWrapper(jobContext).getJobLogger().setJobExecutionId(stepContextWrapper.getPartitionExecutionId());
+            }
+        }
+    }
+
+    /**
+     * Releases the partition slot, if taken, and flushes the {@link JobLogger} of the partition.
+     */
+    @Override
+    public void afterStep() throws Exception {
+        if (SLOT_ACQUIRED.get() != null) {
+            SLOT_ACQUIRED.remove();
+            NODE_PARTITION_THREADS.release();
+
+            new JobContextWrapper(jobContext).getJobLogger().flush();
+        }
+    }
+
+}
@@ -27,7 +27,25 @@ public enum JobEngineSettingKeys implements SettingKey {
 
     JOB_ENGINE_QUEUE_CHECK_DELAY("jobEngine.queue.check.delay"),
 
-    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay");
+    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay"),
+
+    JOB_ENGINE_STEP_PARTITION_COUNT("jobEngine.step.partition.count"),
+
+    JOB_ENGINE_STEP_PARTITION_THREADS_MAX("jobEngine.step.partition.threads.max"),
+
+    JOB_ENGINE_NODE_PARTITION_THREADS_MAX("jobEngine.node.partition.threads.max"),
+
+    JOB_ENGINE_STEP_CHUNK_ITEM_COUNT("jobEngine.step.chunk.item.count"),
+
+    JOB_ENGINE_STEP_READER_PAGE_SIZE("jobEngine.step.reader.page.size"),
+
+    JOB_ENGINE_LOG_LEVEL("jobEngine.log.level"),
+
+    JOB_ENGINE_LOG_FLUSH_SIZE("jobEngine.log.flush.size"),
+
+    JOB_ENGINE_LOG_FLUSH_INTERVAL("jobEngine.log.flush.interval"),
+
+    JOB_ENGINE_LOG_SIZE_MAX("jobEngine.log.size.max");
 
 
     private String key;
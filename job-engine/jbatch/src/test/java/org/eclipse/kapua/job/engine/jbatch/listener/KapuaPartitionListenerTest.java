@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.listener;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
+import org.eclipse.kapua.job.engine.commons.model.JobTransientUserData;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The node partition cap is set to 2 by the surefire configuration.
+ */
+@Category(JUnitTests.class)
+public class KapuaPartitionListenerTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private static final KapuaId JOB_EXECUTION_ID = new KapuaEid(BigInteger.valueOf(100));
+
+    private final List<Partition> partitions = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (Partition partition : partitions) {
+            partition.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNodePartitionCap() throws Exception {
+        Partition first = newPartition(0);
+        Partition second = newPartition(1);
+        Partition third = newPartition(2);
+
+        first.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        second.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        // no free slot left
+        Future<?> thirdStarted = third.beforeStep();
+        third.awaitWaiting();
+        Assert.assertFalse(thirdStarted.isDone());
+
+        first.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        thirdStarted.get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        second.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        third.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testNonPartitionStepTakesNoSlot() throws Exception {
+        Partition mapper = newPartition(null);
+        mapper.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        Partition first = newPartition(0);
+        Partition second = newPartition(1);
+        first.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        second.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        // the mapper doesn't release any slot
+        mapper.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Partition third = newPartition(2);
+        Future<?> thirdStarted = third.beforeStep();
+        third.awaitWaiting();
+        Assert.assertFalse(thirdStarted.isDone());
+
+        Mockito.verifyZeroInteractions(mapper.jobLogger);
+
+        first.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        thirdStarted.get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        second.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        third.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testPartitionJobLogger() throws Exception {
+        Partition partition = newPartition(0);
+
+        partition.beforeStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Mockito.verify(partition.jobLogger).setJobExecutionId(JOB_EXECUTION_ID);
+        Mockito.verify(partition.jobLogger, Mockito.never()).flush();
+
+        partition.afterStep().get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Mockito.verify(partition.jobLogger).flush();
+    }
+
+    private Partition newPartition(Integer partitionIndex) throws Exception {
+        Partition partition = new Partition(partitionIndex);
+        partitions.add(partition);
+        return partition;
+    }
+
+    /**
+     * A partition (or the step mapping the partitions, without index) running the listener on its own thread
+     */
+    private static class Partition {
+
+        private final KapuaPartitionListener listener = new KapuaPartitionListener();
+        private final JobLogger jobLogger = Mockito.mock(JobLogger.class);
+        private final ExecutorService executor;
+        private volatile Thread thread;
+
+        private Partition(Integer partitionIndex) throws Exception {
+            Properties stepProperties = new Properties();
+            if (partitionIndex != null) {
+                stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, partitionIndex.toString());
+                stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_EXECUTION_ID, JOB_EXECUTION_ID.toCompactId());
+            }
+            StepContext stepContext = Mockito.mock(StepContext.class);
+            Mockito.when(stepContext.getProperties()).thenReturn(stepProperties);
+
+            JobTransientUserData jobTransientUserData = new JobTransientUserData();
+            jobTransientUserData.setJobLogger(jobLogger);
+            JobContext jobContext = Mockito.mock(JobContext.class);
+            Mockito.when(jobContext.getTransientUserData()).thenReturn(jobTransientUserData);
+
+            inject("jobContext", jobContext);
+            inject("stepContext", stepContext);
+
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                thread = new Thread(runnable);
+                return thread;
+            });
+        }
+
+        private Future<?> beforeStep() {
+            return executor.submit(() -> {
+                listener.beforeStep();
+                return null;
+            });
+        }
+
+        private Future<?> afterStep() {
+            return executor.submit(() -> {
+                listener.afterStep();
+                return null;
+            });
+        }
+
+        private void awaitWaiting() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (thread == null || thread.getState() != Thread.State.WAITING) {
+                Assert.assertTrue("The partition is not waiting for a slot", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        }
+
+        private void inject(String fieldName, Object value) throws Exception {
+            Field field = KapuaPartitionListener.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(listener, value);
+        }
+    }
+}
@@ -72,6 +72,8 @@ public class DataMessages extends AbstractKapuaResource {
      * @param startDateParam The start date to filter the results. Must come before endDate parameter.
      * @param endDateParam   The end date to filter the results. Must come after startDate parameter
      * @param offset         The result set offset.
+     * @param searchAfter    The key of the next page as returned by the previous page. If set the offset is ignored.
+     * @param keyPaging      Whether the result pages are walked by key (implied by the searchAfter parameter).
      * @param limit          The result set limit.
      * @return The {@link MessageListResult} of all the datastoreMessages associated to the current selected scope.
      * @throws Exception Whenever something bad happens. See specific {@link KapuaService} exceptions.
@@ -95,6 +97,8 @@ public class DataMessages extends AbstractKapuaResource {
             @ApiParam(value = "The min metric value to filter results") @QueryParam("metricMin") String metricMinValue, //
             @ApiParam(value = "The max metric value to filter results") @QueryParam("metricMax") String metricMaxValue, //
             @ApiParam(value = "The result set offset", defaultValue = "0") @QueryParam("offset") @DefaultValue("0") int offset,//
+            @ApiParam(value = "The key of the next page as returned by the previous page (nextKey). If set the offset is ignored") @QueryParam("searchAfter") String searchAfter,//
+            @ApiParam(value = "Whether the result pages are walked by key, so the result has the key of the next page (nextKey). Implied by searchAfter", defaultValue = "false") @QueryParam("keyPaging") @DefaultValue("false") boolean keyPaging,//
             @ApiParam(value = "The result set limit", defaultValue = "50") @QueryParam("limit") @DefaultValue("50") int limit) throws Exception {
 
         AndPredicate andPredicate = STORABLE_PREDICATE_FACTORY.newAndPredicate();
@@ -131,6 +135,8 @@ public class DataMessages extends AbstractKapuaResource {
         MessageQuery query = DATASTORE_OBJECT_FACTORY.newDatastoreMessageQuery(scopeId);
         query.setPredicate(andPredicate);
         query.setOffset(offset);
+        query.setSearchAfter(searchAfter);
+        query.setKeyPaging(keyPaging);
         query.setLimit(limit);
 
         return query(scopeId, query);
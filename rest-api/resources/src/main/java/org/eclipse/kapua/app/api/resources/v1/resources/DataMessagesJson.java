@@ -98,6 +98,8 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
             @ApiParam(value = "The min metric value to filter results") @QueryParam("metricMin") String metricMinValue,
             @ApiParam(value = "The max metric value to filter results") @QueryParam("metricMax") String metricMaxValue,
             @ApiParam(value = "The result set offset", defaultValue = "0") @QueryParam("offset") @DefaultValue("0") int offset,
+            @ApiParam(value = "The key of the next page as returned by the previous page (nextKey). If set the offset is ignored") @QueryParam("searchAfter") String searchAfter,
+            @ApiParam(value = "Whether the result pages are walked by key, so the result has the key of the next page (nextKey). Implied by searchAfter", defaultValue = "false") @QueryParam("keyPaging") @DefaultValue("false") boolean keyPaging,
             @ApiParam(value = "The result set limit", defaultValue = "50") @QueryParam("limit") @DefaultValue("50") int limit) throws Exception {
 
         MessageListResult result = DATA_MESSAGES.simpleQuery(
@@ -112,11 +114,13 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
                 metricMinValue,
                 metricMaxValue,
                 offset,
+                searchAfter,
+                keyPaging,
                 limit);
 
         List<JsonDatastoreMessage> jsonDatastoreMessages = new ArrayList<>();
         result.getItems().forEach(m -> jsonDatastoreMessages.add(new JsonDatastoreMessage(m)));
-        JsonMessageListResult jsonResult = new JsonMessageListResult();
+        JsonMessageListResult jsonResult = new JsonMessageListResult(result.getNextKey(), result.getTotalCount());
         jsonResult.addItems(jsonDatastoreMessages);
         return jsonResult;
     }
@@ -200,7 +204,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         List<JsonDatastoreMessage> jsonDatastoreMessages = new ArrayList<>();
         result.getItems().forEach(m -> jsonDatastoreMessages.add(new JsonDatastoreMessage(m)));
 
-        JsonMessageListResult jsonResult = new JsonMessageListResult();
+        JsonMessageListResult jsonResult = new JsonMessageListResult(result.getNextKey(), result.getTotalCount());
         jsonResult.addItems(jsonDatastoreMessages);
         return jsonResult;
     }
@@ -237,6 +241,8 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         messageQuery.setFetchStyle(query.getFetchStyle());
         messageQuery.setLimit(query.getLimit());
         messageQuery.setOffset(query.getOffset());
+        messageQuery.setSearchAfter(query.getSearchAfter());
+        messageQuery.setKeyPaging(query.isKeyPaging());
         messageQuery.setPredicate(query.getPredicate());
 
         List<SortField> sortFields = new ArrayList<>();
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.app.api.resources.v1.resources;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.Authorization;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.app.api.resources.v1.resources.model.EntityId;
+import org.eclipse.kapua.app.api.resources.v1.resources.model.ScopeId;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.KapuaEntityAttributes;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.service.KapuaService;
+import org.eclipse.kapua.service.device.management.configuration.DeviceConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.DeviceConfigurationManagementService;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
+import org.eclipse.kapua.service.device.registry.DeviceFactory;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Api(value = "Devices", authorizations = { @Authorization(value = "kapuaAccessToken") })
+@Path("{scopeId}/devices/_configurations")
+public class DeviceManagementFleetConfigurations extends AbstractKapuaResource {
+
+    private final KapuaLocator locator = KapuaLocator.getInstance();
+    private final DeviceConfigurationManagementService configurationService = locator.getService(DeviceConfigurationManagementService.class);
+    private final DeviceFactory deviceFactory = locator.getFactory(DeviceFactory.class);
+
+    /**
+     * Updates the configuration of many {@link Device}s at once.
+     * <p>
+     * The configuration is sent to all the {@link Device}s matching the given ids and tag concurrently, and the outcome for each {@link Device} is streamed
+     * as soon as the {@link Device} responds, one line for each {@link Device}: the {@link Device} id followed by {@code OK} or by {@code ERROR} and the error message.
+     *
+     * @param scopeId             The {@link ScopeId} of the {@link Device}s.
+     * @param deviceIds           The ids of the {@link Device}s to update.
+     * @param tagId               The tag id of the {@link Device}s to update.
+     * @param timeout             The timeout of the operation on each {@link Device}, in milliseconds
+     * @param deviceConfiguration The configuration to send to the {@link Device}s
+     * @return The outcome of the operation for each {@link Device}, as plain text.
+     * @throws KapuaIllegalNullArgumentException If neither the {@link Device} ids nor the tag id are given, so the update is never sent to all the {@link Device}s of the scope.
+     * @throws Exception Whenever something bad happens. See specific {@link KapuaService} exceptions.
+     * @since 1.1.0
+     */
+    @PUT
+    @Consumes({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
+    @Produces(MediaType.TEXT_PLAIN)
+    @ApiOperation(nickname = "deviceConfigurationFleetUpdate", value = "Updates the configuration of many devices", notes = "Sends the configuration to all the devices of the scope matching the given " +
+            "ids and tag concurrently. At least one device id or the tag id is required. The outcome for each device is streamed as soon as the device responds, one line for each device.")
+    public StreamingOutput update(
+            @ApiParam(value = "The ScopeId of the Devices.", required = true, defaultValue = DEFAULT_SCOPE_ID) @PathParam("scopeId") ScopeId scopeId,
+            @ApiParam(value = "The ids of the devices to update.", allowMultiple = true) @QueryParam("deviceId") List<EntityId> deviceIds,
+            @ApiParam(value = "The tag id of the devices to update.") @QueryParam("tagId") EntityId tagId,
+            @ApiParam(value = "The timeout of the operation on each device, in milliseconds") @QueryParam("timeout") Long timeout,
+            @ApiParam(value = "The configuration to send to the devices", required = true) DeviceConfiguration deviceConfiguration) throws Exception {
+        if ((deviceIds == null || deviceIds.isEmpty()) && tagId == null) {
+            throw new KapuaIllegalNullArgumentException("deviceId or tagId");
+        }
+
+        DeviceQuery query = deviceFactory.newQuery(scopeId);
+
+        AndPredicate andPredicate = query.andPredicate();
+        if (deviceIds != null && !deviceIds.isEmpty()) {
+            andPredicate.and(query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, deviceIds.toArray(new KapuaId[deviceIds.size()])));
+        }
+        if (tagId != null) {
+            andPredicate.and(query.attributePredicate(DeviceAttributes.TAG_IDS, tagId));
+        }
+        query.setPredicate(andPredicate);
+
+        return outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            try {
+                configurationService.put(query, deviceConfiguration, timeout, (deviceId, result, exception) -> {
+                    try {
+                        writer.write(deviceId.toCompactId());
+                        writer.write(exception == null ? " OK" : " ERROR " + String.valueOf(exception.getMessage()).replace('\n', ' '));
+                        writer.write('\n');
+                        writer.flush();
+                    } catch (IOException e) {
+                        // The client went away, stop sending the configuration
+                        throw KapuaException.internalError(e);
+                    }
+                });
+            } catch (KapuaException e) {
+                throw new WebApplicationException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.app.api.resources.v1.resources;
+
+import com.google.common.base.Strings;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.Authorization;
+import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.app.api.resources.v1.resources.model.EntityId;
+import org.eclipse.kapua.app.api.resources.v1.resources.model.ScopeId;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.KapuaEntityAttributes;
+import org.eclipse.kapua.service.KapuaService;
+import org.eclipse.kapua.service.job.Job;
+import org.eclipse.kapua.service.job.execution.JobExecution;
+import org.eclipse.kapua.service.job.execution.JobExecutionAttributes;
+import org.eclipse.kapua.service.job.execution.JobExecutionFactory;
+import org.eclipse.kapua.service.job.execution.JobExecutionListResult;
+import org.eclipse.kapua.service.job.execution.JobExecutionQuery;
+import org.eclipse.kapua.service.job.execution.JobExecutionService;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Api(value = "Jobs", authorizations = {@Authorization(value = "kapuaAccessToken")})
+@Path("{scopeId}/jobs/{jobId}/executions/{jobExecutionId}/log")
+public class JobExecutionLogs extends AbstractKapuaResource {
+
+    private static final int STREAM_PAGE_SIZE = 50;
+
+    private final KapuaLocator locator = KapuaLocator.getInstance();
+    private final JobExecutionService jobExecutionService = locator.getService(JobExecutionService.class);
+    private final JobExecutionFactory jobExecutionFactory = locator.getFactory(JobExecutionFactory.class);
+
+    /**
+     * Reads the log of the {@link JobExecution}.
+     * <p>
+     * The log is stored in chunks. When the {@code limit} parameter is given, only the requested page of chunks is returned.
+     * Otherwise all the chunks, starting from the {@code offset}, are streamed in pages.
+     *
+     * @param scopeId        The {@link ScopeId} of the {@link JobExecution}.
+     * @param jobId          The {@link Job} id of the {@link JobExecution}.
+     * @param jobExecutionId The id of the {@link JobExecution}.
+     * @param offset         The number of chunks to skip.
+     * @param limit          The max number of chunks to read.
+     * @return The log of the {@link JobExecution}, as plain text.
+     * @throws Exception Whenever something bad happens. See specific {@link KapuaService} exceptions.
+     * @since 1.1.0
+     */
+    @ApiOperation(nickname = "jobExecutionLogRead", value = "Reads the log of a JobExecution", notes = "Returns the log of the JobExecution specified by the \"jobExecutionId\" path parameter, " +
+            "as plain text. The log is stored in chunks: when the limit is given only the requested page of chunks is returned, otherwise the whole log (starting from the offset) is streamed.")
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public StreamingOutput read(
+            @ApiParam(value = "The ScopeId of the requested JobExecution.", required = true, defaultValue = DEFAULT_SCOPE_ID) @PathParam("scopeId") ScopeId scopeId,
+            @ApiParam(value = "The id of the Job of the requested JobExecution", required = true) @PathParam("jobId") EntityId jobId,
+            @ApiParam(value = "The id of the requested JobExecution", required = true) @PathParam("jobExecutionId") EntityId jobExecutionId,
+            @ApiParam(value = "The number of log chunks to skip.", defaultValue = "0") @QueryParam("offset") Integer offset,
+            @ApiParam(value = "The max number of log chunks to read. If not given, all the log chunks are streamed.") @QueryParam("limit") Integer limit) throws Exception {
+        JobExecution jobExecution = find(scopeId, jobId, jobExecutionId);
+
+        int firstOffset = offset != null ? offset : 0;
+
+        // Fail before starting the response
+        List<String> firstPage = jobExecutionService.readLog(scopeId, jobExecutionId, firstOffset, limit != null ? limit : STREAM_PAGE_SIZE);
+
+        return outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+
+            // Log of the JobExecutions run before the log was stored in chunks
+            if (firstOffset == 0 && firstPage.isEmpty() && !Strings.isNullOrEmpty(jobExecution.getLog())) {
+                writer.write(jobExecution.getLog());
+            }
+
+            List<String> page = firstPage;
+            int pageOffset = firstOffset;
+            while (true) {
+                for (String chunk : page) {
+                    writer.write(chunk);
+                }
+                writer.flush();
+
+                if (limit != null || page.size() < STREAM_PAGE_SIZE) {
+                    break;
+                }
+
+                pageOffset += page.size();
+                page = readLog(scopeId, jobExecutionId, pageOffset);
+            }
+        };
+    }
+
+    private JobExecution find(ScopeId scopeId, EntityId jobId, EntityId jobExecutionId) throws KapuaException {
+        JobExecutionQuery query = jobExecutionFactory.newQuery(scopeId);
+
+        query.setPredicate(
+                query.andPredicate(
+                        query.attributePredicate(JobExecutionAttributes.JOB_ID, jobId),
+                        query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, jobExecutionId)
+                )
+        );
+        query.setOffset(0);
+        query.setLimit(1);
+
+        JobExecutionListResult results = jobExecutionService.query(query);
+
+        if (results.isEmpty()) {
+            throw new KapuaEntityNotFoundException(JobExecution.TYPE, jobExecutionId);
+        }
+
+        return results.getFirstItem();
+    }
+
+    private List<String> readLog(ScopeId scopeId, EntityId jobExecutionId, int offset) {
+        try {
+            return jobExecutionService.readLog(scopeId, jobExecutionId, offset, STREAM_PAGE_SIZE);
+        } catch (KapuaException e) {
+            // The response has already started
+            throw new WebApplicationException(e);
+        }
+    }
+
+}
@@ -29,8 +29,17 @@ public class JsonMessageListResult extends AbstractStorableListResult<JsonDatast
      * @param resultList
      */
     public JsonMessageListResult(ResultList<JsonDatastoreMessage> resultList) {
-        addItems(resultList.getResult());
-        setTotalCount(resultList.getTotalCount());
+        super(resultList);
+    }
+
+    /**
+     * Construct an empty message result list linking the next result list and setting the total count
+     *
+     * @param nextKey
+     * @param totalCount
+     */
+    public JsonMessageListResult(Object nextKey, Long totalCount) {
+        super(nextKey, totalCount);
     }
 
 }
@@ -45,6 +45,8 @@ public class JsonMessageQuery {
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String searchAfter;
+    private boolean keyPaging;
     private boolean askTotalCount;
     private List<XmlAdaptedSortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -105,6 +107,24 @@ public class JsonMessageQuery {
         this.indexOffset = offset;
     }
 
+    @XmlElement(name = "searchAfter")
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    public void setSearchAfter(String searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
+    @XmlElement(name = "keyPaging")
+    public boolean isKeyPaging() {
+        return keyPaging;
+    }
+
+    public void setKeyPaging(boolean keyPaging) {
+        this.keyPaging = keyPaging;
+    }
+
     @XmlElement(name = "limit")
     public void setLimit(Integer limit) {
         this.limit = limit;
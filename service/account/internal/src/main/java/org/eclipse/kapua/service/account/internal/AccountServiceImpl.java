@@ -20,6 +20,7 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.KapuaIllegalAccessException;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.KapuaMaxNumberOfItemsReachedException;
+import org.eclipse.kapua.commons.cache.IdentityResolutionCache;
 import org.eclipse.kapua.commons.configuration.AbstractKapuaConfigurableResourceLimitedService;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
@@ -130,15 +131,20 @@ public class AccountServiceImpl extends AbstractKapuaConfigurableResourceLimited
             }
         }
 
-        return entityManagerSession.onTransactedInsert(em -> {
-            Account account = AccountDAO.create(em, accountCreator);
-            em.persist(account);
+        Account account = entityManagerSession.onTransactedInsert(em -> {
+            Account newAccount = AccountDAO.create(em, accountCreator);
+            em.persist(newAccount);
 
             // Set the parent account path
-            String parentAccountPath = AccountDAO.find(em, null, accountCreator.getScopeId()).getParentAccountPath() + "/" + account.getId();
-            account.setParentAccountPath(parentAccountPath);
-            return AccountDAO.update(em, account);
+            String parentAccountPath = AccountDAO.find(em, null, accountCreator.getScopeId()).getParentAccountPath() + "/" + newAccount.getId();
+            newAccount.setParentAccountPath(parentAccountPath);
+            return AccountDAO.update(em, newAccount);
         });
+
+        // The account name could be cached as not existing
+        IdentityResolutionCache.getInstance().invalidateAccount(account.getName());
+
+        return account;
     }
 
     @Override
@@ -260,6 +266,8 @@ public class AccountServiceImpl extends AbstractKapuaConfigurableResourceLimited
 
             AccountDAO.delete(em, scopeId, accountId);
         });
+
+        IdentityResolutionCache.getInstance().invalidateScope(accountId);
     }
 
     @Override
@@ -114,8 +114,9 @@ public interface StorableListResult<E extends Storable> extends KapuaSerializabl
 
     /**
      * Get the next key.<br>
-     * If a limit is set into the query parameters (limit) and the messages count matching the query is higher than the limit, so the next key is the key of the first next object not included in the
-     * result set.
+     * If a limit is set into the query parameters (limit) and the result set is full, the next key can be set as search after key of the same query
+     * ({@link org.eclipse.kapua.service.datastore.model.query.StorableQuery#setSearchAfter(String)}) to get the next result set.<br>
+     * It's null if there are no more objects to be fetched.
      *
      * @return
      * @since 1.0.0
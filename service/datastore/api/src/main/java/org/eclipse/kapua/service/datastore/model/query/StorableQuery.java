@@ -108,6 +108,46 @@ public interface StorableQuery<S extends Object> {
      */
     void setOffset(Integer offset);
 
+    /**
+     * Get the search after key.<br>
+     * If set, the query returns the objects following (according to the query sort) the last object of the previous result page
+     * and the offset is ignored. The key is the {@link org.eclipse.kapua.service.datastore.model.StorableListResult#getNextKey()} of the previous result page.<br>
+     * Differently from the offset, the cost of fetching a page doesn't depend on how deep the page is.
+     *
+     * @return
+     * @since 1.1.0
+     */
+    @XmlElement(name = "searchAfter")
+    String getSearchAfter();
+
+    /**
+     * Set the search after key
+     *
+     * @param searchAfter
+     * @since 1.1.0
+     */
+    void setSearchAfter(String searchAfter);
+
+    /**
+     * Check if the result pages are walked by search after key.<br>
+     * If so, the unique key fields of the object type are appended to the query sort, so the {@link org.eclipse.kapua.service.datastore.model.StorableListResult#getNextKey()}
+     * of each full result page identifies the following one. Otherwise the result pages have no next key.<br>
+     * It's implied by a search after key, so it has to be set explicitly only to fetch the first page.
+     *
+     * @return
+     * @since 1.1.0
+     */
+    @XmlElement(name = "keyPaging")
+    boolean isKeyPaging();
+
+    /**
+     * Set if the result pages are walked by search after key
+     *
+     * @param keyPaging
+     * @since 1.1.0
+     */
+    void setKeyPaging(boolean keyPaging);
+
     /**
      * Get the result list limit count
      *
@@ -13,6 +13,8 @@ package org.eclipse.kapua.service.datastore.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.datastore.client.model.IndexRequest;
@@ -48,6 +50,30 @@ public interface DatastoreClient {
      */
     InsertResponse insert(InsertRequest insertRequest) throws ClientException;
 
+    /**
+     * Bulk insert.<br>
+     * The items are sent to the datastore with a single request. A failure of a single item doesn't fail the whole request, it's reported as negative {@link InsertResponse} (in the same
+     * order of the request items).
+     *
+     * @param bulkInsertRequest
+     * @return
+     * @throws ClientException
+     * @since 1.1.0
+     */
+    BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException;
+
+    /**
+     * Bulk create.<br>
+     * Each document is created only if no document with the same id is already stored (the stored one is left untouched and the item is reported as successful).
+     * The returned responses keep the same order of the requests and report, for each item, whether the operation failed.
+     *
+     * @param bulkInsertRequest
+     * @return
+     * @throws ClientException
+     * @since 1.1.0
+     */
+    BulkInsertResponse create(BulkInsertRequest bulkInsertRequest) throws ClientException;
+
     /**
      * Upsert
      *
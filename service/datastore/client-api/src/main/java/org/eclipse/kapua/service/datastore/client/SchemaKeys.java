@@ -41,6 +41,10 @@ public class SchemaKeys {
      * From key (used by queries for paginating the result set)
      */
     public static final String KEY_FROM = "from";
+    /**
+     * Search after key (used by queries for paginating the result set by the sort values of the last object of the previous page)
+     */
+    public static final String KEY_SEARCH_AFTER = "search_after";
     /**
      * Size key (used by queries to limit the result set size)
      */
@@ -14,6 +14,7 @@ package org.eclipse.kapua.service.datastore.client.model;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
 
 /**
@@ -25,6 +26,11 @@ public class InsertResponse extends Response {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Result description
+     */
+    private String description;
+
     public InsertResponse() {
         super(null, null);
     }
@@ -39,6 +45,45 @@ public class InsertResponse extends Response {
      */
     public InsertResponse(String id, TypeDescriptor typeDescriptor) {
         super(id, typeDescriptor);
+        setResult(true);
+    }
+
+    /**
+     * Negative result constructor (result false)
+     *
+     * @param id
+     *            the record id
+     * @param typeDescriptor
+     *            index/type descriptor
+     * @param description
+     *            the failure description
+     * @since 1.1.0
+     */
+    public InsertResponse(String id, TypeDescriptor typeDescriptor, String description) {
+        this(id, typeDescriptor);
+        setResult(false);
+        this.description = description;
+    }
+
+    /**
+     * Get the insert description (may be an error condition)
+     *
+     * @return
+     * @since 1.1.0
+     */
+    @XmlTransient
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Set the insert description (may be an error condition)
+     *
+     * @param description
+     * @since 1.1.0
+     */
+    public void setDescription(String description) {
+        this.description = description;
     }
 
 }
@@ -24,6 +24,7 @@ public class ResultList<T> {
 
     private List<T> result;
     private long totalCount;
+    private List<Object> nextSortValues;
 
     /**
      * Default constructor
@@ -62,4 +63,25 @@ public class ResultList<T> {
         return totalCount;
     }
 
+    /**
+     * Get the sort values of the last object of the result list, to be used as search after values to get the next result list.<br>
+     * It's null if the result list is not full (so there are no more objects to be fetched).
+     *
+     * @return
+     * @since 1.1.0
+     */
+    public List<Object> getNextSortValues() {
+        return nextSortValues;
+    }
+
+    /**
+     * Set the sort values of the last object of the result list, to be used as search after values to get the next result list
+     *
+     * @param nextSortValues
+     * @since 1.1.0
+     */
+    public void setNextSortValues(List<Object> nextSortValues) {
+        this.nextSortValues = nextSortValues;
+    }
+
 }
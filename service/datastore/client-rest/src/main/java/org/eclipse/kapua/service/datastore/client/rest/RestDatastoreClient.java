@@ -12,12 +12,15 @@
 package org.eclipse.kapua.service.datastore.client.rest;
 
 import com.codahale.metrics.Counter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
 import org.apache.http.ParseException;
 import org.apache.http.client.entity.EntityBuilder;
 import org.apache.http.entity.ContentType;
@@ -36,6 +39,8 @@ import org.eclipse.kapua.service.datastore.client.ClientUndefinedException;
 import org.eclipse.kapua.service.datastore.client.ModelContext;
 import org.eclipse.kapua.service.datastore.client.QueryConverter;
 import org.eclipse.kapua.service.datastore.client.SchemaKeys;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.datastore.client.model.IndexRequest;
@@ -53,10 +58,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
@@ -80,19 +88,28 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
 
     private static final String INDEX_ALL = "ALL";
 
+    private static final String KEY_CREATE = "create";
     private static final String KEY_DOC = "doc";
     private static final String KEY_DOC_AS_UPSERT = "doc_as_upsert";
     private static final String KEY_DOC_ID = "_id";
     private static final String KEY_DOC_INDEX = "_index";
     private static final String KEY_DOC_TYPE = "_type";
+    private static final String KEY_DOC_VERSION = "_version";
+    private static final String KEY_DOC_VERSION_TYPE = "_version_type";
 
+    private static final String KEY_ERROR = "error";
+    private static final String KEY_INDEX = "index";
     private static final String KEY_ITEMS = "items";
+    private static final String KEY_REASON = "reason";
     private static final String KEY_RESULT = "result";
     private static final String KEY_STATUS = "status";
     private static final String KEY_UPDATE = "update";
 
+    private static final String VERSION_TYPE_EXTERNAL = "external";
+
     private static final String KEY_HITS = "hits";
     private static final String KEY_TOTAL = "total";
+    private static final String KEY_TOTAL_VALUE = "value";
 
     private static final ObjectMapper MAPPER;
 
@@ -250,7 +267,7 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         if (isRequestSuccessful(insertResponse)) {
             JsonNode responseNode = null;
             try {
-                responseNode = MAPPER.readTree(EntityUtils.toString(insertResponse.getEntity()));
+                responseNode = MAPPER.readTree(insertResponse.getEntity().getContent());
             } catch (IOException e) {
                 throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
             }
@@ -264,6 +281,109 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         }
     }
 
+    @Override
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        return bulkInsert(bulkInsertRequest, KEY_INDEX, "INSERT BULK");
+    }
+
+    @Override
+    public BulkInsertResponse create(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        return bulkInsert(bulkInsertRequest, KEY_CREATE, "CREATE BULK");
+    }
+
+    private BulkInsertResponse bulkInsert(BulkInsertRequest bulkInsertRequest, String operation, String actionName) throws ClientException {
+        checkClient();
+        boolean createOnly = KEY_CREATE.equals(operation);
+        StringBuilder bulkOperation = new StringBuilder();
+        try {
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                Map<String, Object> storableMap = modelContext.marshal(insertRequest.getStorable());
+                logger.debug("Insert - converted object: '{}'", storableMap);
+                ObjectNode indexNode = MAPPER.createObjectNode();
+                indexNode.put(KEY_DOC_INDEX, insertRequest.getTypeDescriptor().getIndex());
+                indexNode.put(KEY_DOC_TYPE, insertRequest.getTypeDescriptor().getType());
+                if (insertRequest.getId() != null) {
+                    indexNode.put(KEY_DOC_ID, insertRequest.getId());
+                    if (!createOnly) {
+                        indexNode.put(KEY_DOC_VERSION, 1);
+                        indexNode.put(KEY_DOC_VERSION_TYPE, VERSION_TYPE_EXTERNAL);
+                    }
+                }
+                ObjectNode actionNode = MAPPER.createObjectNode();
+                actionNode.set(operation, indexNode);
+                bulkOperation.append(MAPPER.writeValueAsString(actionNode)).append('\n');
+                bulkOperation.append(MAPPER.writeValueAsString(storableMap)).append('\n');
+            }
+        } catch (IOException e) {
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
+        }
+        Response insertResponse = restCallTimeoutHandler(new Callable<Response>() {
+
+            @Override
+            public Response call() throws Exception {
+                return esClientProvider.getClient().performRequest(
+                        POST_ACTION,
+                        getBulkPath(),
+                        Collections.<String, String>emptyMap(),
+                        EntityBuilder.create().setText(bulkOperation.toString()).build(),
+                        new BasicHeader("Content-Type", ContentType.APPLICATION_JSON.toString()));
+            }
+
+        }, "multi-index", actionName);
+        if (isRequestSuccessful(insertResponse)) {
+            try {
+                return readBulkInsertResponse(insertResponse.getEntity().getContent(), operation);
+            } catch (IOException e) {
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
+            }
+        } else {
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR,
+                    (insertResponse != null && insertResponse.getStatusLine() != null) ? insertResponse.getStatusLine().getReasonPhrase() : CLIENT_GENERIC_ERROR_MSG);
+        }
+    }
+
+    /**
+     * Read the result of each item of the bulk response.<br>
+     * On create the document already existing (conflict) is reported as successful, since the stored document is left untouched.
+     *
+     * @param content
+     *            the bulk response entity content
+     * @param operation
+     *            the bulk operation type ("index" or "create")
+     * @return
+     * @throws IOException
+     * @throws ClientException
+     */
+    static BulkInsertResponse readBulkInsertResponse(InputStream content, String operation) throws IOException, ClientException {
+        boolean createOnly = KEY_CREATE.equals(operation);
+        BulkInsertResponse bulkResponse = new BulkInsertResponse();
+        JsonNode responseNode = MAPPER.readTree(content);
+        ArrayNode items = (ArrayNode) responseNode.get(KEY_ITEMS);
+        for (JsonNode item : items) {
+            JsonNode jsonNode = item.get(operation);
+            if (jsonNode != null) {
+                JsonNode idNode = jsonNode.get(KEY_DOC_ID);
+                String id = idNode != null ? idNode.asText() : null;
+                String indexName = jsonNode.get(KEY_DOC_INDEX).asText();
+                String typeName = jsonNode.get(KEY_DOC_TYPE).asText();
+                int responseCode = jsonNode.get(KEY_STATUS).asInt();
+                // on create the document already existing is not a failure
+                if (!isRequestSuccessful(responseCode) && !(createOnly && responseCode == HttpStatus.SC_CONFLICT)) {
+                    JsonNode failureNode = jsonNode.path(KEY_ERROR).get(KEY_REASON);
+                    String failureMessage = failureNode != null ? failureNode.asText() : MSG_EMPTY_ERROR;
+                    bulkResponse.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName), failureMessage));
+                    logger.info("Insert failed [{}, {}, {}]", indexName, typeName, failureMessage);
+                    continue;
+                }
+                bulkResponse.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName)));
+                logger.debug("Insert successfully executed [{}.{}, {}]", indexName, typeName, id);
+            } else {
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, "Unexpected action response");
+            }
+        }
+        return bulkResponse;
+    }
+
     @Override
     public UpdateResponse upsert(UpdateRequest updateRequest) throws ClientException {
         checkClient();
@@ -294,7 +414,7 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         if (isRequestSuccessful(updateResponse)) {
             JsonNode responseNode = null;
             try {
-                responseNode = MAPPER.readTree(EntityUtils.toString(updateResponse.getEntity()));
+                responseNode = MAPPER.readTree(updateResponse.getEntity().getContent());
             } catch (IOException e) {
                 throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
             }
@@ -348,7 +468,7 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
             BulkUpdateResponse bulkResponse = new BulkUpdateResponse();
             JsonNode responseNode = null;
             try {
-                responseNode = MAPPER.readTree(EntityUtils.toString(updateResponse.getEntity()));
+                responseNode = MAPPER.readTree(updateResponse.getEntity().getContent());
             } catch (IOException e) {
                 throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
             }
@@ -404,8 +524,6 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         JsonNode queryMap = queryConverter.convertQuery(query);
         Object queryFetchStyle = queryConverter.getFetchStyle(query);
         logger.debug("Query - converted query: '{}'", queryMap);
-        long totalCount = 0;
-        ArrayNode resultsNode = null;
         Response queryResponse = restCallTimeoutHandler(new Callable<Response>() {
 
             @Override
@@ -420,36 +538,22 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
 
         }, typeDescriptor.getIndex(), "QUERY");
         if (isRequestSuccessful(queryResponse)) {
-            JsonNode responseNode;
             try {
-                responseNode = MAPPER.readTree(EntityUtils.toString(queryResponse.getEntity()));
+                ResultList<T> resultList = readSearchResponse(queryResponse.getEntity().getContent(), modelContext, clazz, queryFetchStyle);
+                // the next page can be fetched by the search after values only if the page is full
+                JsonNode sizeNode = queryMap.get(SchemaKeys.KEY_SIZE);
+                if (sizeNode == null || resultList.getResult().size() < sizeNode.asInt()) {
+                    resultList.setNextSortValues(null);
+                }
+                return resultList;
             } catch (IOException e) {
                 throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
             }
-            JsonNode hitsNode = responseNode.get(KEY_HITS);
-            totalCount = hitsNode.get(KEY_TOTAL).asInt();
-            if (totalCount > Integer.MAX_VALUE) {
-                throw new ClientException(ClientErrorCodes.ACTION_ERROR, "Total hits exceeds integer max value");
-            }
-            resultsNode = ((ArrayNode) hitsNode.get(KEY_HITS));
         } else if (queryResponse != null) {
             throw new ClientException(ClientErrorCodes.ACTION_ERROR,
                     (queryResponse.getStatusLine() != null) ? queryResponse.getStatusLine().getReasonPhrase() : CLIENT_GENERIC_ERROR_MSG);
         }
-        ResultList<T> resultList = new ResultList<>(totalCount);
-        if (resultsNode != null && resultsNode.size() > 0) {
-            for (JsonNode result : resultsNode) {
-                Map<String, Object> object = MAPPER.convertValue(result.get(SchemaKeys.KEY_SOURCE), Map.class);
-                String id = result.get(KEY_DOC_ID).asText();
-                String index = result.get(KEY_DOC_INDEX).asText();
-                String type = result.get(KEY_DOC_TYPE).asText();
-                object.put(ModelContext.TYPE_DESCRIPTOR_KEY, new TypeDescriptor(index, type));
-                object.put(ModelContext.DATASTORE_ID_KEY, id);
-                object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
-                resultList.add(modelContext.unmarshal(clazz, object));
-            }
-        }
-        return resultList;
+        return new ResultList<>(0);
     }
 
     @Override
@@ -472,17 +576,11 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
 
         }, typeDescriptor.getIndex(), "COUNT");
         if (isRequestSuccessful(queryResponse)) {
-            JsonNode responseNode = null;
             try {
-                responseNode = MAPPER.readTree(EntityUtils.toString(queryResponse.getEntity()));
+                totalCount = readSearchResponse(queryResponse.getEntity().getContent(), modelContext, null, null).getTotalCount();
             } catch (IOException e) {
                 throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
             }
-            JsonNode hitsNode = responseNode.get(KEY_HITS);
-            totalCount = hitsNode.get(KEY_TOTAL).asInt();
-            if (totalCount > Integer.MAX_VALUE) {
-                throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEDEED);
-            }
         } else if (queryResponse != null) {
             throw new ClientException(ClientErrorCodes.ACTION_ERROR,
                     (queryResponse.getStatusLine() != null) ? queryResponse.getStatusLine().getReasonPhrase() : CLIENT_GENERIC_ERROR_MSG);
@@ -490,6 +588,135 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         return totalCount;
     }
 
+    /**
+     * Read the search response straight from the response entity stream.<br>
+     * Each hit is unmarshalled as soon as it's parsed, so neither the whole response text nor the whole response tree are kept in memory.<br>
+     * The sort values of the last hit are set as next sort values of the returned result list.<br>
+     * The total hits are read both as number and as object (the "value" field of the object returned since Elasticsearch 7).
+     *
+     * @param content
+     *            the search response entity content
+     * @param modelContext
+     * @param clazz
+     *            the hits class (if null the hits are skipped and only the total count is read)
+     * @param queryFetchStyle
+     * @return
+     * @throws IOException
+     * @throws ClientException
+     *             if the response is an error response
+     */
+    static <T> ResultList<T> readSearchResponse(InputStream content, ModelContext modelContext, Class<T> clazz, Object queryFetchStyle) throws IOException, ClientException {
+        long totalCount = 0;
+        List<T> results = new ArrayList<>();
+        List<Object> sortValues = new ArrayList<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, "Unexpected search response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (KEY_ERROR.equals(fieldName)) {
+                    throw new ClientException(ClientErrorCodes.ACTION_ERROR, readErrorReason(parser));
+                } else if (!KEY_HITS.equals(fieldName)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String hitsFieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    if (KEY_TOTAL.equals(hitsFieldName)) {
+                        totalCount = readTotal(parser);
+                        if (totalCount > Integer.MAX_VALUE) {
+                            throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEDEED);
+                        }
+                    } else if (KEY_HITS.equals(hitsFieldName) && clazz != null && parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            results.add(readHit(parser, modelContext, clazz, queryFetchStyle, sortValues));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        ResultList<T> resultList = new ResultList<>(totalCount);
+        for (T result : results) {
+            resultList.add(result);
+        }
+        if (!results.isEmpty() && !sortValues.isEmpty()) {
+            resultList.setNextSortValues(sortValues);
+        }
+        return resultList;
+    }
+
+    private static long readTotal(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            return parser.getLongValue();
+        }
+        long totalCount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String totalFieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (KEY_TOTAL_VALUE.equals(totalFieldName)) {
+                totalCount = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return totalCount;
+    }
+
+    private static String readErrorReason(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            // the error message of the old Elasticsearch versions
+            return parser.getValueAsString(MSG_EMPTY_ERROR);
+        }
+        JsonNode reasonNode = MAPPER.readValue(parser, JsonNode.class).get(KEY_REASON);
+        return reasonNode != null ? reasonNode.asText() : MSG_EMPTY_ERROR;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readHit(JsonParser parser, ModelContext modelContext, Class<T> clazz, Object queryFetchStyle, List<Object> sortValues) throws IOException, ClientException {
+        Map<String, Object> object = null;
+        String id = null;
+        String index = null;
+        String type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case KEY_DOC_ID:
+                    id = parser.getValueAsString();
+                    break;
+                case KEY_DOC_INDEX:
+                    index = parser.getValueAsString();
+                    break;
+                case KEY_DOC_TYPE:
+                    type = parser.getValueAsString();
+                    break;
+                case SchemaKeys.KEY_SOURCE:
+                    object = MAPPER.readValue(parser, Map.class);
+                    break;
+                case SchemaKeys.KEY_SORT:
+                    // keep the sort values of the last hit only
+                    sortValues.clear();
+                    sortValues.addAll(MAPPER.readValue(parser, List.class));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (object == null) {
+            object = new HashMap<>();
+        }
+        object.put(ModelContext.TYPE_DESCRIPTOR_KEY, new TypeDescriptor(index, type));
+        object.put(ModelContext.DATASTORE_ID_KEY, id);
+        object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
+        return modelContext.unmarshal(clazz, object);
+    }
+
     @Override
     public void delete(TypeDescriptor typeDescriptor, String id) throws ClientException {
         logger.debug("Delete - id: '{}'", id);
@@ -786,7 +1013,7 @@ public class RestDatastoreClient implements org.eclipse.kapua.service.datastore.
         }
     }
 
-    private boolean isRequestSuccessful(int responseCode) {
+    private static boolean isRequestSuccessful(int responseCode) {
         return (200 <= responseCode && responseCode <= 299);
     }
 
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.client.rest;
+
+import org.eclipse.kapua.service.datastore.client.ClientException;
+import org.eclipse.kapua.service.datastore.client.ModelContext;
+import org.eclipse.kapua.service.datastore.client.QueryConverter;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.ResultList;
+import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the search and bulk responses recorded from Elasticsearch
+ */
+@Category(JUnitTests.class)
+public class RestDatastoreClientTest extends Assert {
+
+    private static final String FETCH_STYLE = "SOURCE_FULL";
+
+    private final ModelContext modelContext = new ModelContext() {
+
+        @Override
+        public <T> T unmarshal(Class<T> clazz, Map<String, Object> serializedObject) {
+            return clazz.cast(serializedObject);
+        }
+
+        @Override
+        public Map<String, Object> marshal(Object object) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReadTheNestedSource() throws Exception {
+        ResultList<Map> resultList = readSearchResponse("search-response-nested-source.json", Map.class);
+
+        assertEquals(2, resultList.getTotalCount());
+        assertEquals(2, resultList.getResult().size());
+
+        Map<String, Object> first = resultList.getResult().get(0);
+        assertEquals("client-1", first.get("client_id"));
+        assertEquals(Arrays.asList("telemetry", "temperature"), first.get("channel_parts"));
+        Map<String, Object> position = (Map<String, Object>) first.get("position");
+        assertEquals(45.4, ((Map<String, Object>) position.get("location")).get("lat"));
+        assertEquals(12.0, position.get("alt"));
+        Map<String, Object> temperature = (Map<String, Object>) ((Map<String, Object>) first.get("metrics")).get("temperature");
+        assertEquals(21.5, temperature.get("dbl"));
+
+        // the hit metadata is added to the source
+        TypeDescriptor typeDescriptor = (TypeDescriptor) first.get(ModelContext.TYPE_DESCRIPTOR_KEY);
+        assertEquals("1-2019-02", typeDescriptor.getIndex());
+        assertEquals("message", typeDescriptor.getType());
+        assertEquals("AWjXB5tGmrKyMWxoHP5Z", first.get(ModelContext.DATASTORE_ID_KEY));
+        assertEquals(FETCH_STYLE, first.get(QueryConverter.QUERY_FETCH_STYLE_KEY));
+        assertFalse(first.containsKey("_source"));
+
+        // the sort values of the last hit are the next page search after values
+        assertEquals(Arrays.asList(1549880160000L, "AWjXB5tGmrKyMWxoHP5a"), resultList.getNextSortValues());
+    }
+
+    @Test
+    public void shouldReadTheEmptyHits() throws Exception {
+        ResultList<Map> resultList = readSearchResponse("search-response-empty.json", Map.class);
+
+        assertEquals(0, resultList.getTotalCount());
+        assertTrue(resultList.getResult().isEmpty());
+        assertNull(resultList.getNextSortValues());
+    }
+
+    @Test
+    public void shouldReadTheTotalAsObject() throws Exception {
+        ResultList<Map> resultList = readSearchResponse("search-response-total-object.json", Map.class);
+
+        assertEquals(42, resultList.getTotalCount());
+        assertEquals(1, resultList.getResult().size());
+        assertEquals("client-1", resultList.getResult().get(0).get("client_id"));
+        assertEquals("_doc", ((TypeDescriptor) resultList.getResult().get(0).get(ModelContext.TYPE_DESCRIPTOR_KEY)).getType());
+        // no sort values without sort
+        assertNull(resultList.getNextSortValues());
+    }
+
+    @Test
+    public void shouldReadTheTotalOnlyWhenCounting() throws Exception {
+        assertEquals(2, readSearchResponse("search-response-nested-source.json", null).getTotalCount());
+        ResultList<Object> resultList = readSearchResponse("search-response-total-object.json", null);
+
+        assertEquals(42, resultList.getTotalCount());
+        assertTrue(resultList.getResult().isEmpty());
+    }
+
+    @Test
+    public void shouldFailOnTheErrorResponse() throws Exception {
+        try {
+            readSearchResponse("search-response-error.json", Map.class);
+            fail("The error response should fail");
+        } catch (ClientException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("no such index"));
+        }
+
+        // the error message of the old Elasticsearch versions
+        try {
+            readSearchResponse(toStream("{\"error\":\"IndexMissingException[[1-2019-02] missing]\",\"status\":404}"), Map.class);
+            fail("The error response should fail");
+        } catch (ClientException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("IndexMissingException"));
+        }
+    }
+
+    @Test
+    public void shouldFailOnTheTotalExceedingTheIntegerRange() throws Exception {
+        try {
+            readSearchResponse(toStream("{\"hits\":{\"total\":" + (Integer.MAX_VALUE + 1L) + ",\"hits\":[]}}"), Map.class);
+            fail("The total hits exceeding the integer range should fail");
+        } catch (ClientException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Total hits exceeds integer max value"));
+        }
+    }
+
+    @Test
+    public void shouldReportTheExistingDocumentsAsCreated() throws Exception {
+        List<InsertResponse> responses = readBulkInsertResponse("bulk-create-response.json", "create").getResponse();
+
+        assertEquals(3, responses.size());
+        // created
+        assertEquals("hBv8a3xKk9o3Qc0y2xcs8A", responses.get(0).getId());
+        assertTrue(responses.get(0).isResult());
+        assertEquals(".2a-data-metric", responses.get(0).getTypeDescriptor().getIndex());
+        assertEquals("metric", responses.get(0).getTypeDescriptor().getType());
+        // already exists, left untouched
+        assertEquals("fT1yqRW6lzbR4ZXy5qvZhg", responses.get(1).getId());
+        assertTrue(responses.get(1).isResult());
+        assertNull(responses.get(1).getDescription());
+        // failed
+        assertEquals("Zm9X0m3c2mK1j4a3bq9Lyw", responses.get(2).getId());
+        assertFalse(responses.get(2).isResult());
+        assertEquals("failed to parse [metric.lastMessageOn]", responses.get(2).getDescription());
+    }
+
+    @Test
+    public void shouldReportTheIndexConflictsAsFailed() throws Exception {
+        List<InsertResponse> responses = readBulkInsertResponse("bulk-index-response.json", "index").getResponse();
+
+        assertEquals(2, responses.size());
+        assertTrue(responses.get(0).isResult());
+        assertFalse(responses.get(1).isResult());
+        assertTrue(responses.get(1).getDescription(), responses.get(1).getDescription().contains("version conflict"));
+    }
+
+    @Test(expected = ClientException.class)
+    public void shouldFailOnTheUnexpectedBulkOperation() throws Exception {
+        readBulkInsertResponse("bulk-index-response.json", "create");
+    }
+
+    private static BulkInsertResponse readBulkInsertResponse(String resourceName, String operation) throws IOException, ClientException {
+        try (InputStream content = RestDatastoreClientTest.class.getResourceAsStream(resourceName)) {
+            assertNotNull(resourceName, content);
+            return RestDatastoreClient.readBulkInsertResponse(content, operation);
+        }
+    }
+
+    private <T> ResultList<T> readSearchResponse(String resourceName, Class<T> clazz) throws IOException, ClientException {
+        try (InputStream content = RestDatastoreClientTest.class.getResourceAsStream(resourceName)) {
+            assertNotNull(resourceName, content);
+            return readSearchResponse(content, clazz);
+        }
+    }
+
+    private <T> ResultList<T> readSearchResponse(InputStream content, Class<T> clazz) throws IOException, ClientException {
+        return RestDatastoreClient.readSearchResponse(content, modelContext, clazz, FETCH_STYLE);
+    }
+
+    private static InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.datastore.client.transport;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,8 @@ import org.eclipse.kapua.service.datastore.client.ClientUndefinedException;
 import org.eclipse.kapua.service.datastore.client.ModelContext;
 import org.eclipse.kapua.service.datastore.client.QueryConverter;
 import org.eclipse.kapua.service.datastore.client.SchemaKeys;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.datastore.client.model.IndexRequest;
@@ -66,6 +69,7 @@ import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.query.QueryParseContext;
 import org.elasticsearch.indices.InvalidIndexNameException;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.SearchModule;
@@ -221,6 +225,68 @@ public class TransportDatastoreClient implements org.eclipse.kapua.service.datas
         return new InsertResponse(response.getId(), insertRequest.getTypeDescriptor());
     }
 
+    @Override
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        return bulkInsert(bulkInsertRequest, false);
+    }
+
+    @Override
+    public BulkInsertResponse create(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        return bulkInsert(bulkInsertRequest, true);
+    }
+
+    private BulkInsertResponse bulkInsert(BulkInsertRequest bulkInsertRequest, boolean createOnly) throws ClientException {
+        checkClient();
+        BulkRequest bulkRequest = new BulkRequest();
+        for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+            Map<String, Object> storableMap = modelContext.marshal(insertRequest.getStorable());
+            logger.debug("Insert - converted object: '{}'", storableMap);
+            org.elasticsearch.action.index.IndexRequest idxRequest = new org.elasticsearch.action.index.IndexRequest(insertRequest.getTypeDescriptor().getIndex(), insertRequest.getTypeDescriptor().getType()).source(storableMap);
+            if (insertRequest.getId() != null) {
+                idxRequest.id(insertRequest.getId());
+                if (createOnly) {
+                    idxRequest.create(true);
+                } else {
+                    idxRequest.version(1).versionType(VersionType.EXTERNAL);
+                }
+            }
+            bulkRequest.add(idxRequest);
+        }
+
+        BulkResponse bulkResponse = esClientProvider.getClient().bulk(bulkRequest).actionGet(getQueryTimeout());
+        return readBulkInsertResponse(bulkResponse, createOnly);
+    }
+
+    /**
+     * Read the result of each item of the bulk response.<br>
+     * On create the document already existing (conflict) is reported as successful, since the stored document is left untouched.
+     *
+     * @param bulkResponse
+     * @param createOnly
+     * @return
+     */
+    static BulkInsertResponse readBulkInsertResponse(BulkResponse bulkResponse, boolean createOnly) {
+        BulkInsertResponse response = new BulkInsertResponse();
+        BulkItemResponse[] itemResponses = bulkResponse.getItems();
+        if (itemResponses != null) {
+            for (BulkItemResponse bulkItemResponse : itemResponses) {
+                String id = bulkItemResponse.getId();
+                String indexName = bulkItemResponse.getIndex();
+                String typeName = bulkItemResponse.getType();
+                // on create the document already existing is not a failure
+                if (bulkItemResponse.isFailed() && !(createOnly && bulkItemResponse.getFailure().getStatus() == RestStatus.CONFLICT)) {
+                    String failureMessage = bulkItemResponse.getFailureMessage();
+                    response.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName), failureMessage));
+                    logger.info("Insert failed [{}, {}, {}]", indexName, typeName, failureMessage);
+                    continue;
+                }
+                response.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName)));
+                logger.debug("Insert succesfully executed [{}.{}, {}]", indexName, typeName, id);
+            }
+        }
+        return response;
+    }
+
     @Override
     public UpdateResponse upsert(UpdateRequest upsertRequest) throws ClientException {
         checkClient();
@@ -324,6 +390,14 @@ public class TransportDatastoreClient implements org.eclipse.kapua.service.datas
                 object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
                 result.add(modelContext.unmarshal(clazz, object));
             }
+            // the next page can be fetched by the search after values only if the page is full
+            JsonNode sizeNode = queryMap.get(SchemaKeys.KEY_SIZE);
+            if (searchHits.length > 0 && sizeNode != null && searchHits.length >= sizeNode.asInt()) {
+                Object[] sortValues = searchHits[searchHits.length - 1].getSortValues();
+                if (sortValues != null && sortValues.length > 0) {
+                    result.setNextSortValues(Arrays.asList(sortValues));
+                }
+            }
         }
         return result;
     }
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.client.transport;
+
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.elasticsearch.action.DocWriteRequest.OpType;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class TransportDatastoreClientTest extends Assert {
+
+    private static final String INDEX = ".2a-data-metric";
+    private static final String TYPE = "metric";
+    private static final ShardId SHARD_ID = new ShardId(INDEX, "Q2YvK8xSQfeiX2bq-kxXUg", 0);
+
+    @Test
+    public void shouldReportTheExistingDocumentsAsCreated() {
+        List<InsertResponse> responses = TransportDatastoreClient.readBulkInsertResponse(bulkResponse(OpType.CREATE), true).getResponse();
+
+        assertEquals(3, responses.size());
+        // created
+        assertEquals("created", responses.get(0).getId());
+        assertTrue(responses.get(0).isResult());
+        assertEquals(INDEX, responses.get(0).getTypeDescriptor().getIndex());
+        assertEquals(TYPE, responses.get(0).getTypeDescriptor().getType());
+        // already exists, left untouched
+        assertEquals("existing", responses.get(1).getId());
+        assertTrue(responses.get(1).isResult());
+        assertNull(responses.get(1).getDescription());
+        // failed
+        assertEquals("failed", responses.get(2).getId());
+        assertFalse(responses.get(2).isResult());
+        assertTrue(responses.get(2).getDescription(), responses.get(2).getDescription().contains("failed to parse [metric.lastMessageOn]"));
+    }
+
+    @Test
+    public void shouldReportTheIndexConflictsAsFailed() {
+        List<InsertResponse> responses = TransportDatastoreClient.readBulkInsertResponse(bulkResponse(OpType.INDEX), false).getResponse();
+
+        assertEquals(3, responses.size());
+        assertTrue(responses.get(0).isResult());
+        assertFalse(responses.get(1).isResult());
+        assertTrue(responses.get(1).getDescription(), responses.get(1).getDescription().contains("document already exists"));
+        assertFalse(responses.get(2).isResult());
+    }
+
+    private static BulkResponse bulkResponse(OpType opType) {
+        BulkItemResponse[] items = new BulkItemResponse[] {
+                new BulkItemResponse(0, opType, new IndexResponse(SHARD_ID, TYPE, "created", 1, true)),
+                new BulkItemResponse(1, opType, new BulkItemResponse.Failure(INDEX, TYPE, "existing",
+                        new VersionConflictEngineException(SHARD_ID, TYPE, "existing", "document already exists (current version [1])"))),
+                new BulkItemResponse(2, opType, new BulkItemResponse.Failure(INDEX, TYPE, "failed",
+                        new MapperParsingException("failed to parse [metric.lastMessageOn]")))
+        };
+        return new BulkResponse(items, 12);
+    }
+
+}
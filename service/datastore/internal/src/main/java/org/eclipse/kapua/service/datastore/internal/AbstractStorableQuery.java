@@ -38,6 +38,8 @@ public abstract class AbstractStorableQuery<S extends Storable> implements Stora
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String searchAfter;
+    private boolean keyPaging;
     private boolean askTotalCount;
     private List<SortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -93,6 +95,16 @@ public abstract class AbstractStorableQuery<S extends Storable> implements Stora
      */
     public abstract String[] getFields();
 
+    /**
+     * Get the fields identifying a single object.<br>
+     * These fields are appended to the sort fields (if not already present) so the sort order is unique and the next page can be fetched by the search after key.
+     * 
+     * @return
+     * 
+     * @since 1.1.0
+     */
+    public abstract String[] getKeyFields();
+
     @Override
     public KapuaId getScopeId() {
         return scopeId;
@@ -123,6 +135,26 @@ public abstract class AbstractStorableQuery<S extends Storable> implements Stora
         this.indexOffset = offset;
     }
 
+    @Override
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    @Override
+    public void setSearchAfter(String searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
+    @Override
+    public boolean isKeyPaging() {
+        return keyPaging || searchAfter != null;
+    }
+
+    @Override
+    public void setKeyPaging(boolean keyPaging) {
+        this.keyPaging = keyPaging;
+    }
+
     @Override
     public void setLimit(Integer limit) {
         this.limit = limit;
@@ -20,9 +20,11 @@ import org.eclipse.kapua.service.datastore.client.DatastoreClient;
 import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
 import org.eclipse.kapua.service.datastore.client.ClientErrorMessages;
 import org.eclipse.kapua.service.datastore.client.QueryMappingException;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.ResultList;
 import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
-import org.eclipse.kapua.service.datastore.client.model.UpdateRequest;
-import org.eclipse.kapua.service.datastore.client.model.UpdateResponse;
 import org.eclipse.kapua.service.datastore.internal.client.DatastoreClientFactory;
 import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoField;
 import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoRegistryMediator;
@@ -42,6 +44,8 @@ import org.eclipse.kapua.service.datastore.model.query.ChannelInfoQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Channel information registry facade
  * 
@@ -53,7 +57,6 @@ public class ChannelInfoRegistryFacade {
 
     private final ChannelInfoRegistryMediator mediator;
     private final ConfigurationProvider configProvider;
-    private final Object metadataUpdateSync = new Object();
     private DatastoreClient client;
 
     /**
@@ -66,9 +69,22 @@ public class ChannelInfoRegistryFacade {
      * @since 1.0.0
      */
     public ChannelInfoRegistryFacade(ConfigurationProvider configProvider, ChannelInfoRegistryMediator mediator) throws ClientUnavailableException {
+        this(configProvider, mediator, DatastoreClientFactory.getInstance());
+    }
+
+    /**
+     * Constructs the channel info registry facade on the provided datastore client
+     *
+     * @param configProvider
+     * @param mediator
+     * @param client
+     *
+     * @since 1.1.0
+     */
+    ChannelInfoRegistryFacade(ConfigurationProvider configProvider, ChannelInfoRegistryMediator mediator, DatastoreClient client) {
         this.configProvider = configProvider;
         this.mediator = mediator;
-        client = DatastoreClientFactory.getInstance();
+        this.client = client;
     }
 
     /**
@@ -92,36 +108,23 @@ public class ChannelInfoRegistryFacade {
         String channelInfoId = ChannelInfoField.getOrDeriveId(channelInfo.getId(), channelInfo);
         StorableId storableId = new StorableIdImpl(channelInfoId);
 
-        UpdateResponse response = null;
-        // Store channel. Look up channel in the cache, and cache it if it doesn't exist
+        // Store channel. Look up channel in the cache, and create it (if absent) if it doesn't exist.
+        // The create leaves the already stored entry (and its first message) untouched, so no lookup is needed
         if (!DatastoreCacheManager.getInstance().getChannelsCache().get(channelInfoId)) {
-            // The code is safe even without the synchronized block
-            // Synchronize in order to let the first thread complete its
-            // update then the others of the same type will find the cache
-            // updated and skip the update.
-            synchronized (metadataUpdateSync) {
-                if (!DatastoreCacheManager.getInstance().getChannelsCache().get(channelInfoId)) {
-                    // fix #REPLACE_ISSUE_NUMBER
-                    ChannelInfo storedField = find(channelInfo.getScopeId(), storableId);
-                    if (storedField == null) {
-                        Metadata metadata = mediator.getMetadata(channelInfo.getScopeId(), channelInfo.getFirstMessageOn().getTime());
-                        String registryIndexName = metadata.getRegistryIndexName();
-
-                        UpdateRequest request = new UpdateRequest(channelInfo.getId().toString(), new TypeDescriptor(metadata.getRegistryIndexName(), ChannelInfoSchema.CHANNEL_TYPE_NAME),
-                                channelInfo);
-                        response = client.upsert(request);
-
-                        if (!channelInfoId.equals(response.getId())) {
-                            // this condition shouldn't happens
-                            throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "ChannelInfoRegistry - upstore"));
-                        }
-                        logger.debug(String.format("Upsert on channel succesfully executed [%s.%s, %s]",
-                                registryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME, channelInfoId));
-                    }
-                    // Update cache if channel update is completed successfully
-                    DatastoreCacheManager.getInstance().getChannelsCache().put(channelInfoId, true);
-                }
+            Metadata metadata = mediator.getMetadata(channelInfo.getScopeId(), channelInfo.getFirstMessageOn().getTime());
+            String registryIndexName = metadata.getRegistryIndexName();
+
+            BulkInsertRequest request = new BulkInsertRequest();
+            request.add(new InsertRequest(channelInfoId, new TypeDescriptor(registryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME), channelInfo));
+            List<InsertResponse> responses = client.create(request).getResponse();
+
+            if (responses.size() != 1 || !channelInfoId.equals(responses.get(0).getId()) || !responses.get(0).isResult()) {
+                // this condition shouldn't happens
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "ChannelInfoRegistry - upstore"));
             }
+            logger.debug("Create on channel succesfully executed [{}.{}, {}]", registryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME, channelInfoId);
+            // Update cache if channel create is completed successfully
+            DatastoreCacheManager.getInstance().getChannelsCache().put(channelInfoId, true);
         }
         return storableId;
     }
@@ -220,7 +223,12 @@ public class ChannelInfoRegistryFacade {
 
         String indexName = SchemaUtil.getKapuaIndexName(query.getScopeId());
         TypeDescriptor typeDescriptor = new TypeDescriptor(indexName, ChannelInfoSchema.CHANNEL_TYPE_NAME);
-        return new ChannelInfoListResultImpl(client.query(typeDescriptor, query, ChannelInfo.class));
+        ResultList<ChannelInfo> result = client.query(typeDescriptor, query, ChannelInfo.class);
+        // without the key fields in the sort the last sort values don't identify the next page
+        if (!query.isKeyPaging()) {
+            result.setNextSortValues(null);
+        }
+        return new ChannelInfoListResultImpl(result);
     }
 
     /**
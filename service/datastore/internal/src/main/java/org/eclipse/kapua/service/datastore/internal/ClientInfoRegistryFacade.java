@@ -20,9 +20,11 @@ import org.eclipse.kapua.service.datastore.client.DatastoreClient;
 import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
 import org.eclipse.kapua.service.datastore.client.ClientErrorMessages;
 import org.eclipse.kapua.service.datastore.client.QueryMappingException;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.ResultList;
 import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
-import org.eclipse.kapua.service.datastore.client.model.UpdateRequest;
-import org.eclipse.kapua.service.datastore.client.model.UpdateResponse;
 import org.eclipse.kapua.service.datastore.internal.client.DatastoreClientFactory;
 import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoField;
 import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoRegistryMediator;
@@ -42,6 +44,8 @@ import org.eclipse.kapua.service.datastore.model.query.ClientInfoQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Client information registry facade
  * 
@@ -53,7 +57,6 @@ public class ClientInfoRegistryFacade {
 
     private final ClientInfoRegistryMediator mediator;
     private final ConfigurationProvider configProvider;
-    private final Object metadataUpdateSync = new Object();
     private DatastoreClient client;
 
     /**
@@ -66,9 +69,22 @@ public class ClientInfoRegistryFacade {
      * @since 1.0.0
      */
     public ClientInfoRegistryFacade(ConfigurationProvider configProvider, ClientInfoRegistryMediator mediator) throws ClientUnavailableException {
+        this(configProvider, mediator, DatastoreClientFactory.getInstance());
+    }
+
+    /**
+     * Constructs the client info registry facade on the provided datastore client
+     *
+     * @param configProvider
+     * @param mediator
+     * @param client
+     *
+     * @since 1.1.0
+     */
+    ClientInfoRegistryFacade(ConfigurationProvider configProvider, ClientInfoRegistryMediator mediator, DatastoreClient client) {
         this.configProvider = configProvider;
         this.mediator = mediator;
-        client = DatastoreClientFactory.getInstance();
+        this.client = client;
     }
 
     /**
@@ -93,35 +109,24 @@ public class ClientInfoRegistryFacade {
         String clientInfoId = ClientInfoField.getOrDeriveId(clientInfo.getId(), clientInfo);
         StorableId storableId = new StorableIdImpl(clientInfoId);
 
-        UpdateResponse response = null;
-        // Store channel. Look up channel in the cache, and cache it if it doesn't exist
-        if (!DatastoreCacheManager.getInstance().getClientsCache().get(clientInfo.getClientId())) {
-            // The code is safe even without the synchronized block
-            // Synchronize in order to let the first thread complete its update
-            // then the others of the same type will find the cache updated and
-            // skip the update.
-            synchronized (metadataUpdateSync) {
-                if (!DatastoreCacheManager.getInstance().getClientsCache().get(clientInfo.getClientId())) {
-                    // fix #REPLACE_ISSUE_NUMBER
-                    ClientInfo storedField = find(clientInfo.getScopeId(), storableId);
-                    if (storedField == null) {
-                        Metadata metadata = mediator.getMetadata(clientInfo.getScopeId(), clientInfo.getFirstMessageOn().getTime());
-                        String kapuaIndexName = metadata.getRegistryIndexName();
-
-                        UpdateRequest request = new UpdateRequest(clientInfo.getId().toString(), new TypeDescriptor(kapuaIndexName, ClientInfoSchema.CLIENT_TYPE_NAME), clientInfo);
-                        response = client.upsert(request);
-
-                        if (!clientInfoId.equals(response.getId())) {
-                            // this condition shouldn't happens
-                            throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "ClientInfoRegistry - upstore"));
-                        }
-                        logger.debug(String.format("Upsert on asset succesfully executed [%s.%s, %s]", kapuaIndexName,
-                                ClientInfoSchema.CLIENT_TYPE_NAME, response.getId()));
-                        // Update cache if asset update is completed successfully
-                    }
-                    DatastoreCacheManager.getInstance().getClientsCache().put(clientInfo.getClientId(), true);
-                }
+        // Store client. Look up client in the cache, and create it (if absent) if it doesn't exist.
+        // The create leaves the already stored entry (and its first message) untouched, so no lookup is needed
+        // The cache is keyed by the client info id, as checked by the mediator before building the client info
+        if (!DatastoreCacheManager.getInstance().getClientsCache().get(clientInfoId)) {
+            Metadata metadata = mediator.getMetadata(clientInfo.getScopeId(), clientInfo.getFirstMessageOn().getTime());
+            String kapuaIndexName = metadata.getRegistryIndexName();
+
+            BulkInsertRequest request = new BulkInsertRequest();
+            request.add(new InsertRequest(clientInfoId, new TypeDescriptor(kapuaIndexName, ClientInfoSchema.CLIENT_TYPE_NAME), clientInfo));
+            List<InsertResponse> responses = client.create(request).getResponse();
+
+            if (responses.size() != 1 || !clientInfoId.equals(responses.get(0).getId()) || !responses.get(0).isResult()) {
+                // this condition shouldn't happens
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "ClientInfoRegistry - upstore"));
             }
+            logger.debug("Create on asset succesfully executed [{}.{}, {}]", kapuaIndexName, ClientInfoSchema.CLIENT_TYPE_NAME, clientInfoId);
+            // Update cache if asset create is completed successfully
+            DatastoreCacheManager.getInstance().getClientsCache().put(clientInfoId, true);
         }
         return storableId;
     }
@@ -214,7 +219,12 @@ public class ClientInfoRegistryFacade {
 
         String indexName = SchemaUtil.getKapuaIndexName(query.getScopeId());
         TypeDescriptor typeDescriptor = new TypeDescriptor(indexName, ClientInfoSchema.CLIENT_TYPE_NAME);
-        return new ClientInfoListResultImpl(client.query(typeDescriptor, query, ClientInfo.class));
+        ResultList<ClientInfo> result = client.query(typeDescriptor, query, ClientInfo.class);
+        // without the key fields in the sort the last sort values don't identify the next page
+        if (!query.isKeyPaging()) {
+            result.setNextSortValues(null);
+        }
+        return new ClientInfoListResultImpl(result);
     }
 
     /**
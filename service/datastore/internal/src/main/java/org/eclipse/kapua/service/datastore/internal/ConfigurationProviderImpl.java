@@ -22,7 +22,8 @@ import org.eclipse.kapua.service.datastore.internal.mediator.MessageInfo;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
 
 /**
- * Datastore configuration provider implementation.
+ * Datastore configuration provider implementation.<br>
+ * The configurations and the account informations are cached per scope (see {@link DatastoreCacheManager}), so the store path doesn't query the database for each message.
  * 
  * @since 1.0.0
  */
@@ -30,6 +31,7 @@ public class ConfigurationProviderImpl implements ConfigurationProvider {
 
     private AccountService accountService;
     private KapuaConfigurableService configurableService;
+    private DatastoreCacheManager cacheManager = DatastoreCacheManager.getInstance();
 
     /**
      * Construct the configuration provider with the provided parameters
@@ -46,11 +48,14 @@ public class ConfigurationProviderImpl implements ConfigurationProvider {
     @Override
     public MessageStoreConfiguration getConfiguration(KapuaId scopeId)
             throws ConfigurationException {
-        MessageStoreConfiguration messageStoreConfiguration = null;
-        try {
-            messageStoreConfiguration = new MessageStoreConfiguration(configurableService.getConfigValues(scopeId));
-        } catch (KapuaException e) {
-            throw new ConfigurationException("Cannot load configuration parameters", e);
+        MessageStoreConfiguration messageStoreConfiguration = cacheManager.getConfiguration(scopeId);
+        if (messageStoreConfiguration == null) {
+            try {
+                messageStoreConfiguration = new MessageStoreConfiguration(configurableService.getConfigValues(scopeId));
+            } catch (KapuaException e) {
+                throw new ConfigurationException("Cannot load configuration parameters", e);
+            }
+            cacheManager.putConfiguration(scopeId, messageStoreConfiguration);
         }
         return messageStoreConfiguration;
     }
@@ -58,15 +63,24 @@ public class ConfigurationProviderImpl implements ConfigurationProvider {
     @Override
     public MessageInfo getInfo(KapuaId scopeId)
             throws ConfigurationException {
-        Account account = null;
-        if (scopeId != null) {
+        if (scopeId == null) {
+            return new MessageInfo(null);
+        }
+        MessageInfo messageInfo = cacheManager.getMessageInfo(scopeId);
+        if (messageInfo == null) {
+            Account account = null;
             try {
                 account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(scopeId));
             } catch (Exception exc) {
                 throw new ConfigurationException("Cannot get account information", exc);
             }
+            messageInfo = new MessageInfo(account);
+            // a missing account is not cached, so it's looked up again on the next message
+            if (account != null) {
+                cacheManager.putMessageInfo(scopeId, messageInfo);
+            }
         }
-        return new MessageInfo(account);
+        return messageInfo;
     }
 
 }
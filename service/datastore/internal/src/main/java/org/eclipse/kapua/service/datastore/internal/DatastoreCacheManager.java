@@ -11,7 +11,13 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.datastore.internal;
 
+import java.math.BigInteger;
+
 import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.mediator.MessageInfo;
+import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
+import org.eclipse.kapua.service.datastore.internal.mediator.RegistryIdKey;
 import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingKey;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
@@ -30,12 +36,17 @@ public class DatastoreCacheManager {
     private final LocalCache<String, Boolean> channelsCache;
     private final LocalCache<String, Boolean> metricsCache;
     private final LocalCache<String, Boolean> clientsCache;
+    private final LocalCache<RegistryIdKey, String> registryIdsCache;
+    // keyed by the raw id since the KapuaId implementations don't share the same hash code
+    private final LocalCache<BigInteger, MessageStoreConfiguration> configurationsCache;
+    private final LocalCache<BigInteger, MessageInfo> messageInfosCache;
 
     private DatastoreCacheManager() {
         DatastoreSettings config = DatastoreSettings.getInstance();
         int expireAfter = config.getInt(DatastoreSettingKey.CONFIG_CACHE_LOCAL_EXPIRE_AFTER);
         int sizeMax = config.getInt(DatastoreSettingKey.CONFIG_CACHE_LOCAL_SIZE_MAXIMUM);
         int sizeMaxMetadata = config.getInt(DatastoreSettingKey.CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM);
+        int sizeMaxRegistryIds = config.getInt(DatastoreSettingKey.CONFIG_CACHE_REGISTRY_IDS_LOCAL_SIZE_MAXIMUM, 100000);
 
         // TODO set expiration to happen frequently because the reset cache method will not get
         // called from service clients any more
@@ -43,6 +54,11 @@ public class DatastoreCacheManager {
         metricsCache = new LocalCache<>(sizeMax, expireAfter, false);
         clientsCache = new LocalCache<>(sizeMax, expireAfter, false);
         schemaCache = new LocalCache<>(sizeMaxMetadata, null);
+        // the identifiers are derived from the key only, so they never become stale and no time based eviction is needed
+        registryIdsCache = new LocalCache<>(sizeMaxRegistryIds, null);
+        // the expiration bounds the staleness of the entries changed by other nodes
+        configurationsCache = new LocalCache<>(sizeMax, expireAfter, null);
+        messageInfosCache = new LocalCache<>(sizeMax, expireAfter, null);
     }
 
     /**
@@ -89,6 +105,17 @@ public class DatastoreCacheManager {
         return clientsCache;
     }
 
+    /**
+     * Get the registry (clients, channels and metrics informations) identifiers cache
+     * 
+     * @return
+     * 
+     * @since 1.1.0
+     */
+    public LocalCache<RegistryIdKey, String> getRegistryIdsCache() {
+        return registryIdsCache;
+    }
+
     /**
      * Get the metadata informations cache
      * 
@@ -99,4 +126,64 @@ public class DatastoreCacheManager {
     public LocalCache<String, Metadata> getMetadataCache() {
         return schemaCache;
     }
+
+    /**
+     * Get the cached message store configuration of the scope
+     * 
+     * @param scopeId
+     * @return the configuration or null if not cached
+     * 
+     * @since 1.1.0
+     */
+    public MessageStoreConfiguration getConfiguration(KapuaId scopeId) {
+        return configurationsCache.get(scopeId.getId());
+    }
+
+    /**
+     * Cache the message store configuration of the scope
+     * 
+     * @param scopeId
+     * @param configuration
+     * 
+     * @since 1.1.0
+     */
+    public void putConfiguration(KapuaId scopeId, MessageStoreConfiguration configuration) {
+        configurationsCache.put(scopeId.getId(), configuration);
+    }
+
+    /**
+     * Get the cached message information (account) of the scope
+     * 
+     * @param scopeId
+     * @return the message information or null if not cached
+     * 
+     * @since 1.1.0
+     */
+    public MessageInfo getMessageInfo(KapuaId scopeId) {
+        return messageInfosCache.get(scopeId.getId());
+    }
+
+    /**
+     * Cache the message information (account) of the scope
+     * 
+     * @param scopeId
+     * @param messageInfo
+     * 
+     * @since 1.1.0
+     */
+    public void putMessageInfo(KapuaId scopeId, MessageInfo messageInfo) {
+        messageInfosCache.put(scopeId.getId(), messageInfo);
+    }
+
+    /**
+     * Invalidate the cached message store configuration and message information of the scope
+     * 
+     * @param scopeId
+     * 
+     * @since 1.1.0
+     */
+    public void invalidateConfiguration(KapuaId scopeId) {
+        configurationsCache.remove(scopeId.getId());
+        messageInfosCache.remove(scopeId.getId());
+    }
 }
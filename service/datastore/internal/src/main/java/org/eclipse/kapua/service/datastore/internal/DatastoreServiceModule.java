@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.locator.KapuaProvider;
+import org.eclipse.kapua.service.datastore.internal.schema.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ServiceModule} which closes the message ingestion batching stage on shutdown, so the buffered messages are stored before the process exits,
+ * and stops the data index provisioning.<br>
+ * It also invalidates the message store configurations and account informations cached per scope (see {@link DatastoreCacheManager}) when the accounts
+ * or the service configurations are changed by the other processes, through the entity change events published by the {@link EntityCache}
+ * (the entities must be listed in the {@link SystemSettingKey#ENTITY_CACHE_EVENT_NAMES} setting of the processes changing them).
+ * Without these events the changes made by the other processes are seen when the cached entries expire.
+ *
+ * @since 1.1.0
+ */
+@KapuaProvider
+public class DatastoreServiceModule implements ServiceModule {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatastoreServiceModule.class);
+
+    @Override
+    public void start() throws KapuaException {
+        // The batching stage is started with the message store
+        EntityCache entityCache = EntityCache.getInstance();
+        if (!entityCache.isPublishing()) {
+            LOGGER.info("Starting datastore module... no entity change event published, the cached configurations will be refreshed when expired");
+            return;
+        }
+
+        String address = entityCache.getEventAddress();
+        String subscriptionName = subscriptionName(address, entityCache.getNodeName());
+        LOGGER.info("Starting datastore module... subscribing to address {} - name {}", address, subscriptionName);
+        ServiceEventBusManager.getInstance().subscribe(address, subscriptionName, this::received);
+        LOGGER.info("Starting datastore module... DONE");
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        LOGGER.info("Stopping datastore module... stopping the data index provisioning");
+        Schema.stopDataIndexProvisioning();
+        LOGGER.info("Stopping datastore module... flushing the buffered messages");
+        MessageIngestBatcher.closeAll();
+        LOGGER.info("Stopping datastore module... DONE");
+    }
+
+    static String subscriptionName(String address, String nodeName) throws KapuaIllegalNullArgumentException {
+        if (nodeName == null) {
+            // a shared name would split the events among the processes
+            throw new KapuaIllegalNullArgumentException(SystemSettingKey.ENTITY_CACHE_NODE_NAME.key());
+        }
+        return String.format("%s-%s-datastore", address, nodeName);
+    }
+
+    /**
+     * Invalidate the cached configuration and account information of the scope of the changed account or service configuration
+     *
+     * @param serviceEvent
+     *            the entity change event
+     */
+    void received(ServiceEvent serviceEvent) {
+        if (!EntityCache.INVALIDATE_OPERATION.equals(serviceEvent.getOperation()) || serviceEvent.getEntityType() == null) {
+            return;
+        }
+
+        switch (serviceEvent.getEntityType()) {
+        case "Account":
+            // the account id is the scope id of its configurations and messages
+            if (serviceEvent.getEntityId() != null) {
+                DatastoreCacheManager.getInstance().invalidateConfiguration(serviceEvent.getEntityId());
+            }
+            break;
+        case "ServiceConfig":
+            if (serviceEvent.getScopeId() != null) {
+                DatastoreCacheManager.getInstance().invalidateConfiguration(serviceEvent.getScopeId());
+            }
+            break;
+        default:
+            break;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.service.datastore.client.ClientCommunicationException;
+import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
+import org.eclipse.kapua.service.datastore.client.ClientException;
+import org.eclipse.kapua.service.datastore.client.DatastoreClient;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Message ingestion batching stage.<br>
+ * The insert requests are collected into per index buffers and sent to the datastore through a single bulk request when one of these thresholds is reached:
+ * <ul>
+ * <li>the buffer items count</li>
+ * <li>the buffer (estimated) size in bytes</li>
+ * <li>the time elapsed since the first buffered item</li>
+ * </ul>
+ * The caller waits for the outcome of its own item, so a per item failure is reported to the caller only (as {@link ClientCommunicationException}) and the message can be routed to the
+ * communication error queue as it happens for the single insert.<br>
+ * The stage must be closed (see {@link #close()}) to flush the buffered items and to stop its threads.
+ *
+ * @since 1.1.0
+ */
+class MessageIngestBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageIngestBatcher.class);
+
+    private static final String METRIC_COMPONENT_NAME = "datastore";
+
+    private static final Set<MessageIngestBatcher> OPEN_BATCHERS = ConcurrentHashMap.newKeySet();
+
+    private final DatastoreClient client;
+    private final int maxSize;
+    private final long maxBytes;
+    private final long maxDelay;
+    private final long waitTimeout;
+
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushScheduler;
+    private final ExecutorService flushExecutor;
+
+    private volatile boolean closed;
+
+    private final Counter metricFlushCount;
+    private final Counter metricFlushErrorCount;
+    private final Counter metricItemErrorCount;
+    private final Histogram metricFlushSize;
+
+    /**
+     * Constructs the batching stage
+     *
+     * @param client
+     *            the datastore client used to perform the bulk requests
+     * @param maxSize
+     *            maximum number of items per bulk request
+     * @param maxBytes
+     *            maximum (estimated) size in bytes per bulk request
+     * @param maxDelay
+     *            maximum time (in milliseconds) an item can wait in the buffer before being flushed
+     * @param waitTimeout
+     *            maximum time (in milliseconds) the caller waits for the item to be stored
+     */
+    MessageIngestBatcher(DatastoreClient client, int maxSize, long maxBytes, long maxDelay, long waitTimeout) {
+        this.client = client;
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.maxDelay = maxDelay;
+        this.waitTimeout = waitTimeout;
+
+        MetricsService metricService = MetricServiceFactory.getInstance();
+        metricFlushCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "store", "batch", "flush", "count");
+        metricFlushErrorCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "store", "batch", "flush", "error", "count");
+        metricItemErrorCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "store", "batch", "item", "error", "count");
+        metricFlushSize = metricService.getHistogram(METRIC_COMPONENT_NAME, "datastore", "store", "batch", "flush", "size");
+
+        flushExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "datastore-ingest-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datastore-ingest-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, maxDelay / 2);
+        flushScheduler.scheduleWithFixedDelay(this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+        OPEN_BATCHERS.add(this);
+    }
+
+    /**
+     * Close all the batching stages not closed yet (see {@link DatastoreServiceModule})
+     */
+    static void closeAll() {
+        for (MessageIngestBatcher batcher : OPEN_BATCHERS) {
+            batcher.close();
+        }
+    }
+
+    /**
+     * Insert the request through the batching stage and wait for the outcome
+     *
+     * @param insertRequest
+     * @param estimatedSize
+     *            the estimated size (in bytes) of the item
+     * @return
+     * @throws ClientException
+     *             if the bulk request or the item insert fails
+     */
+    InsertResponse insert(InsertRequest insertRequest, long estimatedSize) throws ClientException {
+        PendingInsert pendingInsert = new PendingInsert(insertRequest);
+        String indexName = insertRequest.getTypeDescriptor().getIndex();
+        List<PendingInsert> toFlush = null;
+        boolean added = false;
+        while (!added) {
+            Buffer buffer = buffers.computeIfAbsent(indexName, name -> new Buffer());
+            synchronized (buffer) {
+                // the buffer may have been discarded in the meantime, in that case get a new one
+                if (!buffer.discarded) {
+                    buffer.add(pendingInsert, estimatedSize);
+                    // once closed no flush is scheduled anymore, so the caller flushes its own item
+                    if (closed || buffer.size() >= maxSize || buffer.bytes >= maxBytes) {
+                        toFlush = buffer.drain();
+                    }
+                    added = true;
+                }
+            }
+        }
+        if (toFlush != null) {
+            // the thread filling the buffer performs the bulk request
+            flush(indexName, toFlush);
+        }
+        try {
+            return pendingInsert.future.get(waitTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClientException) {
+                throw (ClientException) e.getCause();
+            }
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR, e.getCause());
+        } catch (TimeoutException e) {
+            throw new ClientCommunicationException("Timeout waiting for the bulk insert", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientCommunicationException("Interrupted waiting for the bulk insert", e);
+        }
+    }
+
+    /**
+     * Close the batching stage.<br>
+     * The scheduled flushes are stopped, the buffered items are flushed and the pending bulk requests are waited for (at most the wait timeout).
+     * The items inserted afterwards are flushed by the inserting thread, without batching.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        OPEN_BATCHERS.remove(this);
+        flushScheduler.shutdown();
+        try {
+            flushScheduler.awaitTermination(waitTimeout, TimeUnit.MILLISECONDS);
+            for (Map.Entry<String, Buffer> entry : buffers.entrySet()) {
+                Buffer buffer = entry.getValue();
+                List<PendingInsert> toFlush;
+                synchronized (buffer) {
+                    toFlush = buffer.drain();
+                }
+                flush(entry.getKey(), toFlush);
+            }
+            flushExecutor.shutdown();
+            if (!flushExecutor.awaitTermination(waitTimeout, TimeUnit.MILLISECONDS)) {
+                logger.warn("Bulk insert requests still pending after {} ms", waitTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted waiting for the pending bulk insert requests");
+        } finally {
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    private void flushExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Buffer>> iterator = buffers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Buffer> entry = iterator.next();
+            Buffer buffer = entry.getValue();
+            List<PendingInsert> toFlush = null;
+            synchronized (buffer) {
+                if (buffer.size() > 0 && now - buffer.firstAddedOn >= maxDelay) {
+                    toFlush = buffer.drain();
+                } else if (buffer.size() == 0 && now - buffer.firstAddedOn >= maxDelay * 100) {
+                    // drop buffers of indexes no more written (i.e. after an index window rollover)
+                    buffer.discarded = true;
+                    iterator.remove();
+                }
+            }
+            if (toFlush != null) {
+                String indexName = entry.getKey();
+                List<PendingInsert> items = toFlush;
+                flushExecutor.execute(() -> flush(indexName, items));
+            }
+        }
+    }
+
+    private void flush(String indexName, List<PendingInsert> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        metricFlushCount.inc();
+        metricFlushSize.update(items.size());
+        BulkInsertRequest bulkInsertRequest = new BulkInsertRequest();
+        for (PendingInsert item : items) {
+            bulkInsertRequest.add(item.insertRequest);
+        }
+        try {
+            BulkInsertResponse bulkInsertResponse = client.insert(bulkInsertRequest);
+            List<InsertResponse> responses = bulkInsertResponse.getResponse();
+            for (int i = 0; i < items.size(); i++) {
+                PendingInsert item = items.get(i);
+                InsertResponse response = i < responses.size() ? responses.get(i) : null;
+                if (response != null && response.isResult()) {
+                    item.future.complete(response);
+                } else {
+                    metricItemErrorCount.inc();
+                    String description = response != null ? response.getDescription() : "Missing bulk item response";
+                    item.future.completeExceptionally(new ClientCommunicationException(description, null));
+                }
+            }
+        } catch (ClientException | RuntimeException e) {
+            metricFlushErrorCount.inc();
+            logger.warn("Bulk insert of {} items on index '{}' failed: {}", items.size(), indexName, e.getMessage());
+            for (PendingInsert item : items) {
+                item.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class PendingInsert {
+
+        private final InsertRequest insertRequest;
+        private final CompletableFuture<InsertResponse> future = new CompletableFuture<>();
+
+        private PendingInsert(InsertRequest insertRequest) {
+            this.insertRequest = insertRequest;
+        }
+    }
+
+    private static class Buffer {
+
+        private List<PendingInsert> items = new ArrayList<>();
+        private long bytes;
+        private long firstAddedOn = System.currentTimeMillis();
+        private boolean discarded;
+
+        private void add(PendingInsert pendingInsert, long estimatedSize) {
+            if (items.isEmpty()) {
+                firstAddedOn = System.currentTimeMillis();
+            }
+            items.add(pendingInsert);
+            bytes += estimatedSize;
+        }
+
+        private int size() {
+            return items.size();
+        }
+
+        private List<PendingInsert> drain() {
+            List<PendingInsert> drained = items;
+            items = new ArrayList<>();
+            bytes = 0;
+            return drained;
+        }
+    }
+
+}
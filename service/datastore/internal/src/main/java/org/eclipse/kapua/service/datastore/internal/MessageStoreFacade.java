@@ -51,12 +51,15 @@ import org.eclipse.kapua.service.datastore.internal.model.query.ClientInfoQueryI
 import org.eclipse.kapua.service.datastore.internal.model.query.IdsPredicateImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.MessageQueryImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.MetricInfoQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.model.query.SearchAfterKey;
 import org.eclipse.kapua.service.datastore.internal.schema.ChannelInfoSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.ClientInfoSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.MessageSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
 import org.eclipse.kapua.service.datastore.internal.schema.MetricInfoSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.SchemaUtil;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingKey;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.service.datastore.model.ChannelInfo;
 import org.eclipse.kapua.service.datastore.model.ClientInfo;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
@@ -89,9 +92,14 @@ public final class MessageStoreFacade {
 
     private static final String METRIC_COMPONENT_NAME = "datastore";
 
+    // rough size estimation (in bytes) of the message document without the body and the metrics
+    private static final long MESSAGE_BASE_SIZE = 512;
+    private static final long MESSAGE_METRIC_SIZE = 64;
+
     private final MessageStoreMediator mediator;
     private final ConfigurationProvider configProvider;
     private DatastoreClient client;
+    private MessageIngestBatcher batcher;
 
     /**
      * Constructs the message store facade
@@ -107,6 +115,14 @@ public final class MessageStoreFacade {
         client = DatastoreClientFactory.getInstance();
         MetricsService metricService = MetricServiceFactory.getInstance();
         metricMessagesAlreadyInTheDatastoreCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "store", "messages", "already_in_the_datastore", "count");
+        DatastoreSettings settings = DatastoreSettings.getInstance();
+        if (settings.getBoolean(DatastoreSettingKey.INGEST_BATCH_ENABLED, false)) {
+            batcher = new MessageIngestBatcher(client,
+                    settings.getInt(DatastoreSettingKey.INGEST_BATCH_SIZE_MAX, 500),
+                    settings.getLong(DatastoreSettingKey.INGEST_BATCH_BYTES_MAX, 5242880L),
+                    settings.getLong(DatastoreSettingKey.INGEST_BATCH_DELAY_MAX, 20L),
+                    settings.getLong(DatastoreSettingKey.INGEST_BATCH_WAIT_TIMEOUT, 30000L));
+        }
     }
 
     /**
@@ -187,13 +203,26 @@ public final class MessageStoreFacade {
         }
         mediator.onUpdatedMappings(message.getScopeId(), indexedOn, metrics);
 
-        InsertResponse insertResponse = client.insert(insertRequest);
+        InsertResponse insertResponse;
+        if (batcher != null) {
+            insertResponse = batcher.insert(insertRequest, estimateSize(message, metrics.size()));
+        } else {
+            insertResponse = client.insert(insertRequest);
+        }
         messageToStore.setDatastoreId(new StorableIdImpl(insertResponse.getId()));
 
         mediator.onAfterMessageStore(messageInfo, messageToStore);
         return new StorableIdImpl(insertResponse.getId());
     }
 
+    private static long estimateSize(KapuaMessage<?, ?> message, int metricsCount) {
+        long size = MESSAGE_BASE_SIZE + MESSAGE_METRIC_SIZE * metricsCount;
+        if (message.getPayload() != null && message.getPayload().getBody() != null) {
+            size += message.getPayload().getBody().length;
+        }
+        return size;
+    }
+
     /**
      * Delete message by identifier.<br>
      * <b>Be careful using this function since it doesn't guarantee the datastore consistency.<br>
@@ -290,7 +319,12 @@ public final class MessageStoreFacade {
 
         String dataIndexName = SchemaUtil.getDataIndexName(query.getScopeId());
         TypeDescriptor typeDescriptor = new TypeDescriptor(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME);
-        return new MessageListResultImpl(client.query(typeDescriptor, query, DatastoreMessage.class));
+        ResultList<DatastoreMessage> result = client.query(typeDescriptor, query, DatastoreMessage.class);
+        // without the key fields in the sort the last sort values don't identify the next page
+        if (!query.isKeyPaging()) {
+            result.setNextSortValues(null);
+        }
+        return new MessageListResultImpl(result);
     }
 
     /**
@@ -379,106 +413,79 @@ public final class MessageStoreFacade {
         // Find all topics
         String dataIndexName = SchemaUtil.getDataIndexName(scopeId);
 
+        // the pages are fetched by the search after key, so the cost of each page doesn't grow with the number of pages already read
         int pageSize = 1000;
-        int offset = 0;
-        long totalHits = 1;
 
         MetricInfoQueryImpl metricQuery = new MetricInfoQueryImpl(scopeId);
-        metricQuery.setLimit(pageSize + 1);
-        metricQuery.setOffset(offset);
+        metricQuery.setLimit(pageSize);
+        metricQuery.setKeyPaging(true);
 
         ChannelMatchPredicateImpl channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL.field(), channel);
         metricQuery.setPredicate(channelPredicate);
 
         // Remove metrics
-        while (totalHits > 0) {
-            TypeDescriptor typeDescriptor = new TypeDescriptor(dataIndexName, MetricInfoSchema.METRIC_TYPE_NAME);
-            ResultList<MetricInfo> metrics = client.query(typeDescriptor, metricQuery, MetricInfo.class);
-
-            totalHits = metrics.getTotalCount();
-            LocalCache<String, Boolean> metricsCache = DatastoreCacheManager.getInstance().getMetricsCache();
-            long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-            for (int i = 0; i < toBeProcessed; i++) {
-                String id = metrics.getResult().get(i).getId().toString();
+        TypeDescriptor typeMetricDescriptor = new TypeDescriptor(dataIndexName, MetricInfoSchema.METRIC_TYPE_NAME);
+        LocalCache<String, Boolean> metricsCache = DatastoreCacheManager.getInstance().getMetricsCache();
+        do {
+            ResultList<MetricInfo> metrics = client.query(typeMetricDescriptor, metricQuery, MetricInfo.class);
+            for (MetricInfo metricInfo : metrics.getResult()) {
+                String id = metricInfo.getId().toString();
                 if (metricsCache.get(id)) {
                     metricsCache.remove(id);
                 }
             }
-
-            if (totalHits > pageSize) {
-                offset += pageSize + 1;
-            }
-        }
+            metricQuery.setSearchAfter(SearchAfterKey.encode(metrics.getNextSortValues()));
+        } while (metricQuery.getSearchAfter() != null);
         logger.debug("Removed cached channel metrics for: {}", channel);
-        TypeDescriptor typeMetricDescriptor = new TypeDescriptor(dataIndexName, MetricInfoSchema.METRIC_TYPE_NAME);
         client.deleteByQuery(typeMetricDescriptor, metricQuery);
         logger.debug("Removed channel metrics for: {}", channel);
         ChannelInfoQueryImpl channelQuery = new ChannelInfoQueryImpl(scopeId);
-        channelQuery.setLimit(pageSize + 1);
-        channelQuery.setOffset(offset);
+        channelQuery.setLimit(pageSize);
+        channelQuery.setKeyPaging(true);
 
         channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL.field(), channel);
         channelQuery.setPredicate(channelPredicate);
 
         // Remove channel
-        offset = 0;
-        totalHits = 1;
-        while (totalHits > 0) {
-            TypeDescriptor typeDescriptor = new TypeDescriptor(dataIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME);
-            ResultList<ChannelInfo> channels = client.query(typeDescriptor, channelQuery, ChannelInfo.class);
-
-            totalHits = channels.getTotalCount();
-            LocalCache<String, Boolean> channelsCache = DatastoreCacheManager.getInstance().getChannelsCache();
-            long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-            for (int i = 0; i < toBeProcessed; i++) {
-                String id = channels.getResult().get(0).getId().toString();
+        TypeDescriptor typeChannelDescriptor = new TypeDescriptor(dataIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME);
+        LocalCache<String, Boolean> channelsCache = DatastoreCacheManager.getInstance().getChannelsCache();
+        do {
+            ResultList<ChannelInfo> channels = client.query(typeChannelDescriptor, channelQuery, ChannelInfo.class);
+            for (ChannelInfo channelInfo : channels.getResult()) {
+                String id = channelInfo.getId().toString();
                 if (channelsCache.get(id)) {
                     channelsCache.remove(id);
                 }
             }
-            if (totalHits > pageSize) {
-                offset += pageSize + 1;
-            }
-        }
+            channelQuery.setSearchAfter(SearchAfterKey.encode(channels.getNextSortValues()));
+        } while (channelQuery.getSearchAfter() != null);
 
         logger.debug("Removed cached channels for: {}", channel);
-        TypeDescriptor typeChannelDescriptor = new TypeDescriptor(dataIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME);
         client.deleteByQuery(typeChannelDescriptor, channelQuery);
 
         logger.debug("Removed channels for: {}", channel);
         // Remove client
         if (isClientToDelete) {
             ClientInfoQueryImpl clientInfoQuery = new ClientInfoQueryImpl(scopeId);
-            clientInfoQuery.setLimit(pageSize + 1);
-            clientInfoQuery.setOffset(offset);
+            clientInfoQuery.setLimit(pageSize);
+            clientInfoQuery.setKeyPaging(true);
 
             channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL.field(), channel);
             clientInfoQuery.setPredicate(channelPredicate);
-            offset = 0;
-            totalHits = 1;
-            while (totalHits > 0) {
-                TypeDescriptor typeDescriptor = new TypeDescriptor(dataIndexName, ClientInfoSchema.CLIENT_TYPE_NAME);
-                ResultList<ClientInfo> clients = client.query(typeDescriptor, clientInfoQuery, ClientInfo.class);
-
-                totalHits = clients.getTotalCount();
-                LocalCache<String, Boolean> clientsCache = DatastoreCacheManager.getInstance().getClientsCache();
-                long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-                for (int i = 0; i < toBeProcessed; i++) {
-                    String id = clients.getResult().get(i).getId().toString();
+            TypeDescriptor typeClientDescriptor = new TypeDescriptor(dataIndexName, ClientInfoSchema.CLIENT_TYPE_NAME);
+            LocalCache<String, Boolean> clientsCache = DatastoreCacheManager.getInstance().getClientsCache();
+            do {
+                ResultList<ClientInfo> clients = client.query(typeClientDescriptor, clientInfoQuery, ClientInfo.class);
+                for (ClientInfo clientInfo : clients.getResult()) {
+                    String id = clientInfo.getId().toString();
                     if (clientsCache.get(id)) {
                         clientsCache.remove(id);
                     }
                 }
-                if (totalHits > pageSize) {
-                    offset += pageSize + 1;
-                }
-            }
+                clientInfoQuery.setSearchAfter(SearchAfterKey.encode(clients.getNextSortValues()));
+            } while (clientInfoQuery.getSearchAfter() != null);
 
             logger.debug("Removed cached clients for: {}", channel);
-            TypeDescriptor typeClientDescriptor = new TypeDescriptor(dataIndexName, ClientInfoSchema.CLIENT_TYPE_NAME);
             client.deleteByQuery(typeClientDescriptor, clientInfoQuery);
 
             logger.debug("Removed clients for: {}", channel);
@@ -46,6 +46,7 @@ import org.eclipse.kapua.service.datastore.model.StorableId;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.datastore.model.query.StorableFetchStyle;
 
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -221,6 +222,13 @@ public class MessageStoreServiceImpl extends AbstractKapuaConfigurableService im
         }
     }
 
+    @Override
+    public void setConfigValues(KapuaId scopeId, KapuaId parentId, Map<String, Object> values)
+            throws KapuaException {
+        super.setConfigValues(scopeId, parentId, values);
+        DatastoreCacheManager.getInstance().invalidateConfiguration(scopeId);
+    }
+
     protected void checkDataAccess(KapuaId scopeId, Actions action)
             throws KapuaException {
         Permission permission = permissionFactory.newPermission(DatastoreDomains.DATASTORE_DOMAIN, action, scopeId);
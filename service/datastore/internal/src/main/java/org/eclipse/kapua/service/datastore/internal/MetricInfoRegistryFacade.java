@@ -20,11 +20,13 @@ import org.eclipse.kapua.service.datastore.client.DatastoreClient;
 import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
 import org.eclipse.kapua.service.datastore.client.ClientErrorMessages;
 import org.eclipse.kapua.service.datastore.client.QueryMappingException;
-import org.eclipse.kapua.service.datastore.client.model.BulkUpdateRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.datastore.client.model.BulkUpdateResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
 import org.eclipse.kapua.service.datastore.client.model.ResultList;
 import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
-import org.eclipse.kapua.service.datastore.client.model.UpdateRequest;
 import org.eclipse.kapua.service.datastore.client.model.UpdateResponse;
 import org.eclipse.kapua.service.datastore.internal.client.DatastoreClientFactory;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
@@ -45,6 +47,8 @@ import org.eclipse.kapua.service.datastore.model.query.MetricInfoQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Metric information registry facade
  *
@@ -68,9 +72,22 @@ public class MetricInfoRegistryFacade {
      * @since 1.0.0
      */
     public MetricInfoRegistryFacade(ConfigurationProvider configProvider, MetricInfoRegistryMediator mediator) throws ClientUnavailableException {
+        this(configProvider, mediator, DatastoreClientFactory.getInstance());
+    }
+
+    /**
+     * Constructs the metric info registry facade on the provided datastore client
+     *
+     * @param configProvider
+     * @param mediator
+     * @param client
+     *
+     * @since 1.1.0
+     */
+    MetricInfoRegistryFacade(ConfigurationProvider configProvider, MetricInfoRegistryMediator mediator, DatastoreClient client) {
         this.configProvider = configProvider;
         this.mediator = mediator;
-        client = DatastoreClientFactory.getInstance();
+        this.client = client;
     }
 
     /**
@@ -93,26 +110,22 @@ public class MetricInfoRegistryFacade {
         String metricInfoId = MetricInfoField.getOrDeriveId(metricInfo.getId(), metricInfo);
         StorableId storableId = new StorableIdImpl(metricInfoId);
 
-        UpdateResponse response = null;
-        // Store channel. Look up channel in the cache, and cache it if it doesn't exist
+        // Store metric. Look up metric in the cache, and create it (if absent) if it doesn't exist.
+        // The create leaves the already stored entry (and its first message) untouched, so no lookup is needed
         if (!DatastoreCacheManager.getInstance().getMetricsCache().get(metricInfoId)) {
-            // fix #REPLACE_ISSUE_NUMBER
-            MetricInfo storedField = find(metricInfo.getScopeId(), storableId);
-            if (storedField == null) {
-                Metadata metadata = mediator.getMetadata(metricInfo.getScopeId(), metricInfo.getFirstMessageOn().getTime());
-                String kapuaIndexName = metadata.getRegistryIndexName();
+            Metadata metadata = mediator.getMetadata(metricInfo.getScopeId(), metricInfo.getFirstMessageOn().getTime());
+            String kapuaIndexName = metadata.getRegistryIndexName();
 
-                UpdateRequest request = new UpdateRequest(metricInfo.getId().toString(), new TypeDescriptor(metadata.getRegistryIndexName(), MetricInfoSchema.METRIC_TYPE_NAME), metricInfo);
-                response = client.upsert(request);
+            BulkInsertRequest request = new BulkInsertRequest();
+            request.add(new InsertRequest(metricInfoId, new TypeDescriptor(kapuaIndexName, MetricInfoSchema.METRIC_TYPE_NAME), metricInfo));
+            List<InsertResponse> responses = client.create(request).getResponse();
 
-                if (!metricInfoId.equals(response.getId())) {
-                    // this condition shouldn't happens
-                    throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "MetricInfoRegistry - upstore"));
-                }
-                logger.debug(String.format("Upsert on metric succesfully executed [%s.%s, %s]",
-                        kapuaIndexName, MetricInfoSchema.METRIC_TYPE_NAME, metricInfoId));
-                // Update cache if channel update is completed successfully
+            if (responses.size() != 1 || !metricInfoId.equals(responses.get(0).getId()) || !responses.get(0).isResult()) {
+                // this condition shouldn't happens
+                throw new ClientException(ClientErrorCodes.ACTION_ERROR, String.format(ClientErrorMessages.CRUD_INTERNAL_ERROR, "MetricInfoRegistry - upstore"));
             }
+            logger.debug("Create on metric succesfully executed [{}.{}, {}]", kapuaIndexName, MetricInfoSchema.METRIC_TYPE_NAME, metricInfoId);
+            // Update cache if metric create is completed successfully
             DatastoreCacheManager.getInstance().getMetricsCache().put(metricInfoId, true);
         }
         return storableId;
@@ -122,7 +135,7 @@ public class MetricInfoRegistryFacade {
      * Update the metrics informations after a message store operation (for few metrics)
      * 
      * @param metricInfos
-     * @return
+     * @return the result of each metric not found in the cache (null if all the metrics are found in the cache)
      * @throws KapuaIllegalArgumentException
      * @throws ConfigurationException
      * @throws ClientException
@@ -133,55 +146,44 @@ public class MetricInfoRegistryFacade {
             ClientException {
         ArgumentValidator.notNull(metricInfos, "metricInfos");
 
-        BulkUpdateRequest bulkRequest = new BulkUpdateRequest();
-        boolean performUpdate = false;
-        // Create a bulk request
+        BulkInsertRequest bulkRequest = new BulkInsertRequest();
+        // Create a bulk request with the metrics not found in the cache.
+        // The create leaves the already stored entries (and their first message) untouched, so no lookup is needed
         for (MetricInfo metricInfo : metricInfos) {
             String metricInfoId = MetricInfoField.getOrDeriveId(metricInfo.getId(), metricInfo);
-            // fix #REPLACE_ISSUE_NUMBER
             if (!DatastoreCacheManager.getInstance().getMetricsCache().get(metricInfoId)) {
-                StorableId storableId = new StorableIdImpl(metricInfoId);
-                MetricInfo storedField = find(metricInfo.getScopeId(), storableId);
-                if (storedField != null) {
-                    DatastoreCacheManager.getInstance().getMetricsCache().put(metricInfoId, true);
-                    continue;
-                }
-                performUpdate = true;
                 Metadata metadata = mediator.getMetadata(metricInfo.getScopeId(), metricInfo.getFirstMessageOn().getTime());
-                bulkRequest.add(
-                        new UpdateRequest(metricInfo.getId().toString(), new TypeDescriptor(metadata.getRegistryIndexName(), MetricInfoSchema.METRIC_TYPE_NAME), metricInfo));
+                bulkRequest.add(new InsertRequest(metricInfoId, new TypeDescriptor(metadata.getRegistryIndexName(), MetricInfoSchema.METRIC_TYPE_NAME), metricInfo));
             }
         }
 
         BulkUpdateResponse upsertResponse = null;
-        if (performUpdate) {
-            // execute the upstore
+        if (!bulkRequest.getRequest().isEmpty()) {
+            BulkInsertResponse createResponse;
+            // execute the create
             try {
-                upsertResponse = client.upsert(bulkRequest);
+                createResponse = client.create(bulkRequest);
             } catch (ClientException e) {
-                logger.trace(String.format("Upsert failed [%s]", e.getMessage()));
+                logger.trace(String.format("Create failed [%s]", e.getMessage()));
                 throw e;
             }
 
-            if (upsertResponse != null) {
-                if (upsertResponse.getResponse().size() <= 0) {
-                    return upsertResponse;
-                }
-                for (UpdateResponse response : upsertResponse.getResponse()) {
-                    String index = response.getTypeDescriptor().getIndex();
-                    String type = response.getTypeDescriptor().getType();
-                    String id = response.getId();
-                    logger.debug(String.format("Upsert on channel metric succesfully executed [%s.%s, %s]",
-                            index, type, id));
-
-                    if (id == null || DatastoreCacheManager.getInstance().getMetricsCache().get(id)) {
-                        continue;
-                    }
-
-                    // Update cache if channel metric update is completed
-                    // successfully
-                    DatastoreCacheManager.getInstance().getMetricsCache().put(id, true);
+            upsertResponse = new BulkUpdateResponse();
+            for (InsertResponse response : createResponse.getResponse()) {
+                String index = response.getTypeDescriptor().getIndex();
+                String type = response.getTypeDescriptor().getType();
+                String id = response.getId();
+                if (id == null || !response.isResult()) {
+                    // not cached, so the create will be performed again on the next message
+                    logger.warn("Create on channel metric failed [{}.{}, {}]: {}", index, type, id, response.getDescription());
+                    upsertResponse.add(new UpdateResponse(id, response.getTypeDescriptor(), response.getDescription()));
+                    continue;
                 }
+                logger.debug("Create on channel metric succesfully executed [{}.{}, {}]", index, type, id);
+                upsertResponse.add(new UpdateResponse(id, response.getTypeDescriptor()));
+
+                // Update cache if channel metric create is completed successfully
+                DatastoreCacheManager.getInstance().getMetricsCache().put(id, true);
             }
         }
         return upsertResponse;
@@ -277,6 +279,10 @@ public class MetricInfoRegistryFacade {
         String indexNme = SchemaUtil.getKapuaIndexName(query.getScopeId());
         TypeDescriptor typeDescriptor = new TypeDescriptor(indexNme, MetricInfoSchema.METRIC_TYPE_NAME);
         ResultList<MetricInfo> result = client.query(typeDescriptor, query, MetricInfo.class);
+        // without the key fields in the sort the last sort values don't identify the next page
+        if (!query.isKeyPaging()) {
+            result.setNextSortValues(null);
+        }
         return new MetricInfoListResultImpl(result);
     }
 
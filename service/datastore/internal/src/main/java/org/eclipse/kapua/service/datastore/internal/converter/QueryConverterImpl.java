@@ -11,14 +11,18 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.datastore.internal.converter;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.kapua.service.datastore.client.DatamodelMappingException;
 import org.eclipse.kapua.service.datastore.client.QueryConverter;
 import org.eclipse.kapua.service.datastore.client.QueryMappingException;
 import org.eclipse.kapua.service.datastore.client.SchemaKeys;
 import org.eclipse.kapua.service.datastore.internal.AbstractStorableQuery;
+import org.eclipse.kapua.service.datastore.internal.model.query.SearchAfterKey;
 import org.eclipse.kapua.service.datastore.internal.schema.SchemaUtil;
+import org.eclipse.kapua.service.datastore.model.query.SortDirection;
 import org.eclipse.kapua.service.datastore.model.query.SortField;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -51,14 +55,28 @@ public class QueryConverterImpl implements QueryConverter {
         // sort
         ArrayNode sortNode = SchemaUtil.getArrayNode();
         List<SortField> sortFields = storableQuery.getSortFields();
+        Set<String> sortFieldNames = new HashSet<>();
         if (sortFields != null) {
             for (SortField field : sortFields) {
                 sortNode.add(SchemaUtil.getField(field.getField(), field.getSortDirection().name()));
+                sortFieldNames.add(field.getField());
             }
         }
-        // offset and limit settings
+        // the key fields make the sort order unique so the search after values identify a single object
+        // (not needed by the offset paging, so the plain queries don't pay the sort on the key fields)
+        if (storableQuery.isKeyPaging()) {
+            for (String keyField : storableQuery.getKeyFields()) {
+                if (!sortFieldNames.contains(keyField)) {
+                    sortNode.add(SchemaUtil.getField(keyField, SortDirection.ASC.name()));
+                }
+            }
+        }
+        // offset (or search after key) and limit settings
+        String searchAfter = storableQuery.getSearchAfter();
         Integer offset = storableQuery.getOffset();
-        if (offset != null) {
+        if (searchAfter != null) {
+            rootNode.set(SchemaKeys.KEY_SEARCH_AFTER, SearchAfterKey.decode(searchAfter));
+        } else if (offset != null) {
             rootNode.set(SchemaKeys.KEY_FROM, SchemaUtil.getNumericNode(offset));
         }
         Integer limit = storableQuery.getLimit();
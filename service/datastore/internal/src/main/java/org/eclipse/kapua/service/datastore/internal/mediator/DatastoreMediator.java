@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.datastore.internal.mediator;
 
 import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaPayload;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -37,6 +38,8 @@ import org.eclipse.kapua.service.datastore.model.ClientInfo;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MetricInfo;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -143,23 +146,43 @@ public class DatastoreMediator implements MessageStoreMediator,
             ClientException {
         // convert semantic channel to String
         String semanticChannel = message.getChannel() != null ? message.getChannel().toString() : "";
+        KapuaId scopeId = message.getScopeId();
+        String clientId = message.getClientId();
+
+        // the registry entries already stored (and cached) are skipped without computing their identifiers or building their objects
+        DatastoreCacheManager cacheManager = DatastoreCacheManager.getInstance();
+        LocalCache<RegistryIdKey, String> registryIdsCache = cacheManager.getRegistryIdsCache();
+
+        RegistryIdKey clientInfoKey = RegistryIdKey.ofClient(scopeId, clientId);
+        String clientInfoId = registryIdsCache.get(clientInfoKey);
+        if (clientInfoId == null) {
+            clientInfoId = ClientInfoField.getOrDeriveId(null, scopeId, clientId);
+            registryIdsCache.put(clientInfoKey, clientInfoId);
+        }
+        if (!cacheManager.getClientsCache().get(clientInfoId)) {
+            ClientInfoImpl clientInfo = new ClientInfoImpl(scopeId);
+            clientInfo.setClientId(clientId);
+            clientInfo.setId(new StorableIdImpl(clientInfoId));
+            clientInfo.setFirstMessageId(message.getDatastoreId());
+            clientInfo.setFirstMessageOn(message.getTimestamp());
+            clientInfoStoreFacade.upstore(clientInfo);
+        }
 
-        ClientInfoImpl clientInfo = new ClientInfoImpl(message.getScopeId());
-        clientInfo.setClientId(message.getClientId());
-        clientInfo.setId(new StorableIdImpl(ClientInfoField.getOrDeriveId(null, message.getScopeId(), message.getClientId())));
-        clientInfo.setFirstMessageId(message.getDatastoreId());
-        clientInfo.setFirstMessageOn(message.getTimestamp());
-        clientInfoStoreFacade.upstore(clientInfo);
-
-        ChannelInfoImpl channelInfo = new ChannelInfoImpl(message.getScopeId());
-        channelInfo.setClientId(message.getClientId());
-        channelInfo.setName(semanticChannel);
-        channelInfo.setFirstMessageId(message.getDatastoreId());
-        channelInfo.setFirstMessageOn(message.getTimestamp());
-        channelInfo.setId(new StorableIdImpl(ChannelInfoField.getOrDeriveId(null, channelInfo)));
-        clientInfo.setFirstMessageId(message.getDatastoreId());
-        clientInfo.setFirstMessageOn(message.getTimestamp());
-        channelInfoStoreFacade.upstore(channelInfo);
+        RegistryIdKey channelInfoKey = RegistryIdKey.ofChannel(scopeId, clientId, semanticChannel);
+        String channelInfoId = registryIdsCache.get(channelInfoKey);
+        if (channelInfoId == null) {
+            channelInfoId = ChannelInfoField.getOrDeriveId(null, scopeId, clientId, semanticChannel);
+            registryIdsCache.put(channelInfoKey, channelInfoId);
+        }
+        if (!cacheManager.getChannelsCache().get(channelInfoId)) {
+            ChannelInfoImpl channelInfo = new ChannelInfoImpl(scopeId);
+            channelInfo.setClientId(clientId);
+            channelInfo.setName(semanticChannel);
+            channelInfo.setFirstMessageId(message.getDatastoreId());
+            channelInfo.setFirstMessageOn(message.getTimestamp());
+            channelInfo.setId(new StorableIdImpl(channelInfoId));
+            channelInfoStoreFacade.upstore(channelInfo);
+        }
 
         KapuaPayload payload = message.getPayload();
         if (payload == null) {
@@ -171,21 +194,33 @@ public class DatastoreMediator implements MessageStoreMediator,
             return;
         }
 
-        int i = 0;
-        MetricInfoImpl[] messageMetrics = new MetricInfoImpl[metrics.size()];
+        LocalCache<String, Boolean> metricsCache = cacheManager.getMetricsCache();
+        List<MetricInfoImpl> messageMetrics = new ArrayList<>();
         for (Map.Entry<String, Object> entry : metrics.entrySet()) {
-            MetricInfoImpl metricInfo = new MetricInfoImpl(message.getScopeId());
-            metricInfo.setClientId(message.getClientId());
+            Class<?> metricType = entry.getValue().getClass();
+            RegistryIdKey metricInfoKey = RegistryIdKey.ofMetric(scopeId, clientId, semanticChannel, entry.getKey(), metricType);
+            String metricInfoId = registryIdsCache.get(metricInfoKey);
+            if (metricInfoId == null) {
+                metricInfoId = MetricInfoField.getOrDeriveId(null, scopeId, clientId, semanticChannel, entry.getKey(), metricType);
+                registryIdsCache.put(metricInfoKey, metricInfoId);
+            }
+            if (metricsCache.get(metricInfoId)) {
+                continue;
+            }
+            MetricInfoImpl metricInfo = new MetricInfoImpl(scopeId);
+            metricInfo.setClientId(clientId);
             metricInfo.setChannel(semanticChannel);
             metricInfo.setName(entry.getKey());
-            metricInfo.setMetricType(entry.getValue().getClass());
-            metricInfo.setId(new StorableIdImpl(MetricInfoField.getOrDeriveId(null, metricInfo)));
+            metricInfo.setMetricType(metricType);
+            metricInfo.setId(new StorableIdImpl(metricInfoId));
             metricInfo.setFirstMessageId(message.getDatastoreId());
             metricInfo.setFirstMessageOn(message.getTimestamp());
-            messageMetrics[i++] = metricInfo;
+            messageMetrics.add(metricInfo);
         }
 
-        metricInfoStoreFacade.upstore(messageMetrics);
+        if (!messageMetrics.isEmpty()) {
+            metricInfoStoreFacade.upstore(messageMetrics.toArray(new MetricInfoImpl[messageMetrics.size()]));
+        }
     }
 
     /*
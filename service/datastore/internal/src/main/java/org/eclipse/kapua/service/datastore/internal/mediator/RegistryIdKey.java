@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.mediator;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+import org.eclipse.kapua.model.id.KapuaId;
+
+/**
+ * Identity of a registry entry (client, channel or metric information), used as key of the registry identifiers cache.<br>
+ * The registry identifiers are derived by hashing these same components, so the key allows to look the identifier up without computing the hash again.
+ *
+ * @since 1.1.0
+ */
+public final class RegistryIdKey {
+
+    private final BigInteger scopeId;
+    private final String clientId;
+    private final String channel;
+    private final String metricName;
+    private final Class<?> metricType;
+    private final int hashCode;
+
+    private RegistryIdKey(KapuaId scopeId, String clientId, String channel, String metricName, Class<?> metricType) {
+        // the raw id is used since the KapuaId implementations don't share the same hash code
+        this.scopeId = scopeId.getId();
+        this.clientId = clientId;
+        this.channel = channel;
+        this.metricName = metricName;
+        this.metricType = metricType;
+        this.hashCode = Objects.hash(this.scopeId, clientId, channel, metricName, metricType);
+    }
+
+    /**
+     * Get the client information key
+     *
+     * @param scopeId
+     * @param clientId
+     * @return
+     */
+    public static RegistryIdKey ofClient(KapuaId scopeId, String clientId) {
+        return new RegistryIdKey(scopeId, clientId, null, null, null);
+    }
+
+    /**
+     * Get the channel information key
+     *
+     * @param scopeId
+     * @param clientId
+     * @param channel
+     * @return
+     */
+    public static RegistryIdKey ofChannel(KapuaId scopeId, String clientId, String channel) {
+        return new RegistryIdKey(scopeId, clientId, channel, null, null);
+    }
+
+    /**
+     * Get the metric information key
+     *
+     * @param scopeId
+     * @param clientId
+     * @param channel
+     * @param metricName
+     * @param metricType
+     * @return
+     */
+    public static RegistryIdKey ofMetric(KapuaId scopeId, String clientId, String channel, String metricName, Class<?> metricType) {
+        return new RegistryIdKey(scopeId, clientId, channel, metricName, metricType);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RegistryIdKey)) {
+            return false;
+        }
+        RegistryIdKey other = (RegistryIdKey) obj;
+        return hashCode == other.hashCode &&
+                Objects.equals(scopeId, other.scopeId) &&
+                Objects.equals(clientId, other.clientId) &&
+                Objects.equals(channel, other.channel) &&
+                Objects.equals(metricName, other.metricName) &&
+                metricType == other.metricType;
+    }
+
+}
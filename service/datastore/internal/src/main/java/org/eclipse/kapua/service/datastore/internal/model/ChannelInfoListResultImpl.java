@@ -39,8 +39,7 @@ public class ChannelInfoListResultImpl extends AbstractStorableListResult<Channe
      * @param resultList
      */
     public ChannelInfoListResultImpl(ResultList<ChannelInfo> resultList) {
-        addItems(resultList.getResult());
-        setTotalCount(resultList.getTotalCount());
+        super(resultList);
     }
 
 }
@@ -39,8 +39,7 @@ public class ClientInfoListResultImpl extends AbstractStorableListResult<ClientI
      * @param resultList
      */
     public ClientInfoListResultImpl(ResultList<ClientInfo> resultList) {
-        addItems(resultList.getResult());
-        setTotalCount(resultList.getTotalCount());
+        super(resultList);
     }
 
 }
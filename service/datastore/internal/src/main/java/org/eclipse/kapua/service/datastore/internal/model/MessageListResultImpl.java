@@ -39,8 +39,7 @@ public class MessageListResultImpl extends AbstractStorableListResult<DatastoreM
      * @param resultList
      */
     public MessageListResultImpl(ResultList<DatastoreMessage> resultList) {
-        addItems(resultList.getResult());
-        setTotalCount(resultList.getTotalCount());
+        super(resultList);
     }
 
 }
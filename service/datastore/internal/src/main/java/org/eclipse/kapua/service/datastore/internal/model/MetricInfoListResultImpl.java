@@ -39,8 +39,7 @@ public class MetricInfoListResultImpl extends AbstractStorableListResult<MetricI
      * @param resultList
      */
     public MetricInfoListResultImpl(ResultList<MetricInfo> resultList) {
-        addItems(resultList.getResult());
-        setTotalCount(resultList.getTotalCount());
+        super(resultList);
     }
 
 }
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.eclipse.kapua.service.datastore.client.model.ResultList;
 import org.eclipse.kapua.service.datastore.model.Storable;
 import org.eclipse.kapua.service.datastore.model.StorableListResult;
 
@@ -72,6 +73,19 @@ public class AbstractStorableListResult<E extends Storable> implements StorableL
         this.totalCount = totalCount;
     }
 
+    /**
+     * Construct a result list from the datastore client result list.<br>
+     * The next key is set to the search after key of the next page (if any).
+     * 
+     * @param resultList
+     * 
+     * @since 1.1.0
+     */
+    protected AbstractStorableListResult(ResultList<E> resultList) {
+        this(SearchAfterKey.encode(resultList.getNextSortValues()), resultList.getTotalCount());
+        addItems(resultList.getResult());
+    }
+
     @Override
     public boolean isLimitExceeded() {
         return limitExceeded;
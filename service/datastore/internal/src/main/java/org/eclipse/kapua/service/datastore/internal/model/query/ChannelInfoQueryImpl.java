@@ -56,4 +56,10 @@ public class ChannelInfoQueryImpl extends AbstractStorableQuery<ChannelInfo> imp
                 ChannelInfoField.CLIENT_ID.field() };
     }
 
+    @Override
+    public String[] getKeyFields() {
+        return new String[] { ChannelInfoField.CLIENT_ID.field(),
+                ChannelInfoField.CHANNEL.field() };
+    }
+
 }
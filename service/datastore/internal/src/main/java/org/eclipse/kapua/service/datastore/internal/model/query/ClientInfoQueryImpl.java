@@ -54,4 +54,9 @@ public class ClientInfoQueryImpl extends AbstractStorableQuery<ClientInfo> imple
                 ClientInfoField.MESSAGE_ID.field() };
     }
 
+    @Override
+    public String[] getKeyFields() {
+        return new String[] { ClientInfoField.CLIENT_ID.field() };
+    }
+
 }
@@ -83,4 +83,9 @@ public class MessageQueryImpl extends AbstractStorableQuery<DatastoreMessage> im
                 MessageField.TIMESTAMP.field() };
     }
 
+    @Override
+    public String[] getKeyFields() {
+        return new String[] { MessageField.MESSAGE_ID.field() };
+    }
+
 }
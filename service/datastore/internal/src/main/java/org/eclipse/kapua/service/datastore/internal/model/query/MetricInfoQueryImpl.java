@@ -57,4 +57,12 @@ public class MetricInfoQueryImpl extends AbstractStorableQuery<MetricInfo> imple
                 MetricInfoField.MESSAGE_ID_FULL.field() };
     }
 
+    @Override
+    public String[] getKeyFields() {
+        return new String[] { MetricInfoField.CLIENT_ID.field(),
+                MetricInfoField.CHANNEL.field(),
+                MetricInfoField.NAME_FULL.field(),
+                MetricInfoField.TYPE_FULL.field() };
+    }
+
 }
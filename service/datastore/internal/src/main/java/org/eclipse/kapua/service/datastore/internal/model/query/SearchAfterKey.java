@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.model.query;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+import org.eclipse.kapua.service.datastore.client.QueryMappingException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Search after key codec.<br>
+ * The key is the (opaque) url safe Base64 encoding of the sort values of the last object of a page, serialized as Json array.
+ *
+ * @since 1.1.0
+ */
+public final class SearchAfterKey {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SearchAfterKey() {
+    }
+
+    /**
+     * Encode the sort values as search after key
+     *
+     * @param sortValues
+     * @return the encoded key (null if the sort values are null or empty)
+     */
+    public static String encode(List<Object> sortValues) {
+        if (sortValues == null || sortValues.isEmpty()) {
+            return null;
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(sortValues));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot encode the search after key", e);
+        }
+    }
+
+    /**
+     * Decode the search after key as sort values
+     *
+     * @param key
+     * @return
+     * @throws QueryMappingException
+     *             if the key is not a valid search after key
+     */
+    public static ArrayNode decode(String key) throws QueryMappingException {
+        try {
+            JsonNode sortValues = MAPPER.readTree(Base64.getUrlDecoder().decode(key));
+            if (sortValues == null || !sortValues.isArray() || sortValues.size() == 0) {
+                throw new QueryMappingException(String.format("Invalid search after key '%s'", key));
+            }
+            return (ArrayNode) sortValues;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new QueryMappingException(String.format("Invalid search after key '%s'", key), e);
+        }
+    }
+
+}
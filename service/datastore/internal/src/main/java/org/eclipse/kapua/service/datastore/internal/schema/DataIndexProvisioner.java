@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheManager;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingKey;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data index provisioner.<br>
+ * Creates, ahead of the indexing window rollover, the data index of the next window for the scopes that are currently storing messages,
+ * seeding it with the message mappings already known for the current window.<br>
+ * This way the first messages of the new window don't pay the index creation and the dynamic mappings update.
+ *
+ * @since 1.1.0
+ */
+class DataIndexProvisioner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataIndexProvisioner.class);
+
+    private static final String METRIC_COMPONENT_NAME = "datastore";
+
+    // granularity (in milliseconds) of the scope activity tracking
+    private static final long ACTIVITY_GRANULARITY = 1000;
+
+    // precision (in milliseconds) of the window start lookup
+    private static final long WINDOW_START_PRECISION = 1000;
+
+    // how long (in milliseconds) the stop waits for the provisioning in progress
+    private static final long STOP_TIMEOUT = 10000;
+
+    private static final Set<DataIndexProvisioner> STARTED_PROVISIONERS = ConcurrentHashMap.newKeySet();
+
+    private final Schema schema;
+    private final long period;
+    private final long leadTime;
+
+    private final Map<KapuaId, Long> activeScopes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final Counter metricProvisionedCount;
+    private final Counter metricProvisioningErrorCount;
+    private final Counter metricMissedCount;
+    private final Histogram metricProvisioningLead;
+    private final Timer metricProvisioningTime;
+
+    /**
+     * Constructs the data index provisioner
+     *
+     * @param schema
+     *            the schema used to create the indexes and the mappings
+     * @param period
+     *            the provisioning check period (in milliseconds)
+     * @param leadTime
+     *            how long (in milliseconds) before the window rollover the next data index is provisioned
+     */
+    DataIndexProvisioner(Schema schema, long period, long leadTime) {
+        this.schema = schema;
+        this.period = period;
+        this.leadTime = leadTime;
+
+        MetricsService metricService = MetricServiceFactory.getInstance();
+        metricProvisionedCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "index", "provisioning", "provisioned", "count");
+        metricProvisioningErrorCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "index", "provisioning", "error", "count");
+        metricMissedCount = metricService.getCounter(METRIC_COMPONENT_NAME, "datastore", "index", "provisioning", "missed", "count");
+        metricProvisioningLead = metricService.getHistogram(METRIC_COMPONENT_NAME, "datastore", "index", "provisioning", "lead", "ms");
+        metricProvisioningTime = metricService.getTimer(METRIC_COMPONENT_NAME, "datastore", "index", "provisioning", "time", "s");
+    }
+
+    /**
+     * Start the periodic provisioning
+     */
+    synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datastore-index-provisioner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> provision(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+        STARTED_PROVISIONERS.add(this);
+    }
+
+    /**
+     * Stop the periodic provisioning, waiting for the provisioning in progress (if any)
+     */
+    synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        STARTED_PROVISIONERS.remove(this);
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(STOP_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Data index provisioning still in progress after {} ms", STOP_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted waiting for the data index provisioning in progress");
+        } finally {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Stop all the provisioners not stopped yet (see {@link Schema#stopDataIndexProvisioning()})
+     */
+    static void stopAll() {
+        for (DataIndexProvisioner provisioner : STARTED_PROVISIONERS) {
+            provisioner.stop();
+        }
+    }
+
+    /**
+     * Track the scope as storing messages
+     *
+     * @param scopeId
+     */
+    void onScopeActivity(KapuaId scopeId) {
+        onScopeActivity(scopeId, System.currentTimeMillis());
+    }
+
+    void onScopeActivity(KapuaId scopeId, long now) {
+        Long lastActivity = activeScopes.get(scopeId);
+        if (lastActivity == null || now - lastActivity > ACTIVITY_GRANULARITY) {
+            activeScopes.put(scopeId, now);
+        }
+    }
+
+    /**
+     * Track a data index created by the message store path (so not provisioned in advance)
+     *
+     * @param dataIndexName
+     */
+    void onDataIndexMissed(String dataIndexName) {
+        metricMissedCount.inc();
+        LOG.debug("Data index '{}' not provisioned in advance", dataIndexName);
+    }
+
+    void provision(long now) {
+        String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+        Iterator<Entry<KapuaId, Long>> iterator = activeScopes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<KapuaId, Long> activeScope = iterator.next();
+            // the scopes not storing messages since the lead time won't need a new index at the rollover
+            if (now - activeScope.getValue() > leadTime) {
+                iterator.remove();
+                continue;
+            }
+            try {
+                provision(activeScope.getKey(), now, indexingWindowOption);
+            } catch (KapuaException | RuntimeException e) {
+                metricProvisioningErrorCount.inc();
+                LOG.warn("Cannot provision the next data index for scope '{}'", activeScope.getKey(), e);
+            }
+        }
+    }
+
+    private void provision(KapuaId scopeId, long now, String indexingWindowOption) throws KapuaException {
+        String currentIndexName = DatastoreUtils.getDataIndexName(scopeId, now, indexingWindowOption);
+        long nextWindowTime = now + leadTime;
+        String nextIndexName = DatastoreUtils.getDataIndexName(scopeId, nextWindowTime, indexingWindowOption);
+        if (currentIndexName.equals(nextIndexName) || DatastoreCacheManager.getInstance().getMetadataCache().get(nextIndexName) != null) {
+            return;
+        }
+
+        Map<String, Metric> knownMappings = new HashMap<>();
+        Context context = metricProvisioningTime.time();
+        try {
+            Metadata currentMetadata = DatastoreCacheManager.getInstance().getMetadataCache().get(currentIndexName);
+            if (currentMetadata != null) {
+                synchronized (currentMetadata) {
+                    knownMappings.putAll(currentMetadata.getMessageMappingsCache());
+                }
+            }
+            schema.synch(scopeId, nextWindowTime, true);
+            schema.updateMessageMappings(scopeId, nextWindowTime, knownMappings);
+        } finally {
+            context.stop();
+        }
+        metricProvisionedCount.inc();
+
+        long windowStart = findWindowStart(scopeId, now, nextWindowTime, indexingWindowOption);
+        metricProvisioningLead.update(windowStart - System.currentTimeMillis());
+        LOG.info("Data index provisioned: {} (with {} mappings)", nextIndexName, knownMappings.size());
+    }
+
+    /**
+     * Find the start of the indexing window following the one of the first instant
+     *
+     * @param scopeId
+     * @param from
+     *            an instant of the current window
+     * @param to
+     *            an instant of the next window
+     * @param indexingWindowOption
+     * @return the first instant of the next window (with a precision of one second)
+     * @throws KapuaException
+     */
+    static long findWindowStart(KapuaId scopeId, long from, long to, String indexingWindowOption) throws KapuaException {
+        // the index name changes once in the interval, so look for the first instant mapped to the next index
+        String currentIndexName = DatastoreUtils.getDataIndexName(scopeId, from, indexingWindowOption);
+        while (to - from > WINDOW_START_PRECISION) {
+            long middle = from + (to - from) / 2;
+            if (currentIndexName.equals(DatastoreUtils.getDataIndexName(scopeId, middle, indexingWindowOption))) {
+                from = middle;
+            } else {
+                to = middle;
+            }
+        }
+        return to;
+    }
+
+}
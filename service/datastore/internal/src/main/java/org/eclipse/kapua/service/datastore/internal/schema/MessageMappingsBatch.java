@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+
+/**
+ * Message mappings collected to be sent to the datastore with a single put mapping request
+ *
+ * @since 1.1.0
+ */
+class MessageMappingsBatch {
+
+    private final Map<String, Metric> metrics = new HashMap<>();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /**
+     * Get the metrics to be mapped
+     *
+     * @return
+     */
+    Map<String, Metric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the future completed once the put mapping request is done
+     *
+     * @return
+     */
+    CompletableFuture<Void> getFuture() {
+        return future;
+    }
+}
@@ -13,6 +13,7 @@ package org.eclipse.kapua.service.datastore.internal.schema;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 
@@ -35,6 +36,12 @@ public class Metadata {
     private Map<String, Metric> messageMappingsCache;
     //
 
+    // Custom mappings not yet confirmed by the datastore (guarded by this instance lock)
+    private final Map<String, CompletableFuture<Void>> pendingMessageMappings = new HashMap<>();
+    private MessageMappingsBatch nextMessageMappingsBatch;
+    private boolean messageMappingsFlushing;
+    //
+
     /**
      * Get the mappings cache
      * 
@@ -70,4 +77,54 @@ public class Metadata {
     public String getRegistryIndexName() {
         return registryIndexName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the futures of the mappings already scheduled (or in flight) but not yet confirmed
+     *
+     * @return
+     * @since 1.1.0
+     */
+    Map<String, CompletableFuture<Void>> getPendingMessageMappings() {
+        return pendingMessageMappings;
+    }
+
+    /**
+     * Get the mappings batch collecting the mappings to be sent by the next put mapping request
+     *
+     * @return
+     * @since 1.1.0
+     */
+    MessageMappingsBatch getNextMessageMappingsBatch() {
+        return nextMessageMappingsBatch;
+    }
+
+    /**
+     * Set the mappings batch collecting the mappings to be sent by the next put mapping request
+     *
+     * @param nextMessageMappingsBatch
+     * @since 1.1.0
+     */
+    void setNextMessageMappingsBatch(MessageMappingsBatch nextMessageMappingsBatch) {
+        this.nextMessageMappingsBatch = nextMessageMappingsBatch;
+    }
+
+    /**
+     * Check whether a thread is already sending the mappings batches
+     *
+     * @return
+     * @since 1.1.0
+     */
+    boolean isMessageMappingsFlushing() {
+        return messageMappingsFlushing;
+    }
+
+    /**
+     * Set whether a thread is already sending the mappings batches
+     *
+     * @param messageMappingsFlushing
+     * @since 1.1.0
+     */
+    void setMessageMappingsFlushing(boolean messageMappingsFlushing) {
+        this.messageMappingsFlushing = messageMappingsFlushing;
+    }
+}
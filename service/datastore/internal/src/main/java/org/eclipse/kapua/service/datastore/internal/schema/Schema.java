@@ -16,6 +16,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
 import org.eclipse.kapua.service.datastore.client.ClientException;
 import org.eclipse.kapua.service.datastore.client.DatamodelMappingException;
 import org.eclipse.kapua.service.datastore.client.DatastoreClient;
@@ -34,9 +35,13 @@ import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Datastore schema creation/update
@@ -47,10 +52,33 @@ public class Schema {
 
     private static final Logger LOG = LoggerFactory.getLogger(Schema.class);
 
+    private static final Map<String, CompletableFuture<Metadata>> PENDING_DATA_INDEX_SYNCH = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<String>> PENDING_REGISTRY_INDEX_SYNCH = new ConcurrentHashMap<>();
+
+    private final DataIndexProvisioner dataIndexProvisioner;
+
     /**
      * Construct the Elasticsearch schema
      */
     public Schema() {
+        DatastoreSettings settings = DatastoreSettings.getInstance();
+        if (settings.getBoolean(DatastoreSettingKey.INDEX_PROVISIONING_ENABLED, false)) {
+            dataIndexProvisioner = new DataIndexProvisioner(this,
+                    settings.getLong(DatastoreSettingKey.INDEX_PROVISIONING_PERIOD, 60L) * 1000,
+                    settings.getLong(DatastoreSettingKey.INDEX_PROVISIONING_LEAD_TIME, 600L) * 1000);
+            dataIndexProvisioner.start();
+        } else {
+            dataIndexProvisioner = null;
+        }
+    }
+
+    /**
+     * Stop the next window data index provisioning of all the schemas (see {@link DatastoreSettingKey#INDEX_PROVISIONING_ENABLED})
+     *
+     * @since 1.1.0
+     */
+    public static void stopDataIndexProvisioning() {
+        DataIndexProvisioner.stopAll();
     }
 
     /**
@@ -63,6 +91,25 @@ public class Schema {
      */
     public Metadata synch(KapuaId scopeId, long time)
             throws ClientException {
+        if (dataIndexProvisioner != null) {
+            dataIndexProvisioner.onScopeActivity(scopeId);
+        }
+        return synch(scopeId, time, false);
+    }
+
+    /**
+     * Synchronize metadata
+     *
+     * @param scopeId
+     * @param time
+     * @param provisioning
+     *            true if the metadata is synchronized ahead of the index window by the data index provisioner
+     * @return
+     * @throws ClientException
+     * @since 1.1.0
+     */
+    Metadata synch(KapuaId scopeId, long time, boolean provisioning)
+            throws ClientException {
         String dataIndexName;
         try {
             String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
@@ -76,8 +123,14 @@ public class Schema {
             return currentMetadata;
         }
 
-        LOG.debug("Before entering updating metadata");
-        synchronized (Schema.class) {
+        // only one thread per index performs the update, the other threads for the same index wait for its outcome
+        // while the updates of different indexes (so different accounts) run concurrently
+        return singleFlight(PENDING_DATA_INDEX_SYNCH, dataIndexName, () -> {
+            Metadata metadata = DatastoreCacheManager.getInstance().getMetadataCache().get(dataIndexName);
+            if (metadata != null) {
+                return metadata;
+            }
+
             LOG.debug("Entered updating metadata");
             DatastoreClient datastoreClient = DatastoreClientFactory.getInstance();
             // Check existence of the data index
@@ -85,6 +138,9 @@ public class Schema {
             if (!dataIndexExistsResponse.isIndexExists()) {
                 datastoreClient.createIndex(dataIndexName, getMappingSchema(dataIndexName));
                 LOG.info("Data index created: " + dataIndexName);
+                if (dataIndexProvisioner != null && !provisioning) {
+                    dataIndexProvisioner.onDataIndexMissed(dataIndexName);
+                }
             }
 
             boolean enableAllField = false;
@@ -92,32 +148,38 @@ public class Schema {
 
             datastoreClient.putMapping(new TypeDescriptor(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME), MessageSchema.getMesageTypeSchema(enableAllField, enableSourceField));
             // Check existence of the kapua internal index
+            // (shared by the data indexes of the same account, so it's updated by one thread at time too)
             String registryIndexName = DatastoreUtils.getRegistryIndexName(scopeId);
-            IndexResponse registryIndexExistsResponse = datastoreClient.isIndexExists(new IndexRequest(registryIndexName));
-            if (!registryIndexExistsResponse.isIndexExists()) {
-                datastoreClient.createIndex(registryIndexName, getMappingSchema(registryIndexName));
-                LOG.info("Metadata index created: " + registryIndexExistsResponse);
-
-                datastoreClient.putMapping(new TypeDescriptor(registryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME), ChannelInfoSchema.getChannelTypeSchema(enableAllField, enableSourceField));
-                datastoreClient.putMapping(new TypeDescriptor(registryIndexName, MetricInfoSchema.METRIC_TYPE_NAME), MetricInfoSchema.getMetricTypeSchema(enableAllField, enableSourceField));
-                datastoreClient.putMapping(new TypeDescriptor(registryIndexName, ClientInfoSchema.CLIENT_TYPE_NAME), ClientInfoSchema.getClientTypeSchema(enableAllField, enableSourceField));
-            }
+            singleFlight(PENDING_REGISTRY_INDEX_SYNCH, registryIndexName, () -> {
+                IndexResponse registryIndexExistsResponse = datastoreClient.isIndexExists(new IndexRequest(registryIndexName));
+                if (!registryIndexExistsResponse.isIndexExists()) {
+                    datastoreClient.createIndex(registryIndexName, getMappingSchema(registryIndexName));
+                    LOG.info("Metadata index created: " + registryIndexExistsResponse);
+
+                    datastoreClient.putMapping(new TypeDescriptor(registryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME), ChannelInfoSchema.getChannelTypeSchema(enableAllField, enableSourceField));
+                    datastoreClient.putMapping(new TypeDescriptor(registryIndexName, MetricInfoSchema.METRIC_TYPE_NAME), MetricInfoSchema.getMetricTypeSchema(enableAllField, enableSourceField));
+                    datastoreClient.putMapping(new TypeDescriptor(registryIndexName, ClientInfoSchema.CLIENT_TYPE_NAME), ClientInfoSchema.getClientTypeSchema(enableAllField, enableSourceField));
+                }
+                return registryIndexName;
+            });
 
-            currentMetadata = new Metadata(dataIndexName, registryIndexName);
+            metadata = new Metadata(dataIndexName, registryIndexName);
             LOG.debug("Leaving updating metadata");
-        }
-
-        // Current metadata can only increase the custom mappings
-        // other fields does not change within the same account id
-        // and custom mappings are not and must not be exposed to
-        // outside this class to preserve thread safetyness
-        DatastoreCacheManager.getInstance().getMetadataCache().put(dataIndexName, currentMetadata);
 
-        return currentMetadata;
+            // Current metadata can only increase the custom mappings
+            // other fields does not change within the same account id
+            // and custom mappings are not and must not be exposed to
+            // outside this class to preserve thread safetyness
+            DatastoreCacheManager.getInstance().getMetadataCache().put(dataIndexName, metadata);
+            return metadata;
+        });
     }
 
     /**
-     * Update metric mappings
+     * Update metric mappings.<br>
+     * The new mappings are collected per index and the ones collected while a put mapping request is in flight are sent together by the following request,
+     * so the mappings of an index never wait for the mappings of another index.<br>
+     * The method returns once all the provided mappings are confirmed by the datastore.
      *
      * @param scopeId
      * @param time
@@ -129,29 +191,124 @@ public class Schema {
         if (metrics == null || metrics.size() == 0) {
             return;
         }
-        String newIndex;
-        try {
-            String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
-            newIndex = DatastoreUtils.getDataIndexName(scopeId, time, indexingWindowOption);
-        } catch (KapuaException kaex) {
-            throw new ClientException(DatastoreErrorCodes.CONFIGURATION_ERROR, "Error while generating index name", kaex);
-        }
-        Metadata currentMetadata = DatastoreCacheManager.getInstance().getMetadataCache().get(newIndex);
-
-        ObjectNode metricsMapping = null;
-        Map<String, Metric> diffs = null;
+        updateMessageMappings(synch(scopeId, time), metrics);
+    }
 
-        synchronized (Schema.class) {
+    void updateMessageMappings(Metadata currentMetadata, Map<String, Metric> metrics)
+            throws ClientException {
+        Set<CompletableFuture<Void>> mappingFutures = new HashSet<>();
+        boolean flush;
+        synchronized (currentMetadata) {
             // Update mappings only if a metric is new (not in cache)
-            diffs = getMessageMappingDiffs(currentMetadata, metrics);
-            if (diffs == null || diffs.isEmpty()) {
+            for (Entry<String, Metric> metric : metrics.entrySet()) {
+                if (currentMetadata.getMessageMappingsCache().containsKey(metric.getKey())) {
+                    continue;
+                }
+                CompletableFuture<Void> mappingFuture = currentMetadata.getPendingMessageMappings().get(metric.getKey());
+                if (mappingFuture == null) {
+                    MessageMappingsBatch batch = currentMetadata.getNextMessageMappingsBatch();
+                    if (batch == null) {
+                        batch = new MessageMappingsBatch();
+                        currentMetadata.setNextMessageMappingsBatch(batch);
+                    }
+                    batch.getMetrics().put(metric.getKey(), metric.getValue());
+                    mappingFuture = batch.getFuture();
+                    currentMetadata.getPendingMessageMappings().put(metric.getKey(), mappingFuture);
+                }
+                mappingFutures.add(mappingFuture);
+            }
+            if (mappingFutures.isEmpty()) {
                 return;
             }
-            metricsMapping = getNewMessageMappingsBuilder(diffs);
+            flush = !currentMetadata.isMessageMappingsFlushing();
+            currentMetadata.setMessageMappingsFlushing(true);
         }
 
-        LOG.trace("Sending dynamic message mappings: " + metricsMapping);
-        DatastoreClientFactory.getInstance().putMapping(new TypeDescriptor(currentMetadata.getDataIndexName(), MessageSchema.MESSAGE_TYPE_NAME), metricsMapping);
+        if (flush) {
+            flushMessageMappings(currentMetadata);
+        }
+        for (CompletableFuture<Void> mappingFuture : mappingFutures) {
+            await(mappingFuture);
+        }
+    }
+
+    private void flushMessageMappings(Metadata metadata) {
+        while (true) {
+            MessageMappingsBatch batch;
+            synchronized (metadata) {
+                batch = metadata.getNextMessageMappingsBatch();
+                metadata.setNextMessageMappingsBatch(null);
+                if (batch == null) {
+                    metadata.setMessageMappingsFlushing(false);
+                    return;
+                }
+            }
+            try {
+                ObjectNode metricsMapping = getNewMessageMappingsBuilder(batch.getMetrics());
+                LOG.trace("Sending dynamic message mappings: " + metricsMapping);
+                putMessageMapping(new TypeDescriptor(metadata.getDataIndexName(), MessageSchema.MESSAGE_TYPE_NAME), metricsMapping);
+                synchronized (metadata) {
+                    metadata.getMessageMappingsCache().putAll(batch.getMetrics());
+                    metadata.getPendingMessageMappings().keySet().removeAll(batch.getMetrics().keySet());
+                }
+                batch.getFuture().complete(null);
+            } catch (ClientException | RuntimeException e) {
+                // not cached, so the mappings will be sent again by the next message
+                synchronized (metadata) {
+                    metadata.getPendingMessageMappings().keySet().removeAll(batch.getMetrics().keySet());
+                }
+                batch.getFuture().completeExceptionally(e);
+            }
+        }
+    }
+
+    void putMessageMapping(TypeDescriptor typeDescriptor, ObjectNode mapping) throws ClientException {
+        DatastoreClientFactory.getInstance().putMapping(typeDescriptor, mapping);
+    }
+
+    static <T> T singleFlight(Map<String, CompletableFuture<T>> pendingOperations, String key, SchemaOperation<T> operation) throws ClientException {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> pendingOperation = pendingOperations.putIfAbsent(key, future);
+        if (pendingOperation != null) {
+            return await(pendingOperation);
+        }
+        try {
+            T result = operation.execute();
+            future.complete(result);
+            return result;
+        } catch (ClientException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingOperations.remove(key, future);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws ClientException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClientException) {
+                throw (ClientException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR, e);
+        }
+    }
+
+    /**
+     * Schema operation performed by a single thread per key
+     *
+     * @param <T>
+     */
+    @FunctionalInterface
+    interface SchemaOperation<T> {
+
+        T execute() throws ClientException;
     }
 
     private ObjectNode getNewMessageMappingsBuilder(Map<String, Metric> esMetrics) throws DatamodelMappingException {
@@ -199,25 +356,6 @@ public class Schema {
         return typeNode;
     }
 
-    private Map<String, Metric> getMessageMappingDiffs(Metadata currentMetadata, Map<String, Metric> esMetrics) {
-        if (esMetrics == null || esMetrics.isEmpty()) {
-            return null;
-        }
-
-        Map<String, Metric> diffs = null;
-        for (Entry<String, Metric> esMetric : esMetrics.entrySet()) {
-            if (!currentMetadata.getMessageMappingsCache().containsKey(esMetric.getKey())) {
-                if (diffs == null) {
-                    diffs = new HashMap<>(100);
-                }
-                currentMetadata.getMessageMappingsCache().put(esMetric.getKey(), esMetric.getValue());
-                diffs.put(esMetric.getKey(), esMetric.getValue());
-            }
-        }
-
-        return diffs;
-    }
-
     private ObjectNode getMappingSchema(String idxName) throws DatamodelMappingException {
         String idxRefreshInterval = String.format("%ss", DatastoreSettings.getInstance().getLong(DatastoreSettingKey.INDEX_REFRESH_INTERVAL));
         Integer idxShardNumber = DatastoreSettings.getInstance().getInt(DatastoreSettingKey.INDEX_SHARD_NUMBER, 1);
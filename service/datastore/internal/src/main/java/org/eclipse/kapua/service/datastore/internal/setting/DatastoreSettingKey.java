@@ -38,6 +38,10 @@ public enum DatastoreSettingKey implements SettingKey {
      * Metadata cache maximum size
      */
     CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM("datastore.cache.metadata.local.size.maximum"),
+    /**
+     * Registry identifiers cache maximum size
+     */
+    CONFIG_CACHE_REGISTRY_IDS_LOCAL_SIZE_MAXIMUM("datastore.cache.registry.ids.local.size.maximum"),
     /**
      * Enable datastore timing profile
      */
@@ -69,7 +73,39 @@ public enum DatastoreSettingKey implements SettingKey {
     /**
      * Elasticsearch index width. Allowed values: "week", "day", "hour"
      */
-    INDEXING_WINDOW_OPTION("datastore.index.window");
+    INDEXING_WINDOW_OPTION("datastore.index.window"),
+    /**
+     * Enable the provisioning of the next window data indexes (ahead of the window rollover)
+     */
+    INDEX_PROVISIONING_ENABLED("datastore.index.provisioning.enabled"),
+    /**
+     * Data indexes provisioning - check period (in seconds)
+     */
+    INDEX_PROVISIONING_PERIOD("datastore.index.provisioning.period"),
+    /**
+     * Data indexes provisioning - how long (in seconds) before the window rollover the next data index is created
+     */
+    INDEX_PROVISIONING_LEAD_TIME("datastore.index.provisioning.lead_time"),
+    /**
+     * Enable the batched (bulk) message ingestion
+     */
+    INGEST_BATCH_ENABLED("datastore.ingest.batch.enabled"),
+    /**
+     * Batched ingestion - maximum messages count per bulk request
+     */
+    INGEST_BATCH_SIZE_MAX("datastore.ingest.batch.size_max"),
+    /**
+     * Batched ingestion - maximum (estimated) bytes per bulk request
+     */
+    INGEST_BATCH_BYTES_MAX("datastore.ingest.batch.bytes_max"),
+    /**
+     * Batched ingestion - maximum time (in milliseconds) a message waits before the bulk request is sent
+     */
+    INGEST_BATCH_DELAY_MAX("datastore.ingest.batch.delay_max"),
+    /**
+     * Batched ingestion - maximum time (in milliseconds) the store operation waits for the bulk request outcome
+     */
+    INGEST_BATCH_WAIT_TIMEOUT("datastore.ingest.batch.wait_timeout");
 
     private String key;
 
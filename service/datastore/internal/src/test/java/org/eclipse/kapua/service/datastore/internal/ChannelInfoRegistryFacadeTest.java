@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.client.ClientException;
+import org.eclipse.kapua.service.datastore.client.DatastoreClient;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoField;
+import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoRegistryMediator;
+import org.eclipse.kapua.service.datastore.internal.model.ChannelInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.model.StorableIdImpl;
+import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+@Category(JUnitTests.class)
+public class ChannelInfoRegistryFacadeTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+
+    private DatastoreClient client;
+    private ChannelInfoRegistryFacade facade;
+
+    @Before
+    public void setUp() throws Exception {
+        DatastoreCacheManager.getInstance().getChannelsCache().invalidateAll();
+
+        client = Mockito.mock(DatastoreClient.class);
+        Mockito.when(client.create(Matchers.any(BulkInsertRequest.class))).thenAnswer(invocation -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : ((BulkInsertRequest) invocation.getArguments()[0]).getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+            }
+            return bulkInsertResponse;
+        });
+
+        ChannelInfoRegistryMediator mediator = Mockito.mock(ChannelInfoRegistryMediator.class);
+        Mockito.when(mediator.getMetadata(Matchers.any(KapuaId.class), Matchers.anyLong())).thenReturn(new Metadata("2a-2019-01", "2a"));
+
+        facade = new ChannelInfoRegistryFacade(null, mediator, client);
+    }
+
+    @Test
+    public void testSecondStoreSkipsCreate() throws Exception {
+        facade.upstore(channelInfo("telemetry/temperature"));
+        facade.upstore(channelInfo("telemetry/temperature"));
+
+        Mockito.verify(client, Mockito.times(1)).create(Matchers.any(BulkInsertRequest.class));
+        String channelInfoId = ChannelInfoField.getOrDeriveId(null, SCOPE_ID, "client-1", "telemetry/temperature");
+        Assert.assertTrue(DatastoreCacheManager.getInstance().getChannelsCache().get(channelInfoId));
+    }
+
+    @Test
+    public void testOtherChannelIsCreated() throws Exception {
+        facade.upstore(channelInfo("telemetry/temperature"));
+        facade.upstore(channelInfo("telemetry/humidity"));
+
+        Mockito.verify(client, Mockito.times(2)).create(Matchers.any(BulkInsertRequest.class));
+    }
+
+    @Test
+    public void testFailedCreateIsNotCached() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : ((BulkInsertRequest) invocation.getArguments()[0]).getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor(), "mapper_parsing_exception"));
+            }
+            return bulkInsertResponse;
+        }).when(client).create(Matchers.any(BulkInsertRequest.class));
+
+        try {
+            facade.upstore(channelInfo("telemetry/temperature"));
+            Assert.fail("The failed create should be reported");
+        } catch (ClientException e) {
+            // expected
+        }
+
+        String channelInfoId = ChannelInfoField.getOrDeriveId(null, SCOPE_ID, "client-1", "telemetry/temperature");
+        Assert.assertFalse(DatastoreCacheManager.getInstance().getChannelsCache().get(channelInfoId));
+    }
+
+    private static ChannelInfoImpl channelInfo(String channel) {
+        ChannelInfoImpl channelInfo = new ChannelInfoImpl(SCOPE_ID);
+        channelInfo.setClientId("client-1");
+        channelInfo.setName(channel);
+        channelInfo.setFirstMessageId(new StorableIdImpl("message-1"));
+        channelInfo.setFirstMessageOn(new Date());
+        return channelInfo;
+    }
+}
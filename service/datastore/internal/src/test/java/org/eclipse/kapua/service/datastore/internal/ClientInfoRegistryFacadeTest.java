@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.client.ClientException;
+import org.eclipse.kapua.service.datastore.client.DatastoreClient;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoField;
+import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoRegistryMediator;
+import org.eclipse.kapua.service.datastore.internal.model.ClientInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.model.StorableIdImpl;
+import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+@Category(JUnitTests.class)
+public class ClientInfoRegistryFacadeTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+
+    private DatastoreClient client;
+    private ClientInfoRegistryFacade facade;
+
+    @Before
+    public void setUp() throws Exception {
+        DatastoreCacheManager.getInstance().getClientsCache().invalidateAll();
+
+        client = Mockito.mock(DatastoreClient.class);
+        Mockito.when(client.create(Matchers.any(BulkInsertRequest.class))).thenAnswer(invocation -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : ((BulkInsertRequest) invocation.getArguments()[0]).getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+            }
+            return bulkInsertResponse;
+        });
+
+        ClientInfoRegistryMediator mediator = Mockito.mock(ClientInfoRegistryMediator.class);
+        Mockito.when(mediator.getMetadata(Matchers.any(KapuaId.class), Matchers.anyLong())).thenReturn(new Metadata("2a-2019-01", "2a"));
+
+        facade = new ClientInfoRegistryFacade(null, mediator, client);
+    }
+
+    @Test
+    public void testSecondStoreSkipsCreate() throws Exception {
+        facade.upstore(clientInfo("client-1"));
+        facade.upstore(clientInfo("client-1"));
+
+        Mockito.verify(client, Mockito.times(1)).create(Matchers.any(BulkInsertRequest.class));
+        // the mediator looks the cache up by the derived client info id before building the client info
+        String clientInfoId = ClientInfoField.getOrDeriveId(null, SCOPE_ID, "client-1");
+        Assert.assertTrue(DatastoreCacheManager.getInstance().getClientsCache().get(clientInfoId));
+    }
+
+    @Test
+    public void testOtherClientIsCreated() throws Exception {
+        facade.upstore(clientInfo("client-1"));
+        facade.upstore(clientInfo("client-2"));
+
+        Mockito.verify(client, Mockito.times(2)).create(Matchers.any(BulkInsertRequest.class));
+    }
+
+    @Test
+    public void testFailedCreateIsNotCached() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : ((BulkInsertRequest) invocation.getArguments()[0]).getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor(), "mapper_parsing_exception"));
+            }
+            return bulkInsertResponse;
+        }).when(client).create(Matchers.any(BulkInsertRequest.class));
+
+        try {
+            facade.upstore(clientInfo("client-1"));
+            Assert.fail("The failed create should be reported");
+        } catch (ClientException e) {
+            // expected
+        }
+
+        String clientInfoId = ClientInfoField.getOrDeriveId(null, SCOPE_ID, "client-1");
+        Assert.assertFalse(DatastoreCacheManager.getInstance().getClientsCache().get(clientInfoId));
+    }
+
+    private static ClientInfoImpl clientInfo(String clientId) {
+        ClientInfoImpl clientInfo = new ClientInfoImpl(SCOPE_ID);
+        clientInfo.setClientId(clientId);
+        clientInfo.setFirstMessageId(new StorableIdImpl("message-1"));
+        clientInfo.setFirstMessageOn(new Date());
+        return clientInfo;
+    }
+}
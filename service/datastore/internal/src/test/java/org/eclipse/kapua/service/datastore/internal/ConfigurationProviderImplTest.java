@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.config.KapuaConfigurableService;
+import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Collections;
+
+@Category(JUnitTests.class)
+public class ConfigurationProviderImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(101));
+
+    private KapuaConfigurableService configurableService;
+    private AccountService accountService;
+    private Account account;
+    private ConfigurationProviderImpl configurationProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        configurableService = Mockito.mock(KapuaConfigurableService.class);
+        Mockito.when(configurableService.getConfigValues(Matchers.any(KapuaId.class)))
+                .thenReturn(Collections.singletonMap(MessageStoreConfiguration.CONFIGURATION_DATA_TTL_KEY, 42));
+        account = Mockito.mock(Account.class);
+        accountService = Mockito.mock(AccountService.class);
+        Mockito.when(accountService.find(SCOPE_ID)).thenReturn(account);
+        configurationProvider = new ConfigurationProviderImpl(configurableService, accountService);
+    }
+
+    @After
+    public void tearDown() {
+        DatastoreCacheManager.getInstance().invalidateConfiguration(SCOPE_ID);
+        DatastoreCacheManager.getInstance().invalidateConfiguration(OTHER_SCOPE_ID);
+    }
+
+    @Test
+    public void shouldCacheTheConfiguration() throws Exception {
+        MessageStoreConfiguration configuration = configurationProvider.getConfiguration(SCOPE_ID);
+        assertEquals(42, configuration.getDataTimeToLive());
+
+        // any KapuaId implementation with the same value hits the cache
+        KapuaId sameScopeId = () -> BigInteger.valueOf(100);
+        assertSame(configuration, configurationProvider.getConfiguration(sameScopeId));
+        Mockito.verify(configurableService).getConfigValues(Matchers.any(KapuaId.class));
+    }
+
+    @Test
+    public void shouldCacheTheAccount() throws Exception {
+        assertSame(account, configurationProvider.getInfo(SCOPE_ID).getAccount());
+        assertSame(account, configurationProvider.getInfo(SCOPE_ID).getAccount());
+
+        Mockito.verify(accountService).find(SCOPE_ID);
+    }
+
+    @Test
+    public void shouldNotCacheTheMissingAccount() throws Exception {
+        assertNull(configurationProvider.getInfo(OTHER_SCOPE_ID).getAccount());
+        assertNull(configurationProvider.getInfo(OTHER_SCOPE_ID).getAccount());
+
+        Mockito.verify(accountService, Mockito.times(2)).find(OTHER_SCOPE_ID);
+    }
+
+    @Test
+    public void shouldInvalidateTheScope() throws Exception {
+        configurationProvider.getConfiguration(SCOPE_ID);
+        configurationProvider.getInfo(SCOPE_ID);
+        configurationProvider.getConfiguration(OTHER_SCOPE_ID);
+
+        DatastoreCacheManager.getInstance().invalidateConfiguration(SCOPE_ID);
+
+        configurationProvider.getConfiguration(SCOPE_ID);
+        configurationProvider.getInfo(SCOPE_ID);
+        configurationProvider.getConfiguration(OTHER_SCOPE_ID);
+        Mockito.verify(configurableService, Mockito.times(2)).getConfigValues(SCOPE_ID);
+        Mockito.verify(configurableService).getConfigValues(OTHER_SCOPE_ID);
+        Mockito.verify(accountService, Mockito.times(2)).find(SCOPE_ID);
+    }
+
+    @Test
+    public void shouldInvalidateOnTheRemoteChanges() throws Exception {
+        DatastoreServiceModule serviceModule = new DatastoreServiceModule();
+
+        // the account id is the configuration scope
+        configurationProvider.getConfiguration(SCOPE_ID);
+        serviceModule.received(changeEvent("Account", null, SCOPE_ID));
+        configurationProvider.getConfiguration(SCOPE_ID);
+
+        // the service configuration is in the configuration scope
+        serviceModule.received(changeEvent("ServiceConfig", SCOPE_ID, new KapuaEid(BigInteger.valueOf(200))));
+        configurationProvider.getConfiguration(SCOPE_ID);
+
+        // the other entities are ignored
+        serviceModule.received(changeEvent("Device", SCOPE_ID, SCOPE_ID));
+        configurationProvider.getConfiguration(SCOPE_ID);
+
+        Mockito.verify(configurableService, Mockito.times(3)).getConfigValues(SCOPE_ID);
+    }
+
+    private static ServiceEvent changeEvent(String entityType, KapuaId scopeId, KapuaId entityId) {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setOperation(EntityCache.INVALIDATE_OPERATION);
+        serviceEvent.setEntityType(entityType);
+        serviceEvent.setScopeId(scopeId);
+        serviceEvent.setEntityId(entityId);
+        return serviceEvent;
+    }
+
+}
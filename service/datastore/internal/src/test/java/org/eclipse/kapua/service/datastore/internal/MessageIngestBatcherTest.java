@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.service.datastore.client.ClientCommunicationException;
+import org.eclipse.kapua.service.datastore.client.DatastoreClient;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class MessageIngestBatcherTest {
+
+    private static final TypeDescriptor TYPE_DESCRIPTOR = new TypeDescriptor("1-2019-01", "message");
+
+    private DatastoreClient client;
+    private List<Integer> bulkSizes;
+    private Set<String> failingIds;
+    private ExecutorService callers;
+    private MessageIngestBatcher batcher;
+
+    @Before
+    public void setUp() throws Exception {
+        bulkSizes = Collections.synchronizedList(new ArrayList<>());
+        failingIds = Collections.synchronizedSet(new HashSet<>());
+        client = Mockito.mock(DatastoreClient.class);
+        Mockito.when(client.insert(Matchers.any(BulkInsertRequest.class))).thenAnswer(invocation -> {
+            BulkInsertRequest bulkInsertRequest = (BulkInsertRequest) invocation.getArguments()[0];
+            bulkSizes.add(bulkInsertRequest.getRequest().size());
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                if (failingIds.contains(insertRequest.getId())) {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), TYPE_DESCRIPTOR, "mapper_parsing_exception"));
+                } else {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), TYPE_DESCRIPTOR));
+                }
+            }
+            return bulkInsertResponse;
+        });
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testSizeThreshold() throws Exception {
+        batcher = new MessageIngestBatcher(client, 3, Long.MAX_VALUE, 60000, 5000);
+
+        List<Future<InsertResponse>> responses = insert(3, 10);
+
+        for (int i = 0; i < responses.size(); i++) {
+            Assert.assertEquals("id-" + i, responses.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        Assert.assertEquals(Collections.singletonList(3), bulkSizes);
+    }
+
+    @Test
+    public void testBytesThreshold() throws Exception {
+        batcher = new MessageIngestBatcher(client, 100, 1000, 60000, 5000);
+
+        List<Future<InsertResponse>> responses = insert(2, 600);
+
+        for (Future<InsertResponse> response : responses) {
+            Assert.assertTrue(response.get(5, TimeUnit.SECONDS).isResult());
+        }
+        Assert.assertEquals(Collections.singletonList(2), bulkSizes);
+    }
+
+    @Test
+    public void testTimeThreshold() throws Exception {
+        batcher = new MessageIngestBatcher(client, 100, Long.MAX_VALUE, 50, 5000);
+
+        long start = System.currentTimeMillis();
+        InsertResponse response = batcher.insert(insertRequest("id-0"), 10);
+
+        Assert.assertTrue(response.isResult());
+        Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+        Assert.assertEquals(Collections.singletonList(1), bulkSizes);
+    }
+
+    @Test
+    public void testItemFailure() throws Exception {
+        batcher = new MessageIngestBatcher(client, 2, Long.MAX_VALUE, 60000, 5000);
+        failingIds.add("id-1");
+
+        List<Future<InsertResponse>> responses = insert(2, 10);
+
+        Assert.assertTrue(responses.get(0).get(5, TimeUnit.SECONDS).isResult());
+        try {
+            responses.get(1).get(5, TimeUnit.SECONDS);
+            Assert.fail("The failed item must be reported to its caller");
+        } catch (ExecutionException e) {
+            // the communication exceptions route the message to the communication error queue
+            Assert.assertTrue(e.getCause() instanceof ClientCommunicationException);
+        }
+        Assert.assertEquals(Collections.singletonList(2), bulkSizes);
+    }
+
+    @Test
+    public void testCloseFlushesBufferedItems() throws Exception {
+        batcher = new MessageIngestBatcher(client, 100, Long.MAX_VALUE, 60000, 5000);
+
+        List<Future<InsertResponse>> responses = insert(2, 10);
+        Thread.sleep(200);
+        Assert.assertTrue(bulkSizes.isEmpty());
+
+        batcher.close();
+
+        for (Future<InsertResponse> response : responses) {
+            Assert.assertTrue(response.get(5, TimeUnit.SECONDS).isResult());
+        }
+        Assert.assertEquals(Collections.singletonList(2), bulkSizes);
+
+        // once closed the items are stored without waiting for the thresholds
+        Assert.assertTrue(batcher.insert(insertRequest("id-2"), 10).isResult());
+        Assert.assertEquals(2, bulkSizes.size());
+    }
+
+    /**
+     * Insert the items from different threads, in order
+     */
+    private List<Future<InsertResponse>> insert(int count, long estimatedSize) throws InterruptedException {
+        List<Future<InsertResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InsertRequest insertRequest = insertRequest("id-" + i);
+            responses.add(callers.submit(() -> batcher.insert(insertRequest, estimatedSize)));
+            // let the item be buffered before the next one
+            Thread.sleep(50);
+        }
+        return responses;
+    }
+
+    private static InsertRequest insertRequest(String id) {
+        return new InsertRequest(id, TYPE_DESCRIPTOR, new Object());
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.client.DatastoreClient;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.BulkUpdateResponse;
+import org.eclipse.kapua.service.datastore.client.model.InsertRequest;
+import org.eclipse.kapua.service.datastore.client.model.InsertResponse;
+import org.eclipse.kapua.service.datastore.client.model.UpdateResponse;
+import org.eclipse.kapua.service.datastore.internal.mediator.MetricInfoField;
+import org.eclipse.kapua.service.datastore.internal.mediator.MetricInfoRegistryMediator;
+import org.eclipse.kapua.service.datastore.internal.model.MetricInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.model.StorableIdImpl;
+import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
+import org.eclipse.kapua.service.datastore.model.MetricInfo;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class MetricInfoRegistryFacadeTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+
+    private DatastoreClient client;
+    private MetricInfoRegistryFacade facade;
+
+    @Before
+    public void setUp() throws Exception {
+        DatastoreCacheManager.getInstance().getMetricsCache().invalidateAll();
+
+        // the metric named "failing" fails, the other ones are created (or found already existing) by the datastore client
+        client = Mockito.mock(DatastoreClient.class);
+        Mockito.when(client.create(Matchers.any(BulkInsertRequest.class))).thenAnswer(invocation -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : ((BulkInsertRequest) invocation.getArguments()[0]).getRequest()) {
+                if ("failing".equals(((MetricInfo) insertRequest.getStorable()).getName())) {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor(), "mapper_parsing_exception"));
+                } else {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+                }
+            }
+            return bulkInsertResponse;
+        });
+
+        MetricInfoRegistryMediator mediator = Mockito.mock(MetricInfoRegistryMediator.class);
+        Mockito.when(mediator.getMetadata(Matchers.any(KapuaId.class), Matchers.anyLong())).thenReturn(new Metadata("2a-2019-01", "2a"));
+
+        facade = new MetricInfoRegistryFacade(null, mediator, client);
+    }
+
+    @Test
+    public void testCreateResults() throws Exception {
+        MetricInfo temperature = metricInfo("temperature");
+        MetricInfo failing = metricInfo("failing");
+
+        BulkUpdateResponse response = facade.upstore(new MetricInfo[] { temperature, failing });
+
+        List<UpdateResponse> responses = response.getResponse();
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(id(temperature), responses.get(0).getId());
+        Assert.assertTrue(responses.get(0).isResult());
+        Assert.assertEquals(id(failing), responses.get(1).getId());
+        Assert.assertFalse(responses.get(1).isResult());
+        Assert.assertEquals("mapper_parsing_exception", responses.get(1).getDescription());
+
+        // only the created metrics are cached
+        Assert.assertTrue(DatastoreCacheManager.getInstance().getMetricsCache().get(id(temperature)));
+        Assert.assertFalse(DatastoreCacheManager.getInstance().getMetricsCache().get(id(failing)));
+    }
+
+    @Test
+    public void testFailedMetricIsCreatedAgain() throws Exception {
+        MetricInfo temperature = metricInfo("temperature");
+        MetricInfo failing = metricInfo("failing");
+
+        facade.upstore(new MetricInfo[] { temperature, failing });
+        facade.upstore(new MetricInfo[] { temperature, failing });
+
+        ArgumentCaptor<BulkInsertRequest> captor = ArgumentCaptor.forClass(BulkInsertRequest.class);
+        Mockito.verify(client, Mockito.times(2)).create(captor.capture());
+        Assert.assertEquals(2, captor.getAllValues().get(0).getRequest().size());
+        List<InsertRequest> secondRequest = captor.getAllValues().get(1).getRequest();
+        Assert.assertEquals(1, secondRequest.size());
+        Assert.assertEquals(id(failing), secondRequest.get(0).getId());
+    }
+
+    @Test
+    public void testCachedMetricsSkipCreate() throws Exception {
+        MetricInfo temperature = metricInfo("temperature");
+
+        Assert.assertNotNull(facade.upstore(new MetricInfo[] { temperature }));
+        Assert.assertNull(facade.upstore(new MetricInfo[] { temperature }));
+
+        Mockito.verify(client, Mockito.times(1)).create(Matchers.any(BulkInsertRequest.class));
+    }
+
+    private static MetricInfoImpl metricInfo(String name) {
+        MetricInfoImpl metricInfo = new MetricInfoImpl(SCOPE_ID);
+        metricInfo.setClientId("client-1");
+        metricInfo.setChannel("telemetry");
+        metricInfo.setName(name);
+        metricInfo.setMetricType(Double.class);
+        metricInfo.setFirstMessageId(new StorableIdImpl("message-1"));
+        metricInfo.setFirstMessageOn(new Date());
+        return metricInfo;
+    }
+
+    private static String id(MetricInfo metricInfo) {
+        return MetricInfoField.getOrDeriveId(metricInfo.getId(), metricInfo);
+    }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.converter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.service.datastore.client.QueryMappingException;
+import org.eclipse.kapua.service.datastore.client.SchemaKeys;
+import org.eclipse.kapua.service.datastore.internal.model.query.MessageQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.model.query.SearchAfterKey;
+import org.eclipse.kapua.service.datastore.model.query.SortField;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@Category(JUnitTests.class)
+public class QueryConverterImplTest extends Assert {
+
+    private static final String SEARCH_AFTER = SearchAfterKey.encode(Arrays.asList(1549880160000L, "AWjXB5tGmrKyMWxoHP5a"));
+
+    private final QueryConverterImpl queryConverter = new QueryConverterImpl();
+
+    @Test
+    public void shouldNotSortTheOffsetPagedQueriesByKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setSortFields(Collections.singletonList(SortField.descending("timestamp")));
+        query.setOffset(20);
+        query.setLimit(10);
+
+        JsonNode convertedQuery = queryConverter.convertQuery(query);
+
+        assertEquals("[{\"timestamp\":\"DESC\"}]", convertedQuery.get(SchemaKeys.KEY_SORT).toString());
+        assertEquals(20, convertedQuery.get(SchemaKeys.KEY_FROM).asInt());
+        assertEquals(10, convertedQuery.get(SchemaKeys.KEY_SIZE).asInt());
+        assertFalse(convertedQuery.has(SchemaKeys.KEY_SEARCH_AFTER));
+    }
+
+    @Test
+    public void shouldSortTheKeyPagedQueriesByKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setSortFields(Collections.singletonList(SortField.descending("timestamp")));
+        query.setKeyPaging(true);
+        query.setLimit(10);
+
+        JsonNode convertedQuery = queryConverter.convertQuery(query);
+
+        // the key sort is added after the requested sort, so it only breaks the ties
+        assertEquals("[{\"timestamp\":\"DESC\"},{\"message_id\":\"ASC\"}]", convertedQuery.get(SchemaKeys.KEY_SORT).toString());
+        assertFalse(convertedQuery.has(SchemaKeys.KEY_SEARCH_AFTER));
+    }
+
+    @Test
+    public void shouldSortTheUnsortedKeyPagedQueriesByKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setKeyPaging(true);
+
+        assertEquals("[{\"message_id\":\"ASC\"}]", queryConverter.convertQuery(query).get(SchemaKeys.KEY_SORT).toString());
+    }
+
+    @Test
+    public void shouldNotSortTwiceByKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setSortFields(Arrays.asList(SortField.descending("message_id"), SortField.ascending("timestamp")));
+        query.setKeyPaging(true);
+
+        assertEquals("[{\"message_id\":\"DESC\"},{\"timestamp\":\"ASC\"}]", queryConverter.convertQuery(query).get(SchemaKeys.KEY_SORT).toString());
+    }
+
+    @Test
+    public void shouldSearchAfterTheKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setSortFields(Collections.singletonList(SortField.descending("timestamp")));
+        query.setKeyPaging(true);
+        query.setSearchAfter(SEARCH_AFTER);
+        query.setOffset(20);
+        query.setLimit(10);
+
+        JsonNode convertedQuery = queryConverter.convertQuery(query);
+
+        // the search after values replace the offset
+        assertEquals("[1549880160000,\"AWjXB5tGmrKyMWxoHP5a\"]", convertedQuery.get(SchemaKeys.KEY_SEARCH_AFTER).toString());
+        assertFalse(convertedQuery.has(SchemaKeys.KEY_FROM));
+        assertEquals(10, convertedQuery.get(SchemaKeys.KEY_SIZE).asInt());
+        assertEquals("[{\"timestamp\":\"DESC\"},{\"message_id\":\"ASC\"}]", convertedQuery.get(SchemaKeys.KEY_SORT).toString());
+    }
+
+    @Test(expected = QueryMappingException.class)
+    public void shouldRejectTheInvalidSearchAfterKey() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(KapuaEid.ONE);
+        query.setKeyPaging(true);
+        query.setSearchAfter("not a key");
+
+        queryConverter.convertQuery(query);
+    }
+
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.mediator;
+
+import java.math.BigInteger;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class RegistryIdKeyTest {
+
+    private static final KapuaId ONE = new KapuaEid(BigInteger.ONE);
+    private static final KapuaId TWO = new KapuaEid(BigInteger.valueOf(2));
+
+    @Test
+    public void testEqualKeys() {
+        Assert.assertEquals(RegistryIdKey.ofClient(ONE, "client"), RegistryIdKey.ofClient(new KapuaEid(BigInteger.ONE), "client"));
+        Assert.assertEquals(RegistryIdKey.ofClient(ONE, "client").hashCode(), RegistryIdKey.ofClient(new KapuaEid(BigInteger.ONE), "client").hashCode());
+        Assert.assertEquals(RegistryIdKey.ofChannel(ONE, "client", "a/b"), RegistryIdKey.ofChannel(ONE, "client", "a/b"));
+        Assert.assertEquals(RegistryIdKey.ofMetric(ONE, "client", "a/b", "temp", Double.class), RegistryIdKey.ofMetric(ONE, "client", "a/b", "temp", Double.class));
+    }
+
+    @Test
+    public void testDifferentKeys() {
+        Assert.assertNotEquals(RegistryIdKey.ofClient(ONE, "client"), RegistryIdKey.ofClient(TWO, "client"));
+        Assert.assertNotEquals(RegistryIdKey.ofClient(ONE, "client"), RegistryIdKey.ofChannel(ONE, "client", ""));
+        Assert.assertNotEquals(RegistryIdKey.ofChannel(ONE, "client", "a/b"), RegistryIdKey.ofChannel(ONE, "client", "a/c"));
+        Assert.assertNotEquals(RegistryIdKey.ofMetric(ONE, "client", "a/b", "temp", Double.class), RegistryIdKey.ofMetric(ONE, "client", "a/b", "temp", Float.class));
+        Assert.assertNotEquals(RegistryIdKey.ofMetric(ONE, "client", "a/b", "temp", Double.class), RegistryIdKey.ofMetric(ONE, "client", "a/b", "hum", Double.class));
+    }
+
+}
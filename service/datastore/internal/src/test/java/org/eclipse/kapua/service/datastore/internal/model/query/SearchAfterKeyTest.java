@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.model.query;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import org.eclipse.kapua.service.datastore.client.QueryMappingException;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+
+@Category(JUnitTests.class)
+public class SearchAfterKeyTest extends Assert {
+
+    @Test
+    public void shouldRoundTripTheSortValues() throws Exception {
+        String key = SearchAfterKey.encode(Arrays.asList(1549880160000L, "client/1 ~ \u00e9", 21.5, true, null));
+
+        // url safe, so the key can be passed as query parameter as is
+        assertTrue(key, key.matches("[A-Za-z0-9_-]+"));
+
+        ArrayNode sortValues = SearchAfterKey.decode(key);
+        assertEquals(5, sortValues.size());
+        assertEquals(1549880160000L, sortValues.get(0).asLong());
+        assertEquals("client/1 ~ \u00e9", sortValues.get(1).asText());
+        assertEquals(21.5, sortValues.get(2).asDouble(), 0);
+        assertTrue(sortValues.get(3).asBoolean());
+        assertTrue(sortValues.get(4).isNull());
+    }
+
+    @Test
+    public void shouldNotEncodeTheMissingSortValues() {
+        assertNull(SearchAfterKey.encode(null));
+        assertNull(SearchAfterKey.encode(Collections.emptyList()));
+    }
+
+    @Test
+    public void shouldRejectTheInvalidKeys() {
+        for (String key : Arrays.asList("not a key", encode("{\"timestamp\":1}"), encode("[]"), encode("[1549880160000"))) {
+            try {
+                SearchAfterKey.decode(key);
+                fail("The key " + key + " should be rejected");
+            } catch (QueryMappingException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(key));
+            }
+        }
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.client.SchemaKeys;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheManager;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingKey;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class DataIndexProvisionerTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(300));
+
+    private static final long LEAD_TIME = TimeUnit.MINUTES.toMillis(10);
+
+    private final String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+    private TestSchema schema;
+    private DataIndexProvisioner provisioner;
+    private long rollover;
+
+    @Before
+    public void setUp() throws Exception {
+        schema = new TestSchema();
+        provisioner = new DataIndexProvisioner(schema, 60000, LEAD_TIME);
+        rollover = findRollover();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        provisioner.stop();
+        DatastoreCacheManager.getInstance().getMetadataCache().invalidateAll();
+    }
+
+    @Test
+    public void shouldFindTheWindowStart() throws Exception {
+        long hourStart = ZonedDateTime.of(2019, 1, 10, 13, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        long windowStart = DataIndexProvisioner.findWindowStart(SCOPE_ID, hourStart - LEAD_TIME, hourStart + LEAD_TIME, DatastoreUtils.INDEXING_WINDOW_OPTION_HOUR);
+
+        assertTrue(windowStart >= hourStart);
+        assertTrue(windowStart - hourStart <= 1000);
+        assertEquals(DatastoreUtils.getDataIndexName(SCOPE_ID, hourStart, DatastoreUtils.INDEXING_WINDOW_OPTION_HOUR),
+                DatastoreUtils.getDataIndexName(SCOPE_ID, windowStart, DatastoreUtils.INDEXING_WINDOW_OPTION_HOUR));
+    }
+
+    @Test
+    public void shouldProvisionTheNextIndexWithinTheLeadTime() throws Exception {
+        long now = rollover - LEAD_TIME / 2;
+        String currentIndexName = DatastoreUtils.getDataIndexName(SCOPE_ID, now, indexingWindowOption);
+        Metadata currentMetadata = new Metadata(currentIndexName, ".300");
+        currentMetadata.getMessageMappingsCache().put("temperature", new Metric("temperature", SchemaKeys.TYPE_INTEGER));
+        DatastoreCacheManager.getInstance().getMetadataCache().put(currentIndexName, currentMetadata);
+        provisioner.onScopeActivity(SCOPE_ID, now - 1000);
+
+        provisioner.provision(now);
+
+        // the next index is created with the mappings known for the current one
+        assertEquals(Collections.singletonList(now + LEAD_TIME), schema.synchTimes);
+        assertNotEquals(currentIndexName, DatastoreUtils.getDataIndexName(SCOPE_ID, now + LEAD_TIME, indexingWindowOption));
+        assertEquals(1, schema.mappings.size());
+        assertTrue(schema.mappings.get(0).containsKey("temperature"));
+    }
+
+    @Test
+    public void shouldNotProvisionBeforeTheLeadTime() throws Exception {
+        long now = rollover - LEAD_TIME * 2;
+        provisioner.onScopeActivity(SCOPE_ID, now - 1000);
+
+        provisioner.provision(now);
+
+        assertTrue(schema.synchTimes.isEmpty());
+    }
+
+    @Test
+    public void shouldNotProvisionTheProvisionedIndex() throws Exception {
+        long now = rollover - LEAD_TIME / 2;
+        String nextIndexName = DatastoreUtils.getDataIndexName(SCOPE_ID, now + LEAD_TIME, indexingWindowOption);
+        DatastoreCacheManager.getInstance().getMetadataCache().put(nextIndexName, new Metadata(nextIndexName, ".300"));
+        provisioner.onScopeActivity(SCOPE_ID, now - 1000);
+
+        provisioner.provision(now);
+
+        assertTrue(schema.synchTimes.isEmpty());
+    }
+
+    @Test
+    public void shouldForgetTheInactiveScopes() throws Exception {
+        long now = rollover - LEAD_TIME / 2;
+        provisioner.onScopeActivity(SCOPE_ID, now - LEAD_TIME - 1000);
+
+        provisioner.provision(now);
+        assertTrue(schema.synchTimes.isEmpty());
+
+        // tracked again once active
+        provisioner.onScopeActivity(SCOPE_ID, now);
+        provisioner.provision(now);
+        assertEquals(1, schema.synchTimes.size());
+    }
+
+    @Test
+    public void shouldStopTheScheduler() throws Exception {
+        provisioner.start();
+        DataIndexProvisioner.stopAll();
+
+        // stopped, so it can be started and stopped again
+        provisioner.start();
+        provisioner.stop();
+        provisioner.stop();
+    }
+
+    /**
+     * Find the first window rollover after a fixed instant, for the configured indexing window
+     */
+    private long findRollover() throws Exception {
+        long base = ZonedDateTime.of(2019, 1, 9, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        String baseIndexName = DatastoreUtils.getDataIndexName(SCOPE_ID, base, indexingWindowOption);
+        long day = TimeUnit.DAYS.toMillis(1);
+        long next = base + day;
+        while (baseIndexName.equals(DatastoreUtils.getDataIndexName(SCOPE_ID, next, indexingWindowOption))) {
+            next += day;
+        }
+        return DataIndexProvisioner.findWindowStart(SCOPE_ID, next - day, next, indexingWindowOption);
+    }
+
+    /**
+     * Records the provisioning requests instead of sending them to the datastore
+     */
+    private static class TestSchema extends Schema {
+
+        private final List<Long> synchTimes = new ArrayList<>();
+        private final List<Map<String, Metric>> mappings = new ArrayList<>();
+
+        @Override
+        Metadata synch(KapuaId scopeId, long time, boolean provisioning) {
+            assertTrue(provisioning);
+            synchTimes.add(time);
+            return null;
+        }
+
+        @Override
+        public void updateMessageMappings(KapuaId scopeId, long time, Map<String, Metric> metrics) {
+            mappings.add(metrics);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.eclipse.kapua.service.datastore.client.ClientErrorCodes;
+import org.eclipse.kapua.service.datastore.client.ClientException;
+import org.eclipse.kapua.service.datastore.client.SchemaKeys;
+import org.eclipse.kapua.service.datastore.client.model.TypeDescriptor;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class SchemaTest extends Assert {
+
+    private static final int CALLERS = 4;
+
+    private ExecutorService callers;
+
+    @Before
+    public void setUp() {
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void shouldWaitForTheInFlightOperation() throws Exception {
+        Map<String, CompletableFuture<String>> pendingOperations = new ConcurrentHashMap<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = callers.submit(() -> Schema.singleFlight(pendingOperations, "index", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return "metadata";
+        }));
+        waitForPending(pendingOperations, "index");
+
+        // the callers arriving while the operation is in flight wait for its outcome
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            others.add(callers.submit(() -> Schema.singleFlight(pendingOperations, "index", () -> {
+                executions.incrementAndGet();
+                return "other metadata";
+            })));
+        }
+        waitForWaiting(CALLERS);
+        // a different key doesn't wait for the pending operation
+        assertEquals("other index", Schema.singleFlight(pendingOperations, "other index", () -> "other index"));
+        release.countDown();
+
+        assertEquals("metadata", first.get(10, TimeUnit.SECONDS));
+        for (Future<String> other : others) {
+            assertEquals("metadata", other.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertTrue(pendingOperations.isEmpty());
+    }
+
+    @Test
+    public void shouldPropagateTheFailureToAllTheWaiters() throws Exception {
+        Map<String, CompletableFuture<String>> pendingOperations = new ConcurrentHashMap<>();
+        ClientException failure = new ClientException(ClientErrorCodes.ACTION_ERROR, "index creation failed");
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = callers.submit(() -> Schema.singleFlight(pendingOperations, "index", () -> {
+            await(release);
+            throw failure;
+        }));
+        waitForPending(pendingOperations, "index");
+
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            others.add(callers.submit(() -> Schema.singleFlight(pendingOperations, "index", () -> "other metadata")));
+        }
+        waitForWaiting(CALLERS);
+        release.countDown();
+
+        others.add(first);
+        for (Future<String> caller : others) {
+            try {
+                caller.get(10, TimeUnit.SECONDS);
+                fail("The failure should be propagated to all the callers");
+            } catch (ExecutionException e) {
+                assertSame(failure, e.getCause());
+            }
+        }
+
+        // the failed operation is not kept, so the next caller tries again
+        assertTrue(pendingOperations.isEmpty());
+        assertEquals("metadata", Schema.singleFlight(pendingOperations, "index", () -> "metadata"));
+    }
+
+    @Test
+    public void shouldCoalesceTheMappingsSentWhileInFlight() throws Exception {
+        TestSchema schema = new TestSchema();
+        Metadata metadata = new Metadata("1-2019-01", ".1");
+
+        Future<?> first = callers.submit(() -> {
+            schema.updateMessageMappings(metadata, metrics("temperature"));
+            return null;
+        });
+        assertTrue(schema.putStarted.await(10, TimeUnit.SECONDS));
+
+        // collected in the next batch while the first one is in flight, the pending mapping is not sent again
+        Future<?> second = callers.submit(() -> {
+            schema.updateMessageMappings(metadata, metrics("humidity"));
+            return null;
+        });
+        Future<?> third = callers.submit(() -> {
+            schema.updateMessageMappings(metadata, metrics("pressure", "temperature"));
+            return null;
+        });
+        waitForNextBatch(metadata, 2);
+        schema.release.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        third.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, schema.sentMappings.size());
+        assertEquals(Collections.singletonList("temperature"), metricNames(schema.sentMappings.get(0)));
+        List<String> secondBatch = metricNames(schema.sentMappings.get(1));
+        Collections.sort(secondBatch);
+        assertEquals(Arrays.asList("humidity", "pressure"), secondBatch);
+
+        assertEquals(3, metadata.getMessageMappingsCache().size());
+        assertTrue(metadata.getPendingMessageMappings().isEmpty());
+        assertFalse(metadata.isMessageMappingsFlushing());
+
+        // the cached mappings are not sent again
+        schema.updateMessageMappings(metadata, metrics("temperature", "humidity"));
+        assertEquals(2, schema.sentMappings.size());
+    }
+
+    @Test
+    public void shouldSendTheFailedMappingsAgain() throws Exception {
+        TestSchema schema = new TestSchema();
+        schema.release.countDown();
+        schema.failure = new ClientException(ClientErrorCodes.ACTION_ERROR, "put mapping failed");
+        Metadata metadata = new Metadata("1-2019-01", ".1");
+
+        try {
+            schema.updateMessageMappings(metadata, metrics("temperature"));
+            fail("The failure should be propagated");
+        } catch (ClientException e) {
+            assertSame(schema.failure, e);
+        }
+        assertTrue(metadata.getMessageMappingsCache().isEmpty());
+        assertTrue(metadata.getPendingMessageMappings().isEmpty());
+
+        schema.failure = null;
+        schema.updateMessageMappings(metadata, metrics("temperature"));
+        assertEquals(2, schema.sentMappings.size());
+        assertTrue(metadata.getMessageMappingsCache().containsKey("temperature"));
+    }
+
+    private static Map<String, Metric> metrics(String... names) {
+        Map<String, Metric> metrics = new HashMap<>();
+        for (String name : names) {
+            metrics.put(name, new Metric(name, SchemaKeys.TYPE_INTEGER));
+        }
+        return metrics;
+    }
+
+    private static List<String> metricNames(ObjectNode mapping) {
+        List<String> names = new ArrayList<>();
+        mapping.get(SchemaKeys.FIELD_NAME_MESSAGE)
+                .get(SchemaKeys.FIELD_NAME_PROPERTIES)
+                .get(SchemaKeys.FIELD_NAME_METRICS)
+                .get(SchemaKeys.FIELD_NAME_PROPERTIES)
+                .fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForPending(Map<String, ?> pendingOperations, String key) throws InterruptedException {
+        for (int i = 0; i < 1000 && !pendingOperations.containsKey(key); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(pendingOperations.containsKey(key));
+    }
+
+    /**
+     * Wait until the callers are blocked on the pending operation (the pool threads parked in {@link CompletableFuture#get()})
+     */
+    private static void waitForWaiting(int count) throws InterruptedException {
+        for (int i = 0; i < 1000 && waitingCallers() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(waitingCallers() >= count);
+    }
+
+    private static int waitingCallers() {
+        int waiting = 0;
+        for (Map.Entry<Thread, StackTraceElement[]> thread : Thread.getAllStackTraces().entrySet()) {
+            for (StackTraceElement element : thread.getValue()) {
+                if (element.getClassName().equals(Schema.class.getName()) && element.getMethodName().equals("await")) {
+                    waiting++;
+                    break;
+                }
+            }
+        }
+        return waiting;
+    }
+
+    private static void waitForNextBatch(Metadata metadata, int size) throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            synchronized (metadata) {
+                if (metadata.getNextMessageMappingsBatch() != null && metadata.getNextMessageMappingsBatch().getMetrics().size() == size) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("The mappings should be collected in the next batch");
+    }
+
+    /**
+     * Records the mappings instead of sending them to the datastore, blocking the first request until released
+     */
+    private static class TestSchema extends Schema {
+
+        private final List<ObjectNode> sentMappings = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch putStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile ClientException failure;
+
+        @Override
+        void putMessageMapping(TypeDescriptor typeDescriptor, ObjectNode mapping) throws ClientException {
+            sentMappings.add(mapping);
+            putStarted.countDown();
+            SchemaTest.await(release);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
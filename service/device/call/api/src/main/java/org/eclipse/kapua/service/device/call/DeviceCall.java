@@ -16,6 +16,8 @@ import org.eclipse.kapua.service.device.call.message.DeviceMessage;
 import org.eclipse.kapua.service.device.call.message.app.request.DeviceRequestMessage;
 import org.eclipse.kapua.service.device.call.message.app.response.DeviceResponseMessage;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Device call definition.
  *
@@ -85,6 +87,35 @@ public interface DeviceCall<RQ extends DeviceRequestMessage, RS extends DeviceRe
      */
     RS options(RQ requestMessage, Long timeout) throws KapuaException;
 
+    /**
+     * Executes the command of the request message without blocking while waiting for the response.
+     * <p>
+     * The returned {@link CompletableFuture} completes with the response, or exceptionally with a {@link KapuaException}
+     * if the request cannot be sent or the timeout expires before the response is received.
+     *
+     * @param requestMessage
+     * @param timeout
+     * @return The {@link CompletableFuture} of the response.
+     * @throws KapuaException If the request cannot be prepared for sending.
+     * @since 1.1.0
+     */
+    CompletableFuture<RS> sendAsync(RQ requestMessage, Long timeout) throws KapuaException;
+
+    /**
+     * Executes the command of the request message without blocking while waiting for the response, sending it through the given server.
+     * <p>
+     * Same as {@link #sendAsync(DeviceRequestMessage, Long)}, for callers which already know the server to which the device is connected
+     * and can skip its lookup.
+     *
+     * @param requestMessage
+     * @param serverAddress  The address of the server to which the device is connected.
+     * @param timeout
+     * @return The {@link CompletableFuture} of the response.
+     * @throws KapuaException If the request cannot be prepared for sending.
+     * @since 1.1.0
+     */
+    CompletableFuture<RS> sendAsync(RQ requestMessage, String serverAddress, Long timeout) throws KapuaException;
+
     /**
      * Get the device base message type
      *
@@ -35,7 +35,9 @@ import org.eclipse.kapua.transport.message.TransportMessage;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * {@link DeviceCall} {@link Kura} implementation.
@@ -79,19 +81,30 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
         return send(requestMessage, timeout);
     }
 
-    @SuppressWarnings({ "unchecked" })
-    private KuraResponseMessage send(KuraRequestMessage requestMessage, Long timeout)
+    @Override
+    public CompletableFuture<KuraResponseMessage> sendAsync(KuraRequestMessage requestMessage, Long timeout)
             throws KuraMqttDeviceCallException {
         KapuaLocator locator = KapuaLocator.getInstance();
         DeviceRegistryService deviceRegistryService = locator.getService(DeviceRegistryService.class);
         AccountService accountService = locator.getService(AccountService.class);
-        KuraResponseMessage response = null;
-        TransportFacade transportFacade = null;
+        String serverIp;
         try {
             Account account = KapuaSecurityUtils.doPrivileged(() -> accountService.findByName(requestMessage.getChannel().getScope()));
             Device device = deviceRegistryService.findByClientId(account.getId(), requestMessage.getChannel().getClientId());
-            String serverIp = device.getConnection().getServerIp();
+            serverIp = device.getConnection().getServerIp();
+        } catch (KapuaException ke) {
+            throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CALL_ERROR, ke);
+        }
+
+        return sendAsync(requestMessage, serverIp, timeout);
+    }
 
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    public CompletableFuture<KuraResponseMessage> sendAsync(KuraRequestMessage requestMessage, String serverIp, Long timeout)
+            throws KuraMqttDeviceCallException {
+        TransportFacade transportFacade = null;
+        try {
             //
             // Borrow a KapuaClient
             transportFacade = borrowClient(serverIp);
@@ -108,9 +121,7 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
             KuraRequestChannel requestChannel = requestMessage.getChannel();
             KuraRequestPayload requestPayload = requestMessage.getPayload();
             if (timeout != null) {
-                // FIXME: create an utilty class to use the same synchronized random instance to avoid duplicates
-                Random r = new Random();
-                String requestId = String.valueOf(r.nextLong());
+                String requestId = String.valueOf(ThreadLocalRandom.current().nextLong());
 
                 requestChannel.setRequestId(requestId);
                 requestChannel.setRequesterClientId(transportFacade.getClientId());
@@ -121,18 +132,28 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
 
             //
             // Do send
-            try {
-                // Set current timestamp
-                requestMessage.setTimestamp(new Date());
-
-                // Send
-                TransportMessage transportResponseMessage = transportFacade.sendSync((TransportMessage) translatorKuraTransport.translate(requestMessage), timeout);
-
-                // Translate response
-                response = (KuraResponseMessage) translatorTransportKura.translate(transportResponseMessage);
-            } catch (KapuaException e) {
-                throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CLIENT_SEND_ERROR, e);
-            }
+            // Set current timestamp
+            requestMessage.setTimestamp(new Date());
+
+            // Send
+            CompletableFuture<TransportMessage> transportResponse = transportFacade.sendRequest((TransportMessage) translatorKuraTransport.translate(requestMessage), timeout);
+
+            // Translate response
+            CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+            transportResponse.whenComplete((transportResponseMessage, sendError) -> {
+                try {
+                    if (sendError != null) {
+                        throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CLIENT_SEND_ERROR, sendError);
+                    }
+
+                    response.complete(transportResponseMessage != null ? (KuraResponseMessage) translatorTransportKura.translate(transportResponseMessage) : null);
+                } catch (KapuaException e) {
+                    response.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    response.completeExceptionally(new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CLIENT_SEND_ERROR, e));
+                }
+            });
+            return response;
         } catch (KapuaException ke) {
             throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CALL_ERROR, ke);
         } finally {
@@ -140,8 +161,19 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
                 transportFacade.clean();
             }
         }
+    }
 
-        return response;
+    private KuraResponseMessage send(KuraRequestMessage requestMessage, Long timeout)
+            throws KuraMqttDeviceCallException {
+        CompletableFuture<KuraResponseMessage> response = sendAsync(requestMessage, timeout);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CALL_ERROR, e);
+        } catch (ExecutionException e) {
+            throw new KuraMqttDeviceCallException(KuraMqttDeviceCallErrorCodes.CALL_ERROR, e.getCause());
+        }
     }
 
     @Override
@@ -15,6 +15,7 @@ import org.eclipse.kapua.DeviceMenagementErrorCodes;
 import org.eclipse.kapua.DeviceMenagementException;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.service.device.call.DeviceCall;
 import org.eclipse.kapua.service.device.call.DeviceCallFactory;
@@ -31,6 +32,8 @@ import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
 import org.eclipse.kapua.translator.Translator;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Device call executor definition.<br>
  * This object executes call, collecting the response from the device.
@@ -81,23 +84,8 @@ public class DeviceCallExecutor<C extends KapuaRequestChannel, P extends KapuaRe
     public RS send() throws KapuaException {
 
         //
-        // Check Device existence
-        Device device = DEVICE_REGISTRY_SERVICE.find(requestMessage.getScopeId(), requestMessage.getDeviceId());
-        if (device == null) {
-            throw new KapuaEntityNotFoundException(Device.TYPE, requestMessage.getDeviceId());
-        }
-
-        //
-        // Check Device Connection
-        if (device.getConnection() == null) {
-            throw new DeviceMenagementException(DeviceMenagementErrorCodes.DEVICE_NEVER_CONNECTED);
-        }
-
-        //
-        // Check Device Connection status
-        if (!DeviceConnectionStatus.CONNECTED.equals(device.getConnection().getStatus())) {
-            throw new DeviceMenagementException(DeviceMenagementErrorCodes.DEVICE_NOT_CONNECTED);
-        }
+        // Check Device
+        checkDevice(findDevice());
 
         //
         // Translate the request from Kapua to Device
@@ -142,4 +130,107 @@ public class DeviceCallExecutor<C extends KapuaRequestChannel, P extends KapuaRe
         Translator tClientToKapua = Translator.getTranslatorFor(deviceCall.getBaseMessageClass(), requestMessage.getResponseClass());
         return (RS) tClientToKapua.translate(responseMessage);
     }
+
+    /**
+     * Performs the {@link DeviceCall} without blocking while waiting for the response.
+     * <p>
+     * The {@link Device} is checked and the request is sent on the calling thread, while the returned {@link CompletableFuture}
+     * completes on the transport threads with the {@link KapuaResponseMessage}, or exceptionally with a {@link KapuaException}.
+     * Many requests can be in flight at the same time, sharing the same transport connections.
+     *
+     * @return The {@link CompletableFuture} of the {@link KapuaResponseMessage}.
+     * @throws KapuaException If the {@link Device} is not connected or the request cannot be sent.
+     * @since 1.1.0
+     */
+    public CompletableFuture<RS> sendAsync() throws KapuaException {
+        return sendAsync(findDevice());
+    }
+
+    /**
+     * Performs the {@link DeviceCall} to the given {@link Device} without blocking while waiting for the response.
+     * <p>
+     * Same as {@link #sendAsync()}, for callers which already read the {@link Device} (with its {@link Device#getConnection()}).
+     *
+     * @param device The {@link Device} of the request.
+     * @return The {@link CompletableFuture} of the {@link KapuaResponseMessage}.
+     * @throws KapuaException If the {@link Device} is not connected or the request cannot be sent.
+     * @since 1.1.0
+     */
+    public CompletableFuture<RS> sendAsync(Device device) throws KapuaException {
+
+        //
+        // Check Device
+        checkDevice(device);
+
+        //
+        // Check method
+        switch (requestMessage.getChannel().getMethod()) {
+        case CREATE:
+        case READ:
+        case OPTIONS:
+        case DELETE:
+        case EXECUTE:
+        case WRITE:
+            break;
+        default:
+            throw new DeviceMenagementException(DeviceMenagementErrorCodes.REQUEST_BAD_METHOD);
+        }
+
+        //
+        // Translate the request from Kapua to Device
+        DeviceCall<DeviceRequestMessage, DeviceResponseMessage> deviceCall = DEVICE_CALL_FACTORY.newDeviceCall();
+        Translator tKapuaToClient = Translator.getTranslatorFor(requestMessage.getRequestClass(), deviceCall.getBaseMessageClass());
+        DeviceRequestMessage deviceRequestMessage = (DeviceRequestMessage) tKapuaToClient.translate(requestMessage);
+
+        //
+        // Send the request
+        CompletableFuture<DeviceResponseMessage> deviceResponse = deviceCall.sendAsync(deviceRequestMessage, device.getConnection().getServerIp(), timeout);
+
+        //
+        // Translate the response from Device to Kapua
+        Translator tClientToKapua = Translator.getTranslatorFor(deviceCall.getBaseMessageClass(), requestMessage.getResponseClass());
+
+        CompletableFuture<RS> response = new CompletableFuture<>();
+        deviceResponse.whenComplete((responseMessage, sendError) -> {
+            if (sendError != null) {
+                response.completeExceptionally(sendError);
+                return;
+            }
+
+            try {
+                // The response is completed on a transport thread, without the session of the caller which has already been authorized to make the request
+                response.complete(KapuaSecurityUtils.doPrivileged(() -> (RS) tClientToKapua.translate(responseMessage)));
+            } catch (Exception e) {
+                response.completeExceptionally(e);
+            }
+        });
+        return response;
+    }
+
+    private Device findDevice() throws KapuaException {
+
+        //
+        // Check Device existence
+        Device device = DEVICE_REGISTRY_SERVICE.find(requestMessage.getScopeId(), requestMessage.getDeviceId());
+        if (device == null) {
+            throw new KapuaEntityNotFoundException(Device.TYPE, requestMessage.getDeviceId());
+        }
+
+        return device;
+    }
+
+    private void checkDevice(Device device) throws KapuaException {
+
+        //
+        // Check Device Connection
+        if (device.getConnection() == null) {
+            throw new DeviceMenagementException(DeviceMenagementErrorCodes.DEVICE_NEVER_CONNECTED);
+        }
+
+        //
+        // Check Device Connection status
+        if (!DeviceConnectionStatus.CONNECTED.equals(device.getConnection().getStatus())) {
+            throw new DeviceMenagementException(DeviceMenagementErrorCodes.DEVICE_NOT_CONNECTED);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.commons.call;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
+import org.eclipse.kapua.service.device.management.commons.setting.DeviceManagementSetting;
+import org.eclipse.kapua.service.device.management.commons.setting.DeviceManagementSettingKey;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestChannel;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestPayload;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
+import org.eclipse.kapua.service.device.registry.DeviceListResult;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Device call fan-out executor definition.<br>
+ * This object executes the same call on many devices, collecting the responses from the devices.
+ * <p>
+ * The {@link Device}s (and their connections) are read with a single {@link DeviceQuery} and the requests are sent concurrently with {@link DeviceCallExecutor#sendAsync(Device)},
+ * keeping at most {@link DeviceManagementSettingKey#REQUEST_FAN_OUT_IN_FLIGHT_MAX} requests in flight.
+ * The responses are handed to the {@link DeviceManagementResultHandler} as they are received, on the calling thread.
+ *
+ * @param <C>  request channel type
+ * @param <P>  request payload type
+ * @param <RQ> request message type
+ * @param <RS> response message type
+ * @since 1.1.0
+ */
+public class DeviceCallFanOutExecutor<C extends KapuaRequestChannel, P extends KapuaRequestPayload, RQ extends KapuaRequestMessage<C, P>, RS extends KapuaResponseMessage> {
+
+    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
+
+    private static final DeviceRegistryService DEVICE_REGISTRY_SERVICE = LOCATOR.getService(DeviceRegistryService.class);
+
+    private DeviceQuery deviceQuery;
+    private Function<Device, RQ> requestMessageBuilder;
+    private Long timeout;
+    private int inFlightMax;
+
+    /**
+     * Constructor
+     *
+     * @param deviceQuery           The {@link DeviceQuery} which selects the {@link Device}s to which to send the request.
+     * @param requestMessageBuilder The builder of the request to send to each {@link Device}.
+     * @param timeout
+     * @since 1.1.0
+     */
+    public DeviceCallFanOutExecutor(DeviceQuery deviceQuery, Function<Device, RQ> requestMessageBuilder, Long timeout) {
+        this(deviceQuery, requestMessageBuilder, timeout, DeviceManagementSetting.getInstance().getInt(DeviceManagementSettingKey.REQUEST_FAN_OUT_IN_FLIGHT_MAX, 500));
+    }
+
+    DeviceCallFanOutExecutor(DeviceQuery deviceQuery, Function<Device, RQ> requestMessageBuilder, Long timeout, int inFlightMax) {
+        this.deviceQuery = deviceQuery;
+        this.requestMessageBuilder = requestMessageBuilder;
+        this.timeout = timeout;
+        this.inFlightMax = Math.max(1, inFlightMax);
+    }
+
+    /**
+     * Performs the {@link org.eclipse.kapua.service.device.call.DeviceCall} on all the {@link Device}s matching the {@link DeviceQuery}.
+     * <p>
+     * Returns when the response of all the {@link Device}s has been handled.
+     * A failure on a {@link Device} is handed to the {@link DeviceManagementResultHandler} and does not stop the requests to the other {@link Device}s.
+     * An exception thrown by the {@link DeviceManagementResultHandler} stops the fan-out: no other request is sent and the responses still in flight are not handled.
+     *
+     * @param resultHandler The {@link DeviceManagementResultHandler} of the response of each {@link Device}.
+     * @throws KapuaException If the {@link Device}s cannot be read, or if thrown by the {@link DeviceManagementResultHandler}.
+     * @since 1.1.0
+     */
+    public void send(DeviceManagementResultHandler<RS> resultHandler) throws KapuaException {
+        // The connections are read by the same query, instead of one query for each request
+        List<String> fetchAttributes = deviceQuery.getFetchAttributes();
+        if (fetchAttributes == null || !fetchAttributes.contains(DeviceAttributes.CONNECTION)) {
+            deviceQuery.addFetchAttributes(DeviceAttributes.CONNECTION);
+        }
+        DeviceListResult devices = DEVICE_REGISTRY_SERVICE.query(deviceQuery);
+
+        BlockingQueue<DeviceCallResult<RS>> completedCalls = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+        for (Device device : devices.getItems()) {
+
+            //
+            // Wait for a slot in the in-flight window, handling the responses received meanwhile
+            while (inFlight >= inFlightMax) {
+                handle(takeCompletedCall(completedCalls), resultHandler);
+                inFlight--;
+            }
+
+            //
+            // Send the request
+            CompletableFuture<RS> response;
+            try {
+                response = sendAsync(device);
+            } catch (KapuaException e) {
+                resultHandler.onResult(device.getId(), null, e);
+                continue;
+            }
+
+            KapuaId deviceId = device.getId();
+            response.whenComplete((responseMessage, exception) -> completedCalls.add(new DeviceCallResult<>(deviceId, responseMessage, exception)));
+            inFlight++;
+        }
+
+        //
+        // Wait for the responses left
+        while (inFlight > 0) {
+            handle(takeCompletedCall(completedCalls), resultHandler);
+            inFlight--;
+        }
+    }
+
+    /**
+     * Sends the request to the given {@link Device}.
+     *
+     * @param device The {@link Device} to which to send the request.
+     * @return The {@link CompletableFuture} of the response.
+     * @throws KapuaException If the request cannot be sent.
+     * @since 1.1.0
+     */
+    CompletableFuture<RS> sendAsync(Device device) throws KapuaException {
+        return new DeviceCallExecutor<C, P, RQ, RS>(requestMessageBuilder.apply(device), timeout).sendAsync(device);
+    }
+
+    private DeviceCallResult<RS> takeCompletedCall(BlockingQueue<DeviceCallResult<RS>> completedCalls) throws KapuaException {
+        try {
+            return completedCalls.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw KapuaException.internalError(e, "Interrupted while waiting for the device responses");
+        }
+    }
+
+    private void handle(DeviceCallResult<RS> deviceCallResult, DeviceManagementResultHandler<RS> resultHandler) throws KapuaException {
+        Throwable exception = deviceCallResult.exception;
+        if (exception instanceof CompletionException && exception.getCause() != null) {
+            exception = exception.getCause();
+        }
+
+        if (exception == null) {
+            resultHandler.onResult(deviceCallResult.deviceId, deviceCallResult.responseMessage, null);
+        } else if (exception instanceof KapuaException) {
+            resultHandler.onResult(deviceCallResult.deviceId, null, (KapuaException) exception);
+        } else {
+            resultHandler.onResult(deviceCallResult.deviceId, null, KapuaException.internalError(exception));
+        }
+    }
+
+    private static class DeviceCallResult<RS> {
+
+        private final KapuaId deviceId;
+        private final RS responseMessage;
+        private final Throwable exception;
+
+        private DeviceCallResult(KapuaId deviceId, RS responseMessage, Throwable exception) {
+            this.deviceId = deviceId;
+            this.responseMessage = responseMessage;
+            this.exception = exception;
+        }
+    }
+}
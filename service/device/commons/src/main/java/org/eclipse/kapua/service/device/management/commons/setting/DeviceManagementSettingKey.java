@@ -29,7 +29,12 @@ public enum DeviceManagementSettingKey implements SettingKey {
     /**
      * Request timeout
      */
-    REQUEST_TIMEOUT("request.timeout");
+    REQUEST_TIMEOUT("request.timeout"),
+
+    /**
+     * Max number of requests in flight at the same time when a request is sent to many devices
+     */
+    REQUEST_FAN_OUT_IN_FLIGHT_MAX("request.fanOut.inFlight.max");
 
     private String key;
 
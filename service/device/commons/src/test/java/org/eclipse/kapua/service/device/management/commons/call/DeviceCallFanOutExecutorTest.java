@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.commons.call;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestChannel;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestPayload;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseChannel;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponsePayload;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
+import org.eclipse.kapua.service.device.registry.DeviceListResult;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.test.MockedLocator;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Category(JUnitTests.class)
+public class DeviceCallFanOutExecutorTest {
+
+    private static final long TIMEOUT = 10000;
+
+    // The DeviceCallFanOutExecutor gets the service once, when loaded
+    private static final DeviceRegistryService DEVICE_REGISTRY_SERVICE = Mockito.mock(DeviceRegistryService.class);
+
+    private final DeviceQuery deviceQuery = Mockito.mock(DeviceQuery.class);
+    private final List<Device> devices = new ArrayList<>();
+    private final List<KapuaId> sentDeviceIds = Collections.synchronizedList(new ArrayList<>());
+    private final Map<KapuaId, TestResponseMessage> results = Collections.synchronizedMap(new HashMap<>());
+    private final Map<KapuaId, KapuaException> failures = Collections.synchronizedMap(new HashMap<>());
+
+    @BeforeClass
+    public static void setUpClass() {
+        ((MockedLocator) KapuaLocator.getInstance()).setMockedService(DeviceRegistryService.class, DEVICE_REGISTRY_SERVICE);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Mockito.reset(DEVICE_REGISTRY_SERVICE);
+
+        DeviceListResult deviceListResult = Mockito.mock(DeviceListResult.class);
+        Mockito.when(deviceListResult.getItems()).thenReturn(devices);
+        Mockito.when(DEVICE_REGISTRY_SERVICE.query(Matchers.any(DeviceQuery.class))).thenReturn(deviceListResult);
+    }
+
+    @Test
+    public void testInFlightWindow() throws Exception {
+        addDevices(5);
+        BlockingQueue<CompletableFuture<TestResponseMessage>> inFlight = new LinkedBlockingQueue<>();
+        TestFanOutExecutor fanOutExecutor = new TestFanOutExecutor(2, device -> {
+            CompletableFuture<TestResponseMessage> response = new CompletableFuture<>();
+            inFlight.add(response);
+            return response;
+        });
+
+        CompletableFuture<Void> fanOut = CompletableFuture.runAsync(() -> send(fanOutExecutor, this::storeResult));
+
+        // at most two requests in flight, the next one is sent when a response is received
+        List<CompletableFuture<TestResponseMessage>> responses = new ArrayList<>();
+        responses.add(inFlight.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+        responses.add(inFlight.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+        for (int i = 2; i < 5; i++) {
+            Assert.assertNull(inFlight.poll(200, TimeUnit.MILLISECONDS));
+            Assert.assertEquals(i, sentDeviceIds.size());
+
+            responses.get(i - 2).complete(Mockito.mock(TestResponseMessage.class));
+            responses.add(inFlight.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            Assert.assertNotNull(responses.get(i));
+        }
+
+        Assert.assertFalse(fanOut.isDone());
+        responses.get(3).complete(Mockito.mock(TestResponseMessage.class));
+        responses.get(4).complete(Mockito.mock(TestResponseMessage.class));
+        fanOut.get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(5, results.size());
+        Assert.assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    public void testConnectionsFetchedWithTheDevices() throws Exception {
+        addDevices(2);
+        TestFanOutExecutor fanOutExecutor = new TestFanOutExecutor(10, device -> CompletableFuture.completedFuture(Mockito.mock(TestResponseMessage.class)));
+
+        fanOutExecutor.send(this::storeResult);
+
+        Mockito.verify(deviceQuery).addFetchAttributes(DeviceAttributes.CONNECTION);
+        Mockito.verify(DEVICE_REGISTRY_SERVICE).query(deviceQuery);
+        Assert.assertEquals(2, results.size());
+
+        // not added twice
+        Mockito.when(deviceQuery.getFetchAttributes()).thenReturn(Collections.singletonList(DeviceAttributes.CONNECTION));
+        fanOutExecutor.send(this::storeResult);
+        Mockito.verify(deviceQuery).addFetchAttributes(DeviceAttributes.CONNECTION);
+    }
+
+    @Test
+    public void testDeviceFailureIsolated() throws Exception {
+        addDevices(4);
+        KapuaException sendFailure = KapuaException.internalError("send failure");
+        KapuaException responseFailure = KapuaException.internalError("response failure");
+        TestResponseMessage responseMessage = Mockito.mock(TestResponseMessage.class);
+        TestFanOutExecutor fanOutExecutor = new TestFanOutExecutor(10, device -> {
+            CompletableFuture<TestResponseMessage> response = new CompletableFuture<>();
+            switch (devices.indexOf(device)) {
+            case 0:
+                throw new CompletionException(sendFailure);
+            case 1:
+                response.completeExceptionally(new CompletionException(responseFailure));
+                break;
+            case 2:
+                response.completeExceptionally(new IllegalStateException("unexpected failure"));
+                break;
+            default:
+                response.complete(responseMessage);
+            }
+            return response;
+        });
+
+        fanOutExecutor.send(this::storeResult);
+
+        // each device gets its own outcome
+        Assert.assertEquals(4, sentDeviceIds.size());
+        Assert.assertSame(sendFailure, failures.get(devices.get(0).getId()));
+        Assert.assertSame(responseFailure, failures.get(devices.get(1).getId()));
+        Assert.assertTrue(failures.get(devices.get(2).getId()).getCause() instanceof IllegalStateException);
+        Assert.assertSame(responseMessage, results.get(devices.get(3).getId()));
+        Assert.assertEquals(3, failures.size());
+        Assert.assertEquals(1, results.size());
+    }
+
+    @Test
+    public void testHandlerExceptionStopsFanOut() throws Exception {
+        addDevices(3);
+        TestFanOutExecutor fanOutExecutor = new TestFanOutExecutor(1, device -> CompletableFuture.completedFuture(Mockito.mock(TestResponseMessage.class)));
+
+        KapuaException handlerException = KapuaException.internalError("handler failure");
+        try {
+            fanOutExecutor.send((deviceId, result, exception) -> {
+                throw handlerException;
+            });
+            Assert.fail("The handler exception should be thrown");
+        } catch (KapuaException e) {
+            Assert.assertSame(handlerException, e);
+        }
+
+        // no other request is sent after the handler failure
+        Assert.assertEquals(Collections.singletonList(devices.get(0).getId()), sentDeviceIds);
+    }
+
+    @Test
+    public void testNoDevices() throws Exception {
+        TestFanOutExecutor fanOutExecutor = new TestFanOutExecutor(10, device -> {
+            throw new AssertionError("No request should be sent");
+        });
+
+        fanOutExecutor.send(this::storeResult);
+
+        Assert.assertTrue(results.isEmpty());
+        Assert.assertTrue(failures.isEmpty());
+    }
+
+    private void addDevices(int count) {
+        for (int i = 1; i <= count; i++) {
+            Device device = Mockito.mock(Device.class);
+            Mockito.when(device.getId()).thenReturn(new KapuaEid(BigInteger.valueOf(i)));
+            devices.add(device);
+        }
+    }
+
+    private void storeResult(KapuaId deviceId, TestResponseMessage result, KapuaException exception) {
+        if (exception != null) {
+            failures.put(deviceId, exception);
+        } else {
+            results.put(deviceId, result);
+        }
+    }
+
+    private static void send(TestFanOutExecutor fanOutExecutor, DeviceManagementResultHandler<TestResponseMessage> resultHandler) {
+        try {
+            fanOutExecutor.send(resultHandler);
+        } catch (KapuaException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Sends the requests through the given function instead of the device calls. A {@link CompletionException} thrown by the function is unwrapped as sending failure.
+     */
+    private class TestFanOutExecutor extends DeviceCallFanOutExecutor<KapuaRequestChannel, KapuaRequestPayload, KapuaRequestMessage<KapuaRequestChannel, KapuaRequestPayload>, TestResponseMessage> {
+
+        private final Function<Device, CompletableFuture<TestResponseMessage>> sender;
+
+        private TestFanOutExecutor(int inFlightMax, Function<Device, CompletableFuture<TestResponseMessage>> sender) {
+            super(deviceQuery, device -> null, TIMEOUT, inFlightMax);
+            this.sender = sender;
+        }
+
+        @Override
+        CompletableFuture<TestResponseMessage> sendAsync(Device device) throws KapuaException {
+            sentDeviceIds.add(device.getId());
+            try {
+                return sender.apply(device);
+            } catch (CompletionException e) {
+                throw (KapuaException) e.getCause();
+            }
+        }
+    }
+
+    private interface TestResponseMessage extends KapuaResponseMessage<KapuaResponseChannel, KapuaResponsePayload> {
+    }
+}
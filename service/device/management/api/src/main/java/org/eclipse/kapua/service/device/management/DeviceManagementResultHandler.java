@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.model.id.KapuaId;
+
+/**
+ * Handler of the per-device results of a device management operation sent to many devices at once.
+ * <p>
+ * Results are handled one at a time, in the order the devices respond, on the thread that started the operation.
+ *
+ * @param <R> The type of the result of the operation on each device.
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface DeviceManagementResultHandler<R> {
+
+    /**
+     * Handles the result of the operation on a device.
+     *
+     * @param deviceId  The id of the device.
+     * @param result    The result of the operation on the device, {@code null} if the operation failed or has no result.
+     * @param exception The {@link KapuaException} if the operation failed on the device, {@code null} otherwise.
+     * @throws KapuaException To stop sending the operation to the devices left.
+     * @since 1.1.0
+     */
+    void onResult(KapuaId deviceId, R result, KapuaException exception) throws KapuaException;
+}
@@ -14,6 +14,8 @@ package org.eclipse.kapua.service.device.management.bundle;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 
 /**
  * Device bundle service definition.
@@ -54,4 +56,32 @@ public interface DeviceBundleManagementService extends KapuaService {
      * @throws KapuaException
      */
     void stop(KapuaId scopeId, KapuaId deviceId, String bundleId, Long timeout) throws KapuaException;
+
+    /**
+     * Start the device bundle identified by the given device bundle identifier on all the devices matching the given query.
+     * <p>
+     * The request is sent to the devices concurrently and the outcome for each device is handed to the {@link DeviceManagementResultHandler} as the devices respond.
+     *
+     * @param deviceQuery   The {@link DeviceQuery} which selects the devices, i.e. by ids or by tag.
+     * @param bundleId
+     * @param timeout       timeout waiting for the device response
+     * @param resultHandler The {@link DeviceManagementResultHandler} of the outcome for each device.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void start(DeviceQuery deviceQuery, String bundleId, Long timeout, DeviceManagementResultHandler<Void> resultHandler) throws KapuaException;
+
+    /**
+     * Stop the device bundle identified by the given device bundle identifier on all the devices matching the given query.
+     * <p>
+     * The request is sent to the devices concurrently and the outcome for each device is handed to the {@link DeviceManagementResultHandler} as the devices respond.
+     *
+     * @param deviceQuery   The {@link DeviceQuery} which selects the devices, i.e. by ids or by tag.
+     * @param bundleId
+     * @param timeout       timeout waiting for the device response
+     * @param resultHandler The {@link DeviceManagementResultHandler} of the outcome for each device.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void stop(DeviceQuery deviceQuery, String bundleId, Long timeout, DeviceManagementResultHandler<Void> resultHandler) throws KapuaException;
 }
@@ -19,6 +19,7 @@ import org.eclipse.kapua.locator.KapuaProvider;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.management.DeviceManagementDomains;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
 import org.eclipse.kapua.service.device.management.bundle.DeviceBundleManagementService;
 import org.eclipse.kapua.service.device.management.bundle.DeviceBundles;
 import org.eclipse.kapua.service.device.management.bundle.internal.exception.BundleGetManagementException;
@@ -30,12 +31,14 @@ import org.eclipse.kapua.service.device.management.bundle.message.internal.Bundl
 import org.eclipse.kapua.service.device.management.bundle.message.internal.BundleResponsePayload;
 import org.eclipse.kapua.service.device.management.commons.AbstractDeviceManagementServiceImpl;
 import org.eclipse.kapua.service.device.management.commons.call.DeviceCallExecutor;
+import org.eclipse.kapua.service.device.management.commons.call.DeviceCallFanOutExecutor;
 import org.eclipse.kapua.service.device.management.commons.exception.DeviceManagementErrorCodes;
 import org.eclipse.kapua.service.device.management.commons.exception.DeviceManagementException;
 import org.eclipse.kapua.service.device.management.commons.setting.DeviceManagementSetting;
 import org.eclipse.kapua.service.device.management.commons.setting.DeviceManagementSettingKey;
 import org.eclipse.kapua.service.device.management.message.KapuaMethod;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponsePayload;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 
 import java.util.Date;
 
@@ -131,21 +134,7 @@ public class DeviceBundleManagementServiceImpl extends AbstractDeviceManagementS
 
         //
         // Prepare the request
-        BundleRequestChannel bundleRequestChannel = new BundleRequestChannel();
-        bundleRequestChannel.setAppName(DeviceBundleAppProperties.APP_NAME);
-        bundleRequestChannel.setVersion(DeviceBundleAppProperties.APP_VERSION);
-        bundleRequestChannel.setMethod(KapuaMethod.EXECUTE);
-        bundleRequestChannel.setStart(true);
-        bundleRequestChannel.setBundleId(bundleId);
-
-        BundleRequestPayload bundleRequestPayload = new BundleRequestPayload();
-
-        BundleRequestMessage bundleRequestMessage = new BundleRequestMessage();
-        bundleRequestMessage.setScopeId(scopeId);
-        bundleRequestMessage.setDeviceId(deviceId);
-        bundleRequestMessage.setCapturedOn(new Date());
-        bundleRequestMessage.setPayload(bundleRequestPayload);
-        bundleRequestMessage.setChannel(bundleRequestChannel);
+        BundleRequestMessage bundleRequestMessage = newStartStopRequestMessage(scopeId, deviceId, bundleId, true);
 
         //
         // Do start
@@ -158,11 +147,7 @@ public class DeviceBundleManagementServiceImpl extends AbstractDeviceManagementS
 
         //
         // Check response
-        if (!responseMessage.getResponseCode().isAccepted()) {
-            KapuaResponsePayload responsePayload = responseMessage.getPayload();
-
-            throw new KapuaException(BundleManagementResponseErrorCodes.BUNDLE_START_ERROR);
-        }
+        checkStartStopResponse(responseMessage, true);
     }
 
     @Override
@@ -180,11 +165,78 @@ public class DeviceBundleManagementServiceImpl extends AbstractDeviceManagementS
 
         //
         // Prepare the request
+        BundleRequestMessage bundleRequestMessage = newStartStopRequestMessage(scopeId, deviceId, bundleId, false);
+
+        //
+        // Do stop
+        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(bundleRequestMessage, timeout);
+        BundleResponseMessage responseMessage = (BundleResponseMessage) deviceApplicationCall.send();
+
+        //
+        // Create event
+        createDeviceEvent(scopeId, deviceId, bundleRequestMessage, responseMessage);
+
+        //
+        // Check response
+        checkStartStopResponse(responseMessage, false);
+    }
+
+    @Override
+    public void start(DeviceQuery deviceQuery, String bundleId, Long timeout, DeviceManagementResultHandler<Void> resultHandler)
+            throws KapuaException {
+        startStop(deviceQuery, bundleId, true, timeout, resultHandler);
+    }
+
+    @Override
+    public void stop(DeviceQuery deviceQuery, String bundleId, Long timeout, DeviceManagementResultHandler<Void> resultHandler)
+            throws KapuaException {
+        startStop(deviceQuery, bundleId, false, timeout, resultHandler);
+    }
+
+    private void startStop(DeviceQuery deviceQuery, String bundleId, boolean start, Long timeout, DeviceManagementResultHandler<Void> resultHandler)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceQuery, "deviceQuery");
+        ArgumentValidator.notNull(deviceQuery.getScopeId(), "deviceQuery.scopeId");
+        ArgumentValidator.notEmptyOrNull(bundleId, "bundleId");
+        ArgumentValidator.notNull(resultHandler, "resultHandler");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.execute, deviceQuery.getScopeId()));
+
+        //
+        // Do start/stop
+        DeviceCallFanOutExecutor<BundleRequestChannel, BundleRequestPayload, BundleRequestMessage, BundleResponseMessage> deviceApplicationCalls =
+                new DeviceCallFanOutExecutor<>(deviceQuery, device -> newStartStopRequestMessage(device.getScopeId(), device.getId(), bundleId, start), timeout);
+
+        deviceApplicationCalls.send((deviceId, responseMessage, exception) -> {
+            KapuaException deviceException = exception;
+            if (deviceException == null) {
+                try {
+                    //
+                    // Create event
+                    createDeviceEvent(deviceQuery.getScopeId(), deviceId, newStartStopRequestMessage(deviceQuery.getScopeId(), deviceId, bundleId, start), responseMessage);
+
+                    //
+                    // Check response
+                    checkStartStopResponse(responseMessage, start);
+                } catch (KapuaException e) {
+                    deviceException = e;
+                }
+            }
+
+            resultHandler.onResult(deviceId, null, deviceException);
+        });
+    }
+
+    private static BundleRequestMessage newStartStopRequestMessage(KapuaId scopeId, KapuaId deviceId, String bundleId, boolean start) {
         BundleRequestChannel bundleRequestChannel = new BundleRequestChannel();
         bundleRequestChannel.setAppName(DeviceBundleAppProperties.APP_NAME);
         bundleRequestChannel.setVersion(DeviceBundleAppProperties.APP_VERSION);
         bundleRequestChannel.setMethod(KapuaMethod.EXECUTE);
-        bundleRequestChannel.setStart(false);
+        bundleRequestChannel.setStart(start);
         bundleRequestChannel.setBundleId(bundleId);
 
         BundleRequestPayload bundleRequestPayload = new BundleRequestPayload();
@@ -195,22 +247,12 @@ public class DeviceBundleManagementServiceImpl extends AbstractDeviceManagementS
         bundleRequestMessage.setCapturedOn(new Date());
         bundleRequestMessage.setPayload(bundleRequestPayload);
         bundleRequestMessage.setChannel(bundleRequestChannel);
+        return bundleRequestMessage;
+    }
 
-        //
-        // Do stop
-        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(bundleRequestMessage, timeout);
-        BundleResponseMessage responseMessage = (BundleResponseMessage) deviceApplicationCall.send();
-
-        //
-        // Create event
-        createDeviceEvent(scopeId, deviceId, bundleRequestMessage, responseMessage);
-
-        //
-        // Check response
+    private static void checkStartStopResponse(BundleResponseMessage responseMessage, boolean start) throws KapuaException {
         if (!responseMessage.getResponseCode().isAccepted()) {
-            KapuaResponsePayload responsePayload = responseMessage.getPayload();
-
-            throw new KapuaException(BundleManagementResponseErrorCodes.BUNDLE_STOP_ERROR);
+            throw new KapuaException(start ? BundleManagementResponseErrorCodes.BUNDLE_START_ERROR : BundleManagementResponseErrorCodes.BUNDLE_STOP_ERROR);
         }
     }
 
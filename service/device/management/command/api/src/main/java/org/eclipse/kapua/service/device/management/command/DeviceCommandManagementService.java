@@ -14,6 +14,8 @@ package org.eclipse.kapua.service.device.management.command;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 
 /**
  * Device bundle service definition.
@@ -33,4 +35,18 @@ public interface DeviceCommandManagementService extends KapuaService {
      * @throws KapuaException
      */
     DeviceCommandOutput exec(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout) throws KapuaException;
+
+    /**
+     * Execute the given device command with the provided options on all the devices matching the given query.
+     * <p>
+     * The command is sent to the devices concurrently and the output of each device is handed to the {@link DeviceManagementResultHandler} as the devices respond.
+     *
+     * @param deviceQuery   The {@link DeviceQuery} which selects the devices, i.e. by ids or by tag.
+     * @param commandInput
+     * @param timeout       command timeout
+     * @param resultHandler The {@link DeviceManagementResultHandler} of the {@link DeviceCommandOutput} of each device.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void exec(DeviceQuery deviceQuery, DeviceCommandInput commandInput, Long timeout, DeviceManagementResultHandler<DeviceCommandOutput> resultHandler) throws KapuaException;
 }
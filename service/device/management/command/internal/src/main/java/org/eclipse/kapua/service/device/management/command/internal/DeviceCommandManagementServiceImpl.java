@@ -17,6 +17,7 @@ import org.eclipse.kapua.locator.KapuaProvider;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.management.DeviceManagementDomains;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
 import org.eclipse.kapua.service.device.management.command.DeviceCommandInput;
 import org.eclipse.kapua.service.device.management.command.DeviceCommandManagementService;
 import org.eclipse.kapua.service.device.management.command.DeviceCommandOutput;
@@ -28,8 +29,10 @@ import org.eclipse.kapua.service.device.management.command.message.internal.Comm
 import org.eclipse.kapua.service.device.management.command.message.internal.CommandResponsePayload;
 import org.eclipse.kapua.service.device.management.commons.AbstractDeviceManagementServiceImpl;
 import org.eclipse.kapua.service.device.management.commons.call.DeviceCallExecutor;
+import org.eclipse.kapua.service.device.management.commons.call.DeviceCallFanOutExecutor;
 import org.eclipse.kapua.service.device.management.message.KapuaMethod;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponsePayload;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 
 import java.util.Date;
 
@@ -57,6 +60,67 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
 
         //
         // Prepare the request
+        CommandRequestMessage commandRequestMessage = newCommandRequestMessage(scopeId, deviceId, commandInput);
+
+        //
+        // Do exec
+        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(commandRequestMessage, timeout);
+        CommandResponseMessage responseMessage = (CommandResponseMessage) deviceApplicationCall.send();
+
+        //
+        // Create event
+        createDeviceEvent(scopeId, deviceId, commandRequestMessage, responseMessage);
+
+        //
+        // Check response
+        return readCommandOutput(responseMessage);
+    }
+
+    @Override
+    public void exec(DeviceQuery deviceQuery, DeviceCommandInput commandInput, Long timeout, DeviceManagementResultHandler<DeviceCommandOutput> resultHandler)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceQuery, "deviceQuery");
+        ArgumentValidator.notNull(deviceQuery.getScopeId(), "deviceQuery.scopeId");
+        ArgumentValidator.notNull(commandInput, "commandInput");
+        ArgumentValidator.notNull(commandInput.getTimeout(), "commandInput.timeout");
+        ArgumentValidator.notNull(resultHandler, "resultHandler");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.execute, deviceQuery.getScopeId()));
+
+        //
+        // Do exec
+        DeviceCallFanOutExecutor<CommandRequestChannel, CommandRequestPayload, CommandRequestMessage, CommandResponseMessage> deviceApplicationCalls =
+                new DeviceCallFanOutExecutor<>(deviceQuery, device -> newCommandRequestMessage(device.getScopeId(), device.getId(), commandInput), timeout);
+
+        deviceApplicationCalls.send((deviceId, responseMessage, exception) -> {
+            if (exception != null) {
+                resultHandler.onResult(deviceId, null, exception);
+                return;
+            }
+
+            DeviceCommandOutput deviceCommandOutput;
+            try {
+                //
+                // Create event
+                createDeviceEvent(deviceQuery.getScopeId(), deviceId, newCommandRequestMessage(deviceQuery.getScopeId(), deviceId, commandInput), responseMessage);
+
+                //
+                // Check response
+                deviceCommandOutput = readCommandOutput(responseMessage);
+            } catch (KapuaException e) {
+                resultHandler.onResult(deviceId, null, e);
+                return;
+            }
+
+            resultHandler.onResult(deviceId, deviceCommandOutput, null);
+        });
+    }
+
+    private static CommandRequestMessage newCommandRequestMessage(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput) {
         CommandRequestChannel commandRequestChannel = new CommandRequestChannel();
         commandRequestChannel.setAppName(CommandAppProperties.APP_NAME);
         commandRequestChannel.setVersion(CommandAppProperties.APP_VERSION);
@@ -79,18 +143,10 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
         commandRequestMessage.setCapturedOn(new Date());
         commandRequestMessage.setPayload(commandRequestPayload);
         commandRequestMessage.setChannel(commandRequestChannel);
+        return commandRequestMessage;
+    }
 
-        //
-        // Do exec
-        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(commandRequestMessage, timeout);
-        CommandResponseMessage responseMessage = (CommandResponseMessage) deviceApplicationCall.send();
-
-        //
-        // Create event
-        createDeviceEvent(scopeId, deviceId, commandRequestMessage, responseMessage);
-
-        //
-        // Check response
+    private static DeviceCommandOutput readCommandOutput(CommandResponseMessage responseMessage) throws CommandExecuteManagementException {
         if (responseMessage.getResponseCode().isAccepted()) {
             CommandResponsePayload responsePayload = responseMessage.getPayload();
 
@@ -14,6 +14,8 @@ package org.eclipse.kapua.service.device.management.configuration;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 
 /**
  * Device configuration service definition.
@@ -61,6 +63,20 @@ public interface DeviceConfigurationManagementService extends KapuaService {
      */
     void put(KapuaId scopeId, KapuaId deviceId, DeviceConfiguration deviceConfig, Long timeout) throws KapuaException;
 
+    /**
+     * Put the device configuration to all the devices matching the given query.
+     * <p>
+     * The configuration is sent to the devices concurrently and the outcome for each device is handed to the {@link DeviceManagementResultHandler} as the devices respond.
+     *
+     * @param deviceQuery   The {@link DeviceQuery} which selects the devices, i.e. by ids or by tag.
+     * @param deviceConfig
+     * @param timeout
+     * @param resultHandler The {@link DeviceManagementResultHandler} of the outcome for each device.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void put(DeviceQuery deviceQuery, DeviceConfiguration deviceConfig, Long timeout, DeviceManagementResultHandler<Void> resultHandler) throws KapuaException;
+
     /**
      * Put the provided configuration to the device identified by the provided device identifier
      *
@@ -19,8 +19,10 @@ import org.eclipse.kapua.locator.KapuaProvider;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.management.DeviceManagementDomains;
+import org.eclipse.kapua.service.device.management.DeviceManagementResultHandler;
 import org.eclipse.kapua.service.device.management.commons.AbstractDeviceManagementServiceImpl;
 import org.eclipse.kapua.service.device.management.commons.call.DeviceCallExecutor;
+import org.eclipse.kapua.service.device.management.commons.call.DeviceCallFanOutExecutor;
 import org.eclipse.kapua.service.device.management.commons.exception.DeviceManagementErrorCodes;
 import org.eclipse.kapua.service.device.management.commons.exception.DeviceManagementException;
 import org.eclipse.kapua.service.device.management.commons.setting.DeviceManagementSetting;
@@ -38,6 +40,7 @@ import org.eclipse.kapua.service.device.management.configuration.message.interna
 import org.eclipse.kapua.service.device.management.configuration.message.internal.ConfigurationResponsePayload;
 import org.eclipse.kapua.service.device.management.message.KapuaMethod;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponsePayload;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 import org.xml.sax.SAXException;
 
 import javax.xml.bind.JAXBException;
@@ -222,25 +225,86 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
 
         //
         // Prepare the request
-        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
-        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
-        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
-        configurationRequestChannel.setMethod(KapuaMethod.WRITE);
+        ConfigurationRequestMessage configurationRequestMessage = newPutRequestMessage(scopeId, deviceId, marshalRequestBody(deviceConfiguration));
 
-        ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
+        //
+        // Do put
+        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(configurationRequestMessage, timeout);
+        ConfigurationResponseMessage responseMessage = (ConfigurationResponseMessage) deviceApplicationCall.send();
+
+        //
+        // Create event
+        createDeviceEvent(scopeId, deviceId, configurationRequestMessage, responseMessage);
+
+        //
+        // Check response
+        checkPutResponse(responseMessage);
+    }
+
+    @Override
+    public void put(DeviceQuery deviceQuery, DeviceConfiguration deviceConfiguration, Long timeout, DeviceManagementResultHandler<Void> resultHandler)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceQuery, "deviceQuery");
+        ArgumentValidator.notNull(deviceQuery.getScopeId(), "deviceQuery.scopeId");
+        ArgumentValidator.notNull(deviceConfiguration, "componentConfiguration");
+        ArgumentValidator.notNull(resultHandler, "resultHandler");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.write, deviceQuery.getScopeId()));
+
+        //
+        // Prepare the request, the configuration is marshalled once for all the devices
+        byte[] requestBody = marshalRequestBody(deviceConfiguration);
+
+        //
+        // Do put
+        DeviceCallFanOutExecutor<ConfigurationRequestChannel, ConfigurationRequestPayload, ConfigurationRequestMessage, ConfigurationResponseMessage> deviceApplicationCalls =
+                new DeviceCallFanOutExecutor<>(deviceQuery, device -> newPutRequestMessage(device.getScopeId(), device.getId(), requestBody), timeout);
+
+        deviceApplicationCalls.send((deviceId, responseMessage, exception) -> {
+            KapuaException deviceException = exception;
+            if (deviceException == null) {
+                try {
+                    //
+                    // Create event
+                    createDeviceEvent(deviceQuery.getScopeId(), deviceId, newPutRequestMessage(deviceQuery.getScopeId(), deviceId, requestBody), responseMessage);
+
+                    //
+                    // Check response
+                    checkPutResponse(responseMessage);
+                } catch (KapuaException e) {
+                    deviceException = e;
+                }
+            }
+
+            resultHandler.onResult(deviceId, null, deviceException);
+        });
+    }
 
+    private static byte[] marshalRequestBody(DeviceConfiguration deviceConfiguration) throws DeviceManagementException {
         try {
             DeviceManagementSetting deviceManagementConfig = DeviceManagementSetting.getInstance();
             String charEncoding = deviceManagementConfig.getString(DeviceManagementSettingKey.CHAR_ENCODING);
 
             StringWriter sw = new StringWriter();
             XmlUtil.marshal(deviceConfiguration, sw);
-            byte[] requestBody = sw.toString().getBytes(charEncoding);
-
-            configurationRequestPayload.setBody(requestBody);
+            return sw.toString().getBytes(charEncoding);
         } catch (Exception e) {
             throw new DeviceManagementException(DeviceManagementErrorCodes.REQUEST_EXCEPTION, e, deviceConfiguration);
         }
+    }
+
+    private static ConfigurationRequestMessage newPutRequestMessage(KapuaId scopeId, KapuaId deviceId, byte[] requestBody) {
+        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
+        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
+        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
+        configurationRequestChannel.setMethod(KapuaMethod.WRITE);
+
+        ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
+        configurationRequestPayload.setBody(requestBody);
 
         ConfigurationRequestMessage configurationRequestMessage = new ConfigurationRequestMessage();
         configurationRequestMessage.setScopeId(scopeId);
@@ -248,18 +312,10 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
         configurationRequestMessage.setCapturedOn(new Date());
         configurationRequestMessage.setPayload(configurationRequestPayload);
         configurationRequestMessage.setChannel(configurationRequestChannel);
+        return configurationRequestMessage;
+    }
 
-        //
-        // Do put
-        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(configurationRequestMessage, timeout);
-        ConfigurationResponseMessage responseMessage = (ConfigurationResponseMessage) deviceApplicationCall.send();
-
-        //
-        // Create event
-        createDeviceEvent(scopeId, deviceId, configurationRequestMessage, responseMessage);
-
-        //
-        // Check response
+    private static void checkPutResponse(ConfigurationResponseMessage responseMessage) throws ConfigurationPutManagementException {
         if (!responseMessage.getResponseCode().isAccepted()) {
             KapuaResponsePayload responsePayload = responseMessage.getPayload();
 
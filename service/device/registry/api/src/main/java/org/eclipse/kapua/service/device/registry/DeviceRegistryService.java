@@ -18,6 +18,8 @@ import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
+import java.util.List;
+
 /**
  * Device registry service definition.
  *
@@ -47,4 +49,31 @@ public interface DeviceRegistryService extends KapuaEntityService<Device, Device
      * @throws KapuaException
      */
     Device findByClientId(KapuaId scopeId, String clientId) throws KapuaException;
+
+    /**
+     * Creates many {@link Device}s in a single transaction.
+     * <p>
+     * The same checks of {@link #create(DeviceCreator)} are performed on each {@link DeviceCreator}, then all the {@link Device}s are written at once,
+     * so that provisioning a large number of {@link Device}s does not pay a transaction for each {@link Device}.
+     * If one of the {@link Device}s cannot be created none of them is created.
+     *
+     * @param deviceCreators The {@link DeviceCreator}s of the {@link Device}s to create.
+     * @return The created {@link Device}s, in the same order of the {@link DeviceCreator}s.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<Device> createAll(List<DeviceCreator> deviceCreators) throws KapuaException;
+
+    /**
+     * Updates many {@link Device}s in a single transaction.
+     * <p>
+     * The same checks of {@link #update(Device)} are performed on each {@link Device}, then all the {@link Device}s are written at once.
+     * If one of the {@link Device}s cannot be updated none of them is updated.
+     *
+     * @param devices The {@link Device}s to update.
+     * @return The updated {@link Device}s, in the same order.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<Device> updateAll(List<Device> devices) throws KapuaException;
 }
@@ -25,7 +25,11 @@ public enum KapuaDeviceRegistrySettingKeys implements SettingKey {
      * The key value in the configuration resources.
      */
     DEVICE_REGISTRY_KEY("device_registry.key"),
-    DEVICE_EVENT_ADDRESS("device.eventAddress");
+    DEVICE_EVENT_ADDRESS("device.eventAddress"),
+    /**
+     * The max number of device life cycle writes (of different devices) grouped in a single transaction
+     */
+    DEVICE_LIFECYCLE_BATCH_SIZE("device.lifecycle.batch_size");
 
     private String key;
 
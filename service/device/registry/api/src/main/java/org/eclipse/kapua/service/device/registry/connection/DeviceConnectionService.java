@@ -18,6 +18,10 @@ import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * DeviceConnectionService exposes APIs to retrieve Device connections under a scope.
  * It includes APIs to find, list, and update devices connections associated with a scope.
@@ -51,6 +55,33 @@ public interface DeviceConnectionService extends KapuaEntityService<DeviceConnec
     DeviceConnectionListResult query(KapuaQuery<DeviceConnection> query)
             throws KapuaException;
 
+    /**
+     * Updates many {@link DeviceConnection}s in a single transaction.
+     * <p>
+     * If one of the {@link DeviceConnection}s cannot be updated none of them is updated.
+     *
+     * @param deviceConnections The {@link DeviceConnection}s to update.
+     * @return The updated {@link DeviceConnection}s, in the same order.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<DeviceConnection> updateAll(List<DeviceConnection> deviceConnections)
+            throws KapuaException;
+
+    /**
+     * Applies the provided changes to many {@link DeviceConnection}s in a single transaction.
+     * <p>
+     * The {@link DeviceConnection}s are loaded with a single query and the changes are applied to the loaded instances,
+     * so they are written on commit. The identifiers not matching any {@link DeviceConnection} are skipped.
+     *
+     * @param deviceConnectionChanges The changes to apply, by {@link DeviceConnection} identifier.
+     * @return The updated {@link DeviceConnection}s.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<DeviceConnection> updateAll(Map<KapuaId, Consumer<DeviceConnection>> deviceConnectionChanges)
+            throws KapuaException;
+
     /**
      * Updated the status of provided device connection to connected;
      * if a device connection for the provided clientId is not found,
@@ -36,7 +36,12 @@ import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.service.tag.Tag;
 import org.eclipse.kapua.service.tag.TagService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Provides logic used to validate preconditions required to execute the device service operation.
@@ -145,6 +150,69 @@ public final class DeviceValidation {
         return device;
     }
 
+    /**
+     * Validates the devices updates precondition.
+     * <p>
+     * Checks the same preconditions of {@link #validateUpdatePreconditions(Device)}, but the current groups of the devices are read with one query for each scope
+     * and each group, tag and permission is checked once, whatever the number of devices referring it.
+     *
+     * @param devices
+     * @return
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    public static List<Device> validateUpdateAllPreconditions(List<Device> devices) throws KapuaException {
+        ArgumentValidator.notNull(devices, "devices");
+
+        Map<KapuaId, List<KapuaId>> deviceIdsByScopeId = new HashMap<>();
+        for (Device device : devices) {
+            ArgumentValidator.notNull(device, "device");
+            ArgumentValidator.notNull(device.getId(), "device.id");
+            ArgumentValidator.notNull(device.getScopeId(), "device.scopeId");
+
+            deviceIdsByScopeId.computeIfAbsent(device.getScopeId(), scopeId -> new ArrayList<>()).add(device.getId());
+        }
+
+        // Check that current user can manage the current groups and the target groups of the devices
+        Map<KapuaId, Set<KapuaId>> groupIdsByScopeId = new HashMap<>();
+        for (Map.Entry<KapuaId, List<KapuaId>> scopeDeviceIds : deviceIdsByScopeId.entrySet()) {
+            groupIdsByScopeId.put(scopeDeviceIds.getKey(), findCurrentGroupIds(scopeDeviceIds.getKey(), scopeDeviceIds.getValue()));
+        }
+
+        Map<KapuaId, Set<KapuaId>> targetGroupIdsByScopeId = new HashMap<>();
+        Map<KapuaId, Set<KapuaId>> tagIdsByScopeId = new HashMap<>();
+        for (Device device : devices) {
+            groupIdsByScopeId.get(device.getScopeId()).add(device.getGroupId());
+            if (device.getGroupId() != null) {
+                targetGroupIdsByScopeId.computeIfAbsent(device.getScopeId(), scopeId -> new HashSet<>()).add(device.getGroupId());
+            }
+            tagIdsByScopeId.computeIfAbsent(device.getScopeId(), scopeId -> new HashSet<>()).addAll(device.getTagIds());
+        }
+
+        for (Map.Entry<KapuaId, Set<KapuaId>> scopeGroupIds : targetGroupIdsByScopeId.entrySet()) {
+            for (KapuaId groupId : scopeGroupIds.getValue()) {
+                ArgumentValidator.notNull(KapuaSecurityUtils.doPrivileged(() -> groupService.find(scopeGroupIds.getKey(), groupId)), "device.groupId");
+            }
+        }
+
+        for (Map.Entry<KapuaId, Set<KapuaId>> scopeGroupIds : groupIdsByScopeId.entrySet()) {
+            for (KapuaId groupId : scopeGroupIds.getValue()) {
+                authorizationService.checkPermission(permissionFactory.newPermission(DEVICE_DOMAIN, Actions.write, scopeGroupIds.getKey(), groupId));
+            }
+        }
+
+        for (Map.Entry<KapuaId, Set<KapuaId>> scopeTagIds : tagIdsByScopeId.entrySet()) {
+            for (KapuaId tagId : scopeTagIds.getValue()) {
+                Tag tag = KapuaSecurityUtils.doPrivileged(() -> tagService.find(scopeTagIds.getKey(), tagId));
+                if (tag == null) {
+                    throw new KapuaEntityNotFoundException(Tag.TYPE, tagId);
+                }
+            }
+        }
+
+        return devices;
+    }
+
     /**
      * Validates the find device precondition
      *
@@ -250,4 +318,34 @@ public final class DeviceValidation {
 
         return groupId;
     }
+
+    /**
+     * Finds the current {@link Group} ids assigned to the given {@link Device} ids.
+     *
+     * @param scopeId   The scope {@link KapuaId} of the {@link Device}s
+     * @param entityIds The {@link KapuaEntity} {@link KapuaId}s of the {@link Device}s.
+     * @return The {@link Group} ids found, without duplicates.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    private static Set<KapuaId> findCurrentGroupIds(KapuaId scopeId, List<KapuaId> entityIds) throws KapuaException {
+        DeviceQuery query = deviceFactory.newQuery(scopeId);
+        query.setPredicate(query.attributePredicate(DeviceAttributes.ENTITY_ID, entityIds.toArray(new KapuaId[0])));
+
+        DeviceListResult results = null;
+        try {
+            results = KapuaSecurityUtils.doPrivileged(() -> deviceRegistryService.query(query));
+        } catch (Exception e) {
+            throw KapuaException.internalError(e, "Error while searching groupIds");
+        }
+
+        Set<KapuaId> groupIds = new HashSet<>();
+        if (results != null) {
+            for (Device device : results.getItems()) {
+                groupIds.add(device.getGroupId());
+            }
+        }
+
+        return groupIds;
+    }
 }
@@ -18,9 +18,20 @@ import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionAttributes;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionCreator;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionListResult;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * Device connection DAO
  *
@@ -64,6 +75,55 @@ public class DeviceConnectionDAO extends ServiceDAO {
         return ServiceDAO.update(em, DeviceConnectionImpl.class, deviceConnectionImpl);
     }
 
+    /**
+     * Update the provided device connections in a single flush
+     *
+     * @param em
+     * @param deviceConnections
+     * @return
+     * @throws KapuaEntityNotFoundException If one of the {@link DeviceConnection}s is not found.
+     * @since 1.1.0
+     */
+    public static List<DeviceConnection> updateAll(EntityManager em, List<DeviceConnection> deviceConnections)
+            throws KapuaEntityNotFoundException {
+        List<DeviceConnectionImpl> deviceConnectionImpls = new ArrayList<>(deviceConnections.size());
+        for (DeviceConnection deviceConnection : deviceConnections) {
+            deviceConnectionImpls.add((DeviceConnectionImpl) deviceConnection);
+        }
+
+        return new ArrayList<>(ServiceDAO.updateAll(em, DeviceConnectionImpl.class, deviceConnectionImpls));
+    }
+
+    /**
+     * Apply the provided changes to the device connections in a single flush.<br>
+     * The device connections to update are loaded with a single query and the changes are applied to the loaded instances.
+     *
+     * @param em
+     * @param deviceConnectionChanges
+     * @return
+     * @since 1.1.0
+     */
+    public static List<DeviceConnection> updateAll(EntityManager em, Map<KapuaId, Consumer<DeviceConnection>> deviceConnectionChanges) {
+        Map<BigInteger, Consumer<DeviceConnection>> changesById = new HashMap<>();
+        for (Map.Entry<KapuaId, Consumer<DeviceConnection>> deviceConnectionChange : deviceConnectionChanges.entrySet()) {
+            changesById.put(deviceConnectionChange.getKey().getId(), deviceConnectionChange.getValue());
+        }
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<DeviceConnectionImpl> criteriaQuery = cb.createQuery(DeviceConnectionImpl.class);
+        Root<DeviceConnectionImpl> deviceConnectionRoot = criteriaQuery.from(DeviceConnectionImpl.class);
+        criteriaQuery.select(deviceConnectionRoot).where(deviceConnectionRoot.get(DeviceConnectionAttributes.ENTITY_ID).get("eid").in(changesById.keySet()));
+
+        List<DeviceConnection> updatedDeviceConnections = new ArrayList<>(changesById.size());
+        for (DeviceConnectionImpl deviceConnectionImpl : em.createQuery(criteriaQuery).getResultList()) {
+            changesById.get(deviceConnectionImpl.getId().getId()).accept(deviceConnectionImpl);
+            updatedDeviceConnections.add(deviceConnectionImpl);
+        }
+        em.flush();
+
+        return updatedDeviceConnections;
+    }
+
     /**
      * Find the device connection by device connection identifier
      *
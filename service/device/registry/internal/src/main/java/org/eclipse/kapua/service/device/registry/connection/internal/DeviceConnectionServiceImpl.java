@@ -35,6 +35,11 @@ import org.eclipse.kapua.service.device.registry.internal.DeviceEntityManagerFac
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * DeviceConnectionService exposes APIs to retrieve Device connections under a scope.
  * It includes APIs to find, list, and update devices connections associated with a scope.
@@ -102,6 +107,57 @@ public class DeviceConnectionServiceImpl extends
         });
     }
 
+    @Override
+    public List<DeviceConnection> updateAll(List<DeviceConnection> deviceConnections)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceConnections, "deviceConnections");
+        for (DeviceConnection deviceConnection : deviceConnections) {
+            ArgumentValidator.notNull(deviceConnection, "deviceConnection");
+            ArgumentValidator.notNull(deviceConnection.getId(), "deviceConnection.id");
+            ArgumentValidator.notNull(deviceConnection.getScopeId(), "deviceConnection.scopeId");
+        }
+
+        //
+        // Check Access
+        KapuaLocator locator = KapuaLocator.getInstance();
+        AuthorizationService authorizationService = locator.getService(AuthorizationService.class);
+        PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
+        authorizationService.checkPermission(permissionFactory.newPermission(DeviceDomains.DEVICE_CONNECTION_DOMAIN, Actions.write, null));
+
+        if (deviceConnections.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return entityManagerSession.onTransactedResult(em -> DeviceConnectionDAO.updateAll(em, deviceConnections));
+    }
+
+    @Override
+    public List<DeviceConnection> updateAll(Map<KapuaId, Consumer<DeviceConnection>> deviceConnectionChanges)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceConnectionChanges, "deviceConnectionChanges");
+        for (Map.Entry<KapuaId, Consumer<DeviceConnection>> deviceConnectionChange : deviceConnectionChanges.entrySet()) {
+            ArgumentValidator.notNull(deviceConnectionChange.getKey(), "deviceConnectionChanges.id");
+            ArgumentValidator.notNull(deviceConnectionChange.getValue(), "deviceConnectionChanges.changes");
+        }
+
+        //
+        // Check Access
+        KapuaLocator locator = KapuaLocator.getInstance();
+        AuthorizationService authorizationService = locator.getService(AuthorizationService.class);
+        PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
+        authorizationService.checkPermission(permissionFactory.newPermission(DeviceDomains.DEVICE_CONNECTION_DOMAIN, Actions.write, null));
+
+        if (deviceConnectionChanges.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return entityManagerSession.onTransactedResult(em -> DeviceConnectionDAO.updateAll(em, deviceConnectionChanges));
+    }
+
     @Override
     public DeviceConnection find(KapuaId scopeId, KapuaId entityId)
             throws KapuaException {
@@ -17,6 +17,7 @@ import org.eclipse.kapua.commons.jpa.EntityManager;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventListResult;
@@ -36,6 +37,31 @@ public class DeviceEventDAO extends ServiceDAO {
      * @return
      */
     public static DeviceEvent create(EntityManager em, DeviceEventCreator deviceEventCreator) {
+        return ServiceDAO.create(em, newDeviceEvent(deviceEventCreator));
+    }
+
+    /**
+     * Create a new {@link DeviceEvent} and set it as last event of the {@link Device}.<br>
+     * The device must be managed by the provided {@link EntityManager}, so the event insert and the device update (including the changes already applied to the device)
+     * are flushed together.
+     *
+     * @param em
+     * @param device
+     * @param deviceEventCreator
+     * @return
+     */
+    public static DeviceEvent create(EntityManager em, Device device, DeviceEventCreator deviceEventCreator) {
+        DeviceEvent deviceEvent = newDeviceEvent(deviceEventCreator);
+
+        // the id is generated on persist
+        em.persist(deviceEvent);
+        device.setLastEventId(deviceEvent.getId());
+        em.flush();
+
+        return deviceEvent;
+    }
+
+    private static DeviceEvent newDeviceEvent(DeviceEventCreator deviceEventCreator) {
         DeviceEvent deviceEvent = new DeviceEventImpl(deviceEventCreator.getScopeId());
         deviceEvent.setDeviceId(deviceEventCreator.getDeviceId());
         deviceEvent.setReceivedOn(deviceEventCreator.getReceivedOn());
@@ -45,8 +71,7 @@ public class DeviceEventDAO extends ServiceDAO {
         deviceEvent.setResponseCode(deviceEventCreator.getResponseCode());
         deviceEvent.setEventMessage(deviceEventCreator.getEventMessage());
         deviceEvent.setPosition(deviceEventCreator.getPosition());
-
-        return ServiceDAO.create(em, deviceEvent);
+        return deviceEvent;
     }
 
     /**
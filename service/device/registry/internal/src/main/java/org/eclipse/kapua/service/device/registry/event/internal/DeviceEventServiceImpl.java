@@ -30,6 +30,7 @@ import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventListResult;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.eclipse.kapua.service.device.registry.internal.DeviceDAO;
 import org.eclipse.kapua.service.device.registry.internal.DeviceEntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,28 +85,38 @@ public class DeviceEventServiceImpl extends AbstractKapuaService implements Devi
             throw new KapuaEntityNotFoundException(Device.TYPE, deviceEventCreator.getDeviceId());
         }
 
-        // Create the event
-        DeviceEvent deviceEvent = entityManagerSession.onTransactedInsert(entityManager -> DeviceEventDAO.create(entityManager, deviceEventCreator));
-
-        // Update last event id if necessary
+        // Create the event and update the last event id of the device in the same transaction
         if (updateDeviceLastEventId) {
-            Device device = deviceRegistryService.find(deviceEvent.getScopeId(), deviceEvent.getDeviceId());
-            if (device != null) {
-                device.setLastEventId(deviceEvent.getId());
-
-                try {
-                    deviceRegistryService.update(device);
-                } catch (KapuaOptimisticLockingException kole) {
-                    LOG.warn("Update of field 'lastEventOn' failed due to concurrent updates on the device: {} ({}) - {} {}. Error: {}", device.getId(), device.getClientId(), deviceEvent.getReceivedOn(), deviceEvent.getResource(),kole.getMessage());
-                    LOG.debug("Update of field 'lastEventOn' failed due to concurrent updates on the device: {} ({}) - {} {}. See following exception...", device.getId(), device.getClientId(), deviceEvent.getReceivedOn(), deviceEvent.getResource());
-                    LOG.debug("Error:", kole);
-                }
+            try {
+                return createAndUpdateDevice(deviceEventCreator);
+            } catch (KapuaOptimisticLockingException kole) {
+                LOG.debug("Update of field 'lastEventId' failed due to concurrent updates on the device: {} - {} {}. Retrying...", deviceEventCreator.getDeviceId(), deviceEventCreator.getReceivedOn(), deviceEventCreator.getResource());
+            }
+
+            try {
+                return createAndUpdateDevice(deviceEventCreator);
+            } catch (KapuaOptimisticLockingException kole) {
+                LOG.warn("Update of field 'lastEventId' failed due to concurrent updates on the device: {} - {} {}. Error: {}", deviceEventCreator.getDeviceId(), deviceEventCreator.getReceivedOn(), deviceEventCreator.getResource(), kole.getMessage());
+                LOG.debug("Error:", kole);
             }
         }
 
+        // Create the event
+        DeviceEvent deviceEvent = entityManagerSession.onTransactedInsert(entityManager -> DeviceEventDAO.create(entityManager, deviceEventCreator));
+
         return deviceEvent;
     }
 
+    private DeviceEvent createAndUpdateDevice(DeviceEventCreator deviceEventCreator) throws KapuaException {
+        return entityManagerSession.onTransactedInsert(entityManager -> {
+            Device device = DeviceDAO.find(entityManager, deviceEventCreator.getScopeId(), deviceEventCreator.getDeviceId());
+            if (device == null) {
+                throw new KapuaEntityNotFoundException(Device.TYPE, deviceEventCreator.getDeviceId());
+            }
+            return DeviceEventDAO.create(entityManager, device, deviceEventCreator);
+        });
+    }
+
     @Override
     public DeviceEvent find(KapuaId scopeId, KapuaId entityId)
             throws KapuaException {
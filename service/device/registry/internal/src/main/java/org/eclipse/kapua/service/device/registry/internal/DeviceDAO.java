@@ -23,6 +23,7 @@ import org.eclipse.kapua.service.device.registry.DeviceCreator;
 import org.eclipse.kapua.service.device.registry.DeviceDomains;
 import org.eclipse.kapua.service.device.registry.DeviceListResult;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,7 +41,28 @@ public class DeviceDAO extends ServiceDAO {
      * @return
      */
     public static Device create(EntityManager em, DeviceCreator deviceCreator) {
-        Device device = new DeviceImpl(deviceCreator.getScopeId());
+        return ServiceDAO.create(em, newDevice(deviceCreator));
+    }
+
+    /**
+     * Creates the new Devices in a single flush
+     *
+     * @param em
+     * @param deviceCreators
+     * @return
+     * @since 1.1.0
+     */
+    public static List<Device> createAll(EntityManager em, List<DeviceCreator> deviceCreators) {
+        List<DeviceImpl> devices = new ArrayList<>(deviceCreators.size());
+        for (DeviceCreator deviceCreator : deviceCreators) {
+            devices.add(newDevice(deviceCreator));
+        }
+
+        return new ArrayList<>(ServiceDAO.createAll(em, DeviceImpl.class, devices));
+    }
+
+    private static DeviceImpl newDevice(DeviceCreator deviceCreator) {
+        DeviceImpl device = new DeviceImpl(deviceCreator.getScopeId());
 
         device.setGroupId(deviceCreator.getGroupId());
         device.setClientId(deviceCreator.getClientId());
@@ -71,7 +93,7 @@ public class DeviceDAO extends ServiceDAO {
         device.setConnectionId(deviceCreator.getConnectionId());
         device.setLastEventId(deviceCreator.getLastEventId());
 
-        return ServiceDAO.create(em, device);
+        return device;
     }
 
     /**
@@ -87,6 +109,24 @@ public class DeviceDAO extends ServiceDAO {
         return ServiceDAO.update(em, DeviceImpl.class, deviceImpl);
     }
 
+    /**
+     * Updates the provided devices in a single flush
+     *
+     * @param em
+     * @param devices
+     * @return
+     * @throws KapuaEntityNotFoundException If one of the {@link Device}s is not found.
+     * @since 1.1.0
+     */
+    public static List<Device> updateAll(EntityManager em, List<Device> devices) throws KapuaEntityNotFoundException {
+        List<DeviceImpl> deviceImpls = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            deviceImpls.add((DeviceImpl) device);
+        }
+
+        return new ArrayList<>(ServiceDAO.updateAll(em, DeviceImpl.class, deviceImpls));
+    }
+
     /**
      * Finds the device by device identifier
      *
@@ -16,7 +16,9 @@ import org.eclipse.kapua.KapuaDuplicateNameException;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.KapuaMaxNumberOfItemsReachedException;
+import org.eclipse.kapua.commons.cache.IdentityResolutionCache;
 import org.eclipse.kapua.commons.configuration.AbstractKapuaConfigurableResourceLimitedService;
+import org.eclipse.kapua.commons.util.ArgumentValidator;
 import org.eclipse.kapua.event.ServiceEvent;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.locator.KapuaProvider;
@@ -35,6 +37,13 @@ import org.eclipse.kapua.service.device.registry.common.DeviceValidation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * {@link DeviceRegistryService} implementation.
  *
@@ -77,7 +86,55 @@ public class DeviceRegistryServiceImpl extends AbstractKapuaConfigurableResource
         if (!deviceListResult.isEmpty()) {
             throw new KapuaDuplicateNameException(deviceCreator.getClientId());
         }
-        return entityManagerSession.onTransactedInsert(entityManager -> DeviceDAO.create(entityManager, deviceCreator));
+        Device device = entityManagerSession.onTransactedInsert(entityManager -> DeviceDAO.create(entityManager, deviceCreator));
+
+        // The client id could be cached as not existing
+        IdentityResolutionCache.getInstance().invalidateDevice(device.getScopeId(), device.getClientId());
+
+        return device;
+    }
+
+    @Override
+    public List<Device> createAll(List<DeviceCreator> deviceCreators) throws KapuaException {
+        ArgumentValidator.notNull(deviceCreators, "deviceCreators");
+
+        Map<KapuaId, Set<String>> clientIdsByScopeId = new HashMap<>();
+        for (DeviceCreator deviceCreator : deviceCreators) {
+            DeviceValidation.validateCreatePreconditions(deviceCreator);
+
+            Set<String> clientIds = clientIdsByScopeId.computeIfAbsent(deviceCreator.getScopeId(), scopeId -> new HashSet<>());
+            if (!clientIds.add(deviceCreator.getClientId())) {
+                throw new KapuaDuplicateNameException(deviceCreator.getClientId());
+            }
+        }
+
+        for (Map.Entry<KapuaId, Set<String>> scopeClientIds : clientIdsByScopeId.entrySet()) {
+            if (allowedChildEntities(scopeClientIds.getKey()) < scopeClientIds.getValue().size()) {
+                throw new KapuaMaxNumberOfItemsReachedException("Devices");
+            }
+
+            DeviceQuery query = new DeviceQueryImpl(scopeClientIds.getKey());
+            query.setPredicate(query.attributePredicate(DeviceAttributes.CLIENT_ID, scopeClientIds.getValue().toArray(new String[0])));
+            query.setLimit(1);
+            DeviceListResult deviceListResult = query(query);
+
+            if (!deviceListResult.isEmpty()) {
+                throw new KapuaDuplicateNameException(deviceListResult.getFirstItem().getClientId());
+            }
+        }
+
+        if (deviceCreators.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Device> devices = entityManagerSession.onTransactedInsert(entityManager -> DeviceDAO.createAll(entityManager, deviceCreators));
+
+        // The client ids could be cached as not existing
+        for (Device device : devices) {
+            IdentityResolutionCache.getInstance().invalidateDevice(device.getScopeId(), device.getClientId());
+        }
+
+        return devices;
     }
 
     @Override
@@ -94,6 +151,17 @@ public class DeviceRegistryServiceImpl extends AbstractKapuaConfigurableResource
         });
     }
 
+    @Override
+    public List<Device> updateAll(List<Device> devices) throws KapuaException {
+        DeviceValidation.validateUpdateAllPreconditions(devices);
+
+        if (devices.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return entityManagerSession.onTransactedResult(entityManager -> DeviceDAO.updateAll(entityManager, devices));
+    }
+
     @Override
     public Device find(KapuaId scopeId, KapuaId entityId) throws KapuaException {
         DeviceValidation.validateFindPreconditions(scopeId, entityId);
@@ -116,6 +184,8 @@ public class DeviceRegistryServiceImpl extends AbstractKapuaConfigurableResource
     public void delete(KapuaId scopeId, KapuaId deviceId) throws KapuaException {
         DeviceValidation.validateDeletePreconditions(scopeId, deviceId);
         entityManagerSession.onTransactedAction(entityManager -> DeviceDAO.delete(entityManager, scopeId, deviceId));
+
+        IdentityResolutionCache.getInstance().invalidateDevice(scopeId, deviceId);
     }
 
     @Override
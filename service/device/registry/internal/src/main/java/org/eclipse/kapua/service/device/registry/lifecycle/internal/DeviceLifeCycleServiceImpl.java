@@ -11,7 +11,9 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.device.registry.lifecycle.internal;
 
+import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.service.internal.AbstractKapuaService;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.locator.KapuaProvider;
@@ -23,24 +25,44 @@ import org.eclipse.kapua.message.device.lifecycle.KapuaBirthMessage;
 import org.eclipse.kapua.message.device.lifecycle.KapuaBirthPayload;
 import org.eclipse.kapua.message.device.lifecycle.KapuaDisconnectMessage;
 import org.eclipse.kapua.message.device.lifecycle.KapuaMissingMessage;
+import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
 import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.DeviceCreator;
+import org.eclipse.kapua.service.device.registry.DeviceDomains;
 import org.eclipse.kapua.service.device.registry.DeviceFactory;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.service.device.registry.KapuaDeviceRegistrySettingKeys;
+import org.eclipse.kapua.service.device.registry.KapuaDeviceRegistrySettings;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventFactory;
-import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.eclipse.kapua.service.device.registry.internal.DeviceEntityManagerFactory;
 import org.eclipse.kapua.service.device.registry.lifecycle.DeviceLifeCycleService;
 
+import java.util.function.Consumer;
+
 /**
- * {@link DeviceLifeCycleService} implementation.
+ * {@link DeviceLifeCycleService} implementation.<br>
+ * The device changes, the device event and the last event id of the device are written in a single transaction by the {@link DeviceLifeCycleWriter}.
  *
  * @since 1.0.0
  */
 @KapuaProvider
-public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
+public class DeviceLifeCycleServiceImpl extends AbstractKapuaService implements DeviceLifeCycleService {
+
+    private final DeviceLifeCycleWriter deviceLifeCycleWriter;
+
+    /**
+     * Constructor
+     */
+    public DeviceLifeCycleServiceImpl() {
+        super(DeviceEntityManagerFactory.instance());
+        int batchSize = KapuaDeviceRegistrySettings.getInstance().getInt(KapuaDeviceRegistrySettingKeys.DEVICE_LIFECYCLE_BATCH_SIZE, 100);
+        deviceLifeCycleWriter = new DeviceLifeCycleWriter(entityManagerSession, batchSize);
+    }
 
     @Override
     public void birth(KapuaId connectionId, KapuaBirthMessage message)
@@ -55,6 +77,7 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
         KapuaLocator locator = KapuaLocator.getInstance();
         DeviceRegistryService deviceRegistryService = locator.getService(DeviceRegistryService.class);
         Device device;
+        Consumer<Device> deviceChanges = null;
         if (deviceId == null) {
             String clientId = channel.getClientId();
 
@@ -85,33 +108,41 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             device = deviceRegistryService.create(deviceCreator);
         } else {
             device = deviceRegistryService.find(scopeId, deviceId);
-            device.setDisplayName(payload.getDisplayName());
-            device.setSerialNumber(payload.getSerialNumber());
-            device.setModelId(payload.getModelId());
-            device.setModelName(payload.getModelName());
-            device.setImei(payload.getModemImei());
-            device.setImsi(payload.getModemImsi());
-            device.setIccid(payload.getModemIccid());
-            device.setBiosVersion(payload.getBiosVersion());
-            device.setFirmwareVersion(payload.getFirmwareVersion());
-            device.setOsVersion(payload.getOsVersion());
-            device.setJvmVersion(payload.getJvmVersion());
-            device.setOsgiFrameworkVersion(payload.getContainerFrameworkVersion());
-            device.setApplicationFrameworkVersion(payload.getApplicationFrameworkVersion());
-            device.setConnectionInterface(payload.getConnectionInterface());
-            device.setConnectionIp(payload.getConnectionIp());
-            device.setApplicationIdentifiers(payload.getApplicationIdentifiers());
-            device.setAcceptEncoding(payload.getAcceptEncoding());
-
-            // issue #57
-            device.setConnectionId(connectionId);
-
-            deviceRegistryService.update(device);
+            if (device == null) {
+                throw new KapuaEntityNotFoundException(Device.TYPE, deviceId);
+            }
+
+            // Check that the current user can manage the device (the device is updated along with the event)
+            AuthorizationService authorizationService = locator.getService(AuthorizationService.class);
+            PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
+            authorizationService.checkPermission(permissionFactory.newPermission(DeviceDomains.DEVICE_DOMAIN, Actions.write, scopeId, device.getGroupId()));
+
+            deviceChanges = d -> {
+                d.setDisplayName(payload.getDisplayName());
+                d.setSerialNumber(payload.getSerialNumber());
+                d.setModelId(payload.getModelId());
+                d.setModelName(payload.getModelName());
+                d.setImei(payload.getModemImei());
+                d.setImsi(payload.getModemImsi());
+                d.setIccid(payload.getModemIccid());
+                d.setBiosVersion(payload.getBiosVersion());
+                d.setFirmwareVersion(payload.getFirmwareVersion());
+                d.setOsVersion(payload.getOsVersion());
+                d.setJvmVersion(payload.getJvmVersion());
+                d.setOsgiFrameworkVersion(payload.getContainerFrameworkVersion());
+                d.setApplicationFrameworkVersion(payload.getApplicationFrameworkVersion());
+                d.setConnectionInterface(payload.getConnectionInterface());
+                d.setConnectionIp(payload.getConnectionIp());
+                d.setApplicationIdentifiers(payload.getApplicationIdentifiers());
+                d.setAcceptEncoding(payload.getAcceptEncoding());
+
+                // issue #57
+                d.setConnectionId(connectionId);
+            };
         }
 
         //
         // Event create
-        DeviceEventService deviceEventService = locator.getService(DeviceEventService.class);
         DeviceEventFactory deviceEventFactory = locator.getFactory(DeviceEventFactory.class);
         DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, device.getId(), message.getReceivedOn(), "BIRTH");
 
@@ -125,7 +156,8 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             deviceEventCreator.setPosition(position);
         }
 
-        KapuaSecurityUtils.doPrivileged(() -> deviceEventService.create(deviceEventCreator));
+        Consumer<Device> birthDeviceChanges = deviceChanges;
+        KapuaSecurityUtils.doPrivileged(() -> deviceLifeCycleWriter.write(deviceEventCreator, birthDeviceChanges));
     }
 
     @Override
@@ -134,13 +166,10 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
         KapuaId scopeId = message.getScopeId();
         KapuaId deviceId = message.getDeviceId();
 
-        //
-        // Device update
         KapuaLocator locator = KapuaLocator.getInstance();
 
         //
         // Event create
-        DeviceEventService deviceEventService = locator.getService(DeviceEventService.class);
         DeviceEventFactory deviceEventFactory = locator.getFactory(DeviceEventFactory.class);
         DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, deviceId, message.getReceivedOn(), "DEATH");
 
@@ -154,7 +183,7 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             deviceEventCreator.setPosition(position);
         }
 
-        KapuaSecurityUtils.doPrivileged(() -> deviceEventService.create(deviceEventCreator));
+        KapuaSecurityUtils.doPrivileged(() -> deviceLifeCycleWriter.write(deviceEventCreator, null));
     }
 
     @Override
@@ -164,17 +193,12 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
         KapuaId scopeId = message.getScopeId();
         KapuaId deviceId = message.getDeviceId();
 
-        //
-        // Device update
         KapuaLocator locator = KapuaLocator.getInstance();
-        DeviceRegistryService deviceRegistryService = locator.getService(DeviceRegistryService.class);
-        Device device = deviceRegistryService.find(scopeId, deviceId);
 
         //
         // Event create
-        DeviceEventService deviceEventService = locator.getService(DeviceEventService.class);
         DeviceEventFactory deviceEventFactory = locator.getFactory(DeviceEventFactory.class);
-        DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, device.getId(), message.getReceivedOn(), "MISSING");
+        DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, deviceId, message.getReceivedOn(), "MISSING");
 
         deviceEventCreator.setEventMessage(payload.toDisplayString());
         // TODO check this change
@@ -186,8 +210,7 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             deviceEventCreator.setPosition(position);
         }
 
-        KapuaSecurityUtils.doPrivileged(() -> deviceEventService.create(deviceEventCreator));
-
+        KapuaSecurityUtils.doPrivileged(() -> deviceLifeCycleWriter.write(deviceEventCreator, null));
     }
 
     @Override
@@ -197,17 +220,12 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
         KapuaId scopeId = message.getScopeId();
         KapuaId deviceId = message.getDeviceId();
 
-        //
-        // Device update
         KapuaLocator locator = KapuaLocator.getInstance();
-        DeviceRegistryService deviceRegistryService = locator.getService(DeviceRegistryService.class);
-        Device device = deviceRegistryService.find(scopeId, deviceId);
 
         //
         // Event create
-        DeviceEventService deviceEventService = locator.getService(DeviceEventService.class);
         DeviceEventFactory deviceEventFactory = locator.getFactory(DeviceEventFactory.class);
-        DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, device.getId(), message.getReceivedOn(), "APPLICATION");
+        DeviceEventCreator deviceEventCreator = deviceEventFactory.newCreator(scopeId, deviceId, message.getReceivedOn(), "APPLICATION");
 
         deviceEventCreator.setEventMessage(payload.toDisplayString());
         // TODO check this change
@@ -219,6 +237,6 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             deviceEventCreator.setPosition(position);
         }
 
-        KapuaSecurityUtils.doPrivileged(() -> deviceEventService.create(deviceEventCreator));
+        KapuaSecurityUtils.doPrivileged(() -> deviceLifeCycleWriter.write(deviceEventCreator, null));
     }
 }
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.lifecycle.internal;
+
+import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaOptimisticLockingException;
+import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.jpa.EntityManagerSession;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.eclipse.kapua.service.device.registry.event.internal.DeviceEventDAO;
+import org.eclipse.kapua.service.device.registry.internal.DeviceDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Device life cycle writer.<br>
+ * Writes, in a single transaction, the changes of a device, the device event and the last event id of the device.<br>
+ * The writes requested concurrently (i.e. by a reconnection storm) are grouped: the caller holding the writer lock writes all the queued writes (up to the batch size) in a single
+ * transaction, while the other callers wait for their writes to be completed. If the transaction of a batch fails, its writes are written one by one, so each caller gets the outcome of its
+ * own write.
+ *
+ * @since 1.1.0
+ */
+class DeviceLifeCycleWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceLifeCycleWriter.class);
+
+    private final EntityManagerSession entityManagerSession;
+    private final int batchSize;
+
+    private final Queue<LifeCycleWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    private final Counter metricWritten;
+    private final Counter metricBatchError;
+    private final Histogram metricBatchSize;
+
+    /**
+     * Constructor
+     *
+     * @param entityManagerSession
+     * @param batchSize
+     *            the max number of writes grouped in a single transaction
+     */
+    DeviceLifeCycleWriter(EntityManagerSession entityManagerSession, int batchSize) {
+        this.entityManagerSession = entityManagerSession;
+        this.batchSize = Math.max(1, batchSize);
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        metricWritten = metricsService.getCounter("device_registry", "lifecycle", "written", "count");
+        metricBatchError = metricsService.getCounter("device_registry", "lifecycle", "batch", "error", "count");
+        metricBatchSize = metricsService.getHistogram("device_registry", "lifecycle", "batch", "size");
+    }
+
+    /**
+     * Apply the changes to the device and create the device event, setting it as last event of the device.<br>
+     * The entities are written with the session of the caller.
+     *
+     * @param deviceEventCreator
+     *            the device event to create (its device is the device to update)
+     * @param deviceChanges
+     *            the changes to apply to the device (may be null)
+     * @return the created device event
+     * @throws KapuaException
+     *             if the device doesn't exist or the write fails
+     */
+    DeviceEvent write(DeviceEventCreator deviceEventCreator, Consumer<Device> deviceChanges) throws KapuaException {
+        LifeCycleWrite lifeCycleWrite = new LifeCycleWrite(deviceEventCreator, deviceChanges, KapuaSecurityUtils.getSession());
+        pendingWrites.add(lifeCycleWrite);
+
+        writeLock.lock();
+        try {
+            // the write could have been already written by the previous lock holder
+            while (!lifeCycleWrite.done) {
+                writeBatch();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (lifeCycleWrite.error != null) {
+            throw lifeCycleWrite.error;
+        }
+        return lifeCycleWrite.deviceEvent;
+    }
+
+    private void writeBatch() {
+        List<LifeCycleWrite> batch = new ArrayList<>(batchSize);
+        LifeCycleWrite lifeCycleWrite;
+        while (batch.size() < batchSize && (lifeCycleWrite = pendingWrites.poll()) != null) {
+            batch.add(lifeCycleWrite);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        metricBatchSize.update(batch.size());
+
+        try {
+            writeBatch(batch);
+        } finally {
+            // the callers of the writes not completed (i.e. on unexpected error) would wait for them forever
+            for (LifeCycleWrite batchWrite : batch) {
+                if (!batchWrite.done) {
+                    batchWrite.complete(null, KapuaException.internalError("The device life cycle event was not written"));
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<LifeCycleWrite> batch) {
+        if (batch.size() > 1) {
+            try {
+                List<DeviceEvent> deviceEvents = entityManagerSession.onTransactedResult(entityManager -> {
+                    List<DeviceEvent> written = new ArrayList<>(batch.size());
+                    for (LifeCycleWrite batchWrite : batch) {
+                        written.add(write(entityManager, batchWrite));
+                    }
+                    return written;
+                });
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(deviceEvents.get(i), null);
+                }
+                metricWritten.inc(batch.size());
+                return;
+            } catch (KapuaException | RuntimeException e) {
+                metricBatchError.inc();
+                LOG.debug("Cannot write the batch of {} device life cycle events, writing them one by one. Error: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        for (LifeCycleWrite batchWrite : batch) {
+            try {
+                batchWrite.complete(writeSingle(batchWrite), null);
+                metricWritten.inc();
+            } catch (KapuaException e) {
+                batchWrite.complete(null, e);
+            } catch (RuntimeException e) {
+                batchWrite.complete(null, KapuaException.internalError(e));
+            }
+        }
+    }
+
+    private DeviceEvent writeSingle(LifeCycleWrite lifeCycleWrite) throws KapuaException {
+        try {
+            return entityManagerSession.onTransactedResult(entityManager -> write(entityManager, lifeCycleWrite));
+        } catch (KapuaOptimisticLockingException e) {
+            // the device was updated in the meantime by another transaction, so read it again and apply the changes again
+            LOG.debug("Device {} updated concurrently, writing the {} event again", lifeCycleWrite.deviceEventCreator.getDeviceId(), lifeCycleWrite.deviceEventCreator.getResource());
+            return entityManagerSession.onTransactedResult(entityManager -> write(entityManager, lifeCycleWrite));
+        }
+    }
+
+    private static DeviceEvent write(EntityManager entityManager, LifeCycleWrite lifeCycleWrite) throws KapuaException {
+        DeviceEventCreator deviceEventCreator = lifeCycleWrite.deviceEventCreator;
+
+        // the created by and modified by of the entities are the ones of the caller
+        KapuaSession previousSession = KapuaSecurityUtils.getSession();
+        KapuaSecurityUtils.setSession(lifeCycleWrite.session);
+        try {
+            Device device = DeviceDAO.find(entityManager, deviceEventCreator.getScopeId(), deviceEventCreator.getDeviceId());
+            if (device == null) {
+                throw new KapuaEntityNotFoundException(Device.TYPE, deviceEventCreator.getDeviceId());
+            }
+            if (lifeCycleWrite.deviceChanges != null) {
+                lifeCycleWrite.deviceChanges.accept(device);
+            }
+            return DeviceEventDAO.create(entityManager, device, deviceEventCreator);
+        } finally {
+            KapuaSecurityUtils.setSession(previousSession);
+        }
+    }
+
+    private static class LifeCycleWrite {
+
+        private final DeviceEventCreator deviceEventCreator;
+        private final Consumer<Device> deviceChanges;
+        private final KapuaSession session;
+
+        // guarded by the writer lock
+        private boolean done;
+        private DeviceEvent deviceEvent;
+        private KapuaException error;
+
+        private LifeCycleWrite(DeviceEventCreator deviceEventCreator, Consumer<Device> deviceChanges, KapuaSession session) {
+            this.deviceEventCreator = deviceEventCreator;
+            this.deviceChanges = deviceChanges;
+            this.session = session;
+        }
+
+        private void complete(DeviceEvent deviceEvent, KapuaException error) {
+            this.deviceEvent = deviceEvent;
+            this.error = error;
+            done = true;
+        }
+    }
+
+}
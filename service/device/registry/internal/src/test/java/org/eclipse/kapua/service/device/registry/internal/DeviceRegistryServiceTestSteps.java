@@ -35,6 +35,10 @@ import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
 import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.service.account.AccountFactory;
+import org.eclipse.kapua.service.account.AccountListResult;
+import org.eclipse.kapua.service.account.AccountQuery;
+import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.device.registry.Device;
@@ -55,6 +59,8 @@ import org.mockito.Mockito;
 
 import java.math.BigInteger;
 import java.security.acl.Permission;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -108,6 +114,9 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
     // A list result for device query operations
     DeviceListResult deviceList;
 
+    // The devices of bulk operations
+    List<Device> devices;
+
     // Item count
     long count;
 
@@ -160,6 +169,18 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
         mockLocator.setMockedFactory(org.eclipse.kapua.service.authorization.permission.PermissionFactory.class,
                 mockedPermissionFactory);
 
+        // Inject mocked Account Service and Factory, used to check the child entities limit. The scopes have no child accounts.
+        AccountQuery mockedAccountQuery = Mockito.mock(AccountQuery.class);
+        AccountFactory mockedAccountFactory = Mockito.mock(AccountFactory.class);
+        Mockito.when(mockedAccountFactory.newQuery(Matchers.any(KapuaId.class))).thenReturn(mockedAccountQuery);
+        mockLocator.setMockedFactory(AccountFactory.class, mockedAccountFactory);
+
+        AccountListResult mockedAccountListResult = Mockito.mock(AccountListResult.class);
+        Mockito.when(mockedAccountListResult.getItems()).thenReturn(Collections.emptyList());
+        AccountService mockedAccountService = Mockito.mock(AccountService.class);
+        Mockito.when(mockedAccountService.query(Matchers.any(AccountQuery.class))).thenReturn(mockedAccountListResult);
+        mockLocator.setMockedService(AccountService.class, mockedAccountService);
+
         // Inject actual device registry related services
         deviceRegistryService = new DeviceRegistryServiceImpl();
         mockLocator.setMockedService(org.eclipse.kapua.service.device.registry.DeviceRegistryService.class, deviceRegistryService);
@@ -253,6 +274,29 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
         deviceId = device.getId();
     }
 
+    @When("^I create (\\d+) devices at once in scope (\\d+)$")
+    public void createDevicesAtOnceInScope(int number, int scope)
+            throws Exception {
+        KapuaId tmpId = new KapuaEid(BigInteger.valueOf(scope));
+        List<DeviceCreator> tmpDevCrs = new ArrayList<>(number);
+
+        for (int i = 0; i < number; i++) {
+            tmpDevCrs.add(prepareRegularDeviceCreator(tmpId, "batch_" + i));
+        }
+        createDevicesAtOnce(tmpDevCrs);
+    }
+
+    @When("^I create at once the devices with client IDs \"(.+)\"$")
+    public void createDevicesAtOnceWithClientIds(String clientIds)
+            throws Exception {
+        List<DeviceCreator> tmpDevCrs = new ArrayList<>();
+
+        for (String clientId : clientIds.split(",")) {
+            tmpDevCrs.add(prepareRegularDeviceCreator(rootScopeId, clientId.trim()));
+        }
+        createDevicesAtOnce(tmpDevCrs);
+    }
+
     @When("^I configure$")
     public void setConfigurationValue(List<TestConfig> testConfigs)
             throws Exception {
@@ -368,6 +412,36 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
         deviceRegistryService.update(device);
     }
 
+    @When("^I update at once the BIOS version of the devices to \"(.*)\"$")
+    public void updateDevicesBiosVersionAtOnce(String version)
+            throws KapuaException {
+        for (Device tmpDevice : devices) {
+            tmpDevice.setBiosVersion(version);
+        }
+        devices = deviceRegistryService.updateAll(devices);
+    }
+
+    @When("^I update at once the BIOS version of the devices to \"(.*)\" and a device with an invalid ID$")
+    public void updateDevicesBiosVersionAtOnceWithInvalidId(String version)
+            throws Exception {
+        for (Device tmpDevice : devices) {
+            tmpDevice.setBiosVersion(version);
+        }
+
+        Device tmpDevice = deviceFactory.newEntity(rootScopeId);
+        tmpDevice.setId(new KapuaEid(IdGenerator.generate()));
+        tmpDevice.setClientId("invalid");
+
+        List<Device> tmpDevices = new ArrayList<>(devices);
+        tmpDevices.add(tmpDevice);
+        try {
+            sharedTests.primeException();
+            deviceRegistryService.updateAll(tmpDevices);
+        } catch (KapuaException ex) {
+            sharedTests.verifyException(ex);
+        }
+    }
+
     @When("^I update the device cleint ID to \"(.+)\"$")
     public void updateDeviceClientId(String newId)
             throws KapuaException {
@@ -528,6 +602,15 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
         assertEquals(number, count);
     }
 
+    @Then("^The devices have the BIOS version \"(.*)\"$")
+    public void checkDevicesBiosVersion(String version)
+            throws KapuaException {
+        assertFalse(devices.isEmpty());
+        for (Device tmpDevice : devices) {
+            assertEquals(version, deviceRegistryService.find(tmpDevice.getScopeId(), tmpDevice.getId()).getBiosVersion());
+        }
+    }
+
     @Then("^The client ID was not changed$")
     public void checkDeviceClientIdForChanges()
             throws KapuaException {
@@ -570,6 +653,17 @@ public class DeviceRegistryServiceTestSteps extends AbstractKapuaSteps {
     // * Private Helpers *
     // *******************
 
+    // Create the devices at once, remembering the created devices.
+    private void createDevicesAtOnce(List<DeviceCreator> tmpDevCrs)
+            throws Exception {
+        try {
+            sharedTests.primeException();
+            devices = deviceRegistryService.createAll(tmpDevCrs);
+        } catch (KapuaException ex) {
+            sharedTests.verifyException(ex);
+        }
+    }
+
     // Create a device creator object. The creator is pre-filled with default data.
     private DeviceCreator prepareRegularDeviceCreator(KapuaId accountId, String client) {
         DeviceCreatorImpl tmpDeviceCreator = new DeviceCreatorImpl(accountId);
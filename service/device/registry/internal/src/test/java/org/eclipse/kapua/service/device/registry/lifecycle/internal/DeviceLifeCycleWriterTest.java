@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.lifecycle.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaOptimisticLockingException;
+import org.eclipse.kapua.commons.jpa.EntityManagerResultCallback;
+import org.eclipse.kapua.commons.jpa.EntityManagerSession;
+import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class DeviceLifeCycleWriterTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private EntityManagerSession entityManagerSession;
+    private DeviceLifeCycleWriter writer;
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final CountDownLatch firstTransactionStarted = new CountDownLatch(1);
+    private final CountDownLatch firstTransactionReleased = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        entityManagerSession = Mockito.mock(EntityManagerSession.class);
+        writer = new DeviceLifeCycleWriter(entityManagerSession, 10);
+    }
+
+    @Test
+    public void testBatchWrite() throws Exception {
+        DeviceEvent firstEvent = Mockito.mock(DeviceEvent.class);
+        DeviceEvent secondEvent = Mockito.mock(DeviceEvent.class);
+        DeviceEvent thirdEvent = Mockito.mock(DeviceEvent.class);
+        stubTransactions(invocation -> {
+            switch (transactions.incrementAndGet()) {
+            case 1:
+                return holdFirstTransaction(firstEvent);
+            case 2:
+                return Arrays.asList(secondEvent, thirdEvent);
+            default:
+                throw new AssertionError("Unexpected transaction");
+            }
+        });
+
+        List<CompletableFuture<DeviceEvent>> futures = writeConcurrently();
+
+        Assert.assertSame(firstEvent, futures.get(0).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        // the two queued writes are written in a single transaction
+        Assert.assertEquals(new HashSet<>(Arrays.asList(secondEvent, thirdEvent)),
+                new HashSet<>(Arrays.asList(futures.get(1).get(TIMEOUT, TimeUnit.MILLISECONDS), futures.get(2).get(TIMEOUT, TimeUnit.MILLISECONDS))));
+        Assert.assertEquals(2, transactions.get());
+    }
+
+    @Test
+    public void testBatchFailureFallsBackToSingleWrites() throws Exception {
+        DeviceEvent firstEvent = Mockito.mock(DeviceEvent.class);
+        DeviceEvent singleEvent = Mockito.mock(DeviceEvent.class);
+        stubTransactions(invocation -> {
+            switch (transactions.incrementAndGet()) {
+            case 1:
+                return holdFirstTransaction(firstEvent);
+            case 2:
+                throw KapuaException.internalError("batch failure");
+            default:
+                return singleEvent;
+            }
+        });
+
+        List<CompletableFuture<DeviceEvent>> futures = writeConcurrently();
+
+        Assert.assertSame(firstEvent, futures.get(0).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertSame(singleEvent, futures.get(1).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertSame(singleEvent, futures.get(2).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(4, transactions.get());
+    }
+
+    @Test
+    public void testOptimisticLockingRetry() throws Exception {
+        DeviceEvent deviceEvent = Mockito.mock(DeviceEvent.class);
+        stubTransactions(invocation -> {
+            if (transactions.incrementAndGet() == 1) {
+                throw new KapuaOptimisticLockingException(null);
+            }
+            return deviceEvent;
+        });
+
+        Assert.assertSame(deviceEvent, writer.write(Mockito.mock(DeviceEventCreator.class), null));
+        Assert.assertEquals(2, transactions.get());
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        KapuaException error = KapuaException.internalError("write failure");
+        stubTransactions(invocation -> {
+            transactions.incrementAndGet();
+            throw error;
+        });
+
+        try {
+            writer.write(Mockito.mock(DeviceEventCreator.class), null);
+            Assert.fail("The write failure should be thrown");
+        } catch (KapuaException e) {
+            Assert.assertSame(error, e);
+        }
+        Assert.assertEquals(1, transactions.get());
+    }
+
+    @Test
+    public void testUnexpectedErrorCompletesTheQueuedWrites() throws Exception {
+        DeviceEvent firstEvent = Mockito.mock(DeviceEvent.class);
+        stubTransactions(invocation -> {
+            switch (transactions.incrementAndGet()) {
+            case 1:
+                return holdFirstTransaction(firstEvent);
+            default:
+                throw new StackOverflowError();
+            }
+        });
+
+        List<CompletableFuture<DeviceEvent>> futures = writeConcurrently();
+
+        Assert.assertSame(firstEvent, futures.get(0).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        // the lock holder gets the error, the other caller gets its write failed instead of waiting forever
+        int errors = 0;
+        int failures = 0;
+        for (CompletableFuture<DeviceEvent> future : futures.subList(1, 3)) {
+            try {
+                future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+                Assert.fail("The write should fail");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof StackOverflowError) {
+                    errors++;
+                } else if (e.getCause() instanceof KapuaException) {
+                    failures++;
+                }
+            }
+        }
+        Assert.assertEquals(1, errors);
+        Assert.assertEquals(1, failures);
+
+        // the writer is still usable
+        DeviceEvent deviceEvent = Mockito.mock(DeviceEvent.class);
+        stubTransactions(invocation -> deviceEvent);
+        Assert.assertSame(deviceEvent, writer.write(Mockito.mock(DeviceEventCreator.class), null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions(Answer<Object> answer) throws KapuaException {
+        Mockito.doAnswer(answer).when(entityManagerSession).onTransactedResult(Matchers.any(EntityManagerResultCallback.class));
+    }
+
+    private DeviceEvent holdFirstTransaction(DeviceEvent deviceEvent) throws InterruptedException {
+        firstTransactionStarted.countDown();
+        Assert.assertTrue(firstTransactionReleased.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return deviceEvent;
+    }
+
+    /**
+     * Start a write holding the writer lock in its transaction, then two writes queued while the lock is held
+     */
+    private List<CompletableFuture<DeviceEvent>> writeConcurrently() throws InterruptedException {
+        CompletableFuture<DeviceEvent> first = writeAsync().future;
+        Assert.assertTrue(firstTransactionStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        AsyncWrite second = writeAsync();
+        AsyncWrite third = writeAsync();
+        second.awaitWaiting();
+        third.awaitWaiting();
+        firstTransactionReleased.countDown();
+
+        return Arrays.asList(first, second.future, third.future);
+    }
+
+    private AsyncWrite writeAsync() {
+        AsyncWrite asyncWrite = new AsyncWrite();
+        asyncWrite.thread.start();
+        return asyncWrite;
+    }
+
+    private class AsyncWrite {
+
+        private final CompletableFuture<DeviceEvent> future = new CompletableFuture<>();
+        private final Thread thread = new Thread(() -> {
+            try {
+                future.complete(writer.write(Mockito.mock(DeviceEventCreator.class), null));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+
+        private void awaitWaiting() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (thread.getState() != Thread.State.WAITING) {
+                Assert.assertTrue("The write is not waiting for the writer lock", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+}
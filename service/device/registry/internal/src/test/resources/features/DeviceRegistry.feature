@@ -154,6 +154,76 @@ Scenario: Update a non existing device
     When I update a device with an invalid ID
     Then An exception was raised
 
+Scenario: Create several devices at once
+    It must be possible to create several devices with a single call. All the
+    devices must be stored.
+
+    When I configure
+        | type    | name                       | value | scopeId | parentScopeId |
+        | boolean | infiniteChildEntities      | true  |    5    |       1       |
+        | integer | maxNumberChildEntities     | 5     |    5    |       1       |
+    When I create 20 devices at once in scope 5
+    And I count the devices in scope 5
+    Then There are 20 devices
+
+Scenario: Try to create at once devices with the same client ID
+    The client IDs of the devices created at once must be unique. A duplicate
+    client ID in the batch must raise an exception and no device must be created.
+
+    Given I expect the exception "KapuaDuplicateNameException" with the text "An entity with the same name batch_2 already exists"
+    When I create at once the devices with client IDs "batch_1,batch_2,batch_3,batch_2"
+    Then An exception was raised
+    When I count the devices in scope 1
+    Then There are 0 devices
+
+Scenario: Try to create at once devices with an existing client ID
+    A client ID of the batch already used by a device in the registry must raise
+    an exception and no device of the batch must be created.
+
+    Given A device named "batch_2"
+    And I expect the exception "KapuaDuplicateNameException" with the text "An entity with the same name batch_2 already exists"
+    When I create at once the devices with client IDs "batch_1,batch_2,batch_3"
+    Then An exception was raised
+    When I count the devices in scope 1
+    Then There is 1 device
+
+Scenario: Try to create at once more devices than allowed
+    The whole batch counts towards the child entities limit of the scope. A batch
+    exceeding the devices still allowed must raise an exception and no device of
+    the batch must be created.
+
+    When I configure
+        | type    | name                       | value | scopeId | parentScopeId |
+        | boolean | infiniteChildEntities      | true  |    1    |       1       |
+        | integer | maxNumberChildEntities     | 5     |    1    |       1       |
+    When I configure
+        | type    | name                       | value | scopeId | parentScopeId |
+        | boolean | infiniteChildEntities      | false |    5    |       1       |
+        | integer | maxNumberChildEntities     | 5     |    5    |       1       |
+    When I create 3 devices at once in scope 5
+    Given I expect the exception "KapuaMaxNumberOfItemsReachedException" with the text "Max number of Devices reached"
+    When I create 3 devices at once in scope 5
+    Then An exception was raised
+    When I count the devices in scope 5
+    Then There are 3 devices
+
+Scenario: Update several devices at once
+    It must be possible to update several devices with a single call.
+
+    When I create 10 devices at once in scope 1
+    And I update at once the BIOS version of the devices to "1.5.0"
+    Then The devices have the BIOS version "1.5.0"
+
+Scenario: Try to update at once devices with a non existing device
+    A non existing device in the batch must raise an exception and no device of
+    the batch must be updated.
+
+    When I create 5 devices at once in scope 1
+    And I expect the exception "KapuaEntityNotFoundException" with the text "The entity of type DeviceImpl with id/name"
+    When I update at once the BIOS version of the devices to "1.5.0" and a device with an invalid ID
+    Then An exception was raised
+    And The devices have the BIOS version "biosVersion"
+
 Scenario: Delete an existing device from the registry
     It must be possible to delete a device from theregistry. To this
     end a test device is created and subsequently deleted.
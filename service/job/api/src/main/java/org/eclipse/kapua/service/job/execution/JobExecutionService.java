@@ -12,11 +12,14 @@
 package org.eclipse.kapua.service.job.execution;
 
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
+import java.util.List;
+
 /**
  * {@link JobExecutionService} exposes APIs to manage JobExecution objects.<br>
  * It includes APIs to create, update, find, list and delete Jobs.<br>
@@ -39,4 +42,34 @@ public interface JobExecutionService extends KapuaEntityService<JobExecution, Jo
     @Override
     JobExecutionListResult query(KapuaQuery<JobExecution> query)
             throws KapuaException;
+
+    /**
+     * Appends a chunk of log lines to the log of the {@link JobExecution}.
+     * <p>
+     * The log of a {@link JobExecution} is stored in chunks which are appended while the {@link JobExecution} is running.
+     *
+     * @param scopeId        The {@link JobExecution#getScopeId()}.
+     * @param jobExecutionId The {@link JobExecution#getId()}.
+     * @param log            The log lines to append.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void appendLog(KapuaId scopeId, KapuaId jobExecutionId, String log)
+            throws KapuaException;
+
+    /**
+     * Reads a page of the chunks of the log of the {@link JobExecution}, in the order they have been appended.
+     * <p>
+     * The whole log can be read by requesting the following pages until a page with less than {@code limit} chunks is returned.
+     *
+     * @param scopeId        The {@link JobExecution#getScopeId()}.
+     * @param jobExecutionId The {@link JobExecution#getId()}.
+     * @param offset         The number of chunks to skip.
+     * @param limit          The max number of chunks to read.
+     * @return The log lines of each chunk read.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<String> readLog(KapuaId scopeId, KapuaId jobExecutionId, int offset, int limit)
+            throws KapuaException;
 }
@@ -12,11 +12,14 @@
 package org.eclipse.kapua.service.job.targets;
 
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
+import java.util.List;
+
 /**
  * {@link JobTargetService} exposes APIs to manage JobTarget objects.<br>
  * It includes APIs to create, update, find, list and delete Jobs.<br>
@@ -38,4 +41,31 @@ public interface JobTargetService extends KapuaEntityService<JobTarget, JobTarge
      */
     @Override
     JobTargetListResult query(KapuaQuery<JobTarget> query) throws KapuaException;
+
+    /**
+     * Creates many {@link JobTarget}s in a single transaction.
+     * <p>
+     * This is meant to add a large number of {@link JobTarget}s to a {@link org.eclipse.kapua.service.job.Job} at once, instead of creating them one by one.
+     * If one of the {@link JobTarget}s cannot be created none of them is created.
+     *
+     * @param jobTargetCreators The {@link JobTargetCreator}s of the {@link JobTarget}s to create.
+     * @return The created {@link JobTarget}s, in the same order of the {@link JobTargetCreator}s.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    List<JobTarget> createAll(List<JobTargetCreator> jobTargetCreators) throws KapuaException;
+
+    /**
+     * Updates the {@link JobTarget#getStepIndex()}, the {@link JobTarget#getStatus()} and the {@link JobTarget#getStatusMessage()} of the given {@link JobTarget}s
+     * in a single transaction.
+     * <p>
+     * The other properties of the given {@link JobTarget}s are ignored.
+     * This is meant to write the outcome of a chunk of processed {@link JobTarget}s at once, instead of updating them one by one.
+     *
+     * @param scopeId    The scope {@link KapuaId} of the {@link JobTarget}s.
+     * @param jobTargets The {@link JobTarget}s to update.
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    void updateStatus(KapuaId scopeId, List<JobTarget> jobTargets) throws KapuaException;
 }
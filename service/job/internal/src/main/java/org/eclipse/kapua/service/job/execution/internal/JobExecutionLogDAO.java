@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.job.execution.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.service.internal.ServiceDAO;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.job.execution.JobExecution;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * {@link JobExecutionLogImpl} {@link ServiceDAO}.
+ *
+ * @since 1.1.0
+ */
+public class JobExecutionLogDAO {
+
+    private static final String SCOPE_ID = "scopeId";
+    private static final String EXECUTION_ID = "executionId";
+    private static final String CHUNK_INDEX = "chunkIndex";
+    private static final String CREATED_ON = "createdOn";
+    private static final String LOG = "log";
+
+    private JobExecutionLogDAO() {
+    }
+
+    /**
+     * Appends a chunk to the log of the {@link JobExecution}.
+     *
+     * @param em
+     * @param scopeId
+     * @param jobExecutionId
+     * @param log
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    public static void append(EntityManager em, KapuaId scopeId, KapuaId jobExecutionId, String log)
+            throws KapuaException {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Integer> criteriaQuery = cb.createQuery(Integer.class);
+        Root<JobExecutionLogImpl> jobExecutionLogRoot = criteriaQuery.from(JobExecutionLogImpl.class);
+        criteriaQuery.select(cb.max(jobExecutionLogRoot.get(CHUNK_INDEX))).where(
+                cb.equal(jobExecutionLogRoot.get(SCOPE_ID), KapuaEid.parseKapuaId(scopeId)),
+                cb.equal(jobExecutionLogRoot.get(EXECUTION_ID), KapuaEid.parseKapuaId(jobExecutionId)));
+
+        Integer lastChunkIndex = em.createQuery(criteriaQuery).getSingleResult();
+
+        JobExecutionLogImpl jobExecutionLogImpl = new JobExecutionLogImpl(scopeId);
+        jobExecutionLogImpl.setExecutionId(jobExecutionId);
+        jobExecutionLogImpl.setChunkIndex(lastChunkIndex != null ? lastChunkIndex + 1 : 0);
+        jobExecutionLogImpl.setLog(log);
+
+        ServiceDAO.create(em, jobExecutionLogImpl);
+    }
+
+    /**
+     * Reads a page of the chunks of the log of the {@link JobExecution}, in the order they have been appended.
+     *
+     * @param em
+     * @param scopeId
+     * @param jobExecutionId
+     * @param offset         The number of chunks to skip.
+     * @param limit          The max number of chunks to read.
+     * @return The log lines of each chunk read.
+     * @since 1.1.0
+     */
+    public static List<String> read(EntityManager em, KapuaId scopeId, KapuaId jobExecutionId, int offset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<String> criteriaQuery = cb.createQuery(String.class);
+        Root<JobExecutionLogImpl> jobExecutionLogRoot = criteriaQuery.from(JobExecutionLogImpl.class);
+        criteriaQuery.select(jobExecutionLogRoot.get(LOG))
+                .where(
+                        cb.equal(jobExecutionLogRoot.get(SCOPE_ID), KapuaEid.parseKapuaId(scopeId)),
+                        cb.equal(jobExecutionLogRoot.get(EXECUTION_ID), KapuaEid.parseKapuaId(jobExecutionId)))
+                .orderBy(
+                        cb.asc(jobExecutionLogRoot.get(CHUNK_INDEX)),
+                        cb.asc(jobExecutionLogRoot.get(CREATED_ON)));
+
+        return em.createQuery(criteriaQuery)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.job.execution.internal;
+
+import org.eclipse.kapua.commons.model.AbstractKapuaEntity;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.job.execution.JobExecution;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+/**
+ * Chunk of the log of a {@link JobExecution}.
+ * <p>
+ * The log of a {@link JobExecution} is appended in chunks while the {@link JobExecution} is running, so it is never held or rewritten as a whole.
+ * The chunks of a {@link JobExecution} are read in order of {@link #getChunkIndex()}.
+ *
+ * @since 1.1.0
+ */
+@Entity(name = "JobExecutionLog")
+@Table(name = "job_job_execution_log")
+public class JobExecutionLogImpl extends AbstractKapuaEntity {
+
+    private static final long serialVersionUID = 4527419683745108237L;
+
+    public static final String TYPE = "jobExecutionLog";
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "eid", column = @Column(name = "execution_id", nullable = false, updatable = false))
+    })
+    private KapuaEid executionId;
+
+    @Basic
+    @Column(name = "chunk_index", nullable = false, updatable = false)
+    private int chunkIndex;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "log", nullable = false, updatable = false)
+    private String log;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.1.0
+     */
+    public JobExecutionLogImpl() {
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param scopeId The scope {@link KapuaId} to set into the {@link JobExecutionLogImpl}.
+     * @since 1.1.0
+     */
+    public JobExecutionLogImpl(KapuaId scopeId) {
+        super(scopeId);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    /**
+     * Gets the {@link JobExecution#getId()} of this chunk.
+     *
+     * @return The {@link JobExecution#getId()} of this chunk.
+     * @since 1.1.0
+     */
+    public KapuaId getExecutionId() {
+        return executionId;
+    }
+
+    /**
+     * Sets the {@link JobExecution#getId()} of this chunk.
+     *
+     * @param executionId The {@link JobExecution#getId()} of this chunk.
+     * @since 1.1.0
+     */
+    public void setExecutionId(KapuaId executionId) {
+        this.executionId = KapuaEid.parseKapuaId(executionId);
+    }
+
+    /**
+     * Gets the index of this chunk in the log of the {@link JobExecution}.
+     * <p>
+     * Chunks appended concurrently (i.e. by the partitions of a step) can share the same index.
+     *
+     * @return The index of this chunk.
+     * @since 1.1.0
+     */
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * Sets the index of this chunk.
+     *
+     * @param chunkIndex The index of this chunk.
+     * @since 1.1.0
+     */
+    public void setChunkIndex(int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    /**
+     * Gets the log lines of this chunk.
+     *
+     * @return The log lines of this chunk.
+     * @since 1.1.0
+     */
+    public String getLog() {
+        return log;
+    }
+
+    /**
+     * Sets the log lines of this chunk.
+     *
+     * @param log The log lines of this chunk.
+     * @since 1.1.0
+     */
+    public void setLog(String log) {
+        this.log = log;
+    }
+}
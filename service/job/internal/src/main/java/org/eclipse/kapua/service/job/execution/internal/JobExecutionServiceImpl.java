@@ -31,6 +31,8 @@ import org.eclipse.kapua.service.job.execution.JobExecutionQuery;
 import org.eclipse.kapua.service.job.execution.JobExecutionService;
 import org.eclipse.kapua.service.job.internal.JobEntityManagerFactory;
 
+import java.util.List;
+
 /**
  * {@link JobExecutionService} implementation
  *
@@ -150,4 +152,45 @@ public class JobExecutionServiceImpl
         });
 
     }
+
+    @Override
+    public void appendLog(KapuaId scopeId, KapuaId jobExecutionId, String log) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, "scopeId");
+        ArgumentValidator.notNull(jobExecutionId, "jobExecutionId");
+        ArgumentValidator.notEmptyOrNull(log, "log");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(JobDomains.JOB_DOMAIN, Actions.write, scopeId));
+
+        //
+        // Do append
+        entityManagerSession.onTransactedAction(em -> {
+            if (JobExecutionDAO.find(em, scopeId, jobExecutionId) == null) {
+                throw new KapuaEntityNotFoundException(JobExecution.TYPE, jobExecutionId);
+            }
+
+            JobExecutionLogDAO.append(em, scopeId, jobExecutionId, log);
+        });
+    }
+
+    @Override
+    public List<String> readLog(KapuaId scopeId, KapuaId jobExecutionId, int offset, int limit) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, "scopeId");
+        ArgumentValidator.notNull(jobExecutionId, "jobExecutionId");
+        ArgumentValidator.notNegative(offset, "offset");
+        ArgumentValidator.numRange(limit, 1, Integer.MAX_VALUE, "limit");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(JobDomains.JOB_DOMAIN, Actions.read, scopeId));
+
+        //
+        // Do read
+        return entityManagerSession.onResult(em -> JobExecutionLogDAO.read(em, scopeId, jobExecutionId, offset, limit));
+    }
 }
@@ -14,14 +14,25 @@ package org.eclipse.kapua.service.job.targets.internal;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
 import org.eclipse.kapua.service.job.targets.JobTargetCreator;
 import org.eclipse.kapua.service.job.targets.JobTargetListResult;
 import org.eclipse.kapua.service.job.targets.JobTargetStatus;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * JobTarget DAO
  * 
@@ -45,14 +56,38 @@ public class JobTargetDAO {
             throws KapuaException {
         //
         // Create JobTarget
+        return ServiceDAO.create(em, newJobTarget(jobTargetCreator));
+    }
+
+    /**
+     * Creates and return the new JobTargets in a single flush
+     *
+     * @param em
+     * @param jobTargetCreators
+     * @return
+     * @throws KapuaException
+     * @since 1.1.0
+     */
+    public static List<JobTarget> createAll(EntityManager em, List<JobTargetCreator> jobTargetCreators)
+            throws KapuaException {
+        //
+        // Create JobTargets
+        List<JobTargetImpl> jobTargets = new ArrayList<>(jobTargetCreators.size());
+        for (JobTargetCreator jobTargetCreator : jobTargetCreators) {
+            jobTargets.add(newJobTarget(jobTargetCreator));
+        }
+
+        return new ArrayList<>(ServiceDAO.createAll(em, JobTargetImpl.class, jobTargets));
+    }
 
+    private static JobTargetImpl newJobTarget(JobTargetCreator jobTargetCreator) {
         JobTargetImpl jobTargetImpl = new JobTargetImpl(jobTargetCreator.getScopeId());
         jobTargetImpl.setJobId(jobTargetCreator.getJobId());
         jobTargetImpl.setJobTargetId(jobTargetCreator.getJobTargetId());
         jobTargetImpl.setStepIndex(0);
         jobTargetImpl.setStatus(JobTargetStatus.PROCESS_AWAITING);
 
-        return ServiceDAO.create(em, jobTargetImpl);
+        return jobTargetImpl;
     }
 
     /**
@@ -72,6 +107,43 @@ public class JobTargetDAO {
         return ServiceDAO.update(em, JobTargetImpl.class, jobTargetImpl);
     }
 
+    /**
+     * Updates the step index, the status and the status message of the provided jobTargets.<br>
+     * The jobTargets to update are loaded with a single query and their changes are written on commit.
+     *
+     * @param em
+     * @param scopeId
+     * @param jobTargets
+     * @throws KapuaEntityNotFoundException
+     *             If one of the {@link JobTarget}s is not found
+     * @since 1.1.0
+     */
+    public static void updateStatus(EntityManager em, KapuaId scopeId, List<JobTarget> jobTargets)
+            throws KapuaEntityNotFoundException {
+        Map<BigInteger, JobTarget> jobTargetsById = new HashMap<>();
+        for (JobTarget jobTarget : jobTargets) {
+            jobTargetsById.put(jobTarget.getId().getId(), jobTarget);
+        }
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<JobTargetImpl> criteriaQuery = cb.createQuery(JobTargetImpl.class);
+        Root<JobTargetImpl> jobTargetRoot = criteriaQuery.from(JobTargetImpl.class);
+        criteriaQuery.select(jobTargetRoot).where(
+                cb.equal(jobTargetRoot.get(JobTargetAttributes.SCOPE_ID), KapuaEid.parseKapuaId(scopeId)),
+                jobTargetRoot.get(JobTargetAttributes.ENTITY_ID).get("eid").in(jobTargetsById.keySet()));
+
+        for (JobTargetImpl jobTargetImpl : em.createQuery(criteriaQuery).getResultList()) {
+            JobTarget jobTarget = jobTargetsById.remove(jobTargetImpl.getId().getId());
+            jobTargetImpl.setStepIndex(jobTarget.getStepIndex());
+            jobTargetImpl.setStatus(jobTarget.getStatus());
+            jobTargetImpl.setStatusMessage(jobTarget.getStatusMessage());
+        }
+
+        if (!jobTargetsById.isEmpty()) {
+            throw new KapuaEntityNotFoundException(JobTarget.TYPE, jobTargetsById.values().iterator().next().getId());
+        }
+    }
+
     /**
      * Finds the jobTarget by jobTarget identifier
      *
@@ -31,6 +31,11 @@ import org.eclipse.kapua.service.job.targets.JobTargetListResult;
 import org.eclipse.kapua.service.job.targets.JobTargetQuery;
 import org.eclipse.kapua.service.job.targets.JobTargetService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * {@link JobTargetService} implementation
  *
@@ -65,6 +70,34 @@ public class JobTargetServiceImpl extends AbstractKapuaConfigurableResourceLimit
         return entityManagerSession.onTransactedInsert(em -> JobTargetDAO.create(em, creator));
     }
 
+    @Override
+    public List<JobTarget> createAll(List<JobTargetCreator> creators) throws KapuaException {
+        //
+        // Argument validation
+        ArgumentValidator.notNull(creators, "jobTargetCreators");
+
+        Set<KapuaId> scopeIds = new HashSet<>();
+        for (JobTargetCreator creator : creators) {
+            ArgumentValidator.notNull(creator, "jobTargetCreator");
+            ArgumentValidator.notNull(creator.getScopeId(), "jobTargetCreator.scopeId");
+            scopeIds.add(creator.getScopeId());
+        }
+
+        //
+        // Check access
+        for (KapuaId scopeId : scopeIds) {
+            AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(JobDomains.JOB_DOMAIN, Actions.write, scopeId));
+        }
+
+        //
+        // Do create
+        if (creators.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return entityManagerSession.onTransactedInsert(em -> JobTargetDAO.createAll(em, creators));
+    }
+
     @Override
     public JobTarget update(JobTarget jobTarget) throws KapuaException {
         //
@@ -88,6 +121,27 @@ public class JobTargetServiceImpl extends AbstractKapuaConfigurableResourceLimit
         return entityManagerSession.onTransactedResult(em -> JobTargetDAO.update(em, jobTarget));
     }
 
+    @Override
+    public void updateStatus(KapuaId scopeId, List<JobTarget> jobTargets) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, "scopeId");
+        ArgumentValidator.notNull(jobTargets, "jobTargets");
+        for (JobTarget jobTarget : jobTargets) {
+            ArgumentValidator.notNull(jobTarget.getId(), "jobTarget.id");
+        }
+
+        //
+        // Check access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(JobDomains.JOB_DOMAIN, Actions.write, scopeId));
+
+        //
+        // Do update
+        if (!jobTargets.isEmpty()) {
+            entityManagerSession.onTransactedAction(em -> JobTargetDAO.updateStatus(em, scopeId, jobTargets));
+        }
+    }
+
     @Override
     public void delete(KapuaId scopeId, KapuaId jobTargetId) throws KapuaException {
         //
@@ -25,6 +25,7 @@ public class ExecutionData {
     public JobExecutionCreator executionCreator;
     public JobExecutionListResult resultList;
     public KapuaId currentExecutionId;
+    public String log;
 
     public ExecutionData() {
         cleanup();
@@ -36,5 +37,6 @@ public class ExecutionData {
         foundExecution = null;
         resultList = new JobExecutionListResultImpl();
         currentExecutionId = null;
+        log = null;
     }
 }
@@ -51,6 +51,7 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import java.math.BigInteger;
 import java.security.acl.Permission;
+import java.util.List;
 import java.util.Optional;
 
 // ****************************************************************************************
@@ -294,6 +295,52 @@ public class JobExecutionServiceTestSteps extends AbstractKapuaSteps {
 //        }
 //    }
 
+    @When("^I append (\\d+) log chunks to the execution item$")
+    public void appendLogChunks(int chunkCount)
+            throws Exception {
+
+        try {
+            commonData.primeException();
+            for (int i = 0; i < chunkCount; i++) {
+                executionService.appendLog(executionData.execution.getScopeId(), executionData.execution.getId(), "Log chunk " + i + "\n");
+            }
+        } catch (KapuaException ex) {
+            commonData.verifyException(ex);
+        }
+    }
+
+    @When("^I read the log of the execution item in pages of (\\d+) chunks$")
+    public void readLogInPages(int pageSize)
+            throws Exception {
+
+        try {
+            commonData.primeException();
+            StringBuilder logSb = new StringBuilder();
+            int offset = 0;
+            List<String> page;
+            do {
+                page = executionService.readLog(executionData.execution.getScopeId(), executionData.execution.getId(), offset, pageSize);
+                page.forEach(logSb::append);
+                offset += page.size();
+            } while (page.size() == pageSize);
+
+            executionData.log = logSb.toString();
+            commonData.itemCount = offset;
+        } catch (KapuaException ex) {
+            commonData.verifyException(ex);
+        }
+    }
+
+    @Then("^The log of the execution item has the (\\d+) chunks in order$")
+    public void checkLogChunks(int chunkCount) {
+
+        StringBuilder expectedLogSb = new StringBuilder();
+        for (int i = 0; i < chunkCount; i++) {
+            expectedLogSb.append("Log chunk ").append(i).append("\n");
+        }
+        assertEquals(expectedLogSb.toString(), executionData.log);
+    }
+
     @Then("^The job execution matches the creator$")
     public void checkJobExecutionItemAgainstCreator() {
 
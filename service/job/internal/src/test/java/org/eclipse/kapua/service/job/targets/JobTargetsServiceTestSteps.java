@@ -25,6 +25,7 @@ import org.eclipse.kapua.commons.configuration.metatype.KapuaMetatypeFactoryImpl
 import org.eclipse.kapua.commons.jpa.JdbcConnectionUrlResolvers;
 import org.eclipse.kapua.commons.liquibase.KapuaLiquibaseClient;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.query.FieldSortCriteria;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
@@ -32,6 +33,8 @@ import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
 import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.job.JobJAXBContextProvider;
@@ -50,6 +53,8 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import java.math.BigInteger;
 import java.security.acl.Permission;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 // ****************************************************************************************
@@ -172,6 +177,28 @@ public class JobTargetsServiceTestSteps extends AbstractKapuaSteps {
         }
     }
 
+    @Given("^(\\d+) regular job target items created at once$")
+    public void createRegularTargetsAtOnce(int count)
+            throws Exception {
+
+        List<JobTargetCreator> targetCreators = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            targetCreators.add(prepareDefaultCreator());
+        }
+
+        try {
+            commonData.primeException();
+            List<JobTarget> targets = targetService.createAll(targetCreators);
+            assertEquals(count, targets.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(targetCreators.get(i).getJobTargetId(), targets.get(i).getJobTargetId());
+                assertEquals(JobTargetStatus.PROCESS_AWAITING, targets.get(i).getStatus());
+            }
+        } catch (KapuaException ex) {
+            commonData.verifyException(ex);
+        }
+    }
+
     @When("^I search for the last job target in the database$")
     public void findLastJobTarget()
             throws Exception {
@@ -282,6 +309,69 @@ public class JobTargetsServiceTestSteps extends AbstractKapuaSteps {
         }
     }
 
+    @When("^I query the targets for the current job in pages of (\\d+)$")
+    public void queryTargetsForJobInPages(int pageSize)
+            throws Exception {
+
+        try {
+            commonData.primeException();
+            commonData.itemCount = 0;
+            KapuaId lastTargetId = null;
+            JobTargetListResult page;
+            do {
+                JobTargetQuery tmpQuery = targetFactory.newQuery(commonData.currentScopeId);
+                AndPredicate andPredicate = tmpQuery.andPredicate(tmpQuery.attributePredicate(JobTargetAttributes.JOB_ID, jobData.job.getId()));
+                if (lastTargetId != null) {
+                    andPredicate.and(tmpQuery.attributePredicate(JobTargetAttributes.ENTITY_ID, lastTargetId, AttributePredicate.Operator.GREATER_THAN));
+                }
+                tmpQuery.setPredicate(andPredicate);
+                tmpQuery.setSortCriteria(new FieldSortCriteria(JobTargetAttributes.ENTITY_ID, FieldSortCriteria.SortOrder.ASCENDING));
+                tmpQuery.setLimit(pageSize);
+
+                page = targetService.query(tmpQuery);
+                assertTrue(String.format("The page should have at most %d items but has %d.", pageSize, page.getSize()), page.getSize() <= pageSize);
+                for (JobTarget target : page.getItems()) {
+                    if (lastTargetId != null) {
+                        assertTrue(String.format("The target %s should follow the target %s.", target.getId().getId(), lastTargetId.getId()), target.getId().getId().compareTo(lastTargetId.getId()) > 0);
+                    }
+                    lastTargetId = target.getId();
+                }
+                commonData.itemCount += page.getSize();
+            } while (page.isLimitExceeded());
+        } catch (KapuaException ex) {
+            commonData.verifyException(ex);
+        }
+    }
+
+    @When("^I update the status of the targets of the current job to \"(.+)\" and the step index to (\\d+)$")
+    public void updateTargetsStatusForJob(String stat, int i)
+            throws Exception {
+
+        JobTargetQuery tmpQuery = targetFactory.newQuery(commonData.currentScopeId);
+        tmpQuery.setPredicate(tmpQuery.attributePredicate(JobTargetAttributes.JOB_ID, jobData.job.getId()));
+
+        try {
+            commonData.primeException();
+            List<JobTarget> targets = targetService.query(tmpQuery).getItems();
+            for (JobTarget target : targets) {
+                target.setStatus(parseJobTargetStatusFromString(stat));
+                target.setStepIndex(i);
+            }
+            targetService.updateStatus(commonData.currentScopeId, targets);
+        } catch (KapuaException ex) {
+            commonData.verifyException(ex);
+        }
+    }
+
+    @Then("^All the targets have the status \"(.+)\" and the step index (\\d+)$")
+    public void checkTargetsStatus(String stat, int i) {
+
+        for (JobTarget target : targetData.targetList.getItems()) {
+            assertEquals(parseJobTargetStatusFromString(stat), target.getStatus());
+            assertEquals(i, target.getStepIndex());
+        }
+    }
+
     @Then("^The target step index is indeed (\\d+)$")
     public void checkTargetStepIndex(int i) {
 
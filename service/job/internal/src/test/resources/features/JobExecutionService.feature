@@ -58,6 +58,26 @@ Scenario: Delete a job execution item twice
     Then I delete the last job execution in the database
     Then An exception was thrown
 
+Scenario: Append and read the log of a job execution in pages
+
+    Given I create a job with the name "TestJob"
+    And A regular job execution item
+    When I append 5 log chunks to the execution item
+    Then No exception was thrown
+    When I read the log of the execution item in pages of 2 chunks
+    Then No exception was thrown
+    And There are exactly 5 items
+    And The log of the execution item has the 5 chunks in order
+
+Scenario: Append to the log of a deleted job execution
+
+    Given I create a job with the name "TestJob"
+    And A regular job execution item
+    Then I delete the last job execution in the database
+    Given I expect the exception "KapuaEntityNotFoundException" with the text "jobExecution"
+    When I append 1 log chunks to the execution item
+    Then An exception was thrown
+
 Scenario: Create and count several execution items for a job
 
     Given I create a job with the name "TestJob"
@@ -75,6 +75,38 @@ Scenario: Query for the targets of a specific job
     When I query the targets for the current job
     Then There are exactly 4 items
 
+Scenario: Query for the targets of a specific job in pages
+
+    Given I create a job with the name "TestJob1"
+    And A regular job target item
+    And A regular job target item
+    And A regular job target item
+    And A regular job target item
+    And A regular job target item
+    When I query the targets for the current job in pages of 2
+    Then No exception was thrown
+    And There are exactly 5 items
+
+Scenario: Create the targets of a job at once
+
+    Given I create a job with the name "TestJob1"
+    And 5 regular job target items created at once
+    Then No exception was thrown
+    When I query the targets for the current job
+    Then There are exactly 5 items
+
+Scenario: Update the status of the targets of a job at once
+
+    Given I create a job with the name "TestJob1"
+    And A regular job target item
+    And A regular job target item
+    And A regular job target item
+    When I update the status of the targets of the current job to "PROCESS_FAILED" and the step index to 2
+    Then No exception was thrown
+    When I query the targets for the current job
+    Then There are exactly 3 items
+    And All the targets have the status "PROCESS_FAILED" and the step index 2
+
 Scenario: Update a job target TargetId
 
     Given I create a job with the name "TestJob1"
@@ -41,6 +41,7 @@ import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValida
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationErrorCodes;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationException;
 import org.slf4j.Logger;
@@ -103,7 +104,7 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
             }
         }
 
-        return entityManagerSession.onTransactedInsert(em -> {
+        AccessInfo createdAccessInfo = entityManagerSession.onTransactedInsert(em -> {
             AccessInfo accessInfo = AccessInfoDAO.create(em, accessInfoCreator);
 
             if (!accessInfoCreator.getPermissions().isEmpty()) {
@@ -132,6 +133,9 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
 
             return accessInfo;
         });
+
+        KapuaAuthorizingRealm.invalidateAuthorizationInfo(createdAccessInfo.getUserId());
+        return createdAccessInfo;
     }
 
     @Override
@@ -212,13 +216,17 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
         PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
         authorizationService.checkPermission(permissionFactory.newPermission(AuthorizationDomains.ACCESS_INFO_DOMAIN, Actions.write, scopeId));
 
-        entityManagerSession.onTransactedAction(em -> {
-            if (AccessInfoDAO.find(em, scopeId, accessInfoId) == null) {
+        AccessInfo deletedAccessInfo = entityManagerSession.onTransactedResult(em -> {
+            AccessInfo accessInfo = AccessInfoDAO.find(em, scopeId, accessInfoId);
+            if (accessInfo == null) {
                 throw new KapuaEntityNotFoundException(AccessInfo.TYPE, accessInfoId);
             }
 
             AccessInfoDAO.delete(em, scopeId, accessInfoId);
+            return accessInfo;
         });
+
+        KapuaAuthorizingRealm.invalidateAuthorizationInfo(deletedAccessInfo.getUserId());
     }
 
     //@ListenServiceEvent(fromAddress="account")
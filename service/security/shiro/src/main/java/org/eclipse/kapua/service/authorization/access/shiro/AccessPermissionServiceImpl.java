@@ -34,6 +34,7 @@ import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValidator;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -107,7 +108,7 @@ public class AccessPermissionServiceImpl extends AbstractKapuaService implements
 
         //
         // Do create
-        return entityManagerSession.onTransactedInsert(em -> {
+        AccessPermission accessPermission = entityManagerSession.onTransactedInsert(em -> {
             //
             // Check that accessInfo exists
             AccessInfo accessInfo = AccessInfoDAO.find(em, accessPermissionCreator.getScopeId(), accessPermissionCreator.getAccessInfoId());
@@ -118,6 +119,9 @@ public class AccessPermissionServiceImpl extends AbstractKapuaService implements
 
             return AccessPermissionDAO.create(em, accessPermissionCreator);
         });
+
+        invalidateAuthorizationInfo(accessPermission.getScopeId(), accessPermission.getAccessInfoId());
+        return accessPermission;
     }
 
     @Override
@@ -131,13 +135,31 @@ public class AccessPermissionServiceImpl extends AbstractKapuaService implements
         PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
         authorizationService.checkPermission(permissionFactory.newPermission(AuthorizationDomains.ACCESS_INFO_DOMAIN, Actions.delete, scopeId));
 
-        entityManagerSession.onTransactedAction(em -> {
-            if (AccessPermissionDAO.find(em, scopeId, accessPermissionId) == null) {
+        AccessPermission accessPermission = entityManagerSession.onTransactedResult(em -> {
+            AccessPermission accessPermissionToDelete = AccessPermissionDAO.find(em, scopeId, accessPermissionId);
+            if (accessPermissionToDelete == null) {
                 throw new KapuaEntityNotFoundException(AccessPermission.TYPE, accessPermissionId);
             }
 
             AccessPermissionDAO.delete(em, scopeId, accessPermissionId);
+            return accessPermissionToDelete;
         });
+
+        invalidateAuthorizationInfo(scopeId, accessPermission.getAccessInfoId());
+    }
+
+    /**
+     * Invalidate the cached authorization info of the user owning the access info
+     *
+     * @param scopeId
+     * @param accessInfoId
+     * @throws KapuaException
+     */
+    private void invalidateAuthorizationInfo(KapuaId scopeId, KapuaId accessInfoId) throws KapuaException {
+        AccessInfo accessInfo = entityManagerSession.onResult(em -> AccessInfoDAO.find(em, scopeId, accessInfoId));
+        if (accessInfo != null) {
+            KapuaAuthorizingRealm.invalidateAuthorizationInfo(accessInfo.getUserId());
+        }
     }
 
     @Override
@@ -35,6 +35,7 @@ import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermissionAttributes;
 import org.eclipse.kapua.service.authorization.role.shiro.RoleDAO;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationErrorCodes;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationException;
 
@@ -66,7 +67,7 @@ public class AccessRoleServiceImpl extends AbstractKapuaService implements Acces
 
         //
         // If role is not in the scope of the access info or does not exists throw an exception.
-        return entityManagerSession.onTransactedInsert(em -> {
+        AccessRole accessRole = entityManagerSession.onTransactedInsert(em -> {
 
             //
             // Check that accessInfo exists
@@ -103,6 +104,9 @@ public class AccessRoleServiceImpl extends AbstractKapuaService implements Acces
 
             return AccessRoleDAO.create(em, accessRoleCreator);
         });
+
+        invalidateAuthorizationInfo(accessRole.getScopeId(), accessRole.getAccessInfoId());
+        return accessRole;
     }
 
     @Override
@@ -116,13 +120,31 @@ public class AccessRoleServiceImpl extends AbstractKapuaService implements Acces
         PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
         authorizationService.checkPermission(permissionFactory.newPermission(AuthorizationDomains.ACCESS_INFO_DOMAIN, Actions.delete, scopeId));
 
-        entityManagerSession.onTransactedAction(em -> {
-            if (AccessRoleDAO.find(em, scopeId, accessRoleId) == null) {
+        AccessRole accessRole = entityManagerSession.onTransactedResult(em -> {
+            AccessRole accessRoleToDelete = AccessRoleDAO.find(em, scopeId, accessRoleId);
+            if (accessRoleToDelete == null) {
                 throw new KapuaEntityNotFoundException(AccessRole.TYPE, accessRoleId);
             }
 
             AccessRoleDAO.delete(em, scopeId, accessRoleId);
+            return accessRoleToDelete;
         });
+
+        invalidateAuthorizationInfo(scopeId, accessRole.getAccessInfoId());
+    }
+
+    /**
+     * Invalidate the cached authorization info of the user owning the access info
+     *
+     * @param scopeId
+     * @param accessInfoId
+     * @throws KapuaException
+     */
+    private void invalidateAuthorizationInfo(KapuaId scopeId, KapuaId accessInfoId) throws KapuaException {
+        AccessInfo accessInfo = entityManagerSession.onResult(em -> AccessInfoDAO.find(em, scopeId, accessInfoId));
+        if (accessInfo != null) {
+            KapuaAuthorizingRealm.invalidateAuthorizationInfo(accessInfo.getUserId());
+        }
     }
 
     @Override
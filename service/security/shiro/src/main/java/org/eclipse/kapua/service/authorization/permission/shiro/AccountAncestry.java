@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSettingKeys;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Account ancestry cache used to check the forwardable {@link org.eclipse.kapua.service.authorization.permission.Permission}s.<br>
+ * The ancestors of an account are the accounts of its {@link Account#getParentAccountPath()} (the account itself excluded).
+ * The parent account path of an account never changes, so the ancestors are kept (up to the configured cache size) without expiration.
+ *
+ * @since 1.1.0
+ */
+final class AccountAncestry {
+
+    private static final LocalCache<BigInteger, Set<BigInteger>> ANCESTORS = new LocalCache<>(
+            KapuaAuthorizationSetting.getInstance().getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_CACHE_SIZE_MAX, 10000), null);
+
+    private AccountAncestry() {
+    }
+
+    /**
+     * Get the ancestors of the account
+     *
+     * @param accountId
+     * @return the (read only) ids of the ancestor accounts, empty if the account doesn't exist or is a root account
+     */
+    static Set<BigInteger> getAncestors(KapuaId accountId) {
+        Set<BigInteger> ancestors = ANCESTORS.get(accountId.getId());
+        if (ancestors == null) {
+            Account account;
+            try {
+                AccountService accountService = KapuaLocator.getInstance().getService(AccountService.class);
+                account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(accountId));
+            } catch (KapuaException e) {
+                throw KapuaRuntimeException.internalError(e, "Error while finding the ancestors of the account: " + accountId.toStringId());
+            }
+
+            // a missing account is not cached since it could be created later
+            if (account == null) {
+                return Collections.emptySet();
+            }
+
+            ancestors = account.getScopeId() != null ? parseAncestors(account.getParentAccountPath()) : Collections.emptySet();
+            ANCESTORS.put(accountId.getId(), ancestors);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Parse the parent account path (i.e. '/1/5/7') returning the ids of the path but the last one (the account itself)
+     *
+     * @param parentAccountPath
+     * @return
+     */
+    static Set<BigInteger> parseAncestors(String parentAccountPath) {
+        if (parentAccountPath == null) {
+            return Collections.emptySet();
+        }
+        String[] pathIds = parentAccountPath.split("/");
+        Set<BigInteger> ancestors = new HashSet<>();
+        for (int i = 0; i < pathIds.length - 1; i++) {
+            if (!pathIds[i].isEmpty()) {
+                try {
+                    ancestors.add(new BigInteger(pathIds[i]));
+                } catch (NumberFormatException e) {
+                    // not an account id, so it can't match any permission scope id
+                }
+            }
+        }
+        return Collections.unmodifiableSet(ancestors);
+    }
+
+}
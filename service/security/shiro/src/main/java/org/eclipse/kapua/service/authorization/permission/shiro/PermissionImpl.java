@@ -14,11 +14,7 @@ package org.eclipse.kapua.service.authorization.permission.shiro;
 import org.apache.shiro.authz.UnauthorizedException;
 import org.apache.shiro.authz.permission.WildcardPermission;
 import org.apache.shiro.subject.Subject;
-import org.eclipse.kapua.KapuaException;
-import org.eclipse.kapua.KapuaRuntimeException;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
-import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
-import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.KapuaEntityCreator;
 import org.eclipse.kapua.model.domain.Actions;
@@ -26,7 +22,6 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.group.Group;
 import org.eclipse.kapua.service.authorization.permission.Permission;
@@ -51,9 +46,6 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
 
     private static final long serialVersionUID = 1480557438886065675L;
 
-    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
-    private static final AccountService ACCOUNT_SERVICE = LOCATOR.getService(AccountService.class);
-
     @Basic
     @Column(name = "domain", nullable = true, updatable = false)
     private String domain;
@@ -206,79 +198,25 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
      * A lookup of {@link Account#getParentAccountPath()} will be required to search if the current user scope id is
      * one of the parent of the given {@link Permission#getTargetScopeId()}
      * </p>
-     *
-     * @since 1.0.0
-     */
-    @Override
-    public boolean implies(org.apache.shiro.authz.Permission p) {
-
-        Permission permission = (Permission) p;
-
-        if (KapuaId.ANY.equals(permission.getTargetScopeId())) {
-            setTargetScopeId(null);
-        }
-
-        if (Group.ANY.equals(permission.getGroupId())) {
-            setGroupId(null);
-        }
-
-        setParts(toString());
-
-        boolean implies = super.implies(p);
-
-        if (!implies && permission.getTargetScopeId() != null && getForwardable()) {
-            implies = forwardPermission(p);
-        }
-
-        return implies;
-    }
-
-    /**
-     * Checks {@code this} Permission against the given {@link Permission} parameter.<br>
-     * <p>
-     * <p>
-     * It tries to forward {@code this} Permission to the {@link #getTargetScopeId()} of the given {@link org.apache.shiro.authz.Permission} parameter.<br>
-     * This means that if the required permission has scope id 'B' and {@code this} {@link Permission} has scope id 'A',
-     * this methods search the {@link Account#getParentAccountPath()} of the scope id 'B' and checks the {@link Permission} forwarding {@code this} Permission
-     * to the same level of the given {@link org.apache.shiro.authz.Permission}.
-     * </p>
      * <p>
      * <p>
      * <b>Example:</b>
      * User 'A' in account 'A' has scopeId 'A' and this permission (A) "*:*:A:*".<br>
      * Account 'A' has a child account 'B', then 'B' has this parent account path: '/A/B';<br>
      * <br>
-     * User 'A' tries to access a resource of account 'B' an the direct check {@link org.apache.shiro.authz.Permission#implies(org.apache.shiro.authz.Permission)} fails.
-     * So this method searches the parent account path of account 'B', found that 'A' is a parent of 'B'
-     * so then {@code this} {@link Permission} is checked again with 'B' as scopeId.
+     * User 'A' tries to access a resource of account 'B' an the direct check fails.
+     * So the parent account path of account 'B' is searched, 'A' is found as a parent of 'B' so the permission is implied.
+     * </p>
+     * <p>
+     * <p>
+     * {@code this} Permission is never changed by the check. The ancestors of the accounts are cached.
      * </p>
      *
-     * @param p The permission to check against.
-     * @return {@code true} if this permission is forward-able and is valid when forwarded, {@code false otherwise}
      * @since 1.0.0
      */
-    private boolean forwardPermission(org.apache.shiro.authz.Permission p) {
-        Permission permission = (Permission) p;
-
-        try {
-            Account account = KapuaSecurityUtils.doPrivileged(() -> ACCOUNT_SERVICE.find(permission.getTargetScopeId()));
-
-            if (account != null && account.getScopeId() != null) {
-                String parentAccountPath = account.getParentAccountPath();
-
-                // If it doesn't contain the scope id in the parent, don't even try to check against
-                if (parentAccountPath.contains("/" + getTargetScopeId().toStringId() + "/")) {
-                    setTargetScopeId(permission.getTargetScopeId());
-                    setParts(toString());
-
-                    return super.implies(p);
-                }
-            }
-        } catch (KapuaException e) {
-            throw KapuaRuntimeException.internalError(e, "Error while forwarding permission: " + p.toString());
-        }
-
-        return false;
+    @Override
+    public boolean implies(org.apache.shiro.authz.Permission p) {
+        return PermissionIndex.implies(this, (Permission) p);
     }
 
     @Override
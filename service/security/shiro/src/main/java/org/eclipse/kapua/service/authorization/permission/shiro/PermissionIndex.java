@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.group.Group;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the {@link Permission}s held by a subject.<br>
+ * The permissions are indexed by domain, action, target scope id and group id (a null key is the wildcard), so checking a required permission looks up at most two
+ * entries for each level instead of parsing and comparing all the held permissions.<br>
+ * The matching rules are the same of {@link PermissionImpl#implies(org.apache.shiro.authz.Permission)}:
+ * <ul>
+ * <li>a wildcard (null) held value matches any required value, while a wildcard required value is matched only by a wildcard held value</li>
+ * <li>a required {@link KapuaId#ANY} target scope id or {@link Group#ANY} group id is matched by any held value</li>
+ * <li>a forwardable held permission matches the target scope ids of the child accounts of its target scope id</li>
+ * </ul>
+ *
+ * @since 1.1.0
+ */
+public final class PermissionIndex {
+
+    // KapuaId.ANY and Group.ANY share the same id
+    private static final BigInteger ANY_ID = KapuaId.ANY.getId();
+
+    // domain -> action -> target scope id -> group ids
+    private final Map<String, Map<Actions, Map<BigInteger, Set<BigInteger>>>> index = new HashMap<>();
+    private final IndexedPermission[] forwardables;
+    private final org.apache.shiro.authz.Permission[] others;
+
+    /**
+     * Constructor
+     *
+     * @param permissions
+     *            the held permissions (the ones that are not {@link Permission}s are checked one by one)
+     */
+    public PermissionIndex(Collection<? extends org.apache.shiro.authz.Permission> permissions) {
+        List<IndexedPermission> forwardableList = new ArrayList<>();
+        List<org.apache.shiro.authz.Permission> otherList = new ArrayList<>();
+        for (org.apache.shiro.authz.Permission permission : permissions) {
+            if (permission instanceof Permission) {
+                IndexedPermission indexedPermission = new IndexedPermission((Permission) permission);
+                index.computeIfAbsent(indexedPermission.domain, domain -> new HashMap<>())
+                        .computeIfAbsent(indexedPermission.action, action -> new HashMap<>())
+                        .computeIfAbsent(indexedPermission.targetScopeId, targetScopeId -> new HashSet<>())
+                        .add(indexedPermission.groupId);
+                if (indexedPermission.forwardable && indexedPermission.targetScopeId != null) {
+                    forwardableList.add(indexedPermission);
+                }
+            } else if (permission != null) {
+                otherList.add(permission);
+            }
+        }
+        forwardables = forwardableList.toArray(new IndexedPermission[forwardableList.size()]);
+        others = otherList.toArray(new org.apache.shiro.authz.Permission[otherList.size()]);
+    }
+
+    /**
+     * Check if the held permissions imply the required permission
+     *
+     * @param permission
+     *            the required permission
+     * @return
+     */
+    public boolean implies(org.apache.shiro.authz.Permission permission) {
+        if (permission instanceof Permission) {
+            Permission required = (Permission) permission;
+            if (impliesDomain(required) || impliesForwarded(required)) {
+                return true;
+            }
+        }
+        for (org.apache.shiro.authz.Permission other : others) {
+            if (other.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the held permission implies the required permission, without changing the held permission
+     *
+     * @param held
+     * @param required
+     * @return
+     */
+    static boolean implies(Permission held, Permission required) {
+        BigInteger targetScopeId = idKey(held.getTargetScopeId());
+        String domain = domainKey(held.getDomain());
+        BigInteger groupId = idKey(held.getGroupId());
+        if (!impliesIgnoringScope(domain, held.getAction(), groupId, required)) {
+            return false;
+        }
+        if (targetScopeId == null || isAny(required.getTargetScopeId()) || targetScopeId.equals(idKey(required.getTargetScopeId()))) {
+            return true;
+        }
+        return held.getForwardable() && required.getTargetScopeId() != null && AccountAncestry.getAncestors(required.getTargetScopeId()).contains(targetScopeId);
+    }
+
+    private boolean impliesDomain(Permission required) {
+        String domain = domainKey(required.getDomain());
+        return impliesAction(index.get(domain), required) || domain != null && impliesAction(index.get(null), required);
+    }
+
+    private static boolean impliesAction(Map<Actions, Map<BigInteger, Set<BigInteger>>> byAction, Permission required) {
+        if (byAction == null) {
+            return false;
+        }
+        Actions action = required.getAction();
+        return impliesTargetScope(byAction.get(action), required) || action != null && impliesTargetScope(byAction.get(null), required);
+    }
+
+    private static boolean impliesTargetScope(Map<BigInteger, Set<BigInteger>> byTargetScope, Permission required) {
+        if (byTargetScope == null) {
+            return false;
+        }
+        KapuaId requiredTargetScopeId = required.getTargetScopeId();
+        if (isAny(requiredTargetScopeId)) {
+            for (Set<BigInteger> groupIds : byTargetScope.values()) {
+                if (impliesGroup(groupIds, required)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        BigInteger targetScopeId = idKey(requiredTargetScopeId);
+        return impliesGroup(byTargetScope.get(targetScopeId), required) || targetScopeId != null && impliesGroup(byTargetScope.get(null), required);
+    }
+
+    private static boolean impliesGroup(Set<BigInteger> groupIds, Permission required) {
+        if (groupIds == null) {
+            return false;
+        }
+        KapuaId requiredGroupId = required.getGroupId();
+        return isAny(requiredGroupId) || groupIds.contains(null) || requiredGroupId != null && groupIds.contains(requiredGroupId.getId());
+    }
+
+    private boolean impliesForwarded(Permission required) {
+        if (forwardables.length == 0 || required.getTargetScopeId() == null) {
+            return false;
+        }
+        // the ancestors are looked up only if a forwardable permission matches the other parts
+        Set<BigInteger> ancestors = null;
+        for (IndexedPermission forwardable : forwardables) {
+            if (impliesIgnoringScope(forwardable.domain, forwardable.action, forwardable.groupId, required)) {
+                if (ancestors == null) {
+                    ancestors = AccountAncestry.getAncestors(required.getTargetScopeId());
+                }
+                if (ancestors.contains(forwardable.targetScopeId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean impliesIgnoringScope(String domain, Actions action, BigInteger groupId, Permission required) {
+        return (domain == null || required.getDomain() != null && domain.equals(domainKey(required.getDomain()))) &&
+                (action == null || action == required.getAction()) &&
+                (groupId == null || isAny(required.getGroupId()) || required.getGroupId() != null && groupId.equals(required.getGroupId().getId()));
+    }
+
+    private static boolean isAny(KapuaId id) {
+        return id != null && ANY_ID.equals(id.getId());
+    }
+
+    private static BigInteger idKey(KapuaId id) {
+        // the raw id is used since the KapuaId implementations don't share the same hash code
+        return id != null ? id.getId() : null;
+    }
+
+    private static String domainKey(String domain) {
+        // the domains are compared ignoring the case, as the Shiro wildcard permissions do (no copy is made for the lower case domains)
+        return domain != null ? domain.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static class IndexedPermission {
+
+        private final String domain;
+        private final Actions action;
+        private final BigInteger targetScopeId;
+        private final BigInteger groupId;
+        private final boolean forwardable;
+
+        private IndexedPermission(Permission permission) {
+            domain = domainKey(permission.getDomain());
+            action = permission.getAction();
+            targetScopeId = idKey(permission.getTargetScopeId());
+            groupId = idKey(permission.getGroupId());
+            forwardable = permission.getForwardable();
+        }
+    }
+
+}
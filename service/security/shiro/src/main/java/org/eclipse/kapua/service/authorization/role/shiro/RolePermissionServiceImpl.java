@@ -36,6 +36,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionQuery;
 import org.eclipse.kapua.service.authorization.role.RolePermissionService;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -115,7 +116,11 @@ public class RolePermissionServiceImpl extends AbstractKapuaService implements R
             throw new KapuaEntityUniquenessException(RolePermission.TYPE, uniquesFieldValues);
         }
 
-        return entityManagerSession.onTransactedInsert(em -> RolePermissionDAO.create(em, rolePermissionCreator));
+        RolePermission rolePermission = entityManagerSession.onTransactedInsert(em -> RolePermissionDAO.create(em, rolePermissionCreator));
+
+        // the role can be shared by many users
+        KapuaAuthorizingRealm.invalidateAllAuthorizationInfo();
+        return rolePermission;
     }
 
     @Override
@@ -138,6 +143,9 @@ public class RolePermissionServiceImpl extends AbstractKapuaService implements R
 
             RolePermissionDAO.delete(em, scopeId, rolePermissionId);
         });
+
+        // the role can be shared by many users
+        KapuaAuthorizingRealm.invalidateAllAuthorizationInfo();
     }
 
     @Override
@@ -40,6 +40,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionFactory;
 import org.eclipse.kapua.service.authorization.role.RoleQuery;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -160,7 +161,11 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
 
         //
         // Do update
-        return entityManagerSession.onTransactedResult(em -> RoleDAO.update(em, role));
+        Role updatedRole = entityManagerSession.onTransactedResult(em -> RoleDAO.update(em, role));
+
+        // the role can be shared by many users
+        KapuaAuthorizingRealm.invalidateAllAuthorizationInfo();
+        return updatedRole;
     }
 
     @Override
@@ -186,6 +191,9 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
         //
         // Do delete
         entityManagerSession.onTransactedAction(em -> RoleDAO.delete(em, scopeId, roleId));
+
+        // the role can be shared by many users
+        KapuaAuthorizingRealm.invalidateAllAuthorizationInfo();
     }
 
     @Override
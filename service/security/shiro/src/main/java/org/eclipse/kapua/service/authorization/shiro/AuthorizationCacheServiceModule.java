@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.locator.KapuaProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ServiceModule} which invalidates the authorization infos cached by the {@link KapuaAuthorizingRealm} when the accesses or the roles are changed
+ * by the other processes, through the entity change events published by the {@link EntityCache}.<br>
+ * The entities must be listed in the {@link SystemSettingKey#ENTITY_CACHE_EVENT_NAMES} setting of the processes changing them.
+ * As for the {@link EntityCache}, each process subscribes with its own name (see {@link EntityCache#getNodeName()}), so each event is received by all the processes,
+ * and the module fails to start if the changes are published without a name.
+ *
+ * @since 1.1.0
+ */
+@KapuaProvider
+public class AuthorizationCacheServiceModule implements ServiceModule {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthorizationCacheServiceModule.class);
+
+    @Override
+    public void start() throws KapuaException {
+        EntityCache entityCache = EntityCache.getInstance();
+        if (!entityCache.isPublishing()) {
+            LOGGER.info("Starting authorization cache module... no entity change event published. SKIPPED");
+            return;
+        }
+
+        String address = entityCache.getEventAddress();
+        String subscriptionName = subscriptionName(address, entityCache.getNodeName());
+        LOGGER.info("Starting authorization cache module... subscribing to address {} - name {}", address, subscriptionName);
+        ServiceEventBusManager.getInstance().subscribe(address, subscriptionName, this::received);
+        LOGGER.info("Starting authorization cache module... DONE");
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        // The subscription is closed with the event bus
+    }
+
+    static String subscriptionName(String address, String nodeName) throws KapuaIllegalNullArgumentException {
+        if (nodeName == null) {
+            throw new KapuaIllegalNullArgumentException(SystemSettingKey.ENTITY_CACHE_NODE_NAME.key());
+        }
+        return String.format("%s-%s-authorization", address, nodeName);
+    }
+
+    /**
+     * Invalidate the cached authorization infos on the changes of the accesses and of the roles.<br>
+     * The events don't carry the user id, so all the cached authorization infos are invalidated.
+     *
+     * @param serviceEvent
+     *            the entity change event
+     */
+    void received(ServiceEvent serviceEvent) {
+        if (!EntityCache.INVALIDATE_OPERATION.equals(serviceEvent.getOperation()) || serviceEvent.getEntityType() == null) {
+            return;
+        }
+
+        switch (serviceEvent.getEntityType()) {
+        case "AccessInfo":
+        case "AccessPermission":
+        case "AccessRole":
+        case "Role":
+        case "RolePermission":
+            LOGGER.debug("{} {} changed, invalidating the cached authorization infos", serviceEvent.getEntityType(), serviceEvent.getEntityId());
+            KapuaAuthorizingRealm.invalidateAllAuthorizationInfo();
+            break;
+        default:
+            break;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionIndex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable {@link AuthorizationInfo} of a Kapua user.<br>
+ * Besides the roles and the permissions it keeps the {@link PermissionIndex} of the permissions, so the permission checks of the (cached) authorization info don't go
+ * through all the permissions.
+ *
+ * @since 1.1.0
+ */
+public class KapuaAuthorizationInfo implements AuthorizationInfo {
+
+    private static final long serialVersionUID = -2484618627367284567L;
+
+    private final Set<String> roles;
+    private final Set<Permission> objectPermissions;
+
+    // not serialized, rebuilt on demand
+    private transient PermissionIndex permissionIndex;
+
+    /**
+     * Constructor
+     *
+     * @param roles
+     * @param objectPermissions
+     */
+    public KapuaAuthorizationInfo(Collection<String> roles, Collection<? extends Permission> objectPermissions) {
+        this.roles = Collections.unmodifiableSet(new HashSet<>(roles));
+        this.objectPermissions = Collections.unmodifiableSet(new HashSet<>(objectPermissions));
+        this.permissionIndex = new PermissionIndex(this.objectPermissions);
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<String> getStringPermissions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Collection<Permission> getObjectPermissions() {
+        return objectPermissions;
+    }
+
+    /**
+     * Get the index of the permissions
+     *
+     * @return
+     */
+    public PermissionIndex getPermissionIndex() {
+        // the index is immutable, so concurrent rebuilds are harmless
+        PermissionIndex index = permissionIndex;
+        if (index == null) {
+            index = new PermissionIndex(objectPermissions);
+            permissionIndex = index;
+        }
+        return index;
+    }
+
+}
@@ -18,7 +18,8 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.UnknownAccountException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.cache.Cache;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.eclipse.kapua.KapuaException;
@@ -38,6 +39,7 @@ import org.eclipse.kapua.service.authorization.access.AccessRole;
 import org.eclipse.kapua.service.authorization.access.AccessRoleListResult;
 import org.eclipse.kapua.service.authorization.access.AccessRoleService;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionIndex;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermission;
 import org.eclipse.kapua.service.authorization.role.RolePermissionListResult;
@@ -48,6 +50,12 @@ import org.eclipse.kapua.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
 /**
  * The JPA-based application's one and only configured Apache Shiro Realm.
  */
@@ -56,9 +64,62 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
     private static final Logger logger = LoggerFactory.getLogger(KapuaAuthorizingRealm.class);
 
     public static final String REALM_NAME = "kapuaAuthorizingRealm";
+    public static final String AUTHORIZATION_CACHE_NAME = "kapuaAuthorizationInfo";
+
+    // the realms of the process (usually one), used to invalidate their cached authorization infos
+    private static final Set<KapuaAuthorizingRealm> REALMS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
     public KapuaAuthorizingRealm() throws KapuaException {
         setName(REALM_NAME);
+        setAuthorizationCacheName(AUTHORIZATION_CACHE_NAME);
+        REALMS.add(this);
+    }
+
+    /**
+     * Invalidate the cached authorization info of the user (if a cache manager is configured)
+     *
+     * @param userId
+     * @since 1.1.0
+     */
+    public static void invalidateAuthorizationInfo(KapuaId userId) {
+        if (userId == null) {
+            return;
+        }
+        String key = authorizationCacheKey(userId);
+        forEachAuthorizationCache(cache -> cache.remove(key));
+    }
+
+    /**
+     * Invalidate all the cached authorization infos (if a cache manager is configured).<br>
+     * Used when the changed entity (i.e. a role) can be shared by many users.
+     *
+     * @since 1.1.0
+     */
+    public static void invalidateAllAuthorizationInfo() {
+        forEachAuthorizationCache(Cache::clear);
+    }
+
+    private static void forEachAuthorizationCache(Consumer<Cache<Object, AuthorizationInfo>> action) {
+        synchronized (REALMS) {
+            for (KapuaAuthorizingRealm realm : REALMS) {
+                Cache<Object, AuthorizationInfo> cache = realm.getAuthorizationCache();
+                if (cache != null) {
+                    action.accept(cache);
+                }
+            }
+        }
+    }
+
+    private static String authorizationCacheKey(KapuaId userId) {
+        return userId.toCompactId();
+    }
+
+    /**
+     * The authorization infos are cached by user id, so they can be invalidated when the user accesses change.
+     */
+    @Override
+    protected Object getAuthorizationCacheKey(PrincipalCollection principals) {
+        return authorizationCacheKey(((User) principals.getPrimaryPrincipal()).getId());
     }
 
     /**
@@ -120,8 +181,9 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
         }
 
         //
-        // Create SimpleAuthorizationInfo with principals permissions
-        SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+        // Collect the principals roles and permissions
+        Set<String> roleNames = new HashSet<>();
+        Set<Permission> permissions = new HashSet<>();
 
         // Get user roles set and related permissions
         for (AccessInfo accessInfo : accessInfos.getItems()) {
@@ -140,7 +202,7 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
             for (AccessPermission accessPermission : accessPermissions.getItems()) {
                 PermissionImpl p = accessPermission.getPermission();
                 logger.trace("User: {} has permission: {}", username, p);
-                info.addObjectPermission(p);
+                permissions.add(p);
             }
 
             // Access Role Id
@@ -169,7 +231,7 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
                     throw new ShiroException("Error while find role ids!", e);
                 }
 
-                info.addRole(role.getName());
+                roleNames.add(role.getName());
                 final RolePermissionListResult rolePermissions;
                 try {
                     rolePermissions = KapuaSecurityUtils.doPrivileged(() -> rolePermissionService.findByRoleId(role.getScopeId(), role.getId()));
@@ -181,14 +243,25 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
 
                     PermissionImpl p = rolePermission.getPermission();
                     logger.trace("Role: {} has permission: {}", role, p);
-                    info.addObjectPermission(p);
+                    permissions.add(p);
                 }
             }
         }
 
         //
         // Return authorization info
-        return info;
+        return new KapuaAuthorizationInfo(roleNames, permissions);
+    }
+
+    /**
+     * The permissions of the Kapua authorization infos are checked through their {@link PermissionIndex}.
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info instanceof KapuaAuthorizationInfo && getRolePermissionResolver() == null) {
+            return ((KapuaAuthorizationInfo) info).getPermissionIndex().implies(permission);
+        }
+        return super.isPermitted(permission, info);
     }
 
     /**
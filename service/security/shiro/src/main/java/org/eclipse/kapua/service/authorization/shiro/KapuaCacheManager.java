@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import com.codahale.metrics.Counter;
+import org.apache.shiro.cache.Cache;
+import org.apache.shiro.cache.CacheException;
+import org.apache.shiro.cache.CacheManager;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSettingKeys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded local Shiro {@link CacheManager}.<br>
+ * Set it as security manager cache manager (see shiro.ini) to let the {@link KapuaAuthorizingRealm} cache the authorization infos, instead of loading them from the database
+ * on each permission check.<br>
+ * The caches are bounded in size and their entries expire after the configured time (see {@link KapuaAuthorizationSettingKeys#AUTHORIZATION_CACHE_SIZE_MAX} and
+ * {@link KapuaAuthorizationSettingKeys#AUTHORIZATION_CACHE_EXPIRE_AFTER}), so the changes made by other nodes are visible after a while. The changes made by the local
+ * authorization services are invalidated immediately (see {@link KapuaAuthorizingRealm#invalidateAuthorizationInfo(org.eclipse.kapua.model.id.KapuaId)}),
+ * the ones made by the other nodes as soon as their entity change events are received, if published (see {@link AuthorizationCacheServiceModule}).
+ *
+ * @since 1.1.0
+ */
+public class KapuaCacheManager implements CacheManager {
+
+    private final Map<String, KapuaCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    private final int sizeMax;
+    private final int expireAfter;
+
+    public KapuaCacheManager() {
+        KapuaAuthorizationSetting setting = KapuaAuthorizationSetting.getInstance();
+        sizeMax = setting.getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_CACHE_SIZE_MAX, 10000);
+        expireAfter = setting.getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_CACHE_EXPIRE_AFTER, 60);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String name) throws CacheException {
+        return (Cache<K, V>) caches.computeIfAbsent(name, cacheName -> new KapuaCache<>(cacheName, sizeMax, expireAfter));
+    }
+
+    /**
+     * Shiro {@link Cache} backed by a {@link LocalCache}, counting the hits and the misses.
+     *
+     * @param <K>
+     * @param <V>
+     */
+    private static class KapuaCache<K, V> implements Cache<K, V> {
+
+        private final LocalCache<K, V> localCache;
+
+        private final Counter metricHit;
+        private final Counter metricMiss;
+
+        private KapuaCache(String name, int sizeMax, int expireAfter) {
+            localCache = new LocalCache<>(sizeMax, expireAfter, null);
+            MetricsService metricsService = MetricServiceFactory.getInstance();
+            metricHit = metricsService.getCounter("authorization", "cache", name, "hit", "count");
+            metricMiss = metricsService.getCounter("authorization", "cache", name, "miss", "count");
+        }
+
+        @Override
+        public V get(K key) {
+            V value = localCache.get(key);
+            if (value != null) {
+                metricHit.inc();
+            } else {
+                metricMiss.inc();
+            }
+            return value;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            V previous = localCache.get(key);
+            localCache.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public V remove(K key) {
+            V previous = localCache.get(key);
+            localCache.remove(key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            localCache.invalidateAll();
+        }
+
+        @Override
+        public int size() {
+            return localCache.getAllKeys().size();
+        }
+
+        @Override
+        public Set<K> keys() {
+            return new HashSet<>(localCache.getAllKeys());
+        }
+
+        @Override
+        public Collection<V> values() {
+            List<V> values = new ArrayList<>();
+            for (K key : localCache.getAllKeys()) {
+                V value = localCache.get(key);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+    }
+
+}
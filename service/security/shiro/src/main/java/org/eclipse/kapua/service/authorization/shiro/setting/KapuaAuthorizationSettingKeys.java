@@ -19,7 +19,9 @@ import org.eclipse.kapua.commons.setting.SettingKey;
  */
 public enum KapuaAuthorizationSettingKeys implements SettingKey {
     AUTHORIZATION_KEY("authorization.key"),
-    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress");
+    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress"),
+    AUTHORIZATION_CACHE_SIZE_MAX("authorization.cache.size_max"),
+    AUTHORIZATION_CACHE_EXPIRE_AFTER("authorization.cache.expire_after");
 
     private String key;
 
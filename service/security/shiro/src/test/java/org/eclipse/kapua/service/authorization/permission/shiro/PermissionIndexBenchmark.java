@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a permission check for a subject holding some hundreds of permissions:
+ * <ul>
+ * <li>parsing each held permission as Shiro wildcard permission (as {@link PermissionImpl#implies(org.apache.shiro.authz.Permission)} did before the {@link PermissionIndex})</li>
+ * <li>checking each held permission with {@link PermissionImpl#implies(org.apache.shiro.authz.Permission)}</li>
+ * <li>looking the permission up in the {@link PermissionIndex}</li>
+ * </ul>
+ * The required permission is granted by the last held permission, so the linear checks go through all of them.<br>
+ * Run it through the {@link #main(String[])} method (it's not executed by the unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionIndexBenchmark {
+
+    private static final int DOMAINS = 20;
+    private static final int SCOPES = 20;
+
+    private List<PermissionImpl> permissions;
+    private PermissionIndex permissionIndex;
+    private PermissionImpl required;
+    private PermissionImpl requiredAnyScope;
+    private WildcardPermission requiredWildcard;
+
+    @Setup
+    public void setup() {
+        permissions = new ArrayList<>();
+        for (int scope = 1; scope <= SCOPES; scope++) {
+            for (int domain = 0; domain < DOMAINS; domain++) {
+                permissions.add(new PermissionImpl("domain" + domain, Actions.values()[domain % Actions.values().length], new KapuaEid(BigInteger.valueOf(scope)), null));
+            }
+        }
+        PermissionImpl last = permissions.get(permissions.size() - 1);
+        permissionIndex = new PermissionIndex(permissions);
+        required = new PermissionImpl(last.getDomain(), last.getAction(), last.getTargetScopeId(), new KapuaEid(BigInteger.TEN));
+        requiredAnyScope = new PermissionImpl(last.getDomain(), last.getAction(), KapuaId.ANY, null);
+        requiredWildcard = new WildcardPermission(required.toString());
+    }
+
+    @Benchmark
+    public boolean wildcardPermissions() {
+        for (PermissionImpl permission : permissions) {
+            if (new WildcardPermission(permission.toString()).implies(requiredWildcard)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean permissionImplies() {
+        for (PermissionImpl permission : permissions) {
+            if (permission.implies(required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean permissionIndex() {
+        return permissionIndex.implies(required);
+    }
+
+    @Benchmark
+    public boolean permissionIndexAnyScope() {
+        return permissionIndex.implies(requiredAnyScope);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
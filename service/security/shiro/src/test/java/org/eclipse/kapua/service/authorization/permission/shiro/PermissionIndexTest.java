@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class PermissionIndexTest extends Assert {
+
+    private static final KapuaId SCOPE_1 = new KapuaEid(BigInteger.ONE);
+    private static final KapuaId SCOPE_2 = new KapuaEid(BigInteger.valueOf(2));
+    private static final KapuaId GROUP_1 = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId GROUP_2 = new KapuaEid(BigInteger.valueOf(20));
+
+    @Test
+    public void shouldMatchAsWildcardPermissions() {
+        List<PermissionImpl> held = Arrays.asList(
+                new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_1),
+                new PermissionImpl("user", null, SCOPE_1, null),
+                new PermissionImpl(null, Actions.write, null, GROUP_2),
+                new PermissionImpl("Account", Actions.delete, SCOPE_2, null));
+        List<PermissionImpl> required = Arrays.asList(
+                new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_1),
+                new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_2),
+                new PermissionImpl("device", Actions.read, SCOPE_2, GROUP_1),
+                new PermissionImpl("device", Actions.read, SCOPE_1, null),
+                new PermissionImpl("device", Actions.write, SCOPE_1, GROUP_1),
+                new PermissionImpl("device", Actions.write, SCOPE_2, GROUP_2),
+                new PermissionImpl("user", Actions.connect, SCOPE_1, GROUP_2),
+                new PermissionImpl("user", null, SCOPE_1, null),
+                new PermissionImpl("user", Actions.read, SCOPE_2, null),
+                new PermissionImpl(null, Actions.write, SCOPE_2, GROUP_2),
+                new PermissionImpl(null, Actions.read, SCOPE_1, GROUP_1),
+                new PermissionImpl("account", Actions.delete, SCOPE_2, GROUP_1),
+                new PermissionImpl("ACCOUNT", Actions.delete, SCOPE_1, GROUP_1));
+
+        PermissionIndex permissionIndex = new PermissionIndex(held);
+        for (PermissionImpl requiredPermission : required) {
+            boolean expected = false;
+            for (PermissionImpl heldPermission : held) {
+                expected |= new WildcardPermission(heldPermission.toString()).implies(new WildcardPermission(requiredPermission.toString()));
+            }
+            assertEquals(requiredPermission.toString(), expected, permissionIndex.implies(requiredPermission));
+
+            boolean implied = false;
+            for (PermissionImpl heldPermission : held) {
+                implied |= heldPermission.implies(requiredPermission);
+            }
+            assertEquals(requiredPermission.toString(), expected, implied);
+        }
+    }
+
+    @Test
+    public void shouldMatchAnyScopeAndGroup() {
+        PermissionImpl held = new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_1);
+        PermissionIndex permissionIndex = new PermissionIndex(Collections.singleton(held));
+        KapuaId anyGroup = new KapuaEid(BigInteger.ONE.negate());
+
+        assertTrue(permissionIndex.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, GROUP_1)));
+        assertTrue(permissionIndex.implies(new PermissionImpl("device", Actions.read, SCOPE_1, anyGroup)));
+        assertTrue(permissionIndex.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, anyGroup)));
+        assertFalse(permissionIndex.implies(new PermissionImpl("device", Actions.write, KapuaId.ANY, anyGroup)));
+
+        assertTrue(held.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, anyGroup)));
+        assertFalse(held.implies(new PermissionImpl("device", Actions.write, KapuaId.ANY, anyGroup)));
+    }
+
+    @Test
+    public void shouldNotChangeTheHeldPermission() {
+        PermissionImpl held = new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_1);
+        KapuaId anyGroup = new KapuaEid(BigInteger.ONE.negate());
+
+        assertTrue(held.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, anyGroup)));
+
+        assertEquals(SCOPE_1, held.getTargetScopeId());
+        assertEquals(GROUP_1, held.getGroupId());
+        assertFalse(held.implies(new PermissionImpl("device", Actions.read, SCOPE_2, GROUP_1)));
+        assertFalse(held.implies(new PermissionImpl("device", Actions.read, SCOPE_1, GROUP_2)));
+    }
+
+    @Test
+    public void shouldParseTheAncestors() {
+        assertEquals(new HashSet<>(Arrays.asList(BigInteger.ONE, BigInteger.valueOf(5))), AccountAncestry.parseAncestors("/1/5/7"));
+        assertEquals(Collections.emptySet(), AccountAncestry.parseAncestors("/1"));
+        assertEquals(Collections.emptySet(), AccountAncestry.parseAncestors(""));
+        assertEquals(Collections.emptySet(), AccountAncestry.parseAncestors(null));
+    }
+
+}
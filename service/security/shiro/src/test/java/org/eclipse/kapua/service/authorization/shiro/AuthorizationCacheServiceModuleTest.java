@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.Cache;
+import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.jpa.EntityCache;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+@Category(JUnitTests.class)
+public class AuthorizationCacheServiceModuleTest extends Assert {
+
+    private static final String USER_KEY = new KapuaEid(BigInteger.valueOf(20)).toCompactId();
+
+    private final AuthorizationCacheServiceModule serviceModule = new AuthorizationCacheServiceModule();
+
+    private KapuaAuthorizingRealm realm;
+    private Cache<Object, AuthorizationInfo> authorizationCache;
+
+    @Before
+    public void setUp() throws Exception {
+        realm = new KapuaAuthorizingRealm();
+        realm.setCacheManager(new KapuaCacheManager());
+        authorizationCache = realm.getAuthorizationCache();
+    }
+
+    @Test
+    public void shouldEvictOnTheRemoteAccessChanges() {
+        for (String entityType : Arrays.asList("AccessInfo", "AccessPermission", "AccessRole", "Role", "RolePermission")) {
+            authorizationCache.put(USER_KEY, new SimpleAuthorizationInfo());
+
+            serviceModule.received(changeEvent(entityType));
+
+            assertNull(entityType, authorizationCache.get(USER_KEY));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTheOtherEvents() {
+        authorizationCache.put(USER_KEY, new SimpleAuthorizationInfo());
+
+        ServiceEvent otherOperation = changeEvent("AccessInfo");
+        otherOperation.setOperation("create");
+        serviceModule.received(otherOperation);
+        serviceModule.received(changeEvent("Device"));
+
+        assertNotNull(authorizationCache.get(USER_KEY));
+    }
+
+    @Test
+    public void shouldRequireTheNodeName() throws Exception {
+        assertEquals("entity_cache-node1-authorization", AuthorizationCacheServiceModule.subscriptionName("entity_cache", "node1"));
+        try {
+            AuthorizationCacheServiceModule.subscriptionName("entity_cache", null);
+            fail("The subscription should require the node name");
+        } catch (KapuaIllegalNullArgumentException e) {
+            assertTrue(e.getMessage().contains("commons.cache.entity.node_name"));
+        }
+    }
+
+    private static ServiceEvent changeEvent(String entityType) {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setOperation(EntityCache.INVALIDATE_OPERATION);
+        serviceEvent.setEntityType(entityType);
+        serviceEvent.setScopeId(KapuaEid.ONE);
+        serviceEvent.setEntityId(new KapuaEid(BigInteger.valueOf(40)));
+        serviceEvent.setNote("another process");
+        return serviceEvent;
+    }
+
+}
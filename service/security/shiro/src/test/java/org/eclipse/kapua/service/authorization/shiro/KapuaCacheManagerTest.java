@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.Cache;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.codahale.metrics.Counter;
+
+@Category(JUnitTests.class)
+public class KapuaCacheManagerTest extends Assert {
+
+    @Test
+    public void shouldCacheAndInvalidate() {
+        KapuaCacheManager cacheManager = new KapuaCacheManager();
+        Cache<String, AuthorizationInfo> cache = cacheManager.getCache("testCache");
+        AuthorizationInfo authorizationInfo = new SimpleAuthorizationInfo();
+
+        assertNull(cache.put("user1", authorizationInfo));
+        cache.put("user2", new SimpleAuthorizationInfo());
+        assertSame(authorizationInfo, cache.get("user1"));
+        assertEquals(2, cache.size());
+
+        assertSame(authorizationInfo, cache.remove("user1"));
+        assertNull(cache.get("user1"));
+        assertEquals(1, cache.keys().size());
+
+        cache.clear();
+        assertNull(cache.get("user2"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldShareTheCacheByName() {
+        KapuaCacheManager cacheManager = new KapuaCacheManager();
+
+        assertSame(cacheManager.getCache("sharedCache"), cacheManager.getCache("sharedCache"));
+        assertNotSame(cacheManager.getCache("sharedCache"), cacheManager.getCache("otherCache"));
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        Cache<String, AuthorizationInfo> cache = new KapuaCacheManager().getCache("metricCache");
+        Counter hit = MetricServiceFactory.getInstance().getCounter("authorization", "cache", "metricCache", "hit", "count");
+        Counter miss = MetricServiceFactory.getInstance().getCounter("authorization", "cache", "metricCache", "miss", "count");
+        long hitCount = hit.getCount();
+        long missCount = miss.getCount();
+
+        cache.get("user1");
+        cache.put("user1", new SimpleAuthorizationInfo());
+        cache.get("user1");
+
+        assertEquals(hitCount + 1, hit.getCount());
+        assertEquals(missCount + 1, miss.getCount());
+    }
+
+}
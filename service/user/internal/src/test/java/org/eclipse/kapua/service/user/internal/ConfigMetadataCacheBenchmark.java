@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.user.internal;
+
+import org.eclipse.kapua.commons.configuration.ConfigMetadataCache;
+import org.eclipse.kapua.commons.configuration.StringUtil;
+import org.eclipse.kapua.commons.util.ResourceUtils;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.model.config.metatype.KapuaTad;
+import org.eclipse.kapua.model.config.metatype.KapuaTmetadata;
+import org.eclipse.kapua.model.config.metatype.KapuaTocd;
+import org.eclipse.kapua.service.user.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per call cost of the {@link UserService} configuration values conversion reading the metadata each time (as the configurable services did before the
+ * {@link ConfigMetadataCache}) with the cached one.<br>
+ * Run it through the {@link #main(String[])} method (it's not executed by the unit tests) with a locator configuration providing the {@code KapuaMetatypeFactory},
+ * {@code UserFactory} and {@code KapuaIdFactory} implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigMetadataCacheBenchmark {
+
+    private static final String PID = UserService.class.getName();
+
+    private Properties properties;
+
+    @Setup
+    public void setup() {
+        XmlUtil.setContextProvider(new UsersJAXBContextProvider());
+        properties = new Properties();
+        properties.setProperty("maxNumberChildEntities", "42");
+    }
+
+    @Benchmark
+    public Map<String, Object> readMetadata() throws Exception {
+        KapuaTmetadata metadata = XmlUtil.unmarshal(ResourceUtils.openAsReader(ResourceUtils.getResource(String.format("META-INF/metatypes/%s.xml", PID)), StandardCharsets.UTF_8),
+                KapuaTmetadata.class);
+        KapuaTocd ocd = metadata.getOCD().get(0);
+        Map<String, Object> values = new HashMap<>();
+        for (KapuaTad ad : ocd.getAD()) {
+            values.put(ad.getId(), StringUtil.stringToValue(ad.getType().value(), properties.getProperty(ad.getId(), ad.getDefault())));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public Map<String, Object> cachedMetadata() throws Exception {
+        return ConfigMetadataCache.getInstance().get(PID).toValues(properties);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConfigMetadataCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
@@ -11,8 +11,10 @@
  *******************************************************************************/
 package org.eclipse.kapua.test.device;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.kapua.KapuaException;
@@ -42,6 +44,15 @@ public class DeviceRegistryServiceMock implements DeviceRegistryService {
         return device;
     }
 
+    @Override
+    public List<Device> createAll(List<DeviceCreator> creators) throws KapuaException {
+        List<Device> devices = new ArrayList<>();
+        for (DeviceCreator creator : creators) {
+            devices.add(create(creator));
+        }
+        return devices;
+    }
+
     @Override
     public Device find(KapuaId scopeId, KapuaId entityId) throws KapuaException {
         if (!deviceRegistry.containsKey(entityId)) {
@@ -83,6 +94,15 @@ public class DeviceRegistryServiceMock implements DeviceRegistryService {
         return device;
     }
 
+    @Override
+    public List<Device> updateAll(List<Device> entities) throws KapuaException {
+        List<Device> devices = new ArrayList<>();
+        for (Device entity : entities) {
+            devices.add(update(entity));
+        }
+        return devices;
+    }
+
     @Override
     public Device findByClientId(KapuaId scopeId, String clientId) throws KapuaException {
         Iterator<DeviceMock> devices = deviceRegistry.values().iterator();
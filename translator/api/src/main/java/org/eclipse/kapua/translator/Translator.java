@@ -19,8 +19,10 @@ import org.eclipse.kapua.message.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Translator base class. Translators are used to allow heterogeneous systems to exchange messages through layered messages domain.
@@ -42,27 +44,49 @@ public abstract class Translator<FROM_M extends Message, TO_M extends Message> {
 
     private static final ServiceLoader<Translator> AVAILABLE_TRANSLATORS = ServiceLoader.load(Translator.class);
 
+    // resolved translators by message from type and message to type
+    private static final Map<Class<?>, Map<Class<?>, Translator>> RESOLVED_TRANSLATORS = new ConcurrentHashMap<>();
+
     /**
      * Return a translator for the given messages classes.
      * <br>
-     * This method will lookup instances of Translator through {@link java.util.ServiceLoader}
+     * This method will lookup instances of Translator through {@link java.util.ServiceLoader}.<br>
+     * The translator resolved for the messages classes is kept, so the following lookups for the same messages classes don't scan (and lock) the available translators.
      *
      * @param fromMessageClass message from type
      * @param toMessageClass   message to type
      * @return
      * @throws KapuaException
      */
-    public static synchronized <FROM_M extends Message, TO_M extends Message, T extends Translator<FROM_M, TO_M>> T getTranslatorFor(Class<? extends FROM_M> fromMessageClass,
+    public static <FROM_M extends Message, TO_M extends Message, T extends Translator<FROM_M, TO_M>> T getTranslatorFor(Class<? extends FROM_M> fromMessageClass,
             Class<? extends TO_M> toMessageClass)
             throws KapuaException {
 
         Objects.requireNonNull(fromMessageClass);
         Objects.requireNonNull(toMessageClass);
 
+        Map<Class<?>, Translator> translatorsTo = RESOLVED_TRANSLATORS.get(fromMessageClass);
+        Translator translator = translatorsTo != null ? translatorsTo.get(toMessageClass) : null;
+        if (translator == null) {
+            translator = resolveTranslatorFor(fromMessageClass, toMessageClass);
+            RESOLVED_TRANSLATORS.computeIfAbsent(fromMessageClass, messageClass -> new ConcurrentHashMap<>()).putIfAbsent(toMessageClass, translator);
+        }
+        return (T) translator;
+    }
+
+    /**
+     * Scan the available translators for the given messages classes.<br>
+     * The {@link ServiceLoader} is not thread safe, so the scan is synchronized.
+     *
+     * @param fromMessageClass message from type
+     * @param toMessageClass   message to type
+     * @return
+     */
+    private static synchronized Translator resolveTranslatorFor(Class<?> fromMessageClass, Class<?> toMessageClass) {
         for (Translator translator : AVAILABLE_TRANSLATORS) {
             if ((fromMessageClass.isAssignableFrom(translator.getClassFrom())) &&
                     toMessageClass.isAssignableFrom(translator.getClassTo())) {
-                return (T) translator;
+                return translator;
             }
         }
 
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator;
+
+import org.eclipse.kapua.message.Message;
+
+/**
+ * Test messages and translators (registered in the test {@code META-INF/services})
+ */
+public class TestTranslators {
+
+    private TestTranslators() {
+    }
+
+    public static class MessageA implements Message {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class MessageB implements Message {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class MessageC implements Message {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class TranslatorAB extends Translator<MessageA, MessageB> {
+
+        @Override
+        public MessageB translate(MessageA message) {
+            return new MessageB();
+        }
+
+        @Override
+        public Class<MessageA> getClassFrom() {
+            return MessageA.class;
+        }
+
+        @Override
+        public Class<MessageB> getClassTo() {
+            return MessageB.class;
+        }
+    }
+
+    public static class TranslatorBC extends Translator<MessageB, MessageC> {
+
+        @Override
+        public MessageC translate(MessageB message) {
+            return new MessageC();
+        }
+
+        @Override
+        public Class<MessageB> getClassFrom() {
+            return MessageB.class;
+        }
+
+        @Override
+        public Class<MessageC> getClassTo() {
+            return MessageC.class;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.translator.TestTranslators.MessageB;
+import org.eclipse.kapua.translator.TestTranslators.MessageC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of the {@link Translator#getTranslatorFor(Class, Class)} lookup done concurrently by many threads (as the broker consumer threads do) with the
+ * synchronized scan of the available translators that was done before the resolved translators were kept.<br>
+ * Run it through the {@link #main(String[])} method (it's not executed by the unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TranslatorBenchmark {
+
+    private static final ServiceLoader<Translator> AVAILABLE_TRANSLATORS = ServiceLoader.load(Translator.class);
+
+    @Benchmark
+    public Translator synchronizedScan() {
+        synchronized (TranslatorBenchmark.class) {
+            for (Translator translator : AVAILABLE_TRANSLATORS) {
+                if (MessageB.class.isAssignableFrom(translator.getClassFrom()) && MessageC.class.isAssignableFrom(translator.getClassTo())) {
+                    return translator;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Translator getTranslatorFor() throws KapuaException {
+        return Translator.getTranslatorFor(MessageB.class, MessageC.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TranslatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
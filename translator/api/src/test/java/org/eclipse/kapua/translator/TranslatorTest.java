@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator;
+
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.message.Message;
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.eclipse.kapua.translator.TestTranslators.MessageA;
+import org.eclipse.kapua.translator.TestTranslators.MessageB;
+import org.eclipse.kapua.translator.TestTranslators.MessageC;
+import org.eclipse.kapua.translator.TestTranslators.TranslatorAB;
+import org.eclipse.kapua.translator.TestTranslators.TranslatorBC;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class TranslatorTest extends Assert {
+
+    @Test
+    public void shouldResolveTheTranslator() throws Exception {
+        Translator<MessageA, MessageB> translatorAB = Translator.getTranslatorFor(MessageA.class, MessageB.class);
+        Translator<MessageB, MessageC> translatorBC = Translator.getTranslatorFor(MessageB.class, MessageC.class);
+
+        assertTrue(translatorAB instanceof TranslatorAB);
+        assertTrue(translatorBC instanceof TranslatorBC);
+        assertSame(translatorAB, Translator.getTranslatorFor(MessageA.class, MessageB.class));
+        assertSame(translatorBC, Translator.getTranslatorFor(MessageB.class, MessageC.class));
+    }
+
+    @Test
+    public void shouldResolveTheTranslatorForTheSuperTypes() throws Exception {
+        Translator<Message, MessageC> translatorToC = Translator.getTranslatorFor(Message.class, MessageC.class);
+        Translator<MessageA, Message> translatorFromA = Translator.getTranslatorFor(MessageA.class, Message.class);
+
+        assertEquals(TranslatorBC.class, translatorToC.getClass());
+        assertEquals(TranslatorAB.class, translatorFromA.getClass());
+    }
+
+    @Test(expected = KapuaRuntimeException.class)
+    public void shouldFailForMissingTranslator() throws Exception {
+        Translator.getTranslatorFor(MessageA.class, MessageC.class);
+    }
+
+    @Test(expected = KapuaRuntimeException.class)
+    public void shouldFailAgainForMissingTranslator() throws Exception {
+        try {
+            Translator.getTranslatorFor(MessageC.class, MessageA.class);
+        } catch (KapuaRuntimeException e) {
+            // not resolved lookups are not kept
+        }
+        Translator.getTranslatorFor(MessageC.class, MessageA.class);
+    }
+
+}
@@ -12,15 +12,23 @@
  *******************************************************************************/
 package org.eclipse.kapua.translator.kura.kapua;
 
+import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.cache.IdentityResolutionCache;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaMessageFactory;
 import org.eclipse.kapua.message.KapuaPosition;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.DevicePosition;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 
 /**
  * Messages translator utilities.<br>
- * It provides helpful methods for translate position and response code.
+ * It provides helpful methods for translate position and response code and to resolve the scope and device identities.
  *
  * @since 1.0
  */
@@ -29,6 +37,44 @@ public final class TranslatorKuraKapuaUtils {
     private TranslatorKuraKapuaUtils() {
     }
 
+    /**
+     * Resolve the scope id of the account through the {@link IdentityResolutionCache}
+     *
+     * @param accountName
+     * @return
+     * @throws KapuaEntityNotFoundException
+     *             if the account doesn't exist
+     * @throws KapuaException
+     */
+    public static KapuaId getScopeId(String accountName) throws KapuaException {
+        KapuaId scopeId = IdentityResolutionCache.getInstance().getScopeId(accountName, () -> {
+            AccountService accountService = KapuaLocator.getInstance().getService(AccountService.class);
+            Account account = accountService.findByName(accountName);
+            return account != null ? account.getId() : null;
+        });
+
+        if (scopeId == null) {
+            throw new KapuaEntityNotFoundException(Account.TYPE, accountName);
+        }
+        return scopeId;
+    }
+
+    /**
+     * Resolve the device id of the client through the {@link IdentityResolutionCache}
+     *
+     * @param scopeId
+     * @param clientId
+     * @return the device id or null if the device doesn't exist
+     * @throws KapuaException
+     */
+    public static KapuaId getDeviceId(KapuaId scopeId, String clientId) throws KapuaException {
+        return IdentityResolutionCache.getInstance().getDeviceId(scopeId, clientId, () -> {
+            DeviceRegistryService deviceRegistryService = KapuaLocator.getInstance().getService(DeviceRegistryService.class);
+            Device device = deviceRegistryService.findByClientId(scopeId, clientId);
+            return device != null ? device.getId() : null;
+        });
+    }
+
     /**
      * Translate {@link DevicePosition} to {@link KapuaPosition}
      *
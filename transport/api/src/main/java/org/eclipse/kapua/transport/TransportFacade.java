@@ -16,6 +16,8 @@ import org.eclipse.kapua.transport.message.TransportChannel;
 import org.eclipse.kapua.transport.message.TransportMessage;
 import org.eclipse.kapua.transport.message.TransportPayload;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * API to use the Transport layer for the device communication.
  *
@@ -57,6 +59,24 @@ public interface TransportFacade<C extends TransportChannel, P extends Transport
     public void sendAsync(MQ message)
             throws KapuaException;
 
+    /**
+     * Send a request message to a device without blocking while waiting for the response.
+     * <p>
+     * The returned {@link CompletableFuture} completes with the response to the request message, or exceptionally with a {@link KapuaException}
+     * if the request cannot be sent or the timeout expires before the response is received.
+     * If the timeout is {@code null} the request will be fired without waiting for the response and the {@link CompletableFuture} completes with {@code null}.
+     * </p>
+     * <p>
+     * The requester of the request message must be the {@link #getClientId()} of this {@link TransportFacade}, to receive the response.
+     * </p>
+     *
+     * @param message The request message to send.
+     * @param timeout The timeout for the operation.
+     * @return The {@link CompletableFuture} of the response to the request message.
+     * @since 1.1.0
+     */
+    public CompletableFuture<MS> sendRequest(MQ message, Long timeout);
+
     //
     // Utilities
     //
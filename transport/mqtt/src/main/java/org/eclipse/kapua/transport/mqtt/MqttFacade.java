@@ -11,41 +11,33 @@
  *******************************************************************************/
 package org.eclipse.kapua.transport.mqtt;
 
-import org.eclipse.kapua.KapuaErrorCodes;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.transport.TransportFacade;
 import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
 import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
 import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
-import org.eclipse.kapua.transport.mqtt.pooling.MqttClientPool;
+import org.eclipse.kapua.transport.mqtt.request.MqttRequestConnection;
+import org.eclipse.kapua.transport.mqtt.request.MqttRequestDispatcher;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Implementation of {@link TransportFacade} API for MQTT transport facade.
+ * <p>
+ * Requests are multiplexed on the long-lived connections of the {@link MqttRequestDispatcher} of the node.
+ * </p>
  *
  * @since 1.0.0
  */
 public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttMessage, MqttMessage> {
 
     /**
-     * The client to use to make requests.
+     * The connection to use to make requests.
      *
-     * @since 1.0.0
+     * @since 1.1.0
      */
-    private MqttClient borrowedClient;
-
-    /**
-     * The client callback for this set of requests.
-     *
-     * @since 1.0.0
-     */
-    private MqttClientCallback mqttClientCallback;
-
-    private final String nodeUri;
+    private final MqttRequestConnection requestConnection;
 
     /**
      * Initialize a transport facade to be used to send requests to devices.
@@ -53,16 +45,7 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
      * @throws KapuaException When MQTT client is not available.
      */
     public MqttFacade(String nodeUri) throws KapuaException {
-        this.nodeUri = nodeUri;
-
-        //
-        // Get the client form the pool
-        try {
-            borrowedClient = MqttClientPool.getInstance(nodeUri).borrowObject();
-        } catch (Exception e) {
-            // FIXME use appropriate exception for this
-            throw new KapuaException(KapuaErrorCodes.INTERNAL_ERROR, e, (Object[]) null);
-        }
+        requestConnection = MqttRequestDispatcher.getInstance(nodeUri).nextConnection();
     }
 
     //
@@ -81,107 +64,40 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
     @Override
     public MqttMessage sendSync(MqttMessage mqttMessage, Long timeout)
             throws KapuaException {
-        List<MqttMessage> responses = new ArrayList<>();
-
-        sendInternal(mqttMessage, responses, timeout);
-
-        if (timeout != null) {
-            if (responses.isEmpty()) {
-                throw new MqttClientException(MqttClientErrorCodes.CLIENT_TIMEOUT_EXCEPTION, null, mqttMessage.getRequestTopic());
+        try {
+            return sendRequest(mqttMessage, timeout).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MqttClientException(MqttClientErrorCodes.CLIENT_CALLBACK_ERROR, e, (Object) null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KapuaException) {
+                throw (KapuaException) e.getCause();
             }
-
-            return responses.get(0);
-        } else {
-            return null;
+            throw new MqttClientException(MqttClientErrorCodes.SEND_ERROR, e.getCause(), mqttMessage.getRequestTopic().getTopic());
         }
     }
 
     /**
      * Actual implementation of the send operations.
      * <p>
-     * According to the parameters given, it will make a sync or async request.
+     * The request is sent on the {@link MqttRequestConnection} of this facade and correlated to its response by the response topic.
      * </p>
      *
      * @param mqttMessage The request to send.
-     * @param responses   The container in which load responses received from the device
      * @param timeout     The timeout of waiting the response from the device.
      *                    If {@code null} request will be fired without waiting for the response.
      *                    If mqttMessage has no response message set, timeout will be ignore even if set.
-     * @throws KapuaException
      * @see MqttMessage#getResponseTopic()
-     * @since 1.0.0.
+     * @since 1.1.0
      */
-    private void sendInternal(MqttMessage mqttMessage, List<MqttMessage> responses, Long timeout)
-            throws KapuaException {
-        try {
-            //
-            // Subscribe if necessary
-            if (mqttMessage.getResponseTopic() != null) {
-                try {
-                    mqttClientCallback = new MqttClientCallback(responses);
-                    borrowedClient.setCallback(mqttClientCallback);
-                    borrowedClient.subscribe(mqttMessage.getResponseTopic());
-                } catch (KapuaException e) {
-                    throw new MqttClientException(MqttClientErrorCodes.CLIENT_SUBSCRIBE_ERROR, e, mqttMessage.getResponseTopic().getTopic());
-                }
-            }
-
-            //
-            // Publish message
-            try {
-                borrowedClient.publish(mqttMessage);
-            } catch (KapuaException e) {
-                throw new MqttClientException(
-                        MqttClientErrorCodes.CLIENT_PUBLISH_ERROR,
-                        e,
-                        mqttMessage.getRequestTopic().getTopic(),
-                        mqttMessage.getPayload().getBody());
-            }
-
-            //
-            // Wait if required
-            if (mqttMessage.getResponseTopic() != null &&
-                    timeout != null) {
-                String timerName = new StringBuilder().append(MqttFacade.class.getSimpleName())
-                        .append("-TimeoutTimer-")
-                        .append(borrowedClient.getClientId())
-                        .toString();
-
-                Timer timeoutTimer = new Timer(timerName, true);
-
-                timeoutTimer.schedule(new TimerTask() {
-
-                    @Override
-                    public void run() {
-                        if (mqttMessage.getResponseTopic() != null) {
-                            synchronized (mqttClientCallback) {
-                                mqttClientCallback.notifyAll();
-                            }
-                        }
-                    }
-                }, timeout);
-
-                try {
-                    synchronized (mqttClientCallback) {
-                        mqttClientCallback.wait();
-                    }
-                } catch (InterruptedException e) {
-                    Thread.interrupted();
-                    throw new MqttClientException(MqttClientErrorCodes.CLIENT_CALLBACK_ERROR, e, (Object) null);
-                } finally {
-                    timeoutTimer.cancel();
-                }
-            }
-        } catch (Exception e) {
-            throw new MqttClientException(MqttClientErrorCodes.SEND_ERROR,
-                    e,
-                    mqttMessage.getRequestTopic().getTopic());
-        }
+    @Override
+    public CompletableFuture<MqttMessage> sendRequest(MqttMessage mqttMessage, Long timeout) {
+        return requestConnection.send(mqttMessage, timeout);
     }
 
     @Override
     public String getClientId() {
-        return borrowedClient.getClientId();
+        return requestConnection.getClientId();
     }
 
     @Override
@@ -192,8 +108,6 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
     @Override
     public void clean() {
         //
-        // Return the client form the pool
-        MqttClientPool.getInstance(nodeUri).returnObject(borrowedClient);
-        borrowedClient = null;
+        // Nothing to clean, the connection is shared and long-lived
     }
 }
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt.request;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.MqttClient;
+import org.eclipse.kapua.transport.mqtt.MqttClientConnectionOptions;
+import org.eclipse.kapua.transport.mqtt.MqttClientErrorCodes;
+import org.eclipse.kapua.transport.mqtt.MqttClientException;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Long-lived {@link MqttClient} connection of the {@link MqttRequestDispatcher}.
+ * <p>
+ * The clientId of the connection is the requester clientId of the requests sent on it, so the response topics of the requests
+ * contain it and all of them are matched by the same wildcard topic filter, subscribed only once.
+ * The pending requests are correlated to the responses received by the response topic.
+ * </p>
+ * <p>
+ * If the connection is lost all the pending requests fail, and the connection is opened again (with the same clientId) on the next request.
+ * </p>
+ *
+ * @since 1.1.0
+ */
+public class MqttRequestConnection implements MqttCallback {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MqttRequestConnection.class);
+
+    private final String nodeUri;
+    private final String clientId;
+    private final ScheduledExecutorService timeoutTimer;
+    private final Executor completionExecutor;
+    private final Supplier<MqttClient> mqttClientSupplier;
+
+    private final Map<String, CompletableFuture<MqttMessage>> pendingRequests = new ConcurrentHashMap<>();
+    private final Set<String> subscribedTopicFilters = ConcurrentHashMap.newKeySet();
+
+    // guarded by this
+    private MqttClient mqttClient;
+
+    MqttRequestConnection(String nodeUri, String clientId, ScheduledExecutorService timeoutTimer, Executor completionExecutor) {
+        this(nodeUri, clientId, timeoutTimer, completionExecutor, MqttClient::new);
+    }
+
+    MqttRequestConnection(String nodeUri, String clientId, ScheduledExecutorService timeoutTimer, Executor completionExecutor, Supplier<MqttClient> mqttClientSupplier) {
+        this.nodeUri = nodeUri;
+        this.clientId = clientId;
+        this.timeoutTimer = timeoutTimer;
+        this.completionExecutor = completionExecutor;
+        this.mqttClientSupplier = mqttClientSupplier;
+    }
+
+    /**
+     * Gets the clientId of this connection.
+     * <p>
+     * It must be set as the requester clientId of the requests sent on this connection.
+     * </p>
+     *
+     * @return The clientId of this connection.
+     * @since 1.1.0
+     */
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Sends the request on this connection.
+     * <p>
+     * If the timeout is {@code null} or the request has no response topic, the request is fired without waiting for the response
+     * and the returned {@link CompletableFuture} completes with {@code null} once it has been published.
+     * Otherwise the returned {@link CompletableFuture} completes with the response, or exceptionally with a {@link MqttClientException}
+     * if the timeout expires before the response is received.
+     * </p>
+     * <p>
+     * The returned {@link CompletableFuture} is never completed on the calling thread or on the thread of the {@link MqttClient}.
+     * </p>
+     *
+     * @param mqttMessage The request to send.
+     * @param timeout     The timeout of waiting the response from the device.
+     * @return The {@link CompletableFuture} of the response.
+     * @since 1.1.0
+     */
+    public CompletableFuture<MqttMessage> send(MqttMessage mqttMessage, Long timeout) {
+        CompletableFuture<MqttMessage> response = new CompletableFuture<>();
+
+        MqttTopic responseTopic = timeout != null ? mqttMessage.getResponseTopic() : null;
+        try {
+            MqttClient connectedClient = getConnectedClient();
+
+            //
+            // Register the pending request before publishing, the response can be received before publish returns
+            if (responseTopic != null) {
+                subscribe(connectedClient, responseTopic);
+
+                if (pendingRequests.putIfAbsent(responseTopic.getTopic(), response) != null) {
+                    throw new MqttClientException(MqttClientErrorCodes.CLIENT_SUBSCRIBE_ERROR, null, responseTopic.getTopic());
+                }
+
+                ScheduledFuture<?> timeoutTask = timeoutTimer.schedule(() -> {
+                    if (pendingRequests.remove(responseTopic.getTopic(), response)) {
+                        complete(response, null, new MqttClientException(MqttClientErrorCodes.CLIENT_TIMEOUT_EXCEPTION, null, mqttMessage.getRequestTopic()));
+                    }
+                }, timeout, TimeUnit.MILLISECONDS);
+                response.whenComplete((r, t) -> timeoutTask.cancel(false));
+            }
+
+            //
+            // Publish message
+            try {
+                connectedClient.publish(mqttMessage);
+            } catch (KapuaException e) {
+                throw new MqttClientException(
+                        MqttClientErrorCodes.CLIENT_PUBLISH_ERROR,
+                        e,
+                        mqttMessage.getRequestTopic().getTopic(),
+                        mqttMessage.getPayload().getBody());
+            }
+
+            if (responseTopic == null) {
+                complete(response, null, null);
+            }
+        } catch (KapuaException e) {
+            if (responseTopic != null) {
+                pendingRequests.remove(responseTopic.getTopic(), response);
+            }
+            complete(response, null, new MqttClientException(MqttClientErrorCodes.SEND_ERROR, e, mqttMessage.getRequestTopic().getTopic()));
+        }
+
+        return response;
+    }
+
+    /**
+     * Completes the pending request of the response received, if any.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void messageArrived(String stringTopic, org.eclipse.paho.client.mqttv3.MqttMessage message) {
+        CompletableFuture<MqttMessage> response = pendingRequests.remove(stringTopic);
+
+        if (response != null) {
+            complete(response, new MqttMessage(new MqttTopic(stringTopic), new Date(), new MqttPayload(message.getPayload())), null);
+        } else {
+            LOG.debug("Received response on {} with no pending request. Maybe timed out.", stringTopic);
+        }
+    }
+
+    /**
+     * Implements the API signature {@link MqttCallback#deliveryComplete(IMqttDeliveryToken)} with an empty method
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+    }
+
+    /**
+     * Fails all the pending requests of this connection.
+     * <p>
+     * The connection is opened again on the next request.
+     * </p>
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void connectionLost(Throwable cause) {
+        LOG.warn("Connection {} to {} lost. Failing {} pending requests.", clientId, nodeUri, pendingRequests.size(), cause);
+
+        synchronized (this) {
+            subscribedTopicFilters.clear();
+        }
+
+        for (String responseTopic : pendingRequests.keySet()) {
+            CompletableFuture<MqttMessage> response = pendingRequests.remove(responseTopic);
+            if (response != null) {
+                complete(response, null, new MqttClientException(MqttClientErrorCodes.CLIENT_CONNECTION_LOST, cause, (Object[]) null));
+            }
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    private void complete(CompletableFuture<MqttMessage> response, MqttMessage mqttMessage, KapuaException exception) {
+        completionExecutor.execute(() -> {
+            if (exception != null) {
+                response.completeExceptionally(exception);
+            } else {
+                response.complete(mqttMessage);
+            }
+        });
+    }
+
+    private synchronized MqttClient getConnectedClient() throws KapuaException {
+        if (mqttClient != null && mqttClient.isConnected()) {
+            return mqttClient;
+        }
+
+        if (mqttClient != null) {
+            try {
+                mqttClient.terminateClient();
+            } catch (KapuaException e) {
+                LOG.warn("Error while terminating connection {} to {}", clientId, nodeUri, e);
+            }
+            mqttClient = null;
+        }
+        subscribedTopicFilters.clear();
+
+        MqttClientSetting mqttClientSettings = MqttClientSetting.getInstance();
+
+        MqttClientConnectionOptions connectionOptions = new MqttClientConnectionOptions();
+        connectionOptions.setClientId(clientId);
+        connectionOptions.setUsername(mqttClientSettings.getString(MqttClientSettingKeys.TRANSPORT_CREDENTIAL_USERNAME));
+        connectionOptions.setPassword(mqttClientSettings.getString(MqttClientSettingKeys.TRANSPORT_CREDENTIAL_PASSWORD).toCharArray());
+        connectionOptions.setEndpointURI(URI.create(nodeUri));
+
+        MqttClient newClient = mqttClientSupplier.get();
+        newClient.connectClient(connectionOptions);
+        newClient.setCallback(this);
+
+        mqttClient = newClient;
+        return mqttClient;
+    }
+
+    private void subscribe(MqttClient connectedClient, MqttTopic responseTopic) throws KapuaException {
+        String topicFilter = getResponseTopicFilter(responseTopic.getTopic());
+
+        if (subscribedTopicFilters.contains(topicFilter)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!subscribedTopicFilters.contains(topicFilter)) {
+                connectedClient.subscribe(new MqttTopic(topicFilter));
+                subscribedTopicFilters.add(topicFilter);
+            }
+        }
+    }
+
+    /**
+     * Gets the wildcard topic filter that matches the given response topic and all the other responses addressed to this connection.
+     * <p>
+     * The first level (i.e. the message classification) and the clientId level are kept, the levels in between are single-level wildcards
+     * and the levels after the clientId are matched by a multi-level wildcard.
+     * </p>
+     * <p>
+     * For example {@code $EDC/account/KapuaRequest-1/DEPLOY-V2/REPLY/1234} is matched by {@code $EDC/+/KapuaRequest-1/#}.
+     * </p>
+     *
+     * @param responseTopic The response topic.
+     * @return The wildcard topic filter.
+     * @throws MqttClientException If the response topic does not contain the clientId of this connection.
+     */
+    private String getResponseTopicFilter(String responseTopic) throws MqttClientException {
+        String separator = MqttClientSetting.getInstance().getString(MqttClientSettingKeys.TRANSPORT_TOPIC_SEPARATOR);
+        String[] topicLevels = responseTopic.split(Pattern.quote(separator));
+
+        for (int i = 0; i < topicLevels.length; i++) {
+            if (clientId.equals(topicLevels[i])) {
+                StringBuilder topicFilter = new StringBuilder();
+                for (int j = 0; j < i; j++) {
+                    topicFilter.append(j == 0 ? topicLevels[j] : "+").append(separator);
+                }
+                return topicFilter.append(clientId).append(separator).append("#").toString();
+            }
+        }
+
+        // The response would never be received
+        throw new MqttClientException(MqttClientErrorCodes.CLIENT_SUBSCRIBE_ERROR, null, responseTopic);
+    }
+}
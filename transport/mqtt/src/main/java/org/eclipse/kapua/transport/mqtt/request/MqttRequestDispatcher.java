@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt.request;
+
+import org.eclipse.kapua.transport.mqtt.MqttClient;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
+import org.eclipse.kapua.transport.utils.ClientIdGenerator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplexes the requests to the devices connected to a node on a few long-lived {@link MqttRequestConnection}s.
+ * <p>
+ * Each {@link MqttRequestConnection} subscribes once to a wildcard topic matching all the responses addressed to its clientId
+ * and correlates each response to its pending request by the response topic, which is unique for each request since it contains the request id.
+ * The timeouts of the pending requests of all the nodes are tracked by a single shared timer.
+ * </p>
+ * <p>
+ * This avoids borrowing a {@link MqttClient}, subscribing and unsubscribing for each request, so thousands of requests can be in flight on the same connections.
+ * </p>
+ *
+ * @since 1.1.0
+ */
+public class MqttRequestDispatcher {
+
+    private static final Map<String, MqttRequestDispatcher> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final ScheduledThreadPoolExecutor TIMEOUT_TIMER;
+    private static final ExecutorService COMPLETION_EXECUTOR;
+
+    static {
+        MqttClientSetting mqttClientSettings = MqttClientSetting.getInstance();
+
+        TIMEOUT_TIMER = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("MqttRequestDispatcher-TimeoutTimer-"));
+        TIMEOUT_TIMER.setRemoveOnCancelPolicy(true);
+
+        COMPLETION_EXECUTOR = Executors.newFixedThreadPool(
+                mqttClientSettings.getInt(MqttClientSettingKeys.REQUEST_COMPLETION_THREADS, 8),
+                daemonThreadFactory("MqttRequestDispatcher-Completion-"));
+    }
+
+    private final MqttRequestConnection[] connections;
+    private final AtomicInteger nextConnectionIndex = new AtomicInteger();
+
+    private MqttRequestDispatcher(String nodeUri) {
+        MqttClientSetting mqttClientSettings = MqttClientSetting.getInstance();
+
+        String clientIdPrefix = mqttClientSettings.getString(MqttClientSettingKeys.REQUEST_CLIENT_ID_PREFIX, "KapuaRequest");
+        int connectionCount = Math.max(1, mqttClientSettings.getInt(MqttClientSettingKeys.REQUEST_CONNECTIONS, 4));
+
+        connections = new MqttRequestConnection[connectionCount];
+        for (int i = 0; i < connectionCount; i++) {
+            connections[i] = new MqttRequestConnection(nodeUri, ClientIdGenerator.getInstance().next(clientIdPrefix), TIMEOUT_TIMER, COMPLETION_EXECUTOR);
+        }
+    }
+
+    /**
+     * Gets the {@link MqttRequestDispatcher} of the given node.
+     *
+     * @param nodeUri The URI of the node.
+     * @return The {@link MqttRequestDispatcher} of the given node.
+     * @since 1.1.0
+     */
+    public static MqttRequestDispatcher getInstance(String nodeUri) {
+        return INSTANCES.computeIfAbsent(nodeUri, MqttRequestDispatcher::new);
+    }
+
+    /**
+     * Gets the {@link MqttRequestConnection} on which to send the next request, in round robin.
+     * <p>
+     * The {@link MqttRequestConnection} connects on the first request sent, so getting it never fails.
+     * </p>
+     *
+     * @return The {@link MqttRequestConnection} on which to send the next request.
+     * @since 1.1.0
+     */
+    public MqttRequestConnection nextConnection() {
+        return connections[Math.floorMod(nextConnectionIndex.getAndIncrement(), connections.length)];
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
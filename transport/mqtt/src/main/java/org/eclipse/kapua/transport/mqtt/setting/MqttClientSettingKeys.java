@@ -54,6 +54,27 @@ public enum MqttClientSettingKeys implements SettingKey {
      * @since 1.0.0
      */
     SEND_TIMEOUT_MAX("send.timeout.max"),
+
+    /**
+     * The prefix of the clientId of the connections on which the requests are multiplexed.
+     *
+     * @since 1.1.0
+     */
+    REQUEST_CLIENT_ID_PREFIX("request.client.id.prefix"),
+
+    /**
+     * The number of connections on which the requests to the devices connected to a node are multiplexed.
+     *
+     * @since 1.1.0
+     */
+    REQUEST_CONNECTIONS("request.connections"),
+
+    /**
+     * The number of threads that complete the requests with the responses received (or the timeouts).
+     *
+     * @since 1.1.0
+     */
+    REQUEST_COMPLETION_THREADS("request.completion.threads"),
     ;
 
     /**
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt.request;
+
+import org.eclipse.kapua.test.junit.JUnitTests;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.MqttClient;
+import org.eclipse.kapua.transport.mqtt.MqttClientConnectionOptions;
+import org.eclipse.kapua.transport.mqtt.MqttClientErrorCodes;
+import org.eclipse.kapua.transport.mqtt.MqttClientException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Category(JUnitTests.class)
+public class MqttRequestConnectionTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private static final String CLIENT_ID = "KapuaRequest-1";
+    private static final String RESPONSE_TOPIC_FILTER = "$EDC/+/" + CLIENT_ID + "/#";
+    private static final String COMPLETION_THREAD_NAME = "completion";
+
+    private ScheduledExecutorService timeoutTimer;
+    private ExecutorService completionExecutor;
+
+    private final List<MqttClient> mqttClients = new ArrayList<>();
+    private MqttRequestConnection connection;
+
+    @Before
+    public void setUp() {
+        timeoutTimer = Executors.newSingleThreadScheduledExecutor();
+        completionExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, COMPLETION_THREAD_NAME));
+
+        connection = new MqttRequestConnection("tcp://localhost:1883", CLIENT_ID, timeoutTimer, completionExecutor, () -> {
+            MqttClient mqttClient = Mockito.mock(MqttClient.class);
+            Mockito.when(mqttClient.isConnected()).thenReturn(true);
+            mqttClients.add(mqttClient);
+            return mqttClient;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        timeoutTimer.shutdownNow();
+        completionExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testResponseCorrelation() throws Exception {
+        CompletableFuture<MqttMessage> firstResponse = connection.send(newRequest("1"), TIMEOUT);
+        CompletableFuture<MqttMessage> secondResponse = connection.send(newRequest("2"), TIMEOUT);
+
+        // a single connection and a single subscription for all the requests
+        Assert.assertEquals(1, mqttClients.size());
+        MqttClient mqttClient = mqttClients.get(0);
+        ArgumentCaptor<MqttClientConnectionOptions> optionsCaptor = ArgumentCaptor.forClass(MqttClientConnectionOptions.class);
+        Mockito.verify(mqttClient).connectClient(optionsCaptor.capture());
+        Assert.assertEquals(CLIENT_ID, optionsCaptor.getValue().getClientId());
+        Mockito.verify(mqttClient).setCallback(connection);
+        verifySubscribed(mqttClient);
+        Mockito.verify(mqttClient, Mockito.times(2)).publish(Matchers.any(MqttMessage.class));
+
+        connection.messageArrived(responseTopic("2"), newPahoMessage("second"));
+
+        MqttMessage response = secondResponse.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(responseTopic("2"), response.getRequestTopic().getTopic());
+        Assert.assertEquals("second", new String(response.getPayload().getBody(), StandardCharsets.UTF_8));
+        Assert.assertFalse(firstResponse.isDone());
+
+        connection.messageArrived(responseTopic("1"), newPahoMessage("first"));
+        Assert.assertEquals("first", new String(firstResponse.get(TIMEOUT, TimeUnit.MILLISECONDS).getPayload().getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testResponseTimeout() throws Exception {
+        CompletableFuture<MqttMessage> response = connection.send(newRequest("1"), 100L);
+
+        assertFailure(response, MqttClientErrorCodes.CLIENT_TIMEOUT_EXCEPTION);
+
+        // a late response is dropped
+        connection.messageArrived(responseTopic("1"), newPahoMessage("late"));
+    }
+
+    @Test
+    public void testCompletionOffClientThread() throws Exception {
+        CompletableFuture<MqttMessage> response = connection.send(newRequest("1"), TIMEOUT);
+
+        AtomicReference<Thread> completionThread = new AtomicReference<>();
+        CompletableFuture<Void> completed = response.thenAccept(r -> completionThread.set(Thread.currentThread()));
+
+        // the response is received on the thread of the MQTT client
+        connection.messageArrived(responseTopic("1"), newPahoMessage("response"));
+
+        completed.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(COMPLETION_THREAD_NAME, completionThread.get().getName());
+    }
+
+    @Test
+    public void testSendWithoutResponse() throws Exception {
+        Assert.assertNull(connection.send(newRequest("1"), null).get(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        MqttClient mqttClient = mqttClients.get(0);
+        Mockito.verify(mqttClient).publish(Matchers.any(MqttMessage.class));
+        Mockito.verify(mqttClient, Mockito.never()).subscribe(Matchers.any(MqttTopic.class));
+    }
+
+    @Test
+    public void testPublishFailure() throws Exception {
+        CompletableFuture<MqttMessage> firstResponse = connection.send(newRequest("1"), TIMEOUT);
+        Mockito.doThrow(new MqttClientException(MqttClientErrorCodes.CLIENT_PUBLISH_ERROR, null, (Object[]) null))
+                .when(mqttClients.get(0)).publish(Matchers.any(MqttMessage.class));
+
+        assertFailure(connection.send(newRequest("2"), TIMEOUT), MqttClientErrorCodes.SEND_ERROR);
+
+        // the failed request is no longer pending, the others are not affected
+        connection.messageArrived(responseTopic("2"), newPahoMessage("unexpected"));
+        Assert.assertFalse(firstResponse.isDone());
+    }
+
+    @Test
+    public void testConnectionLost() throws Exception {
+        CompletableFuture<MqttMessage> firstResponse = connection.send(newRequest("1"), TIMEOUT);
+        CompletableFuture<MqttMessage> secondResponse = connection.send(newRequest("2"), TIMEOUT);
+        MqttClient lostClient = mqttClients.get(0);
+
+        Mockito.when(lostClient.isConnected()).thenReturn(false);
+        connection.connectionLost(new Exception("Connection lost"));
+
+        assertFailure(firstResponse, MqttClientErrorCodes.CLIENT_CONNECTION_LOST);
+        assertFailure(secondResponse, MqttClientErrorCodes.CLIENT_CONNECTION_LOST);
+
+        // the next request connects and subscribes again
+        CompletableFuture<MqttMessage> thirdResponse = connection.send(newRequest("3"), TIMEOUT);
+
+        Assert.assertEquals(2, mqttClients.size());
+        Mockito.verify(lostClient).terminateClient();
+        MqttClient newClient = mqttClients.get(1);
+        Mockito.verify(newClient).connectClient(Matchers.any(MqttClientConnectionOptions.class));
+        verifySubscribed(newClient);
+
+        connection.messageArrived(responseTopic("3"), newPahoMessage("third"));
+        Assert.assertNotNull(thirdResponse.get(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    private static void verifySubscribed(MqttClient mqttClient) throws Exception {
+        ArgumentCaptor<MqttTopic> topicCaptor = ArgumentCaptor.forClass(MqttTopic.class);
+        Mockito.verify(mqttClient, Mockito.times(1)).subscribe(topicCaptor.capture());
+        Assert.assertEquals(RESPONSE_TOPIC_FILTER, topicCaptor.getValue().getTopic());
+    }
+
+    private static void assertFailure(CompletableFuture<MqttMessage> response, MqttClientErrorCodes errorCode) throws Exception {
+        try {
+            response.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            Assert.fail("The request should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof MqttClientException);
+            Assert.assertEquals(errorCode, ((MqttClientException) e.getCause()).getCode());
+        }
+    }
+
+    private static MqttMessage newRequest(String requestId) {
+        return new MqttMessage(
+                new MqttTopic("$EDC/account/device/DEPLOY-V2/GET/bundles"),
+                new MqttTopic(responseTopic(requestId)),
+                new MqttPayload("request".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String responseTopic(String requestId) {
+        return "$EDC/account/" + CLIENT_ID + "/DEPLOY-V2/REPLY/" + requestId;
+    }
+
+    private static org.eclipse.paho.client.mqttv3.MqttMessage newPahoMessage(String body) {
+        return new org.eclipse.paho.client.mqttv3.MqttMessage(body.getBytes(StandardCharsets.UTF_8));
+    }
+}